@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.jobs.management;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.process.impl.Sig;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Triggers many expired timers at once. Timers are grouped by process instance so each instance
+ * is loaded and stored once, in its own unit of work, and the instances are handled in parallel
+ * on the given executor.
+ * <p>
+ * The request waits for the instances at most for a timeout. The timers whose process instance
+ * was not reached by then answer 503 and are skipped, so the caller retries them instead of holding
+ * the request while the executor is busy, the ones being triggered answer 202.
+ */
+public class BatchTimerTrigger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchTimerTrigger.class);
+
+    static final int OK = 200;
+    static final int ACCEPTED = 202;
+    static final int BAD_REQUEST = 400;
+    static final int NOT_FOUND = 404;
+    static final int INTERNAL_SERVER_ERROR = 500;
+    static final int SERVICE_UNAVAILABLE = 503;
+
+    public static final String TIMEOUT_PROPERTY = "kogito.jobs.batch.timeout";
+    public static final long DEFAULT_TIMEOUT = 30000;
+
+    private final Processes processes;
+    private final UnitOfWorkManager unitOfWorkManager;
+    private final Executor executor;
+    private final long timeout;
+
+    public BatchTimerTrigger(Processes processes, UnitOfWorkManager unitOfWorkManager, Executor executor) {
+        this(processes, unitOfWorkManager, executor, Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT));
+    }
+
+    /**
+     * @param timeout how long in milliseconds a request waits for its timers to be triggered
+     */
+    public BatchTimerTrigger(Processes processes, UnitOfWorkManager unitOfWorkManager, Executor executor, long timeout) {
+        this.processes = processes;
+        this.unitOfWorkManager = unitOfWorkManager;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Triggers given timers and waits for all of them to be handled, at most for the timeout.
+     * @return the result of each timer, in the same order
+     */
+    public List<TimerTriggerResult> trigger(List<TimerTrigger> timers) {
+        Batch batch = new Batch(timers);
+        Map<String, Map<String, List<Integer>>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < timers.size(); i++) {
+            TimerTrigger timer = timers.get(i);
+            if (timer.getProcessId() == null || timer.getProcessInstanceId() == null || timerInstanceId(timer.getTimerId()) < 0) {
+                batch.complete(Collections.singletonList(i), BAD_REQUEST, "Process id, process instance id and a valid timer id must be given");
+            } else {
+                groups.computeIfAbsent(timer.getProcessId(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(timer.getProcessInstanceId(), k -> new ArrayList<>())
+                        .add(i);
+            }
+        }
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        groups.forEach((processId, instances) -> {
+            Process<?> process = processes.processById(processId);
+            instances.forEach((processInstanceId, indexes) -> {
+                if (process == null) {
+                    batch.complete(indexes, NOT_FOUND, "Process with id " + processId + " not found");
+                    return;
+                }
+                try {
+                    pending.add(CompletableFuture.runAsync(() -> trigger(process, processInstanceId, batch, indexes), executor));
+                } catch (RejectedExecutionException e) {
+                    batch.complete(indexes, SERVICE_UNAVAILABLE, "Too many timers being triggered, try again later");
+                }
+            });
+        });
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[pending.size()])).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.warn("Timers not triggered within {} ms, asking to retry the ones not started", timeout);
+        } catch (ExecutionException e) {
+            // failures are reported by each process instance
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return batch.finish();
+    }
+
+    private void trigger(Process<?> process, String processInstanceId, Batch batch, List<Integer> indexes) {
+        if (!batch.start(indexes)) {
+            // the request timed out before the process instance was reached, its timers are retried
+            return;
+        }
+        List<TimerTrigger> timers = batch.timers;
+        try {
+            boolean found = UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                Optional<? extends ProcessInstance<?>> processInstanceFound = process.instances().findById(processInstanceId);
+                if (!processInstanceFound.isPresent()) {
+                    return false;
+                }
+                ProcessInstance<?> processInstance = processInstanceFound.get();
+                for (Integer index : indexes) {
+                    TimerTrigger timer = timers.get(index);
+                    processInstance.send(Sig.of("timerTriggered", TimerInstance.with(timerInstanceId(timer.getTimerId()), timer.getTimerId(), timer.getLimit())));
+                }
+                return true;
+            });
+            // reported once the unit of work ended, so a request timing out never reports timers not stored yet
+            if (found) {
+                batch.complete(indexes, OK, null);
+            } else {
+                batch.complete(indexes, NOT_FOUND, "Process instance with id " + processInstanceId + " not found");
+            }
+        } catch (RuntimeException e) {
+            // the timers of an instance share its unit of work, so they all report its failure
+            LOGGER.error("Error triggering timers of process instance {}", processInstanceId, e);
+            batch.complete(indexes, INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Results of one request. Once the request stopped waiting, process instances not started yet
+     * are skipped and answered 503 so they are retried, while the ones already being triggered
+     * are answered 202 and complete in the background, so no timer fires twice.
+     */
+    private static class Batch {
+
+        private final List<TimerTrigger> timers;
+        private final TimerTriggerResult[] results;
+        private final boolean[] started;
+        private boolean finished;
+
+        private Batch(List<TimerTrigger> timers) {
+            this.timers = timers;
+            this.results = new TimerTriggerResult[timers.size()];
+            this.started = new boolean[timers.size()];
+        }
+
+        private synchronized boolean start(List<Integer> indexes) {
+            if (finished) {
+                return false;
+            }
+            indexes.forEach(index -> started[index] = true);
+            return true;
+        }
+
+        private synchronized void complete(List<Integer> indexes, int status, String message) {
+            if (!finished) {
+                for (Integer index : indexes) {
+                    results[index] = result(timers.get(index), status, message);
+                }
+            }
+        }
+
+        private synchronized List<TimerTriggerResult> finish() {
+            finished = true;
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = started[i] ? result(timers.get(i), ACCEPTED, "Timer is still being triggered")
+                            : result(timers.get(i), SERVICE_UNAVAILABLE, "Timer not triggered in time, try again later");
+                }
+            }
+            return Arrays.asList(results);
+        }
+    }
+
+    private static TimerTriggerResult result(TimerTrigger timer, int status, String message) {
+        return new TimerTriggerResult(timer.getTimerId(), status, message);
+    }
+
+    private static long timerInstanceId(String timerId) {
+        String[] ids = timerId != null ? timerId.split("_") : new String[0];
+        if (ids.length < 2) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(ids[1]);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -30,6 +30,11 @@ public abstract class RestJobsService implements JobsService {
     @SuppressWarnings("squid:S1075")
     public static final String JOBS_PATH = "/jobs";
 
+    /**
+     * Default time in milliseconds to wait for the jobs service to answer.
+     */
+    public static final long DEFAULT_TIMEOUT = 10000;
+
     private URI jobsServiceUri;
     private String callbackEndpoint;
 
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.jobs.management;
+
+/**
+ * An expired timer the jobs service calls back for, as sent to the batch callback endpoint.
+ */
+public class TimerTrigger {
+
+    private String processId;
+    private String processInstanceId;
+    private String timerId;
+    private Integer limit = 0;
+
+    public TimerTrigger() {
+    }
+
+    public TimerTrigger(String processId, String processInstanceId, String timerId, Integer limit) {
+        this.processId = processId;
+        this.processInstanceId = processInstanceId;
+        this.timerId = timerId;
+        this.limit = limit;
+    }
+
+    public String getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(String processId) {
+        this.processId = processId;
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public void setProcessInstanceId(String processInstanceId) {
+        this.processInstanceId = processInstanceId;
+    }
+
+    public String getTimerId() {
+        return timerId;
+    }
+
+    public void setTimerId(String timerId) {
+        this.timerId = timerId;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "TimerTrigger [processId=" + processId + ", processInstanceId=" + processInstanceId + ", timerId=" + timerId + ", limit=" + limit + "]";
+    }
+}
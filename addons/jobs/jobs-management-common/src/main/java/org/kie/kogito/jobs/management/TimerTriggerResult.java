@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.jobs.management;
+
+/**
+ * Outcome of one of the timers sent to the batch callback endpoint, with the HTTP status the
+ * single timer endpoint would have answered.
+ */
+public class TimerTriggerResult {
+
+    private String timerId;
+    private int status;
+    private String message;
+
+    public TimerTriggerResult() {
+    }
+
+    public TimerTriggerResult(String timerId, int status, String message) {
+        this.timerId = timerId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getTimerId() {
+        return timerId;
+    }
+
+    public void setTimerId(String timerId) {
+        this.timerId = timerId;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "TimerTriggerResult [timerId=" + timerId + ", status=" + status + ", message=" + message + "]";
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.jobs.management;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.process.Signal;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class BatchTimerTriggerTest {
+
+    private Processes processes;
+    private ProcessInstances instances;
+    private ProcessInstance processInstance;
+    private BatchTimerTrigger tested;
+
+    @BeforeEach
+    public void prepare() {
+        processes = mock(Processes.class);
+        Process process = mock(Process.class);
+        instances = mock(ProcessInstances.class);
+        processInstance = mock(ProcessInstance.class);
+        when(processes.processById("process")).thenReturn(process);
+        when(process.instances()).thenReturn(instances);
+        when(instances.findById("1")).thenReturn(Optional.of(processInstance));
+        when(instances.findById("2")).thenReturn(Optional.empty());
+
+        tested = new BatchTimerTrigger(processes, new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory()), Runnable::run);
+    }
+
+    @Test
+    public void testTimersAreGroupedByProcessInstance() {
+        List<TimerTriggerResult> results = tested.trigger(Arrays.asList(new TimerTrigger("process", "1", "a_1", 0),
+                                                                        new TimerTrigger("process", "2", "b_1", 0),
+                                                                        new TimerTrigger("process", "1", "c_2", 0),
+                                                                        new TimerTrigger("unknown", "1", "d_1", 0),
+                                                                        new TimerTrigger("process", "1", "invalid", 0)));
+
+        assertThat(results).extracting(TimerTriggerResult::getTimerId).containsExactly("a_1", "b_1", "c_2", "d_1", "invalid");
+        assertThat(results).extracting(TimerTriggerResult::getStatus).containsExactly(200, 404, 200, 404, 400);
+        verify(instances).findById("1");
+        verify(processInstance, times(2)).send(any(Signal.class));
+    }
+
+    @Test
+    public void testFailedProcessInstanceFailsItsTimers() {
+        doThrow(new IllegalStateException("broken")).when(processInstance).send(any(Signal.class));
+
+        List<TimerTriggerResult> results = tested.trigger(Arrays.asList(new TimerTrigger("process", "1", "a_1", 0),
+                                                                        new TimerTrigger("process", "1", "b_2", 0)));
+
+        assertThat(results).extracting(TimerTriggerResult::getStatus).containsExactly(500, 500);
+        assertThat(results.get(0).getMessage()).isEqualTo("broken");
+    }
+
+    @Test
+    public void testRejectedProcessInstancesAreUnavailable() {
+        tested = new BatchTimerTrigger(processes, new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory()), command -> {
+            throw new RejectedExecutionException();
+        });
+
+        List<TimerTriggerResult> results = tested.trigger(Arrays.asList(new TimerTrigger("process", "1", "a_1", 0),
+                                                                        new TimerTrigger("unknown", "1", "b_1", 0)));
+
+        assertThat(results).extracting(TimerTriggerResult::getStatus).containsExactly(503, 404);
+        verify(instances, never()).findById("1");
+    }
+
+    @Test
+    public void testTimersNotTriggeredInTimeAreUnavailable() {
+        List<Runnable> queued = new ArrayList<>();
+        tested = new BatchTimerTrigger(processes, new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory()), queued::add, 10);
+
+        List<TimerTriggerResult> results = tested.trigger(Arrays.asList(new TimerTrigger("process", "1", "a_1", 0),
+                                                                        new TimerTrigger("process", "1", "invalid", 0)));
+
+        assertThat(results).extracting(TimerTriggerResult::getStatus).containsExactly(503, 400);
+        // the queued process instance runs once the request timed out, it must not fire the timer the caller retries
+        queued.forEach(Runnable::run);
+        verify(instances, never()).findById("1");
+        assertThat(results).extracting(TimerTriggerResult::getStatus).containsExactly(503, 400);
+    }
+
+    @Test
+    public void testTimersBeingTriggeredWhenTimedOutAreAccepted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(instances.findById("1")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Optional.of(processInstance);
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            tested = new BatchTimerTrigger(processes, new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory()), command -> {
+                executor.execute(command);
+                try {
+                    started.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 10);
+
+            List<TimerTriggerResult> results = tested.trigger(Arrays.asList(new TimerTrigger("process", "1", "a_1", 0)));
+
+            assertThat(results).extracting(TimerTriggerResult::getStatus).containsExactly(202);
+            release.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            verify(processInstance).send(any(Signal.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -19,6 +19,8 @@ package org.kie.kogito.jobs.management.quarkus;
 import java.net.URI;
 import java.time.ZonedDateTime;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
@@ -28,7 +30,9 @@ import javax.inject.Inject;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -51,16 +55,27 @@ public class VertxJobsService extends RestJobsService {
 
     private WebClient client;
 
+    private long timeout;
+
     @Inject
     public VertxJobsService(@ConfigProperty(name = "kogito.jobs-service.url") String jobServiceUrl,
                             @ConfigProperty(name = "kogito.service.url") String callbackEndpoint,
+                            @ConfigProperty(name = "kogito.jobs-service.timeout", defaultValue = "10000") long timeout,
                             Vertx vertx,
                             Instance<WebClient> providedWebClient) {
         super(jobServiceUrl, callbackEndpoint);
+        this.timeout = timeout;
         this.vertx = vertx;
         this.providedWebClient = providedWebClient;
     }
 
+    public VertxJobsService(String jobServiceUrl,
+                            String callbackEndpoint,
+                            Vertx vertx,
+                            Instance<WebClient> providedWebClient) {
+        this(jobServiceUrl, callbackEndpoint, DEFAULT_TIMEOUT, vertx, providedWebClient);
+    }
+
     VertxJobsService() {
         this(null, null, null, null);
     }
@@ -126,20 +141,13 @@ public class VertxJobsService extends RestJobsService {
 
     @Override
     public ZonedDateTime getScheduledTime(String id) {
-        CompletableFuture<Job> future = new CompletableFuture<Job>();
-
-        client.get(JOBS_PATH + "/" + id).send(res -> {
-            if (res.succeeded() && res.result().statusCode() == 200) {
-                future.complete(res.result().bodyAsJson(Job.class));
-            } else if (res.succeeded() && res.result().statusCode() == 404) {
-                future.completeExceptionally(new JobNotFoundException(id));
-            } else {
-                future.completeExceptionally(new RuntimeException("Unable to find job with id " + id));
-            }
-        });
-
         try {
-            return future.get().getExpirationTime();
+            return getScheduledTimeAsync(id).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out after " + timeout + " ms waiting for job with id " + id, e);
         } catch (Exception e) {
             if (e.getCause() != null) {
                 throw new RuntimeException(e.getCause());
@@ -148,4 +156,24 @@ public class VertxJobsService extends RestJobsService {
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public CompletableFuture<ZonedDateTime> getScheduledTimeAsync(String id) {
+        CompletableFuture<ZonedDateTime> future = new CompletableFuture<>();
+
+        HttpRequest<Buffer> request = client.get(JOBS_PATH + "/" + id);
+        if (timeout > 0) {
+            request.timeout(timeout);
+        }
+        request.send(res -> {
+            if (res.succeeded() && res.result().statusCode() == 200) {
+                future.complete(res.result().bodyAsJson(Job.class).getExpirationTime());
+            } else if (res.succeeded() && res.result().statusCode() == 404) {
+                future.completeExceptionally(new JobNotFoundException(id));
+            } else {
+                future.completeExceptionally(new RuntimeException("Unable to find job with id " + id, res.cause()));
+            }
+        });
+        return future;
+    }
 }
@@ -177,4 +177,28 @@ public class VertxJobsServiceTest {
         
         verify(webClient).get("/jobs/123");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetScheduleTimeAsyncUsesTimeout(@Mock HttpRequest<Buffer> request, @Mock HttpResponse<Buffer> response) throws Exception {
+        tested = new VertxJobsService(JOB_SERVICE_URL, CALLBACK_URL, 500, vertx, instance);
+        tested.initialize();
+        when(webClient.get(anyString())).thenReturn(request);
+        Job job = new Job();
+        job.setId("123");
+        job.setExpirationTime(ZonedDateTime.now());
+        AsyncResult<HttpResponse<Buffer>> asyncResult = mock(AsyncResult.class);
+        when(asyncResult.succeeded()).thenReturn(true);
+        when(asyncResult.result()).thenReturn(response);
+        when(response.statusCode()).thenReturn(200);
+        when(response.bodyAsJson(any())).thenReturn(job);
+
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<HttpResponse<Buffer>>> handler = invocationOnMock.getArgument(0);
+            executor.submit(() -> handler.handle(asyncResult));
+            return null;
+        }).when(request).send(any());
+
+        assertThat(tested.getScheduledTimeAsync("123").get()).isEqualTo(job.getExpirationTime());
+        verify(request).timeout(500);
+    }
+}
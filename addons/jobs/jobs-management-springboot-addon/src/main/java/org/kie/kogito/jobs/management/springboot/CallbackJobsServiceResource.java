@@ -16,6 +16,7 @@
 
 package org.kie.kogito.jobs.management.springboot;
 
+import java.util.List;
 import java.util.Optional;
 
 import javax.ws.rs.Consumes;
@@ -23,16 +24,21 @@ import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.kie.kogito.Application;
+import org.kie.kogito.jobs.management.BatchTimerTrigger;
+import org.kie.kogito.jobs.management.TimerTrigger;
+import org.kie.kogito.jobs.management.TimerTriggerResult;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.Processes;
 import org.kie.kogito.process.impl.Sig;
+import org.kie.kogito.services.uow.BoundedExecutor;
 import org.kie.kogito.services.uow.UnitOfWorkExecutor;
 import org.kie.kogito.timer.TimerInstance;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -80,5 +86,15 @@ public class CallbackJobsServiceResource {
 
     }
 
-    
+    /**
+     * Triggers many expired timers in one request. Timers of the same process instance are
+     * triggered together, loading and storing the instance once.
+     */
+    @POST
+    @Path("batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<TimerTriggerResult> triggerTimers(List<TimerTrigger> timers) {
+        return new BatchTimerTrigger(processes, application.unitOfWorkManager(), BoundedExecutor.sharedExecutor()).trigger(timers);
+    }
 }
@@ -17,8 +17,17 @@
 package org.kie.kogito.jobs.management.springboot;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
@@ -30,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException.NotFound;
 import org.springframework.web.client.RestClientException;
@@ -40,17 +50,38 @@ public class SpringRestJobsService extends RestJobsService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SpringRestJobsService.class);
 
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
     private RestTemplate restTemplate;
 
+    private long timeout;
+
+    private int maxConcurrentRequests;
+
+    // issues the calls of a batch of jobs concurrently, the rest template blocks for each of them
+    private ExecutorService requestExecutor;
+
     @Autowired
     public SpringRestJobsService(
             @Value("${kogito.jobs-service.url}") String jobServiceUrl,
             @Value("${kogito.service.url}") String callbackEndpoint,
+            @Value("${kogito.jobs-service.timeout:10000}") long timeout,
+            @Value("${kogito.jobs-service.max-concurrent-requests:8}") int maxConcurrentRequests,
             @Autowired(required = false) RestTemplate restTemplate) {
         super(jobServiceUrl, callbackEndpoint);
+        this.timeout = timeout;
+        this.maxConcurrentRequests = maxConcurrentRequests;
         this.restTemplate = restTemplate;
     }
 
+    public SpringRestJobsService(String jobServiceUrl, String callbackEndpoint, long timeout, RestTemplate restTemplate) {
+        this(jobServiceUrl, callbackEndpoint, timeout, DEFAULT_MAX_CONCURRENT_REQUESTS, restTemplate);
+    }
+
+    public SpringRestJobsService(String jobServiceUrl, String callbackEndpoint, RestTemplate restTemplate) {
+        this(jobServiceUrl, callbackEndpoint, DEFAULT_TIMEOUT, restTemplate);
+    }
+
     SpringRestJobsService() {
         this(null, null, null);
     }
@@ -58,8 +89,24 @@ public class SpringRestJobsService extends RestJobsService {
     @PostConstruct
     public void initialize() {
         if (restTemplate == null) {
-            restTemplate = new RestTemplate();
-            LOGGER.debug("No RestTemplate found, creating a default one");
+            // bounds the calls made while the engine waits, such as getScheduledTime
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout((int) timeout);
+            requestFactory.setReadTimeout((int) timeout);
+            restTemplate = new RestTemplate(requestFactory);
+            LOGGER.debug("No RestTemplate found, creating a default one with a timeout of {} ms", timeout);
+        }
+        requestExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentRequests), r -> {
+            Thread thread = new Thread(r, "kogito-jobs-service-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
         }
     }
 
@@ -96,6 +143,62 @@ public class SpringRestJobsService extends RestJobsService {
         }
     }
 
+    /**
+     * Schedules the jobs with up to kogito.jobs-service.max-concurrent-requests calls at the same time.
+     */
+    @Override
+    public List<String> scheduleProcessInstanceJobs(List<ProcessInstanceJobDescription> descriptions) {
+        if (descriptions.size() < 2) {
+            return super.scheduleProcessInstanceJobs(descriptions);
+        }
+        List<CompletableFuture<String>> ids = new ArrayList<>(descriptions.size());
+        for (ProcessInstanceJobDescription description : descriptions) {
+            ids.add(submit(() -> scheduleProcessInstanceJob(description)));
+        }
+        return join(ids);
+    }
+
+    /**
+     * Cancels the jobs with up to kogito.jobs-service.max-concurrent-requests calls at the same time.
+     */
+    @Override
+    public boolean cancelJobs(Collection<String> ids) {
+        if (ids.size() < 2) {
+            return super.cancelJobs(ids);
+        }
+        List<CompletableFuture<Boolean>> cancellations = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            cancellations.add(submit(() -> cancelJob(id)));
+        }
+        return join(cancellations).stream().allMatch(Boolean::booleanValue);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, requestExecutor);
+    }
+
+    // waits for every call, then throws the first failure with the other ones suppressed
+    private static <T> List<T> join(List<CompletableFuture<T>> calls) {
+        List<T> results = new ArrayList<>(calls.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<T> call : calls) {
+            try {
+                results.add(call.join());
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
     @Override
     public ZonedDateTime getScheduledTime(String id) {
         try {
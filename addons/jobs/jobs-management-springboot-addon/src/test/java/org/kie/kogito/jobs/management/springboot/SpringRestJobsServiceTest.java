@@ -22,12 +22,17 @@ import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,6 +46,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException.NotFound;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 @ExtendWith(MockitoExtension.class)
@@ -60,6 +66,11 @@ public class SpringRestJobsServiceTest {
         tested.initialize();
     }
 
+    @AfterEach
+    void tearDown() {
+        tested.close();
+    }
+
     @Test
     void testScheduleProcessJob() {
         ProcessJobDescription processJobDescription = ProcessJobDescription.of(ExactExpirationTime.now(),
@@ -85,6 +96,28 @@ public class SpringRestJobsServiceTest {
         assertThat(job.getId()).isEqualTo(processInstanceJobDescription.id());
     }
 
+    @Test
+    void testScheduleProcessInstanceJobsAttemptsEveryJob() {
+        when(restTemplate.postForEntity(any(URI.class), any(Job.class), eq(String.class)))
+                .thenThrow(new RestClientException("jobs service unavailable"))
+                .thenReturn(ResponseEntity.ok().build());
+        List<ProcessInstanceJobDescription> descriptions = Arrays.asList(
+                ProcessInstanceJobDescription.of(1, ExactExpirationTime.now(), "processInstanceId", "processId"),
+                ProcessInstanceJobDescription.of(2, ExactExpirationTime.now(), "processInstanceId", "processId"));
+
+        assertThatThrownBy(() -> tested.scheduleProcessInstanceJobs(descriptions)).isInstanceOf(RestClientException.class);
+        verify(restTemplate, times(2)).postForEntity(any(URI.class), any(Job.class), eq(String.class));
+    }
+
+    @Test
+    void testCancelJobs() {
+        doThrow(new RestClientException("jobs service unavailable")).when(restTemplate).delete(anyString(), eq("456"));
+
+        assertThat(tested.cancelJobs(Arrays.asList("123", "456"))).isFalse();
+        verify(restTemplate).delete(tested.getJobsServiceUri() + "/{id}", "123");
+        verify(restTemplate).delete(tested.getJobsServiceUri() + "/{id}", "456");
+    }
+
     @Test
     void testCancelJob() {
         tested.cancelJob("123");
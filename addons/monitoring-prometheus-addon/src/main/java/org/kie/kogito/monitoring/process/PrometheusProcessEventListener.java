@@ -18,15 +18,18 @@ package org.kie.kogito.monitoring.process;
 
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 import io.prometheus.client.Summary;
 import org.jbpm.workflow.instance.impl.WorkflowProcessInstanceImpl;
 import org.jbpm.workflow.instance.node.WorkItemNodeInstance;
 import org.kie.api.event.process.DefaultProcessEventListener;
 import org.kie.api.event.process.ProcessCompletedEvent;
 import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.event.process.ProcessNodeTriggeredEvent;
 import org.kie.api.event.process.ProcessStartedEvent;
 import org.kie.api.event.process.SLAViolatedEvent;
 import org.kie.api.runtime.process.NodeInstance;
+import org.kie.kogito.monitoring.system.metrics.DurationMetric;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,26 +64,65 @@ public class PrometheusProcessEventListener extends DefaultProcessEventListener
             .labelNames("app_id", "process_id")
             .register();
 
-    protected static final Summary processInstancesDuration = Summary.build()
-            .name("kie_process_instance_duration_seconds")
-            .help("Process Instances Duration")
-            .labelNames("app_id", "process_id")
+    protected static final DurationMetric processInstancesDuration = DurationMetric.register(
+            Summary.build()
+                    .name("kie_process_instance_duration_seconds")
+                    .help("Process Instances Duration")
+                    .labelNames("app_id", "process_id"),
+            Histogram.build()
+                    .name("kie_process_instance_duration_seconds")
+                    .help("Process Instances Duration")
+                    .labelNames("app_id", "process_id"),
+            DurationMetric::processBuckets);
+
+    protected static final DurationMetric workItemsDuration = DurationMetric.register(
+            Summary.build()
+                    .name("kie_work_item_duration_seconds")
+                    .help("Work Items Duration")
+                    .labelNames("name"),
+            Histogram.build()
+                    .name("kie_work_item_duration_seconds")
+                    .help("Work Items Duration")
+                    .labelNames("name"),
+            DurationMetric::buckets);
+
+    /**
+     * Per node metrics, only collected in histogram mode.
+     */
+    protected static final Counter numberOfNodesTriggered = Counter.build()
+            .name("kie_process_node_triggered_total")
+            .help("Triggered Nodes")
+            .labelNames("app_id", "process_id", "node_name")
             .register();
 
-    protected static final Summary workItemsDuration = Summary.build()
-            .name("kie_work_item_duration_seconds")
-            .help("Work Items Duration")
-            .labelNames("name")
-            .register();
+    protected static final DurationMetric nodesDuration = DurationMetric.register(
+            null,
+            Histogram.build()
+                    .name("kie_process_node_duration_seconds")
+                    .help("Nodes Duration")
+                    .labelNames("app_id", "process_id", "node_name"),
+            DurationMetric::buckets);
 
     protected static void recordRunningProcessInstance(String containerId, String processId) {
         runningProcessInstances.labels(containerId, processId).inc();
     }
 
     private String identifier;
+    // null follows the histogram mode, which the application configuration may set after the listener is created
+    private final Boolean nodeMetricsEnabled;
 
     public PrometheusProcessEventListener(String identifier) {
         this.identifier = identifier;
+        this.nodeMetricsEnabled = null;
+    }
+
+    public PrometheusProcessEventListener(String identifier, boolean nodeMetricsEnabled) {
+        this.identifier = identifier;
+        this.nodeMetricsEnabled = nodeMetricsEnabled;
+    }
+
+    private boolean nodeMetricsEnabled() {
+        return nodeMetricsEnabled != null ? nodeMetricsEnabled : DurationMetric.histogramsEnabled();
     }
 
     @Override
@@ -101,11 +143,27 @@ public class PrometheusProcessEventListener extends DefaultProcessEventListener
 
         if (processInstance.getStartDate() != null) {
             final double duration = millisToSeconds(processInstance.getEndDate().getTime() - processInstance.getStartDate().getTime());
-            processInstancesDuration.labels(identifier, processInstance.getProcessId()).observe(duration);
+            processInstancesDuration.observe(duration, identifier, processInstance.getProcessId());
             LOGGER.debug("Process Instance duration: {}s", duration);
         }
     }
 
+    @Override
+    public void beforeNodeTriggered(ProcessNodeTriggeredEvent event) {
+        if (nodeMetricsEnabled()) {
+            numberOfNodesTriggered.labels(identifier, event.getProcessInstance().getProcessId(), nodeName(event.getNodeInstance())).inc();
+        }
+    }
+
+    @Override
+    public void afterNodeLeft(ProcessNodeLeftEvent event) {
+        final NodeInstance nodeInstance = event.getNodeInstance();
+        if (nodeMetricsEnabled() && nodeInstance.getTriggerTime() != null && nodeInstance.getLeaveTime() != null) {
+            final double duration = millisToSeconds(nodeInstance.getLeaveTime().getTime() - nodeInstance.getTriggerTime().getTime());
+            nodesDuration.observe(duration, identifier, event.getProcessInstance().getProcessId(), nodeName(nodeInstance));
+        }
+    }
+
     @Override
     public void beforeNodeLeft(ProcessNodeLeftEvent event) {
         LOGGER.debug("Before Node left event: {}", event);
@@ -115,7 +173,7 @@ public class PrometheusProcessEventListener extends DefaultProcessEventListener
             if (wi.getTriggerTime() != null) {
                 final String name = (String)wi.getWorkItem().getParameters().getOrDefault("TaskName", wi.getWorkItem().getName());
                 final double duration = millisToSeconds(wi.getLeaveTime().getTime() - wi.getTriggerTime().getTime());
-                workItemsDuration.labels(name).observe(duration);
+                workItemsDuration.observe(duration, name);
                 LOGGER.debug("Work Item {}, duration: {}s", name, duration);
             }
         }
@@ -130,6 +188,11 @@ public class PrometheusProcessEventListener extends DefaultProcessEventListener
         }
     }
 
+    protected static String nodeName(NodeInstance nodeInstance) {
+        String name = nodeInstance.getNodeName();
+        return name == null || name.isEmpty() ? valueOf(nodeInstance.getNodeId()) : name;
+    }
+
     protected static double millisToSeconds(long millis) {
         return millis / 1000.0;
     }
@@ -30,12 +30,18 @@ import javax.ws.rs.core.StreamingOutput;
 import io.prometheus.client.Collector;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.exporter.common.TextFormat;
+import org.kie.kogito.monitoring.system.metrics.ExecutorMetricsCollector;
+import org.kie.kogito.services.uow.BoundedExecutor;
 
 @Path("/metrics")
 public class MetricsResource {
 
     public static CollectorRegistry prometheusRegistry = CollectorRegistry.defaultRegistry;
 
+    static {
+        new ExecutorMetricsCollector(BoundedExecutor.sharedExecutor()).register(prometheusRegistry);
+    }
+
     @GET
     @Produces({MediaType.TEXT_PLAIN})
     public Response getMetrics() {
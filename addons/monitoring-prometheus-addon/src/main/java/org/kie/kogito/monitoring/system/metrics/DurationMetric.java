@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.monitoring.system.metrics;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Histogram;
+import io.prometheus.client.Summary;
+
+/**
+ * Duration metric exported either as a {@link Summary}, the default, or as a {@link Histogram}
+ * when {@value #HISTOGRAMS_PROPERTY} is <code>true</code>.
+ * <p>
+ * Histograms are cheaper to observe, since they only increment a bucket counter instead of
+ * updating a sliding window of quantiles under a lock, and can be aggregated across replicas
+ * with <code>histogram_quantile</code>. The buckets, in seconds, are set with
+ * {@value #BUCKETS_PROPERTY} and {@value #PROCESS_BUCKETS_PROPERTY} as comma separated values.
+ * <p>
+ * The settings are taken from the application configuration, see {@link #configure(Optional, Optional, Optional)},
+ * falling back to system properties. Metrics are registered the first time they are observed so
+ * the ones held in static fields follow the application configuration too.
+ */
+public class DurationMetric {
+
+    public static final String HISTOGRAMS_PROPERTY = "kogito.monitoring.prometheus.histograms";
+    public static final String BUCKETS_PROPERTY = "kogito.monitoring.prometheus.buckets";
+    public static final String PROCESS_BUCKETS_PROPERTY = "kogito.monitoring.prometheus.process-buckets";
+
+    public static final double[] DEFAULT_BUCKETS = {.005, .01, .025, .05, .1, .25, .5, 1, 2.5, 5, 10};
+    public static final double[] DEFAULT_PROCESS_BUCKETS = {1, 10, 60, 300, 900, 1800, 3600, 21600, 86400, 604800};
+
+    private static volatile Boolean configuredHistograms;
+    private static volatile String configuredBuckets;
+    private static volatile String configuredProcessBuckets;
+
+    private final Summary.Builder summaryBuilder;
+    private final Histogram.Builder histogramBuilder;
+    private final Supplier<double[]> buckets;
+    private final CollectorRegistry registry;
+
+    private volatile Summary summary;
+    private volatile Histogram histogram;
+
+    private DurationMetric(Summary.Builder summaryBuilder, Histogram.Builder histogramBuilder, Supplier<double[]> buckets, CollectorRegistry registry) {
+        this.summaryBuilder = summaryBuilder;
+        this.histogramBuilder = histogramBuilder;
+        this.buckets = buckets;
+        this.registry = registry;
+    }
+
+    private DurationMetric(Summary summary, Histogram histogram) {
+        this(null, null, null, null);
+        this.summary = summary;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Returns a metric registered to the default registry the first time it is observed, as a
+     * summary or as a histogram with given buckets depending on {@value #HISTOGRAMS_PROPERTY}.
+     * Without a summary the metric is always a histogram.
+     */
+    public static DurationMetric register(Summary.Builder summary, Histogram.Builder histogram, Supplier<double[]> buckets) {
+        return new DurationMetric(summary, histogram, buckets, CollectorRegistry.defaultRegistry);
+    }
+
+    public static DurationMetric register(Summary.Builder summary, Histogram.Builder histogram, boolean histogramsEnabled, CollectorRegistry registry) {
+        return histogramsEnabled ? new DurationMetric(null, histogram.register(registry)) : new DurationMetric(summary.register(registry), null);
+    }
+
+    /**
+     * Sets the mode and the buckets from the application configuration, taking precedence over
+     * the system properties. Metrics already observed keep how they were registered.
+     */
+    public static void configure(Optional<Boolean> histograms, Optional<String> buckets, Optional<String> processBuckets) {
+        configuredHistograms = histograms.orElse(null);
+        configuredBuckets = buckets.orElse(null);
+        configuredProcessBuckets = processBuckets.orElse(null);
+    }
+
+    public static boolean histogramsEnabled() {
+        Boolean histograms = configuredHistograms;
+        return histograms != null ? histograms : Boolean.parseBoolean(System.getProperty(HISTOGRAMS_PROPERTY, "false"));
+    }
+
+    /**
+     * Returns the buckets, in seconds, of short lived operations like requests, nodes and work items.
+     */
+    public static double[] buckets() {
+        String value = configuredBuckets;
+        return buckets(value != null ? value : System.getProperty(BUCKETS_PROPERTY), DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Returns the buckets, in seconds, of process instances.
+     */
+    public static double[] processBuckets() {
+        String value = configuredProcessBuckets;
+        return buckets(value != null ? value : System.getProperty(PROCESS_BUCKETS_PROPERTY), DEFAULT_PROCESS_BUCKETS);
+    }
+
+    static double[] buckets(String value, double[] defaultBuckets) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultBuckets;
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).mapToDouble(Double::parseDouble).sorted().toArray();
+    }
+
+    public boolean isHistogram() {
+        register();
+        return histogram != null;
+    }
+
+    public void observe(double value, String... labelValues) {
+        if (isHistogram()) {
+            histogram.labels(labelValues).observe(value);
+        } else {
+            summary.labels(labelValues).observe(value);
+        }
+    }
+
+    private void register() {
+        if (summary == null && histogram == null) {
+            synchronized (this) {
+                if (summary == null && histogram == null) {
+                    if (summaryBuilder == null || histogramsEnabled()) {
+                        histogram = histogramBuilder.buckets(buckets.get()).register(registry);
+                    } else {
+                        summary = summaryBuilder.register(registry);
+                    }
+                }
+            }
+        }
+    }
+}
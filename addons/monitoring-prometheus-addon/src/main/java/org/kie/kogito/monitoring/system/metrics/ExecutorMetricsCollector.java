@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.monitoring.system.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+import org.kie.kogito.services.uow.BoundedExecutor;
+
+/**
+ * Exports the queue depth, queue latency and task counters of a {@link BoundedExecutor},
+ * read from the executor on each scrape.
+ */
+public class ExecutorMetricsCollector extends Collector {
+
+    private final BoundedExecutor executor;
+
+    public ExecutorMetricsCollector(BoundedExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        return Arrays.asList(
+                new GaugeMetricFamily("kie_executor_queue_depth", "Tasks waiting for an executor thread.", executor.queueDepth()),
+                new GaugeMetricFamily("kie_executor_queue_capacity", "Max tasks waiting for an executor thread.", executor.queueCapacity()),
+                new GaugeMetricFamily("kie_executor_threads", "Executor threads.", executor.threads()),
+                new GaugeMetricFamily("kie_executor_active_threads", "Executor threads running a task.", executor.activeThreads()),
+                new GaugeMetricFamily("kie_executor_queue_latency_milliseconds", "Time the last task waited for an executor thread.", executor.lastQueueLatency()),
+                new GaugeMetricFamily("kie_executor_queue_latency_max_milliseconds", "Max time a task waited for an executor thread.", executor.maxQueueLatency()),
+                new CounterMetricFamily("kie_executor_executed_tasks_total", "Tasks run by the executor.", executor.executedTasks()),
+                new CounterMetricFamily("kie_executor_rejected_tasks_total", "Tasks rejected because the executor queue was full.", executor.rejectedTasks()));
+    }
+}
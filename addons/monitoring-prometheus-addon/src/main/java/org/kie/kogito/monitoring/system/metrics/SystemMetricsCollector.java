@@ -15,7 +15,10 @@
 
 package org.kie.kogito.monitoring.system.metrics;
 
+import java.util.Arrays;
+
 import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
 import io.prometheus.client.Summary;
 
 public class SystemMetricsCollector {
@@ -32,6 +35,10 @@ public class SystemMetricsCollector {
 
     private static final String ELAPSED_TIME_HELP = "Endpoint execution elapsed nanoseconds, 3 minutes time window.";
 
+    private static final String ELAPSED_TIME_HISTOGRAM_HELP = "Endpoint execution elapsed nanoseconds.";
+
+    private static final double NANOSECONDS_PER_SECOND = 1_000_000_000;
+
     private static final String EXCEPTIONS_NAME = "api_http_stacktrace_exceptions";
 
     private static final String EXCEPTIONS_HELP = "System exceptions details.";
@@ -46,19 +53,25 @@ public class SystemMetricsCollector {
                     .help(EXCEPTIONS_HELP)
                     .labelNames(ENDPOINT_INDENTIFIER_LABELS).register();
 
-    private static final Summary ELAPSED_TIME_SUMMARY =
-            Summary.build() // Calculate quantiles over a sliding window of 3 minutes.
-                    .quantile(0.1, 0.01)   // Add 10th percentile with 5% tolerated error
-                    .quantile(0.25, 0.05)
-                    .quantile(0.50, 0.05)
-                    .quantile(0.75, 0.05)
-                    .quantile(0.9, 0.05)
-                    .quantile(0.99, 0.01)
-                    .maxAgeSeconds(180)
-                    .name(ELAPSED_TIME_NAME)
-                    .help(ELAPSED_TIME_HELP)
-                    .labelNames(ENDPOINT_LABEL)
-                    .register();
+    private static final DurationMetric ELAPSED_TIME =
+            DurationMetric.register(
+                    Summary.build() // Calculate quantiles over a sliding window of 3 minutes.
+                            .quantile(0.1, 0.01)   // Add 10th percentile with 5% tolerated error
+                            .quantile(0.25, 0.05)
+                            .quantile(0.50, 0.05)
+                            .quantile(0.75, 0.05)
+                            .quantile(0.9, 0.05)
+                            .quantile(0.99, 0.01)
+                            .maxAgeSeconds(180)
+                            .name(ELAPSED_TIME_NAME)
+                            .help(ELAPSED_TIME_HELP)
+                            .labelNames(ENDPOINT_LABEL),
+                    Histogram.build()
+                            .name(ELAPSED_TIME_NAME)
+                            .help(ELAPSED_TIME_HISTOGRAM_HELP)
+                            .labelNames(ENDPOINT_LABEL),
+                    // same metric name, so buckets are in nanoseconds too
+                    () -> Arrays.stream(DurationMetric.buckets()).map(b -> b * NANOSECONDS_PER_SECOND).toArray());
 
     private SystemMetricsCollector() {
     }
@@ -68,10 +81,17 @@ public class SystemMetricsCollector {
     }
 
     public static void registerElapsedTimeSampleMetrics(String endpoint, double elapsedTime) {
-        ELAPSED_TIME_SUMMARY.labels(endpoint).observe(elapsedTime);
+        ELAPSED_TIME.observe(elapsedTime, endpoint);
+    }
+
+    /**
+     * Counts the exception by its type only, so the number of label values stays bounded.
+     */
+    public static void registerException(String endpoint, Throwable exception) {
+        registerException(endpoint, exception.getClass().getName());
     }
 
-    public static void registerException(String endpoint, String stackTrace) {
-        EXCEPTIONS_COUNTER.labels(endpoint, stackTrace).inc();
+    public static void registerException(String endpoint, String identifier) {
+        EXCEPTIONS_COUNTER.labels(endpoint, identifier).inc();
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.monitoring.integration;
+
+import java.util.Optional;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Histogram;
+import io.prometheus.client.Summary;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.monitoring.system.metrics.DurationMetric;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DurationMetricTest {
+
+    private static final String NAME = "test_duration_seconds";
+    private static final String[] LABEL_NAMES = new String[]{"endpoint"};
+
+    @Test
+    public void givenHistogramsEnabledWhenObserveIsCalledThenTheBucketsAreExportedToPrometheus() {
+        CollectorRegistry registry = new CollectorRegistry();
+        DurationMetric metric = DurationMetric.register(summary(), histogram(), true, registry);
+
+        metric.observe(0.3, "hello");
+        metric.observe(3, "hello");
+
+        assertTrue(metric.isHistogram());
+        assertEquals(2, registry.getSampleValue(NAME + "_count", LABEL_NAMES, new String[]{"hello"}), 0);
+        assertEquals(3.3, registry.getSampleValue(NAME + "_sum", LABEL_NAMES, new String[]{"hello"}), 0.0001);
+        assertEquals(0, bucket(registry, "0.25"), 0);
+        assertEquals(1, bucket(registry, "0.5"), 0);
+        assertEquals(2, bucket(registry, "5.0"), 0);
+    }
+
+    @Test
+    public void givenHistogramsDisabledWhenObserveIsCalledThenTheSummaryIsExportedToPrometheus() {
+        CollectorRegistry registry = new CollectorRegistry();
+        DurationMetric metric = DurationMetric.register(summary(), histogram(), false, registry);
+
+        metric.observe(0.3, "hello");
+
+        assertFalse(metric.isHistogram());
+        assertEquals(1, registry.getSampleValue(NAME + "_count", LABEL_NAMES, new String[]{"hello"}), 0);
+        assertNull(registry.getSampleValue(NAME + "_bucket", new String[]{"endpoint", "le"}, new String[]{"hello", "0.5"}));
+    }
+
+    @Test
+    public void givenApplicationConfigWhenConfiguredThenItTakesPrecedenceOverSystemProperties() {
+        System.setProperty(DurationMetric.HISTOGRAMS_PROPERTY, "false");
+        try {
+            DurationMetric.configure(Optional.of(true), Optional.of("1, 0.5"), Optional.empty());
+
+            assertTrue(DurationMetric.histogramsEnabled());
+            assertArrayEquals(new double[]{0.5, 1}, DurationMetric.buckets(), 0);
+            assertArrayEquals(DurationMetric.DEFAULT_PROCESS_BUCKETS, DurationMetric.processBuckets(), 0);
+        } finally {
+            DurationMetric.configure(Optional.empty(), Optional.empty(), Optional.empty());
+            System.clearProperty(DurationMetric.HISTOGRAMS_PROPERTY);
+        }
+        assertFalse(DurationMetric.histogramsEnabled());
+    }
+
+    private static double bucket(CollectorRegistry registry, String le) {
+        return registry.getSampleValue(NAME + "_bucket", new String[]{"endpoint", "le"}, new String[]{"hello", le});
+    }
+
+    private static Summary.Builder summary() {
+        return Summary.build().name(NAME).help("Test").labelNames(LABEL_NAMES);
+    }
+
+    private static Histogram.Builder histogram() {
+        return Histogram.build().name(NAME).help("Test").labelNames(LABEL_NAMES).buckets(DurationMetric.DEFAULT_BUCKETS);
+    }
+}
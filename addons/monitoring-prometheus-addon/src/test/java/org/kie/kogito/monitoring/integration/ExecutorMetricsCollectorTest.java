@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.integration;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.prometheus.client.CollectorRegistry;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.monitoring.system.metrics.ExecutorMetricsCollector;
+import org.kie.kogito.services.uow.BoundedExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExecutorMetricsCollectorTest {
+
+    @Test
+    public void givenASaturatedExecutorWhenScrapedThenTheQueueAndRejectionsAreExportedToPrometheus() throws Exception {
+        CollectorRegistry registry = new CollectorRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (BoundedExecutor executor = new BoundedExecutor(1, 1)) {
+            new ExecutorMetricsCollector(executor).register(registry);
+
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> {});
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+
+            assertEquals(1, registry.getSampleValue("kie_executor_queue_depth").intValue());
+            assertEquals(1, registry.getSampleValue("kie_executor_queue_capacity").intValue());
+            assertEquals(1, registry.getSampleValue("kie_executor_active_threads").intValue());
+            assertEquals(1, registry.getSampleValue("kie_executor_executed_tasks_total").intValue());
+            assertEquals(1, registry.getSampleValue("kie_executor_rejected_tasks_total").intValue());
+
+            release.countDown();
+        }
+    }
+}
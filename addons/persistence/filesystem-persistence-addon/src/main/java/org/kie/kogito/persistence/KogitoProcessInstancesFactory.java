@@ -18,6 +18,7 @@ package org.kie.kogito.persistence;
 import java.nio.file.Paths;
 
 import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
+import org.kie.kogito.persistence.filesystem.SyncPolicy;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
 
@@ -29,9 +30,16 @@ public abstract class KogitoProcessInstancesFactory implements ProcessInstancesF
    
 	
     public FileSystemProcessInstances createProcessInstances(Process<?> process) {
-        return new FileSystemProcessInstances(process, Paths.get(path()));
+        return new FileSystemProcessInstances(process, Paths.get(path()), SyncPolicy.fromValue(syncPolicy()));
     }
     
     public abstract String path();
+
+    /**
+     * Returns when changes are forced to disk, one of <code>none</code>, <code>write</code> or <code>group</code>
+     */
+    public String syncPolicy() {
+        return SyncPolicy.NONE.name();
+    }
     
 }
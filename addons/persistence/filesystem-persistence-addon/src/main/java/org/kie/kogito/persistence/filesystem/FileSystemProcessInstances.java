@@ -15,15 +15,30 @@
 
 package org.kie.kogito.persistence.filesystem;
 
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,14 +46,28 @@ import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceSubscriptionIndex;
 import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
+/**
+ * Stores every process instance in its own file, spread over <code>256</code> shard directories
+ * named after the hash of the process instance id, e.g. <code>&lt;storage&gt;/&lt;processId&gt;/2f/&lt;id&gt;</code>.
+ * Each file starts with a header holding the version, status and description of the process instance
+ * followed by the marshalled process instance, and it is always replaced atomically.
+ * <p>
+ * Versions are checked and files replaced while holding an OS lock on the <code>.lock</code> file of
+ * the shard, so several processes can share the storage directory. For the same reason nothing is
+ * indexed in memory: counts and event subscriptions are read from the headers of the stored files
+ * when queried, without unmarshalling the process instances.
+ */
 @SuppressWarnings({"rawtypes"})
 public class FileSystemProcessInstances implements MutableProcessInstances {
 
@@ -47,80 +76,202 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     public static final String PI_DESCRIPTION = "ProcessInstanceDescription";
     public static final String PI_STATUS = "ProcessInstanceStatus";
 
+    // magic, version, status, description length, event subscriptions length, followed by the description and the subscriptions
+    private static final int HEADER_MAGIC = 0x4B504933;
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int DESCRIPTION_LENGTH_OFFSET = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int SUBSCRIPTIONS_LENGTH_OFFSET = DESCRIPTION_LENGTH_OFFSET + Integer.BYTES;
+    private static final String SUBSCRIPTION_SEPARATOR = "\n";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String LOCK_FILE = ".lock";
+    private static final int SHARDS = 256;
+
     private Process<?> process;
     private Path storage;
 
     private ProcessInstanceMarshaller marshaller;
+    private final SyncPolicy syncPolicy;
+    private final StorageSync storageSync;
+    private final ProcessInstanceSnapshotCache<byte[]> snapshots = new ProcessInstanceSnapshotCache<>();
+    // one per shard, file locks are held by the whole JVM so its own threads must not overlap
+    private final Object[] locks = new Object[SHARDS];
 
     public FileSystemProcessInstances(Process<?> process, Path storage) {
         this(process, storage, new ProcessInstanceMarshaller());
     }
 
+    public FileSystemProcessInstances(Process<?> process, Path storage, SyncPolicy syncPolicy) {
+        this(process, storage, new ProcessInstanceMarshaller(), syncPolicy);
+    }
+
     public FileSystemProcessInstances(Process<?> process, Path storage, ProcessInstanceMarshaller marshaller) {
+        this(process, storage, marshaller, SyncPolicy.NONE);
+    }
+
+    public FileSystemProcessInstances(Process<?> process, Path storage, ProcessInstanceMarshaller marshaller, SyncPolicy syncPolicy) {
         this.process = process;
         this.storage = Paths.get(storage.toString(), process.id());
         this.marshaller = marshaller;
+        this.syncPolicy = syncPolicy;
+        this.storageSync = syncPolicy == SyncPolicy.NONE ? null : new StorageSync(syncPolicy == SyncPolicy.GROUP);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
 
         try {
             Files.createDirectories(this.storage);
+            prepareStorage();
         } catch (IOException e) {
             throw new RuntimeException("Unable to create directories for file based storage of process instances", e);
         }
     }
 
+    /**
+     * Removes temporary files left behind by a crash and moves process instances stored
+     * directly under the storage directory into their shard, replacing the copy a previous
+     * run might have moved already.
+     */
+    private void prepareStorage() throws IOException {
+        try (Stream<Path> entries = Files.list(storage)) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                if (Files.isDirectory(entry)) {
+                    try (Stream<Path> files = Files.list(entry)) {
+                        files.filter(this::isTemporary).forEach(this::deleteQuietly);
+                    }
+                } else if (isTemporary(entry)) {
+                    deleteQuietly(entry);
+                } else if (Files.isRegularFile(entry) && !isLockFile(entry)) {
+                    Path sharded = storagePath(entry.getFileName().toString());
+                    Files.createDirectories(sharded.getParent());
+                    Files.move(entry, sharded, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
     @Override
     public Integer size() {
-        try (Stream<Path> stream = Files.walk(storage)) {
-            Long count = stream.filter(file -> !Files.isDirectory(file)).count();
-            return count.intValue();
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to count process instances ", e);
+        try (Stream<Path> files = listFiles()) {
+            return (int) files.count();
         }
     }
 
     @Override
-    public Optional findById(String id, ProcessInstanceReadMode mode) {
-        Path processInstanceStorage = Paths.get(storage.toString(), id);
+    public Map<Integer, Integer> countByStatus() {
+        try (Stream<Path> files = listFiles()) {
+            return files.map(this::readStatus)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.summingInt(status -> 1)));
+        }
+    }
+
+    private Integer readStatus(Path file) {
+        String status = getMetadata(file, PI_STATUS);
+        if (status != null) {
+            return Integer.valueOf(status);
+        }
+        // stored before the header held the status
+        byte[] stored = readBytesFromFileIfExists(file);
+        return stored == null ? null : unmarshall(stored, ProcessInstanceReadMode.READ_ONLY).status();
+    }
 
-        if (Files.notExists(processInstanceStorage)) {
+    @Override
+    public Optional findById(String id, ProcessInstanceReadMode mode) {
+        byte[] data = readBytesFromFileIfExists(storagePath(id));
+        if (data == null) {
             return Optional.empty();
         }
-        byte[] data = readBytesFromFile(processInstanceStorage);
-        return Optional.of(mode == MUTABLE ?
-                                   marshaller.unmarshallProcessInstance(data, process) :
-                                   marshaller.unmarshallReadOnlyProcessInstance(data, process)
-        );
+        return Optional.of(unmarshall(data, mode));
     }
 
     @Override
     public Collection values(ProcessInstanceReadMode mode) {
-        try (Stream<Path> stream = Files.walk(storage)) {
-            return stream
-                    .filter(file -> !Files.isDirectory(file))
-                    .map(this::readBytesFromFile)
-                    .map(b -> mode == MUTABLE ?
-                            marshaller.unmarshallProcessInstance(b, process) :
-                            marshaller.unmarshallReadOnlyProcessInstance(b, process))
-                    .collect(Collectors.toList());
+        try (Stream<ProcessInstance> stream = stream(mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Collection values(ProcessInstanceReadMode mode, int offset, int limit) {
+        // file names are the process instance ids, only the page is read from disk
+        try (Stream<ProcessInstance> stream = unmarshall(listFiles().sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                .skip(offset).limit(limit), mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream stream(ProcessInstanceReadMode mode) {
+        return unmarshall(listFiles(), mode);
+    }
+
+    @Override
+    public Stream waitingFor(String eventType, ProcessInstanceReadMode mode) {
+        // stored before subscriptions were kept, if at all, process instances may wait for any event type
+        return unmarshall(listFiles().filter(file -> {
+            Set<String> subscriptions = getSubscriptions(file);
+            return subscriptions == null || subscriptions.contains(eventType);
+        }), mode);
+    }
+
+    protected Stream<Path> listFiles() {
+        try {
+            return Files.list(storage)
+                    .filter(Files::isDirectory)
+                    .flatMap(this::listShard);
         } catch (IOException e) {
             throw new RuntimeException("Unable to read process instances ", e);
         }
     }
 
+    private Stream<Path> listShard(Path shard) {
+        try {
+            return Files.list(shard).filter(file -> Files.isRegularFile(file) && !isTemporary(file) && !isLockFile(file));
+        } catch (NoSuchFileException e) {
+            return Stream.empty();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read process instances ", e);
+        }
+    }
+
+    /**
+     * Returns the file the process instance with given id is stored in.
+     */
+    public Path storagePath(String id) {
+        return storage.resolve(String.format("%02x", Math.floorMod(id.hashCode(), SHARDS))).resolve(id);
+    }
+
+    protected Stream<ProcessInstance> unmarshall(Stream<Path> files, ProcessInstanceReadMode mode) {
+        return files.map(this::readBytesFromFileIfExists)
+                .filter(Objects::nonNull)
+                .map(b -> unmarshall(b, mode));
+    }
+
+    protected ProcessInstance unmarshall(byte[] stored, ProcessInstanceReadMode mode) {
+        long version = readVersion(stored);
+        byte[] data = readData(stored);
+        ProcessInstance instance = mode == MUTABLE ?
+                marshaller.unmarshallProcessInstance(data, process) :
+                marshaller.unmarshallReadOnlyProcessInstance(data, process);
+        ((AbstractProcessInstance<?>) instance).setVersion(version);
+        snapshots.invalidateIfOlder(instance.id(), version);
+        return instance;
+    }
+
     @Override
     public boolean exists(String id) {
-        return Files.exists(Paths.get(storage.toString(), id));
+        return Files.exists(storagePath(id));
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void create(String id, ProcessInstance instance) {
         if (isActive(instance)) {
-            Path processInstanceStorage = Paths.get(storage.toString(), id);
+            Path processInstanceStorage = storagePath(id);
             if (Files.exists(processInstanceStorage)) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
-            storeProcessInstance(processInstanceStorage, instance);
+            storeProcessInstance(processInstanceStorage, instance, true);
         }
     }
 
@@ -128,50 +279,136 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
     @Override
     public void update(String id, ProcessInstance instance) {
         if (isActive(instance)) {
-            Path processInstanceStorage = Paths.get(storage.toString(), id);
-            if (Files.exists(processInstanceStorage)) {
-                storeProcessInstance(processInstanceStorage, instance);
-            }
+            storeProcessInstance(storagePath(id), instance, false);
         }
     }
 
     @Override
     public void remove(String id) {
-        Path processInstanceStorage = Paths.get(storage.toString(), id);
+        Path processInstanceStorage = storagePath(id);
+        snapshots.invalidate(id);
         try {
-            Files.deleteIfExists(processInstanceStorage);
+            boolean removed;
+            synchronized (lock(id)) {
+                try (FileChannel lock = lockShard(processInstanceStorage.getParent())) {
+                    removed = Files.deleteIfExists(processInstanceStorage);
+                }
+            }
+            if (removed) {
+                sync(null, processInstanceStorage.getParent());
+            }
         } catch (IOException e) {
             throw new RuntimeException("Unable to remove process instance with id " + id, e);
         }
     }
 
-    protected void storeProcessInstance(Path processInstanceStorage, ProcessInstance<?> instance) {
+    /**
+     * Stores the process instance into a temporary file first, that then atomically replaces the
+     * stored one only if it still is the version the process instance was loaded from. A process
+     * instance removed in the meantime is a conflict as well.
+     */
+    protected void storeProcessInstance(Path processInstanceStorage, ProcessInstance<?> instance, boolean create) {
+        String id = instance.id();
+        long expectedVersion = ((AbstractProcessInstance<?>) instance).version();
+        long version = create ? expectedVersion : expectedVersion + 1;
+        Path shard = processInstanceStorage.getParent();
+        Path temporary = null;
         try {
             byte[] data = marshaller.marshallProcessInstance(instance);
-            Files.write(processInstanceStorage, data);
-            setMetadata(processInstanceStorage, PI_DESCRIPTION, instance.description());
-            setMetadata(processInstanceStorage, PI_STATUS, String.valueOf(instance.status()));
+            Set<String> subscriptions = ProcessInstanceSubscriptionIndex.subscriptions(instance);
+            Files.createDirectories(shard);
+            temporary = Files.createTempFile(shard, id, TEMPORARY_SUFFIX);
+            write(temporary, withHeader(version, instance.status(), instance.description(), subscriptions, data));
+            synchronized (lock(id)) {
+                try (FileChannel lock = lockShard(shard)) {
+                    if (create) {
+                        if (Files.exists(processInstanceStorage)) {
+                            throw new ProcessInstanceDuplicatedException(id);
+                        }
+                    } else if (Files.notExists(processInstanceStorage) || readVersion(readHeader(processInstanceStorage)) != expectedVersion) {
+                        throw new ProcessInstanceOptimisticLockingException(id);
+                    }
+                    Files.move(temporary, processInstanceStorage, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            // grouped syncs force the file once it is in place, together with the ones of concurrent changes
+            sync(syncPolicy == SyncPolicy.GROUP ? processInstanceStorage : null, shard);
+
+            ((AbstractProcessInstance<?>) instance).setVersion(version);
+            snapshots.put(id, version, data);
+            disconnect(processInstanceStorage, instance, version);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to store process instance with id " + id, e);
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
 
-            disconnect(processInstanceStorage, instance);
+    private void write(Path file, byte[] content) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncPolicy == SyncPolicy.WRITE) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Locks the shard against the other processes sharing the storage until the returned channel
+     * is closed. The lock file is never removed so that all of them always lock the same file.
+     */
+    private FileChannel lockShard(Path shard) throws IOException {
+        Files.createDirectories(shard);
+        FileChannel channel = FileChannel.open(shard.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.lock();
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void sync(Path file, Path directory) throws IOException {
+        if (storageSync != null) {
+            storageSync.sync(file, directory);
+        }
+    }
+
+    public byte[] readBytesFromFile(Path processInstanceStorage) {
+        try {
+            return Files.readAllBytes(processInstanceStorage);
         } catch (IOException e) {
-            throw new RuntimeException("Unable to store process instance with id " + instance.id(), e);
+            throw new RuntimeException("Unable to read process instance from " + processInstanceStorage, e);
         }
     }
 
-    protected byte[] readBytesFromFile(Path processInstanceStorage) {
+    protected byte[] readBytesFromFileIfExists(Path processInstanceStorage) {
         try {
             return Files.readAllBytes(processInstanceStorage);
+        } catch (NoSuchFileException e) {
+            // removed while being iterated, e.g. completed by a signal
+            return null;
         } catch (IOException e) {
             throw new RuntimeException("Unable to read process instance from " + processInstanceStorage, e);
         }
     }
 
-    protected void disconnect(Path processInstanceStorage, ProcessInstance instance) {
+    protected void disconnect(Path processInstanceStorage, ProcessInstance instance, long version) {
+        String id = instance.id();
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
 
             try {
+                Optional<byte[]> snapshot = snapshots.get(id, version);
+                if (snapshot.isPresent()) {
+                    return marshaller.unmarshallWorkflowProcessInstance(snapshot.get(), process);
+                }
                 byte[] reloaded = readBytesFromFile(processInstanceStorage);
-                return marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
+                ((AbstractProcessInstance<?>) instance).setVersion(readVersion(reloaded));
+                return marshaller.unmarshallWorkflowProcessInstance(readData(reloaded), process);
             } catch (RuntimeException e) {
                 LOGGER.error("Unexpected exception thrown when reloading process instance {}", instance.id(), e);
                 return null;
@@ -179,7 +416,105 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         });
     }
 
+    protected static byte[] withHeader(long version, int status, String description, Set<String> subscriptions, byte[] data) {
+        byte[] encodedDescription = description == null ? new byte[0] : description.getBytes(StandardCharsets.UTF_8);
+        byte[] encodedSubscriptions = subscriptions == null ? new byte[0] : String.join(SUBSCRIPTION_SEPARATOR, subscriptions).getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(HEADER_SIZE + encodedDescription.length + encodedSubscriptions.length + data.length)
+                .putInt(HEADER_MAGIC)
+                .putLong(version)
+                .putInt(status)
+                .putInt(encodedDescription.length)
+                // unknown subscriptions are stored as -1
+                .putInt(subscriptions == null ? -1 : encodedSubscriptions.length)
+                .put(encodedDescription)
+                .put(encodedSubscriptions)
+                .put(data)
+                .array();
+    }
+
+    protected static int headerSize(byte[] stored) {
+        if (stored.length >= HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.wrap(stored);
+            if (header.getInt() == HEADER_MAGIC) {
+                return HEADER_SIZE + header.getInt(DESCRIPTION_LENGTH_OFFSET) + Math.max(0, header.getInt(SUBSCRIPTIONS_LENGTH_OFFSET));
+            }
+        }
+        // process instances stored before versioning was introduced have no header
+        return 0;
+    }
+
+    protected static long readVersion(byte[] stored) {
+        return headerSize(stored) > 0 ? ByteBuffer.wrap(stored).getLong(Integer.BYTES) : 0L;
+    }
+
+    protected static byte[] readData(byte[] stored) {
+        int headerSize = headerSize(stored);
+        return headerSize > 0 ? Arrays.copyOfRange(stored, headerSize, stored.length) : stored;
+    }
+
+    /**
+     * Reads the fixed size part of the header, i.e. everything but the description.
+     */
+    protected byte[] readHeader(Path processInstanceStorage) throws IOException {
+        try (InputStream input = Files.newInputStream(processInstanceStorage)) {
+            byte[] header = new byte[HEADER_SIZE];
+            int read = 0;
+            while (read < HEADER_SIZE) {
+                int count = input.read(header, read, HEADER_SIZE - read);
+                if (count < 0) {
+                    return Arrays.copyOf(header, read);
+                }
+                read += count;
+            }
+            return header;
+        }
+    }
+
+    protected boolean isTemporary(Path file) {
+        return file.getFileName().toString().endsWith(TEMPORARY_SUFFIX);
+    }
+
+    protected boolean isLockFile(Path file) {
+        return LOCK_FILE.equals(file.getFileName().toString());
+    }
+
+    private Object lock(String id) {
+        return locks[Math.floorMod(id.hashCode(), SHARDS)];
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete temporary file {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the status or description of the process instance stored in given file, read from
+     * the header or, for process instances stored before it held them, from the file attributes.
+     */
     public String getMetadata(Path file, String key) {
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+            if (input.readInt() == HEADER_MAGIC) {
+                input.readLong();
+                int status = input.readInt();
+                if (PI_STATUS.equals(key)) {
+                    return String.valueOf(status);
+                }
+                if (PI_DESCRIPTION.equals(key)) {
+                    byte[] description = new byte[input.readInt()];
+                    input.readInt();
+                    input.readFully(description);
+                    return new String(description, StandardCharsets.UTF_8);
+                }
+                return null;
+            }
+        } catch (IOException e) {
+            // too short to have a header, fall back to the file attributes
+        }
 
         if (supportsUserDefinedAttributes(file)) {
             UserDefinedFileAttributeView view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
@@ -195,6 +530,11 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         return null;
     }
 
+    /**
+     * Sets given file attribute, process instances keep their status and description in their header instead.
+     * @deprecated the status and description are read from the header, see {@link #getMetadata(Path, String)}
+     */
+    @Deprecated
     public boolean setMetadata(Path file, String key, String value) {
 
         if (supportsUserDefinedAttributes(file)) {
@@ -213,6 +553,34 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         return false;
     }
 
+    /**
+     * Returns the types of the events the process instance stored in given file waits for,
+     * or <code>null</code> if unknown.
+     */
+    public Set<String> getSubscriptions(Path file) {
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+            if (input.readInt() != HEADER_MAGIC) {
+                return null;
+            }
+            input.readLong();
+            input.readInt();
+            int descriptionLength = input.readInt();
+            int subscriptionsLength = input.readInt();
+            if (subscriptionsLength < 0) {
+                return null;
+            }
+            input.skipBytes(descriptionLength);
+            byte[] subscriptions = new byte[subscriptionsLength];
+            input.readFully(subscriptions);
+            if (subscriptionsLength == 0) {
+                return Collections.emptySet();
+            }
+            return new HashSet<>(Arrays.asList(new String(subscriptions, StandardCharsets.UTF_8).split(SUBSCRIPTION_SEPARATOR)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     protected boolean supportsUserDefinedAttributes(Path file) {
         try {
             return Files.getFileStore(file).supportsFileAttributeView(UserDefinedFileAttributeView.class);
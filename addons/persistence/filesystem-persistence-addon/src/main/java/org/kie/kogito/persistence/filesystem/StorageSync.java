@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.filesystem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forces stored files and directory entries (created, replaced or removed files) to disk.
+ * When grouping, the first caller forces the files and directories requested by every caller
+ * waiting at that time, files first, the others just wait for that to happen. A file requested
+ * by several callers meanwhile is forced once.
+ */
+class StorageSync {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StorageSync.class);
+
+    private final boolean group;
+
+    private final Object lock = new Object();
+    private Set<Path> pendingFiles = new LinkedHashSet<>();
+    private Set<Path> pendingDirectories = new LinkedHashSet<>();
+    private long requested;
+    private long completed;
+    private boolean syncing;
+
+    StorageSync(boolean group) {
+        this.group = group;
+    }
+
+    /**
+     * Forces given directory to disk, along with given file unless it is <code>null</code>.
+     */
+    void sync(Path file, Path directory) throws IOException {
+        if (!group) {
+            if (file != null) {
+                force(file);
+            }
+            force(directory);
+            return;
+        }
+        long ticket;
+        synchronized (lock) {
+            if (file != null) {
+                pendingFiles.add(file);
+            }
+            pendingDirectories.add(directory);
+            ticket = ++requested;
+        }
+        while (true) {
+            Set<Path> files;
+            Set<Path> directories;
+            long last;
+            synchronized (lock) {
+                while (syncing && completed < ticket) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for " + directory + " to be synced");
+                    }
+                }
+                if (completed >= ticket) {
+                    return;
+                }
+                syncing = true;
+                files = pendingFiles;
+                directories = pendingDirectories;
+                pendingFiles = new LinkedHashSet<>();
+                pendingDirectories = new LinkedHashSet<>();
+                last = requested;
+            }
+            boolean synced = false;
+            try {
+                for (Path path : files) {
+                    force(path);
+                }
+                for (Path path : directories) {
+                    force(path);
+                }
+                synced = true;
+            } finally {
+                synchronized (lock) {
+                    syncing = false;
+                    if (synced) {
+                        completed = last;
+                    } else {
+                        pendingFiles.addAll(files);
+                        pendingDirectories.addAll(directories);
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static void force(Path path) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // removed before being forced, its directory entry is forced anyway
+            return;
+        } catch (IOException e) {
+            // some platforms do not allow to open directories, their entries are synced by the file system
+            LOGGER.debug("Unable to open {} to sync it", path, e);
+            return;
+        }
+        try (FileChannel pathChannel = channel) {
+            pathChannel.force(true);
+        }
+    }
+}
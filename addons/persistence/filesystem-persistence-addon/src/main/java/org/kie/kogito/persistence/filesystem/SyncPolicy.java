@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.filesystem;
+
+import java.util.Locale;
+
+/**
+ * Defines when the file based storage of process instances forces its changes to disk.
+ */
+public enum SyncPolicy {
+
+    /**
+     * Leaves flushing to the operating system, a crash might lose the most recent changes
+     * but never leaves a partially written process instance behind.
+     */
+    NONE,
+    /**
+     * Forces every stored process instance and the directory entry pointing to it to disk
+     * before the change is considered done.
+     */
+    WRITE,
+    /**
+     * Like {@link #WRITE} a change is done once on disk, but the process instances and directory
+     * entries of concurrent changes are forced together by one of them once in place, so that
+     * the cost is shared and a process instance changed several times meanwhile is forced once.
+     * A crash before that happens behaves as {@link #NONE}.
+     */
+    GROUP;
+
+    public static SyncPolicy fromValue(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return NONE;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -15,7 +15,18 @@
 
 package org.kie.persistence.filesystem;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.drools.core.io.impl.ClassPathResource;
 import org.jbpm.process.instance.impl.Action;
@@ -27,9 +38,11 @@ import org.kie.api.definition.process.Node;
 import org.kie.kogito.auth.SecurityPolicy;
 import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
 import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
+import org.kie.kogito.persistence.filesystem.SyncPolicy;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.WorkItem;
@@ -51,7 +64,7 @@ import static org.kie.api.runtime.process.ProcessInstance.STATE_ACTIVE;
 import static org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED;
 import static org.kie.api.runtime.process.ProcessInstance.STATE_ERROR;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -124,6 +137,147 @@ class FileSystemProcessInstancesTest {
         assertThat(instances.size()).isZero();
     }
 
+    @Test
+    void testStreamAndPagedValues() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        for (int i = 0; i < 3; i++) {
+            process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test" + i))).start();
+        }
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream()) {
+            assertThat(stream.count()).isEqualTo(3);
+        }
+        List<String> pages = new ArrayList<>();
+        instances.values(ProcessInstanceReadMode.READ_ONLY, 0, 2).forEach(pi -> pages.add(pi.id()));
+        assertThat(pages).hasSize(2);
+        instances.values(ProcessInstanceReadMode.READ_ONLY, 2, 2).forEach(pi -> pages.add(pi.id()));
+        assertThat(pages).hasSize(3).doesNotHaveDuplicates().isSorted();
+        assertThat(instances.values(ProcessInstanceReadMode.READ_ONLY, 3, 2)).isEmpty();
+
+        try (Stream<ProcessInstance<BpmnVariables>> stream = instances.stream(ProcessInstanceReadMode.MUTABLE)) {
+            stream.forEach(ProcessInstance::abort);
+        }
+        assertThat(instances.size()).isZero();
+    }
+
+    @Test
+    void testCountByStatus() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> first = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "first")));
+        first.start();
+        process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "second"))).start();
+
+        FileSystemProcessInstances fileSystemBasedStorage = (FileSystemProcessInstances) process.instances();
+        assertThat(fileSystemBasedStorage.size()).isEqualTo(2);
+        assertThat(fileSystemBasedStorage.countByStatus()).containsExactly(entry(STATE_ACTIVE, 2));
+
+        // counted from the stored files, as another process sharing the storage would
+        FileSystemProcessInstances shared = new FileSystemProcessInstances(process, Paths.get("target"));
+        assertThat(shared.size()).isEqualTo(2);
+        assertThat(shared.countByStatus()).containsExactly(entry(STATE_ACTIVE, 2));
+
+        first.abort();
+        assertThat(fileSystemBasedStorage.size()).isOne();
+        assertThat(fileSystemBasedStorage.countByStatus()).containsExactly(entry(STATE_ACTIVE, 1));
+        assertThat(shared.size()).isOne();
+        assertThat(shared.countByStatus()).containsExactly(entry(STATE_ACTIVE, 1));
+    }
+
+    @Test
+    void testWaitingFor() {
+        BpmnProcess process = createProcess(null, "BPMN2-IntermediateCatchEventSignal.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("x", "test")));
+        processInstance.start();
+
+        FileSystemProcessInstances fileSystemBasedStorage = (FileSystemProcessInstances) process.instances();
+        Set<String> subscriptions = fileSystemBasedStorage.getSubscriptions(fileSystemBasedStorage.storagePath(processInstance.id()));
+        assertThat(subscriptions).contains("MyMessage").doesNotContain("notWaitedFor");
+        try (Stream<ProcessInstance> stream = fileSystemBasedStorage.waitingFor("notWaitedFor", ProcessInstanceReadMode.READ_ONLY)) {
+            assertThat(stream).isEmpty();
+        }
+        for (String subscription : subscriptions) {
+            try (Stream<ProcessInstance> stream = fileSystemBasedStorage.waitingFor(subscription, ProcessInstanceReadMode.READ_ONLY)) {
+                assertThat(stream).extracting(ProcessInstance::id).containsExactly(processInstance.id());
+            }
+        }
+
+        // read from the stored files, as another process sharing the storage would
+        FileSystemProcessInstances shared = new FileSystemProcessInstances(process, Paths.get("target"));
+        try (Stream<ProcessInstance> stream = shared.waitingFor("notWaitedFor", ProcessInstanceReadMode.READ_ONLY)) {
+            assertThat(stream).isEmpty();
+        }
+        try (Stream<ProcessInstance> stream = shared.waitingFor("MyMessage", ProcessInstanceReadMode.READ_ONLY)) {
+            assertThat(stream).extracting(ProcessInstance::id).containsExactly(processInstance.id());
+        }
+
+        processInstance.abort();
+        for (String subscription : subscriptions) {
+            try (Stream<ProcessInstance> stream = fileSystemBasedStorage.waitingFor(subscription, ProcessInstanceReadMode.READ_ONLY)) {
+                assertThat(stream).isEmpty();
+            }
+            try (Stream<ProcessInstance> stream = shared.waitingFor(subscription, ProcessInstanceReadMode.READ_ONLY)) {
+                assertThat(stream).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    void testFlatLayoutMovedIntoShards() throws Exception {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        FileSystemProcessInstances fileSystemBasedStorage = (FileSystemProcessInstances) process.instances();
+        Path sharded = fileSystemBasedStorage.storagePath(processInstance.id());
+        Path flat = Paths.get("target", process.id(), processInstance.id());
+        Files.move(sharded, flat);
+        Files.write(Paths.get("target", process.id(), processInstance.id() + ".tmp"), new byte[] { 1 });
+
+        FileSystemProcessInstances reopened = new FileSystemProcessInstances(process, Paths.get("target"));
+        assertThat(Files.exists(flat)).isFalse();
+        assertThat(Files.exists(sharded)).isTrue();
+        assertThat(reopened.size()).isOne();
+        assertThat(reopened.findById(processInstance.id())).isPresent();
+        try (Stream<Path> files = Files.list(Paths.get("target", process.id()))) {
+            assertThat(files).allMatch(Files::isDirectory);
+        }
+
+        // a process instance left behind by an interrupted migration replaces the moved copy
+        Files.copy(sharded, flat);
+        assertThat(new FileSystemProcessInstances(process, Paths.get("target")).size()).isOne();
+        assertThat(Files.exists(flat)).isFalse();
+        assertThat(Files.exists(sharded)).isTrue();
+
+        processInstance.abort();
+    }
+
+    @Test
+    void testGroupSyncPolicy() throws Exception {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new FileSystemProcessInstancesFactory("group"));
+        process.configure();
+        process.instances().values(ProcessInstanceReadMode.MUTABLE).forEach(p -> p.abort());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> started = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                started.add(executor.submit(() -> process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test"))).start()));
+            }
+            for (Future<?> future : started) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(process.instances().size()).isEqualTo(8);
+        assertThat(new FileSystemProcessInstances(process, Paths.get("target"), SyncPolicy.GROUP).size()).isEqualTo(8);
+
+        process.instances().values(ProcessInstanceReadMode.MUTABLE).forEach(p -> p.abort());
+        assertThat(process.instances().size()).isZero();
+    }
+
     @Test
     void testBasicFlow() {
         BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
@@ -137,8 +291,10 @@ class FileSystemProcessInstancesTest {
         assertThat(fileSystemBasedStorage.size()).isOne();
         assertThat(fileSystemBasedStorage.exists(processInstance.id())).isTrue();
         verify(fileSystemBasedStorage).create(any(), any());
-        verify(fileSystemBasedStorage).setMetadata(any(), eq(FileSystemProcessInstances.PI_DESCRIPTION), eq("User Task"));
-        verify(fileSystemBasedStorage).setMetadata(any(), eq(FileSystemProcessInstances.PI_STATUS), eq("1"));
+        Path stored = fileSystemBasedStorage.storagePath(processInstance.id());
+        assertThat(stored.getParent().getParent()).isEqualTo(Paths.get("target", process.id()));
+        assertThat(fileSystemBasedStorage.getMetadata(stored, FileSystemProcessInstances.PI_DESCRIPTION)).isEqualTo("User Task");
+        assertThat(fileSystemBasedStorage.getMetadata(stored, FileSystemProcessInstances.PI_STATUS)).isEqualTo("1");
 
         String testVar = (String) processInstance.variables().get("test");
         assertThat(testVar).isEqualTo("test");
@@ -158,6 +314,54 @@ class FileSystemProcessInstancesTest {
         assertThat(fileSystemBasedStorage.size()).isZero();
     }
 
+    @Test
+    void testReloadFromSnapshot() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        FileSystemProcessInstances fileSystemBasedStorage = (FileSystemProcessInstances) process.instances();
+        assertThat(processInstance.workItems(securityPolicy)).hasSize(1);
+        verify(fileSystemBasedStorage, never()).readBytesFromFile(any());
+    }
+
+    @Test
+    void testConcurrentUpdate() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> first = process.instances().findById(processInstance.id()).get();
+        ProcessInstance<BpmnVariables> second = process.instances().findById(processInstance.id()).get();
+
+        first.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "first")));
+        assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class)
+                .isThrownBy(() -> second.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "second"))));
+
+        ProcessInstance<BpmnVariables> reloaded = process.instances().findById(processInstance.id()).get();
+        assertThat(reloaded.variables().toMap()).containsEntry("test", "first");
+        reloaded.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "third")));
+        assertThat(process.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "third");
+        assertThat(process.instances().size()).isOne();
+
+        reloaded.abort();
+    }
+
+    @Test
+    void testUpdateRemovedInstance() {
+        BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> loaded = process.instances().findById(processInstance.id()).get();
+        processInstance.abort();
+
+        // as with the other stores, a process instance removed meanwhile is a conflict
+        assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class)
+                .isThrownBy(() -> loaded.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "updated"))));
+        assertThat(process.instances().size()).isZero();
+    }
+
     @Test
     void testBasicFlowWithStartFrom() {
         BpmnProcess process = createProcess(null, "BPMN2-UserTask.bpmn2");
@@ -168,7 +372,8 @@ class FileSystemProcessInstancesTest {
         assertThat(processInstance.description()).isEqualTo("User Task");
 
         FileSystemProcessInstances fileSystemBasedStorage = (FileSystemProcessInstances) process.instances();
-        verify(fileSystemBasedStorage).update(any(), any());
+        verify(fileSystemBasedStorage).create(any(), any());
+        assertThat(fileSystemBasedStorage.exists(processInstance.id())).isTrue();
 
         String testVar = (String) processInstance.variables().get("test");
         assertThat(testVar).isEqualTo("test");
@@ -208,8 +413,9 @@ class FileSystemProcessInstancesTest {
         FileSystemProcessInstances fileSystemBasedStorage = (FileSystemProcessInstances) process.instances();
         assertThat(fileSystemBasedStorage.exists(processInstance.id())).isTrue();
         verify(fileSystemBasedStorage).create(processInstance.id(), processInstance);
-        verify(fileSystemBasedStorage).setMetadata(any(), eq(FileSystemProcessInstances.PI_DESCRIPTION), eq("User Task"));
-        verify(fileSystemBasedStorage).setMetadata(any(), eq(FileSystemProcessInstances.PI_STATUS), eq("1"));
+        Path stored = fileSystemBasedStorage.storagePath(processInstance.id());
+        assertThat(fileSystemBasedStorage.getMetadata(stored, FileSystemProcessInstances.PI_DESCRIPTION)).isEqualTo("User Task");
+        assertThat(fileSystemBasedStorage.getMetadata(stored, FileSystemProcessInstances.PI_STATUS)).isEqualTo("1");
 
         String testVar = (String) processInstance.variables().get("test");
         assertThat(testVar).isEqualTo("test");
@@ -234,6 +440,16 @@ class FileSystemProcessInstancesTest {
 
     private class FileSystemProcessInstancesFactory extends KogitoProcessInstancesFactory {
 
+        private final String syncPolicy;
+
+        FileSystemProcessInstancesFactory() {
+            this("none");
+        }
+
+        FileSystemProcessInstancesFactory(String syncPolicy) {
+            this.syncPolicy = syncPolicy;
+        }
+
         @Override
         public FileSystemProcessInstances createProcessInstances(Process<?> process) {
             FileSystemProcessInstances instances = spy(super.createProcessInstances(process));
@@ -244,5 +460,10 @@ class FileSystemProcessInstancesTest {
         public String path() {
             return "target";
         }
+
+        @Override
+        public String syncPolicy() {
+            return syncPolicy;
+        }
     }
 }
@@ -15,29 +15,48 @@
 
 package org.kie.kogito.infinispan;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.protostream.BaseMarshaller;
 import org.kie.kogito.persistence.protobuf.ProtoStreamObjectMarshallingStrategy;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceSnapshotCache;
 
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
 @SuppressWarnings({"rawtypes"})
 public class CacheProcessInstances implements MutableProcessInstances {
 
+    private static final int BATCH_SIZE = 100;
+    private static final long UNKNOWN_VERSION = -1;
+
     private final RemoteCache<String, byte[]> cache;
     private ProcessInstanceMarshaller marshaller;
+    private final ProcessInstanceSnapshotCache<byte[]> snapshots = new ProcessInstanceSnapshotCache<>();
     private org.kie.kogito.process.Process<?> process;
 
     public CacheProcessInstances(Process<?> process, RemoteCacheManager cacheManager, String templateName, String proto, BaseMarshaller<?>... marshallers) {
@@ -53,26 +72,56 @@ public class CacheProcessInstances implements MutableProcessInstances {
 
     @Override
     public Optional<? extends ProcessInstance> findById(String id, ProcessInstanceReadMode mode) {
-        byte[] data = cache.get(id);
+        MetadataValue<byte[]> data = cache.getWithMetadata(id);
         if (data == null) {
             return Optional.empty();
         }
 
-        return Optional.of(mode == MUTABLE ?
-                                   marshaller.unmarshallProcessInstance(data, process) :
-                                   marshaller.unmarshallReadOnlyProcessInstance(data, process));
+        return Optional.of(unmarshall(data, mode));
     }
 
     @Override
     public Collection<? extends ProcessInstance> values(ProcessInstanceReadMode mode) {
-        return cache.values()
-                .parallelStream()
-                .map(data -> mode == MUTABLE ?
-                        marshaller.unmarshallProcessInstance(data, process) :
-                        marshaller.unmarshallReadOnlyProcessInstance(data, process))
+        try (Stream<ProcessInstance> stream = stream(mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Collection<? extends ProcessInstance> values(ProcessInstanceReadMode mode, int offset, int limit) {
+        // only the keys are fetched to sort them, the page is then read entry by entry
+        List<String> ids;
+        try (Stream<String> keys = cache.keySet().stream()) {
+            ids = keys.sorted().skip(offset).limit(limit).collect(Collectors.toList());
+        }
+        return ids.stream()
+                .map(cache::getWithMetadata)
+                .filter(Objects::nonNull)
+                .map(data -> unmarshall(data, mode))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<ProcessInstance> stream(ProcessInstanceReadMode mode) {
+        return entries().map(data -> unmarshall(data, mode));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Stream<MetadataValue<byte[]>> entries() {
+        CloseableIterator<Map.Entry<Object, MetadataValue<Object>>> iterator = cache.retrieveEntriesWithMetadata(null, BATCH_SIZE);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(iterator::close)
+                .map(entry -> (MetadataValue<byte[]>) (MetadataValue) entry.getValue());
+    }
+
+    protected ProcessInstance unmarshall(MetadataValue<byte[]> data, ProcessInstanceReadMode mode) {
+        ProcessInstance instance = mode == MUTABLE ?
+                marshaller.unmarshallProcessInstance(data.getValue(), process) :
+                marshaller.unmarshallReadOnlyProcessInstance(data.getValue(), process);
+        ((AbstractProcessInstance<?>) instance).setVersion(data.getVersion());
+        return instance;
+    }
+
     @Override
     public void update(String id, ProcessInstance instance) {
         updateStorage(id, instance, false);
@@ -80,6 +129,7 @@ public class CacheProcessInstances implements MutableProcessInstances {
 
     @Override
     public void remove(String id) {
+        snapshots.invalidate(id);
         cache.remove(id);
     }
 
@@ -96,6 +146,35 @@ public class CacheProcessInstances implements MutableProcessInstances {
         updateStorage(id, instance, true);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public void updateAll(Map instances) {
+        Map<String, byte[]> data = new HashMap<>();
+        Map<String, CompletableFuture<Long>> written = new HashMap<>();
+        // conditional writes cannot be done in bulk, they are sent without waiting for each other instead
+        ((Map<String, ProcessInstance>) instances).forEach((id, instance) -> {
+            if (isActive(instance)) {
+                byte[] marshalled = marshaller.marshallProcessInstance(instance);
+                data.put(id, marshalled);
+                written.put(id, replaceAsync(id, marshalled, version(instance))
+                        .thenCompose(replaced -> replaced ? storedVersion(id, marshalled) : CompletableFuture.<Long> completedFuture(null)));
+            }
+        });
+        List<String> conflicts = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Long>> entry : written.entrySet()) {
+            String id = entry.getKey();
+            Long version = entry.getValue().join();
+            if (version != null) {
+                disconnect(id, (ProcessInstance) instances.get(id), data.get(id), version);
+            } else {
+                conflicts.add(id);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new ProcessInstanceOptimisticLockingException(conflicts);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected void updateStorage(String id, ProcessInstance instance, boolean checkDuplicates) {
         if (isActive(instance)) {
@@ -106,18 +185,55 @@ public class CacheProcessInstances implements MutableProcessInstances {
                 if (existing != null) {
                     throw new ProcessInstanceDuplicatedException(id);
                 }
-            } else {
-                cache.put(id, data);
+            } else if (!replaceAsync(id, data, version(instance)).join()) {
+                // a process instance removed in the meantime, e.g. completed by another node, is a conflict as well
+                throw new ProcessInstanceOptimisticLockingException(id);
             }
 
-            ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
-                byte[] reloaded = cache.get(id);
-                if (reloaded != null) {
-                    return marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
-                }
-                return null;
-            });
+            disconnect(id, instance, data, storedVersion(id, data).join());
+        }
+    }
+
+    /**
+     * Replaces the stored process instance only if it still is the version the given instance was loaded from.
+     * An unknown version, see {@link #storedVersion(String, byte[])}, never matches.
+     */
+    protected CompletableFuture<Boolean> replaceAsync(String id, byte[] data, long version) {
+        if (version < 0) {
+            return CompletableFuture.completedFuture(false);
         }
+        return cache.replaceWithVersionAsync(id, data, version);
+    }
+
+    /**
+     * Reads back the version the server assigned to the given data, Hot Rod writes do not return it.
+     * @return the stored version, or {@link #UNKNOWN_VERSION} when the process instance was written again meanwhile
+     */
+    protected CompletableFuture<Long> storedVersion(String id, byte[] data) {
+        return cache.getWithMetadataAsync(id)
+                .thenApply(stored -> stored != null && Arrays.equals(stored.getValue(), data) ? stored.getVersion() : UNKNOWN_VERSION);
+    }
+
+    protected long version(ProcessInstance instance) {
+        return ((AbstractProcessInstance<?>) instance).version();
+    }
+
+    protected void disconnect(String id, ProcessInstance instance, byte[] data, long version) {
+        snapshots.put(id, version, data);
+        ((AbstractProcessInstance<?>) instance).setVersion(version);
+        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
+            // the snapshot only saves reading the data back, the version is kept on the instance
+            Optional<byte[]> written = snapshots.get(id, version);
+            if (written.isPresent()) {
+                return marshaller.unmarshallWorkflowProcessInstance(written.get(), process);
+            }
+            MetadataValue<byte[]> reloaded = cache.getWithMetadata(id);
+            if (reloaded != null) {
+                ((AbstractProcessInstance<?>) instance).setVersion(reloaded.getVersion());
+                return marshaller.unmarshallWorkflowProcessInstance(reloaded.getValue(), process);
+            }
+            return null;
+        });
     }
 
     @Override
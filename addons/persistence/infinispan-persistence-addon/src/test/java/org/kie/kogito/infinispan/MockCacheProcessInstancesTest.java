@@ -18,6 +18,7 @@ package org.kie.kogito.infinispan;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
@@ -25,6 +26,7 @@ import org.drools.core.io.impl.ClassPathResource;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.RemoteCacheManagerAdmin;
+import org.infinispan.client.hotrod.impl.MetadataValueImpl;
 import org.infinispan.protostream.BaseMarshaller;
 import org.jbpm.process.instance.impl.Action;
 import org.jbpm.workflow.core.DroolsAction;
@@ -37,12 +39,13 @@ import org.kie.kogito.auth.SecurityPolicy;
 import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
 import org.kie.kogito.process.ProcessError;
 import org.kie.kogito.process.ProcessInstance;
-import org.kie.kogito.process.ProcessInstanceNotFoundException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.bpmn2.BpmnProcess;
 import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.services.identity.StaticIdentityProvider;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -53,20 +56,26 @@ import static org.kie.api.runtime.process.ProcessInstance.STATE_ACTIVE;
 import static org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED;
 import static org.kie.api.runtime.process.ProcessInstance.STATE_ERROR;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class MockCacheProcessInstancesTest {
 
     private final ConcurrentHashMap<Object, Object> mockCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Long> mockVersions = new ConcurrentHashMap<>();
     private RemoteCacheManager cacheManager;
+    private RemoteCache<Object, Object> cache;
 
     @BeforeEach
     public void setup() {
         mockCache.clear();
+        mockVersions.clear();
         cacheManager = mock(RemoteCacheManager.class);
         RemoteCacheManagerAdmin admin = mock(RemoteCacheManagerAdmin.class);
-        RemoteCache<Object, Object> cache = mock(RemoteCache.class);
+        cache = mock(RemoteCache.class);
 
         when(cacheManager.administration()).thenReturn(admin);
         when(admin.getOrCreateCache(any(), (String) any())).thenReturn(cache);
@@ -74,17 +83,42 @@ public class MockCacheProcessInstancesTest {
         when(cache.put(any(), any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
             Object value = invocation.getArgument(1, Object.class);
+            mockVersions.merge(key, 1L, Long::sum);
             return mockCache.put(key, value);
         });
         when(cache.putIfAbsent(any(), any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
             Object value = invocation.getArgument(1, Object.class);
+            mockVersions.merge(key, 1L, Long::sum);
             return mockCache.put(key, value);
         });
+        when(cache.replaceWithVersionAsync(any(), any(), anyLong())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            Object value = invocation.getArgument(1, Object.class);
+            long version = invocation.getArgument(2, Long.class);
+            synchronized (mockCache) {
+                if (!mockCache.containsKey(key) || mockVersions.get(key) != version) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                mockVersions.merge(key, 1L, Long::sum);
+                mockCache.put(key, value);
+                return CompletableFuture.completedFuture(true);
+            }
+        });
         when(cache.get(any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
             return mockCache.get(key);
         });
+        when(cache.getWithMetadata(any())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            Object value = mockCache.get(key);
+            return value == null ? null : new MetadataValueImpl<>(0, -1, 0, -1, mockVersions.get(key), value);
+        });
+        when(cache.getWithMetadataAsync(any())).then(invocation -> {
+            Object key = invocation.getArgument(0, Object.class);
+            Object value = mockCache.get(key);
+            return CompletableFuture.completedFuture(value == null ? null : new MetadataValueImpl<>(0, -1, 0, -1, mockVersions.get(key), value));
+        });
         when(cache.remove(any())).then(invocation -> {
             Object key = invocation.getArgument(0, Object.class);
             return mockCache.remove(key);
@@ -154,6 +188,28 @@ public class MockCacheProcessInstancesTest {
         assertThat(processInstance.status()).isEqualTo(STATE_COMPLETED);
     }
 
+    @Test
+    public void testConcurrentUpdate() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> first = process.instances().findById(processInstance.id()).get();
+        ProcessInstance<BpmnVariables> second = process.instances().findById(processInstance.id()).get();
+
+        first.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "first")));
+        assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class)
+                .isThrownBy(() -> second.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "second"))));
+
+        ProcessInstance<BpmnVariables> reloaded = process.instances().findById(processInstance.id()).get();
+        assertThat(reloaded.variables().toMap()).containsEntry("test", "first");
+        reloaded.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "third")));
+        assertThat(process.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "third");
+    }
+
     @Test
     public void testBasicFlowNoActors() {
         BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask-NoActors.bpmn2")).get(0);
@@ -188,12 +244,33 @@ public class MockCacheProcessInstancesTest {
         assertThat(processInstance.status()).isEqualTo(STATE_ACTIVE);
         mockCache.clear();
 
-        assertThatThrownBy(() -> processInstance.workItems().get(0)).isInstanceOf(ProcessInstanceNotFoundException.class);
+        // the instance is reloaded from the snapshot it was stored with, its removal is only noticed when storing it
+        assertThat(processInstance.workItems()).hasSize(1);
+        assertThatThrownBy(() -> processInstance.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "updated"))))
+                .isInstanceOf(ProcessInstanceOptimisticLockingException.class);
 
         Optional<? extends ProcessInstance<BpmnVariables>> loaded = process.instances().findById(processInstance.id());
         assertThat(loaded).isNotPresent();
     }
 
+    @Test
+    public void testUpdatesDoNotReadBackStoredInstance() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new CacheProcessInstancesFactory(cacheManager));
+        process.configure();
+
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        processInstance.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "first")));
+        processInstance.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "second")));
+        assertThat(processInstance.workItems()).hasSize(1);
+
+        verify(cache, never()).getWithMetadata(any());
+        // the instance keeps the version assigned by the server, not one depending on a local snapshot
+        assertThat(((AbstractProcessInstance<?>) processInstance).version()).isEqualTo(mockVersions.get(processInstance.id()));
+        assertThat(process.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "second");
+    }
+
     @Test
     public void testBasicFlowWithErrorAndRetry() {
         testBasicFlowWithError((processInstance) -> {
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.PreDestroy;
+
+import org.kie.kogito.persistence.journal.Journal;
+import org.kie.kogito.persistence.journal.JournalProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstancesFactory;
+
+/**
+ * This class must always have exact FQCN as <code>org.kie.kogito.persistence.KogitoProcessInstancesFactory</code>
+ *
+ */
+public abstract class KogitoProcessInstancesFactory implements ProcessInstancesFactory, AutoCloseable {
+
+    private final List<JournalProcessInstances<?>> created = new CopyOnWriteArrayList<>();
+
+    @Override
+    public JournalProcessInstances<?> createProcessInstances(Process<?> process) {
+        JournalProcessInstances<?> instances = new JournalProcessInstances<>(process, Paths.get(path()), segmentSize(), Boolean.parseBoolean(sync()));
+        created.add(instances);
+        return instances;
+    }
+
+    /**
+     * Closes the journals of all the process instances created, when the application shuts down
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        created.forEach(JournalProcessInstances::close);
+        created.clear();
+    }
+
+    public abstract String path();
+
+    public int segmentSize() {
+        return Journal.DEFAULT_SEGMENT_SIZE;
+    }
+
+    /**
+     * Returns <code>true</code> if every change must be forced to disk before returning
+     */
+    public String sync() {
+        return Boolean.FALSE.toString();
+    }
+}
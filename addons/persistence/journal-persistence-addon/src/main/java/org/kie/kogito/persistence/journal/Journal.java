@@ -0,0 +1,364 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only log of records identified by an id, kept in memory mapped segment files.
+ * <p>
+ * Every change appends a record to the active segment, and an in memory index points to the
+ * latest record of each id. When opened, the index is rebuilt by replaying the segments in order,
+ * ignoring a partially written record at the end of the log. Records superseded by later changes
+ * are dropped by compacting the sealed segments that are mostly garbage, least live first: their
+ * live records are appended again, and the segment is unmapped and its file deleted.
+ */
+public class Journal implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Journal.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+    public static final long DEFAULT_COMPACTION_INTERVAL = 10000L;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean sync;
+    private final double compactionThreshold;
+    private final ScheduledExecutorService compactor;
+
+    private final Map<String, Record> index = new ConcurrentHashMap<>();
+    // guarded by this
+    private final TreeMap<Long, JournalSegment> segments = new TreeMap<>();
+    private JournalSegment active;
+    private boolean closed;
+
+    public Journal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, false, DEFAULT_COMPACTION_THRESHOLD, DEFAULT_COMPACTION_INTERVAL);
+    }
+
+    /**
+     * @param directory where the segment files are kept
+     * @param segmentSize size in bytes of every segment file
+     * @param sync if every change is forced to disk before returning
+     * @param compactionThreshold ratio of live records below which a sealed segment is compacted
+     * @param compactionInterval milliseconds between compactions, compaction is disabled if not positive
+     */
+    public Journal(Path directory, int segmentSize, boolean sync, double compactionThreshold, long compactionInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+        this.compactionThreshold = compactionThreshold;
+        try {
+            Files.createDirectories(directory);
+            replay();
+        } catch (IOException e) {
+            throw new JournalException("Unable to open journal in " + directory, e);
+        }
+        if (compactionInterval > 0) {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "kogito-journal-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.compactor.scheduleWithFixedDelay(this::compactQuietly, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactor = null;
+        }
+    }
+
+    public Record get(String id) {
+        return index.get(id);
+    }
+
+    public boolean contains(String id) {
+        return index.containsKey(id);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the latest record of every id, as of the time of the call.
+     */
+    public Collection<Record> records() {
+        return new ArrayList<>(index.values());
+    }
+
+    public synchronized void put(String id, long version, int status, byte[] data) {
+        checkOpen();
+        Record record = append(JournalSegment.PUT, id, version, status, data);
+        record.segment.addLiveBytes(record.length);
+        Record superseded = index.put(id, record);
+        if (superseded != null) {
+            release(superseded);
+            superseded.successor = record;
+        }
+        forceIfNeeded();
+    }
+
+    public synchronized boolean delete(String id) {
+        checkOpen();
+        Record removed = index.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        append(JournalSegment.DELETE, id, removed.version, removed.status, null);
+        release(removed);
+        forceIfNeeded();
+        return true;
+    }
+
+    /**
+     * Compacts the sealed segments whose ratio of live records is below the threshold, starting
+     * with the least live one. Deletions of a segment that is not the oldest are appended again
+     * while the record is still deleted, as an older segment may hold a put of it.
+     *
+     * @return the number of compacted segments
+     */
+    public synchronized int compact() {
+        if (closed) {
+            return 0;
+        }
+        // only the segments sealed when starting are compacted, so that deletions appended again are not compacted over and over
+        List<JournalSegment> candidates = segments.values().stream()
+                .filter(segment -> segment != active && liveRatio(segment) < compactionThreshold)
+                .sorted(Comparator.comparingDouble(Journal::liveRatio))
+                .collect(Collectors.toList());
+        for (JournalSegment segment : candidates) {
+            boolean oldest = segment == segments.firstEntry().getValue();
+            for (Record record : read(segment)) {
+                if (record.type == JournalSegment.PUT) {
+                    Record latest = index.get(record.id);
+                    if (latest != null && latest.segment == segment && latest.offset == record.offset) {
+                        Record moved = append(JournalSegment.PUT, record.id, record.version, record.status, record.data());
+                        moved.segment.addLiveBytes(moved.length);
+                        index.put(record.id, moved);
+                        latest.successor = moved;
+                    }
+                } else if (!oldest && !index.containsKey(record.id)) {
+                    append(JournalSegment.DELETE, record.id, record.version, record.status, null);
+                }
+            }
+            segments.remove(segment.id());
+            // the moved records must be on disk before the only other copy is gone
+            segments.values().forEach(JournalSegment::force);
+            segment.unmap();
+            try {
+                Files.deleteIfExists(segment.file());
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete compacted journal segment {}", segment.file(), e);
+            }
+        }
+        return candidates.size();
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Stops compacting, forces and unmaps all segments. The journal can not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+            try {
+                compactor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            closed = true;
+            segments.values().forEach(segment -> {
+                segment.force();
+                segment.unmap();
+            });
+            segments.clear();
+            index.clear();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            LOGGER.error("Unexpected exception thrown when compacting journal in {}", directory, e);
+        }
+    }
+
+    private void replay() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listed = Files.list(directory)) {
+            files = listed.filter(this::isSegment).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            JournalSegment segment = JournalSegment.open(id, file, segmentSize);
+            int end = 0;
+            for (Record record : read(segment)) {
+                if (record.type == JournalSegment.PUT) {
+                    record.segment.addLiveBytes(record.length);
+                    release(index.put(record.id, record));
+                } else {
+                    release(index.remove(record.id));
+                }
+                end = record.offset + record.length;
+            }
+            segment.recover(end);
+            segments.put(id, segment);
+            active = segment;
+        }
+        if (active == null) {
+            active = newSegment(0L, segmentSize);
+        }
+        LOGGER.debug("Replayed {} records from {} journal segments in {}", index.size(), segments.size(), directory);
+    }
+
+    private List<Record> read(JournalSegment segment) {
+        List<Record> records = new ArrayList<>();
+        int offset = 0;
+        Record record;
+        while ((record = segment.read(offset)) != null) {
+            records.add(record);
+            offset += record.length;
+        }
+        return records;
+    }
+
+    private Record append(byte type, String id, long version, int status, byte[] data) {
+        int recordSize = JournalSegment.recordSize(id, data);
+        if (!active.hasRoomFor(recordSize)) {
+            try {
+                active = newSegment(active.id() + 1, Math.max(segmentSize, recordSize + Integer.BYTES));
+            } catch (IOException e) {
+                throw new JournalException("Unable to create journal segment in " + directory, e);
+            }
+        }
+        return active.read(active.append(type, id, version, status, data));
+    }
+
+    private JournalSegment newSegment(long id, int size) throws IOException {
+        JournalSegment segment = JournalSegment.open(id, directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)), size);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private static double liveRatio(JournalSegment segment) {
+        return segment.position() == 0 ? 1 : (double) segment.liveBytes() / segment.position();
+    }
+
+    private void release(Record superseded) {
+        if (superseded != null) {
+            superseded.segment.addLiveBytes(-superseded.length);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new JournalException("Journal in " + directory + " is closed");
+        }
+    }
+
+    private void forceIfNeeded() {
+        if (sync) {
+            active.force();
+        }
+    }
+
+    private boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return Files.isRegularFile(file) && name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Record of the journal, its data is read from the segment on demand.
+     */
+    public static final class Record {
+
+        private final byte type;
+        private final String id;
+        private final long version;
+        private final int status;
+        private final JournalSegment segment;
+        private final int offset;
+        private final int length;
+        private final int dataOffset;
+        private final int dataLength;
+        // later record of the same id, appended by a change or a compaction, to read from once this segment is unmapped
+        private volatile Record successor;
+
+        Record(byte type, String id, long version, int status, JournalSegment segment, int offset, int length, int dataOffset, int dataLength) {
+            this.type = type;
+            this.id = id;
+            this.version = version;
+            this.status = status;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.dataOffset = dataOffset;
+            this.dataLength = dataLength;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public byte[] data() {
+            Record current = this;
+            byte[] data;
+            while ((data = current.segment.readData(current.dataOffset, current.dataLength)) == null) {
+                if (current.successor == null) {
+                    throw new JournalException("Record " + id + " is no longer in the journal");
+                }
+                current = current.successor;
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.journal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.kie.kogito.Model;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceStatusIndex;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
+
+/**
+ * Stores the process instances of a process in a {@link Journal}, one per process
+ * under <code>&lt;storage&gt;/&lt;processId&gt;</code>.
+ */
+public class JournalProcessInstances<T extends Model> implements MutableProcessInstances<T>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalProcessInstances.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Process<?> process;
+    private final Journal journal;
+    private final ProcessInstanceMarshaller marshaller;
+    private final ProcessInstanceStatusIndex statusIndex = new ProcessInstanceStatusIndex();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public JournalProcessInstances(Process<?> process, Path storage) {
+        this(process, storage, Journal.DEFAULT_SEGMENT_SIZE, false);
+    }
+
+    public JournalProcessInstances(Process<?> process, Path storage, int segmentSize, boolean sync) {
+        this(process, new Journal(Paths.get(storage.toString(), process.id()), segmentSize, sync, Journal.DEFAULT_COMPACTION_THRESHOLD, Journal.DEFAULT_COMPACTION_INTERVAL),
+             new ProcessInstanceMarshaller());
+    }
+
+    public JournalProcessInstances(Process<?> process, Journal journal, ProcessInstanceMarshaller marshaller) {
+        this.process = process;
+        this.journal = journal;
+        this.marshaller = marshaller;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        journal.records().forEach(record -> statusIndex.update(record.id(), record.status()));
+    }
+
+    @Override
+    public Optional<ProcessInstance<T>> findById(String id, ProcessInstanceReadMode mode) {
+        Journal.Record record = journal.get(id);
+        if (record == null) {
+            return Optional.empty();
+        }
+        return unmarshallIfPresent(record, mode).findFirst();
+    }
+
+    @Override
+    public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode) {
+        try (Stream<ProcessInstance<T>> stream = stream(mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return journal.records().stream().flatMap(record -> unmarshallIfPresent(record, mode));
+    }
+
+    @Override
+    public Integer size() {
+        return statusIndex.size();
+    }
+
+    @Override
+    public Map<Integer, Integer> countByStatus() {
+        return statusIndex.countByStatus();
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return journal.contains(id);
+    }
+
+    @Override
+    public void create(String id, ProcessInstance<T> instance) {
+        if (isActive(instance)) {
+            storeProcessInstance(id, instance, true);
+        }
+    }
+
+    @Override
+    public void update(String id, ProcessInstance<T> instance) {
+        if (isActive(instance)) {
+            storeProcessInstance(id, instance, false);
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        synchronized (lock(id)) {
+            journal.delete(id);
+            statusIndex.remove(id);
+        }
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    protected void storeProcessInstance(String id, ProcessInstance<T> instance, boolean create) {
+        long expectedVersion = ((AbstractProcessInstance<?>) instance).version();
+        long version = create ? expectedVersion : expectedVersion + 1;
+        byte[] data = marshaller.marshallProcessInstance(instance);
+        synchronized (lock(id)) {
+            Journal.Record stored = journal.get(id);
+            if (create) {
+                if (stored != null) {
+                    throw new ProcessInstanceDuplicatedException(id);
+                }
+            } else if (stored == null || stored.version() != expectedVersion) {
+                // a process instance removed in the meantime is a conflict as well
+                throw new ProcessInstanceOptimisticLockingException(id);
+            }
+            journal.put(id, version, instance.status(), data);
+            statusIndex.update(id, instance.status());
+        }
+        ((AbstractProcessInstance<?>) instance).setVersion(version);
+        disconnect(id, instance);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected ProcessInstance<T> unmarshall(Journal.Record record, ProcessInstanceReadMode mode) {
+        byte[] data = record.data();
+        ProcessInstance<T> instance = mode == MUTABLE ?
+                marshaller.unmarshallProcessInstance(data, process) :
+                marshaller.unmarshallReadOnlyProcessInstance(data, process);
+        ((AbstractProcessInstance<?>) instance).setVersion(record.version());
+        return instance;
+    }
+
+    private Stream<ProcessInstance<T>> unmarshallIfPresent(Journal.Record record, ProcessInstanceReadMode mode) {
+        try {
+            return Stream.of(unmarshall(record, mode));
+        } catch (JournalException e) {
+            // removed, and its segment compacted, since the record was looked up
+            return Stream.empty();
+        }
+    }
+
+    protected void disconnect(String id, ProcessInstance<T> instance) {
+        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
+            try {
+                Journal.Record reloaded = journal.get(id);
+                if (reloaded != null) {
+                    ((AbstractProcessInstance<?>) instance).setVersion(reloaded.version());
+                    return marshaller.unmarshallWorkflowProcessInstance(reloaded.data(), process);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected exception thrown when reloading process instance {}", id, e);
+            }
+            return null;
+        });
+    }
+
+    private Object lock(String id) {
+        return locks[Math.floorMod(id.hashCode(), locks.length)];
+    }
+}
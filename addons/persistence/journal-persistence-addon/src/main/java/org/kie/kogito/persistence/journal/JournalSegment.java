@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.journal;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory mapped file of a {@link Journal}, records are appended to it until it is full.
+ * <p>
+ * Every record is laid out as
+ * <pre>
+ * int length | int crc | byte type | long version | int status | int id length | id | data
+ * </pre>
+ * where length and crc cover everything following them. A zero length marks the end of the segment.
+ * Appending is not thread safe and is guarded by the journal, reading is.
+ * <p>
+ * Once compacted or closed the segment is unmapped right away, instead of when the buffer is
+ * garbage collected, so the disk space of its deleted file is freed. Reading the data of a record
+ * then returns <code>null</code>.
+ */
+class JournalSegment {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalSegment.class);
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int PREFIX_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int HEADER_SIZE = PREFIX_SIZE + Byte.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final long id;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    // only used by the appending thread, readers work on duplicates of the buffer
+    private final ByteBuffer appendBuffer;
+    private int position;
+    private int liveBytes;
+    // readers of the data hold the read lock, so the buffer is not unmapped while they copy from it
+    private final ReadWriteLock mapping = new ReentrantReadWriteLock();
+    private boolean unmapped;
+
+    private JournalSegment(long id, Path file, MappedByteBuffer buffer) {
+        this.id = id;
+        this.file = file;
+        this.buffer = buffer;
+        this.appendBuffer = buffer.duplicate();
+    }
+
+    static JournalSegment open(long id, Path file, int minimumSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), minimumSize);
+            // the mapping stays valid once the channel is closed
+            return new JournalSegment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    static int recordSize(String id, byte[] data) {
+        return HEADER_SIZE + id.getBytes(StandardCharsets.UTF_8).length + (data == null ? 0 : data.length);
+    }
+
+    long id() {
+        return id;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int position() {
+        return position;
+    }
+
+    int liveBytes() {
+        return liveBytes;
+    }
+
+    void addLiveBytes(int bytes) {
+        liveBytes += bytes;
+    }
+
+    boolean hasRoomFor(int recordSize) {
+        // keeps room for the zero length marking the end of the segment
+        return position + recordSize + Integer.BYTES <= buffer.capacity();
+    }
+
+    /**
+     * Appends a record and returns the offset it was written at.
+     */
+    int append(byte type, String recordId, long version, int status, byte[] data) {
+        byte[] encodedId = recordId.getBytes(StandardCharsets.UTF_8);
+        int dataLength = data == null ? 0 : data.length;
+        int length = HEADER_SIZE - PREFIX_SIZE + encodedId.length + dataLength;
+        int offset = position;
+
+        appendBuffer.position(offset + PREFIX_SIZE);
+        appendBuffer.put(type).putLong(version).putInt(status).putInt(encodedId.length).put(encodedId);
+        if (data != null) {
+            appendBuffer.put(data);
+        }
+        appendBuffer.putInt(offset + PREFIX_SIZE + length, 0);
+        appendBuffer.putInt(offset + Integer.BYTES, checksum(buffer.duplicate(), offset + PREFIX_SIZE, length));
+        // written last, so that a crash before never exposes a partial record
+        appendBuffer.putInt(offset, length);
+
+        position = offset + PREFIX_SIZE + length;
+        return offset;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Reads the record at given offset, returns <code>null</code> if there is none or it is not intact.
+     */
+    Journal.Record read(int offset) {
+        ByteBuffer view = buffer.duplicate();
+        if (offset + HEADER_SIZE > view.capacity()) {
+            return null;
+        }
+        int length = view.getInt(offset);
+        if (length < HEADER_SIZE - PREFIX_SIZE || offset + PREFIX_SIZE + length > view.capacity()) {
+            return null;
+        }
+        if (view.getInt(offset + Integer.BYTES) != checksum(view, offset + PREFIX_SIZE, length)) {
+            return null;
+        }
+        view.position(offset + PREFIX_SIZE);
+        byte type = view.get();
+        long version = view.getLong();
+        int status = view.getInt();
+        int idLength = view.getInt();
+        if (idLength < 0 || idLength > length - (HEADER_SIZE - PREFIX_SIZE)) {
+            return null;
+        }
+        byte[] encodedId = new byte[idLength];
+        view.get(encodedId);
+        int dataOffset = view.position();
+        int dataLength = offset + PREFIX_SIZE + length - dataOffset;
+        return new Journal.Record(type, new String(encodedId, StandardCharsets.UTF_8), version, status, this, offset, PREFIX_SIZE + length, dataOffset, dataLength);
+    }
+
+    /**
+     * Reads the data of a record, returns <code>null</code> if the segment is unmapped.
+     */
+    byte[] readData(int dataOffset, int dataLength) {
+        mapping.readLock().lock();
+        try {
+            if (unmapped) {
+                return null;
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position(dataOffset);
+            byte[] data = new byte[dataLength];
+            view.get(data);
+            return data;
+        } finally {
+            mapping.readLock().unlock();
+        }
+    }
+
+    void unmap() {
+        mapping.writeLock().lock();
+        try {
+            if (!unmapped) {
+                unmapped = true;
+                Unmapper.unmap(buffer);
+            }
+        } finally {
+            mapping.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the append position after the last intact record, overwriting whatever follows it.
+     */
+    void recover(int end) {
+        position = end;
+        if (end + Integer.BYTES <= buffer.capacity() && buffer.getInt(end) != 0) {
+            // torn record left by a crash, clear it so it is not mistaken for a record later on
+            ByteBuffer view = buffer.duplicate();
+            view.position(end);
+            while (view.hasRemaining()) {
+                view.put((byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Releases mappings without waiting for the garbage collector, through the JDK internals
+     * available depending on the Java version. Mappings are left to the garbage collector otherwise.
+     */
+    private static class Unmapper {
+
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // before Java 9 the cleaner of the buffer is used
+                invokeCleaner = null;
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        private static void unmap(MappedByteBuffer buffer) {
+            try {
+                if (INVOKE_CLEANER != null) {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                } else {
+                    Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                    cleanerMethod.setAccessible(true);
+                    Object cleaner = cleanerMethod.invoke(buffer);
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.debug("Unable to unmap journal segment, leaving it to the garbage collector", e);
+            }
+        }
+    }
+
+    private static int checksum(ByteBuffer view, int offset, int length) {
+        ByteBuffer slice = view.duplicate();
+        slice.limit(offset + length);
+        slice.position(offset);
+        CRC32 crc = new CRC32();
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.journal;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.persistence.KogitoProcessInstancesFactory;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.WorkItem;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.services.identity.StaticIdentityProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
+import static org.kie.api.runtime.process.ProcessInstance.STATE_ACTIVE;
+import static org.kie.api.runtime.process.ProcessInstance.STATE_COMPLETED;
+
+class JournalProcessInstancesTest {
+
+    private SecurityPolicy securityPolicy = SecurityPolicy.of(new StaticIdentityProvider("john"));
+
+    @TempDir
+    Path storage;
+
+    private BpmnProcess createProcess() {
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.setProcessInstancesFactory(new KogitoProcessInstancesFactory() {
+
+            @Override
+            public String path() {
+                return storage.toString();
+            }
+        });
+        process.configure();
+        return process;
+    }
+
+    @Test
+    void testBasicFlow() {
+        BpmnProcess process = createProcess();
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        assertThat(processInstance.status()).isEqualTo(STATE_ACTIVE);
+
+        JournalProcessInstances<?> instances = (JournalProcessInstances<?>) process.instances();
+        assertThat(instances.size()).isOne();
+        assertThat(instances.exists(processInstance.id())).isTrue();
+        assertThat(instances.countByStatus()).containsExactly(entry(STATE_ACTIVE, 1));
+        assertThat(process.instances().values(ProcessInstanceReadMode.READ_ONLY)).hasSize(1);
+
+        WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+        assertThat(workItem.getParameters().get("ActorId")).isEqualTo("john");
+        processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+        assertThat(processInstance.status()).isEqualTo(STATE_COMPLETED);
+        assertThat(instances.size()).isZero();
+        instances.close();
+    }
+
+    @Test
+    void testRecoveryAfterRestart() {
+        BpmnProcess process = createProcess();
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        processInstance.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "updated")));
+        ((JournalProcessInstances<?>) process.instances()).close();
+
+        BpmnProcess restarted = createProcess();
+        assertThat(restarted.instances().size()).isOne();
+        ProcessInstance<BpmnVariables> recovered = restarted.instances().findById(processInstance.id()).get();
+        assertThat(recovered.variables().toMap()).containsEntry("test", "updated");
+
+        recovered.abort();
+        assertThat(restarted.instances().exists(processInstance.id())).isFalse();
+        ((JournalProcessInstances<?>) restarted.instances()).close();
+    }
+
+    @Test
+    void testConcurrentUpdate() {
+        BpmnProcess process = createProcess();
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        ProcessInstance<BpmnVariables> first = process.instances().findById(processInstance.id()).get();
+        ProcessInstance<BpmnVariables> second = process.instances().findById(processInstance.id()).get();
+
+        first.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "first")));
+        assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class)
+                .isThrownBy(() -> second.updateVariables(BpmnVariables.create(Collections.singletonMap("test", "second"))));
+        assertThat(process.instances().findById(processInstance.id()).get().variables().toMap()).containsEntry("test", "first");
+        ((JournalProcessInstances<?>) process.instances()).close();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.persistence.journal;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private Journal open() {
+        return new Journal(directory, SEGMENT_SIZE, false, Journal.DEFAULT_COMPACTION_THRESHOLD, 0);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testPutGetDelete() {
+        try (Journal journal = open()) {
+            journal.put("1", 0, 1, bytes("first"));
+            journal.put("2", 0, 1, bytes("second"));
+            journal.put("1", 1, 5, bytes("first updated"));
+            assertThat(journal.size()).isEqualTo(2);
+
+            Journal.Record record = journal.get("1");
+            assertThat(record.version()).isEqualTo(1);
+            assertThat(record.status()).isEqualTo(5);
+            assertThat(record.data()).isEqualTo(bytes("first updated"));
+
+            assertThat(journal.delete("2")).isTrue();
+            assertThat(journal.delete("2")).isFalse();
+            assertThat(journal.contains("2")).isFalse();
+        }
+    }
+
+    @Test
+    void testReplay() {
+        try (Journal journal = open()) {
+            for (int i = 0; i < 50; i++) {
+                journal.put(String.valueOf(i % 10), i, 1, bytes("value " + i));
+            }
+            journal.delete("3");
+            assertThat(journal.segmentCount()).isGreaterThan(1);
+        }
+
+        try (Journal journal = open()) {
+            assertThat(journal.size()).isEqualTo(9);
+            assertThat(journal.contains("3")).isFalse();
+            assertThat(journal.get("7").version()).isEqualTo(47);
+            assertThat(journal.get("7").data()).isEqualTo(bytes("value 47"));
+        }
+    }
+
+    @Test
+    void testReplayIgnoresTornRecord() throws Exception {
+        try (Journal journal = open()) {
+            journal.put("1", 0, 1, bytes("first"));
+            journal.put("2", 0, 1, bytes("second"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().get();
+        }
+        // corrupts the data of the last record, as a crash in the middle of writing it would
+        byte[] content = Files.readAllBytes(segment);
+        int last = new String(content, StandardCharsets.ISO_8859_1).lastIndexOf("second");
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(last);
+            file.write(bytes("SECOND"));
+        }
+
+        try (Journal journal = open()) {
+            assertThat(journal.size()).isOne();
+            assertThat(journal.get("1").data()).isEqualTo(bytes("first"));
+
+            journal.put("3", 0, 1, bytes("third"));
+        }
+        try (Journal journal = open()) {
+            assertThat(journal.size()).isEqualTo(2);
+            assertThat(journal.get("3").data()).isEqualTo(bytes("third"));
+        }
+    }
+
+    @Test
+    void testCompaction() {
+        try (Journal journal = open()) {
+            journal.put("kept", 0, 1, bytes("kept"));
+            journal.put("removed", 0, 1, bytes("removed"));
+            for (int i = 0; i < 100; i++) {
+                journal.put("updated", i, 1, bytes("value " + i));
+            }
+            journal.delete("removed");
+            int segments = journal.segmentCount();
+
+            assertThat(journal.compact()).isPositive();
+            assertThat(journal.segmentCount()).isLessThan(segments);
+            assertThat(journal.get("kept").data()).isEqualTo(bytes("kept"));
+            assertThat(journal.get("updated").data()).isEqualTo(bytes("value 99"));
+        }
+
+        try (Journal journal = open()) {
+            assertThat(journal.size()).isEqualTo(2);
+            assertThat(journal.contains("removed")).isFalse();
+            assertThat(journal.get("kept").data()).isEqualTo(bytes("kept"));
+            assertThat(journal.get("updated").version()).isEqualTo(99);
+        }
+    }
+
+    @Test
+    void testCompactionOfNewerSegmentsWhenOldestIsLive() {
+        int live = 0;
+        try (Journal journal = open()) {
+            while (journal.segmentCount() == 1) {
+                journal.put("live" + live, 0, 1, bytes("live value " + live));
+                live++;
+            }
+            journal.delete("live0");
+            journal.put("updated", 0, 1, bytes("value 0"));
+            Journal.Record stale = journal.get("updated");
+            for (int i = 1; i < 100; i++) {
+                journal.put("updated", i, 1, bytes("value " + i));
+            }
+            int segments = journal.segmentCount();
+
+            assertThat(journal.compact()).isPositive();
+            assertThat(journal.segmentCount()).isLessThan(segments);
+            assertThat(directory.resolve(String.format("segment-%020d.log", 0))).exists();
+            // a record looked up before its segment was compacted away reads the data of a later change
+            assertThat(new String(stale.data(), StandardCharsets.UTF_8)).startsWith("value ").isNotEqualTo("value 0");
+        }
+
+        try (Journal journal = open()) {
+            assertThat(journal.size()).isEqualTo(live);
+            assertThat(journal.contains("live0")).isFalse();
+            assertThat(journal.get("live1").data()).isEqualTo(bytes("live value 1"));
+            assertThat(journal.get("updated").version()).isEqualTo(99);
+        }
+    }
+
+    @Test
+    void testClosedJournalRejectsChanges() {
+        Journal journal = open();
+        journal.put("1", 0, 1, bytes("first"));
+        journal.close();
+
+        assertThatThrownBy(() -> journal.put("2", 0, 1, bytes("second"))).isInstanceOf(JournalException.class);
+        assertThat(journal.get("1")).isNull();
+    }
+}
@@ -17,13 +17,28 @@ package org.kie.kogito.mongodb;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.Sorts;
+import org.bson.conversions.Bson;
 import org.kie.kogito.Model;
 import org.kie.kogito.mongodb.marshalling.DocumentMarshallingStrategy;
 import org.kie.kogito.mongodb.marshalling.DocumentProcessInstanceMarshaller;
@@ -31,26 +46,40 @@ import org.kie.kogito.mongodb.model.ProcessInstanceDocument;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.ProcessInstanceSubscriptionIndex;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceSnapshotCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.kie.kogito.mongodb.utils.DocumentConstants.DOCUMENT_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATUS;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.SUBSCRIPTIONS;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.VERSION;
 import static org.kie.kogito.mongodb.utils.DocumentUtils.getCollection;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
 public class MongoDBProcessInstances<T extends Model> implements MutableProcessInstances<T> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoDBProcessInstances.class);
+    private static final int[] STORED_STATUSES = {ProcessInstance.STATE_ACTIVE, ProcessInstance.STATE_ERROR};
     private org.kie.kogito.process.Process<?> process;
     private DocumentProcessInstanceMarshaller marshaller;
     private final MongoCollection<ProcessInstanceDocument> collection;
+    private final ProcessInstanceSnapshotCache<ProcessInstanceDocument> snapshots = new ProcessInstanceSnapshotCache<>();
+    // whether documents stored before the status was indexed are left, checked at startup and
+    // then only while some are
+    private volatile boolean withoutStatus;
 
     public MongoDBProcessInstances(MongoClient mongoClient, org.kie.kogito.process.Process<?> process, String dbName) {
         this.process = process;
         collection = getCollection(mongoClient, process.id(), dbName);
         marshaller = new DocumentProcessInstanceMarshaller(new DocumentMarshallingStrategy());
+        collection.createIndex(Indexes.ascending(STATUS));
+        collection.createIndex(Indexes.ascending(SUBSCRIPTIONS));
+        withoutStatus = hasDocumentsWithoutStatus();
     }
 
     @Override
@@ -59,18 +88,49 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         if (piDoc == null) {
             return Optional.empty();
         }
-        return Optional.of(mode == MUTABLE ? marshaller.unmarshallProcessInstance(piDoc, process) : marshaller.unmarshallReadOnlyProcessInstance(piDoc, process));
+        return Optional.of(unmarshall(piDoc, mode));
     }
 
     @Override
     public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode) {
-        List<ProcessInstance<T>> list = new ArrayList<>();
-        try (MongoCursor<ProcessInstanceDocument> cursor = collection.find().iterator()) {
-            while (cursor.hasNext()) {
-                list.add(mode == MUTABLE ? marshaller.unmarshallProcessInstance(cursor.next(), process) : marshaller.unmarshallReadOnlyProcessInstance(cursor.next(), process));
-            }
+        try (Stream<ProcessInstance<T>> stream = stream(mode)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode, int offset, int limit) {
+        try (Stream<ProcessInstance<T>> stream = stream(collection.find().sort(Sorts.ascending(DOCUMENT_ID)).skip(offset).limit(limit), mode)) {
+            return stream.collect(Collectors.toList());
         }
-        return list;
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return stream(collection.find(), mode);
+    }
+
+    /**
+     * Streams the process instances whose stored subscriptions contain given event type, plus
+     * the ones stored without subscriptions, which may wait for any event type.
+     */
+    @Override
+    public Stream<ProcessInstance<T>> waitingFor(String eventType, ProcessInstanceReadMode mode) {
+        return stream(collection.find(Filters.or(Filters.eq(SUBSCRIPTIONS, eventType), Filters.exists(SUBSCRIPTIONS, false))), mode);
+    }
+
+    private Stream<ProcessInstance<T>> stream(FindIterable<ProcessInstanceDocument> documents, ProcessInstanceReadMode mode) {
+        MongoCursor<ProcessInstanceDocument> cursor = documents.iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close)
+                .map(doc -> unmarshall(doc, mode));
+    }
+
+    private ProcessInstance<T> unmarshall(ProcessInstanceDocument doc, ProcessInstanceReadMode mode) {
+        snapshots.invalidateIfOlder(doc.getId(), doc.getVersion());
+        ProcessInstance<T> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(doc, process) : marshaller.unmarshallReadOnlyProcessInstance(doc, process);
+        ((AbstractProcessInstance<?>) instance).setVersion(doc.getVersion());
+        return instance;
     }
 
     @Override
@@ -83,20 +143,84 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         updateStorage(id, instance, false);
     }
 
+    @Override
+    public void updateAll(Map<String, ProcessInstance<T>> instances) {
+        Map<String, ProcessInstanceDocument> docs = new HashMap<>();
+        List<ReplaceOneModel<ProcessInstanceDocument>> replacements = new ArrayList<>();
+        instances.forEach((id, instance) -> {
+            if (isActive(instance)) {
+                ProcessInstanceDocument doc = marshall(instance, true);
+                docs.put(id, doc);
+                replacements.add(new ReplaceOneModel<>(versionFilter(id, doc.getVersion() - 1), doc));
+            }
+        });
+        List<String> conflicts = new ArrayList<>();
+        if (!replacements.isEmpty()) {
+            BulkWriteResult result = collection.bulkWrite(replacements, new BulkWriteOptions().ordered(false));
+            if (result.getMatchedCount() < replacements.size()) {
+                conflicts = findConflicts(docs);
+            }
+        }
+        for (Map.Entry<String, ProcessInstance<T>> entry : instances.entrySet()) {
+            if (!conflicts.contains(entry.getKey())) {
+                reloadProcessInstance(entry.getValue(), entry.getKey(), docs.get(entry.getKey()));
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new ProcessInstanceOptimisticLockingException(conflicts);
+        }
+    }
+
     protected void updateStorage(String id, ProcessInstance<T> instance, boolean checkDuplicates) {
+        ProcessInstanceDocument doc = null;
         if (isActive(instance)) {
-            ProcessInstanceDocument doc = marshaller.marshalProcessInstance(instance);
             if (checkDuplicates) {
+                doc = marshall(instance, false);
                 if (exists(id)) {
                     throw new ProcessInstanceDuplicatedException(id);
                 } else {
                     collection.insertOne(doc);
                 }
             } else {
-                collection.replaceOne(Filters.eq(DOCUMENT_ID, id), doc);
+                doc = marshall(instance, true);
+                // a process instance removed in the meantime is a conflict as well
+                if (collection.replaceOne(versionFilter(id, doc.getVersion() - 1), doc).getMatchedCount() == 0) {
+                    throw new ProcessInstanceOptimisticLockingException(id);
+                }
             }
         }
-        reloadProcessInstance(instance, id);
+        reloadProcessInstance(instance, id, doc);
+    }
+
+    private ProcessInstanceDocument marshall(ProcessInstance<T> instance, boolean nextVersion) {
+        long version = ((AbstractProcessInstance<?>) instance).version();
+        ProcessInstanceDocument doc = marshaller.marshalProcessInstance(instance);
+        doc.setVersion(nextVersion ? version + 1 : version);
+        doc.setStatus(instance.status());
+        Set<String> subscriptions = ProcessInstanceSubscriptionIndex.subscriptions(instance);
+        doc.setSubscriptions(subscriptions == null ? null : new ArrayList<>(subscriptions));
+        return doc;
+    }
+
+    private Bson versionFilter(String id, long version) {
+        Bson versionFilter = Filters.eq(VERSION, version);
+        if (version == 0) {
+            // documents stored before versioning was introduced have no version
+            versionFilter = Filters.or(versionFilter, Filters.exists(VERSION, false));
+        }
+        return Filters.and(Filters.eq(DOCUMENT_ID, id), versionFilter);
+    }
+
+    private List<String> findConflicts(Map<String, ProcessInstanceDocument> docs) {
+        Map<String, Long> storedVersions = new HashMap<>();
+        for (ProcessInstanceDocument stored : collection.find(Filters.in(DOCUMENT_ID, docs.keySet()))) {
+            storedVersions.put(stored.getId(), stored.getVersion());
+        }
+        // missing documents were removed in the meantime, as for single updates that is a conflict as well
+        return docs.values().stream()
+                .filter(doc -> !storedVersions.containsKey(doc.getId()) || storedVersions.get(doc.getId()) != doc.getVersion())
+                .map(ProcessInstanceDocument::getId)
+                .collect(Collectors.toList());
     }
 
     private ProcessInstanceDocument find(String id) {
@@ -110,14 +234,21 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     @Override
     public void remove(String id) {
+        snapshots.invalidate(id);
         collection.deleteOne(Filters.eq(DOCUMENT_ID, id));
     }
 
-    private void reloadProcessInstance(ProcessInstance<T> instance, String id) {
+    private void reloadProcessInstance(ProcessInstance<T> instance, String id, ProcessInstanceDocument stored) {
+        if (stored != null) {
+            ((AbstractProcessInstance<?>) instance).setVersion(stored.getVersion());
+            snapshots.put(id, stored.getVersion(), stored);
+        }
+        long version = ((AbstractProcessInstance<?>) instance).version();
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(() -> {
             try {
-                ProcessInstanceDocument reloaded = find(id);
+                ProcessInstanceDocument reloaded = snapshots.get(id, version).orElseGet(() -> find(id));
                 if (reloaded != null) {
+                    ((AbstractProcessInstance<?>) instance).setVersion(reloaded.getVersion());
                     return marshaller.unmarshallWorkflowProcessInstance(reloaded, process);
                 }
             } catch (RuntimeException e) {
@@ -129,6 +260,29 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     @Override
     public Integer size() {
-        return (int) collection.countDocuments();
+        return (int) collection.estimatedDocumentCount();
+    }
+
+    @Override
+    public Map<Integer, Integer> countByStatus() {
+        if (withoutStatus) {
+            withoutStatus = hasDocumentsWithoutStatus();
+        }
+        if (withoutStatus) {
+            // documents stored before the status was indexed need to be unmarshalled
+            return MutableProcessInstances.super.countByStatus();
+        }
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int status : STORED_STATUSES) {
+            long count = collection.countDocuments(Filters.eq(STATUS, status));
+            if (count > 0) {
+                counts.put(status, (int) count);
+            }
+        }
+        return counts;
+    }
+
+    private boolean hasDocumentsWithoutStatus() {
+        return collection.find(Filters.exists(STATUS, false)).first() != null;
     }
 }
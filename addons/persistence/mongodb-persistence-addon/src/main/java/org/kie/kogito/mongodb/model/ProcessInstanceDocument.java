@@ -16,6 +16,7 @@
 package org.kie.kogito.mongodb.model;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.bson.Document;
@@ -28,6 +29,12 @@ public class ProcessInstanceDocument {
 
     private Map<String, Integer> strategies = new HashMap<>();
 
+    private long version;
+
+    private Integer status;
+
+    private List<String> subscriptions;
+
     public ProcessInstanceDocument() {
         super();
     }
@@ -55,4 +62,28 @@ public class ProcessInstanceDocument {
     public void setStrategies(Map<String, Integer> strategies) {
         this.strategies = strategies;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public List<String> getSubscriptions() {
+        return subscriptions;
+    }
+
+    public void setSubscriptions(List<String> subscriptions) {
+        this.subscriptions = subscriptions;
+    }
 }
@@ -17,6 +17,7 @@ package org.kie.kogito.mongodb;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.mongodb.client.MongoClient;
 import org.drools.core.io.impl.ClassPathResource;
@@ -51,6 +52,7 @@ class MongoDBProcessInstancesTest extends TestHelper {
 
         assertThat(mongodbInstance.size()).isOne();
         assertThat(mongodbInstance.size()).isEqualTo(process.instances().size());
+        assertThat(mongodbInstance.countByStatus()).containsExactly(entry(STATE_ACTIVE, 1));
 
         Optional<?> findById = mongodbInstance.findById(processInstance.id());
         BpmnProcessInstance found = (BpmnProcessInstance) findById.get();
@@ -64,6 +66,14 @@ class MongoDBProcessInstancesTest extends TestHelper {
         ProcessInstance<?> readOnlyPI = mongodbInstance.findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get();
         assertNotNull(readOnlyPI, "ProcessInstanceDocument cannot be null");
         assertThat(mongodbInstance.values(ProcessInstanceReadMode.READ_ONLY).size()).isOne();
+        assertThat(mongodbInstance.values(ProcessInstanceReadMode.READ_ONLY, 0, 10)).hasSize(1);
+        assertThat(mongodbInstance.values(ProcessInstanceReadMode.READ_ONLY, 1, 10)).isEmpty();
+        try (Stream<? extends ProcessInstance<?>> stream = mongodbInstance.stream()) {
+            assertThat(stream.map(ProcessInstance::id)).containsExactly(processInstance.id());
+        }
+        try (Stream<? extends ProcessInstance<?>> stream = mongodbInstance.waitingFor("notWaitedFor", ProcessInstanceReadMode.READ_ONLY)) {
+            assertThat(stream).isEmpty();
+        }
 
         mongodbInstance.remove(processInstance.id());
         assertThat(mongodbInstance.exists(processInstance.id())).isFalse();
@@ -18,6 +18,7 @@ package org.kie.kogito.mongodb;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 
 import com.mongodb.MongoClientSettings;
 import org.bson.BsonBinaryReader;
@@ -62,6 +63,8 @@ class ProcessInstanceDocumentCodecProviderTest {
         assertThat(codec.getEncoderClass()).isEqualTo(ProcessInstanceDocument.class);
         ProcessInstanceDocument doc = new ProcessInstanceDocument();
         doc.setProcessInstance((org.bson.Document) TestHelper.getProcessInstanceDocument().get("processInstance"));
+        doc.setVersion(3);
+        doc.setSubscriptions(Collections.singletonList("MyMessage"));
         assertNull(doc.getId(), "ProcessInstanceDocument is null");
         codec.generateIdIfAbsentFromDocument(doc);
         assertTrue(codec.documentHasId(doc), "ProcessInstanceDocument has document id");
@@ -74,6 +77,8 @@ class ProcessInstanceDocumentCodecProviderTest {
         ProcessInstanceDocument document = codec.decode(reader, DecoderContext.builder().build());
         assertNotNull(document, "ProcessInstanceDocument cannot be null");
         assertThat(document.getId()).isEqualTo(doc.getId());
+        assertThat(document.getVersion()).isEqualTo(3);
+        assertThat(document.getSubscriptions()).containsExactly("MyMessage");
         assertNotNull(document.getProcessInstance());
         assertThat(document.getProcessInstance().get("id")).isEqualTo(doc.getProcessInstance().get("id"));
         assertThat(document.getProcessInstance().get("processid")).isEqualTo(doc.getProcessInstance().get("processid"));
@@ -24,6 +24,9 @@ public class RandomForestConfiguration {
     private AttributeType outcomeType;
     private double confidenceThreshold;
     private int numTrees;
+    private int retrainObservations = 1;
+    private long retrainInterval;
+    private int maxTrainingObservations = SmileRandomForest.DEFAULT_MAX_TRAINING_OBSERVATIONS;
     private Map<String, AttributeType> inputFeatures = new HashMap<>();
 
     public int getNumTrees() {
@@ -34,6 +37,46 @@ public class RandomForestConfiguration {
         this.numTrees = numTrees;
     }
 
+    /**
+     * Returns the number of new observations which triggers a background retraining of the model
+     *
+     * @return The number of observations, <code>0</code> to only retrain on the interval
+     */
+    public int getRetrainObservations() {
+        return retrainObservations;
+    }
+
+    public void setRetrainObservations(int retrainObservations) {
+        this.retrainObservations = retrainObservations;
+    }
+
+    /**
+     * Returns the interval, in milliseconds, at which the model is retrained in the background
+     * when there are new observations
+     *
+     * @return The interval, <code>0</code> to only retrain on the number of observations
+     */
+    public long getRetrainInterval() {
+        return retrainInterval;
+    }
+
+    public void setRetrainInterval(long retrainInterval) {
+        this.retrainInterval = retrainInterval;
+    }
+
+    /**
+     * Returns the max number of the most recent observations used to train the model
+     *
+     * @return The max number of observations, <code>0</code>, the default, to use all of them
+     */
+    public int getMaxTrainingObservations() {
+        return maxTrainingObservations;
+    }
+
+    public void setMaxTrainingObservations(int maxTrainingObservations) {
+        this.maxTrainingObservations = maxTrainingObservations;
+    }
+
     /**
      * Returns the name of the output attribute
      *
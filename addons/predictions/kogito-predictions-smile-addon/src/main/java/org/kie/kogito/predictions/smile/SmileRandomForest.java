@@ -15,13 +15,25 @@
 package org.kie.kogito.predictions.smile;
 
 import java.text.ParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.kie.api.runtime.process.WorkItem;
 import org.kie.kogito.prediction.api.PredictionOutcome;
@@ -36,6 +48,20 @@ import smile.data.NominalAttribute;
 import smile.data.NumericAttribute;
 import smile.data.StringAttribute;
 
+/**
+ * Prediction service based on a Smile random forest.
+ * <p>
+ * Observations are collected by {@link #train(WorkItem, Map, Map)} and the forest is rebuilt in
+ * the background, after a number of new observations or at a fixed interval, and then swapped
+ * atomically. {@link #predict(WorkItem, Map)} only scores with the current forest, so its cost
+ * does not depend on the number of observations. Only the first prediction builds the forest
+ * itself, when none has been built yet.
+ * <p>
+ * The forest is published together with the encoding of the nominal values it was trained with,
+ * so predictions never wait for the observations being collected or copied for a retraining.
+ * Retrainings of all the instances run on a single shared daemon thread, {@link #close()} stops
+ * the ones of an instance.
+ */
 public class SmileRandomForest extends AbstractPredictionEngine implements PredictionService {
 
     public static final String IDENTIFIER = "SMILERandomForest";
@@ -43,24 +69,41 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
     private static final Logger logger = LoggerFactory.getLogger(SmileRandomForest.class);
     
     
-    private final AttributeDataset dataset;
     private final Map<String, Attribute> smileAttributes;
+    private final Attribute[] attributes;
     private final Attribute outcomeAttribute;
     private final AttributeType outcomeAttributeType;
     private final int numAttributes;
     private final int numberTrees;
     protected List<String> attributeNames = new ArrayList<>();
     
-    private Set<String> outcomeSet = new HashSet<>();
+    private final Set<String> outcomeSet = ConcurrentHashMap.newKeySet();
     private static final int MINIMUM_OBSERVATIONS = 1200;
-    private int observations = 0;
+    // trains with all the observations unless configured otherwise
+    public static final int DEFAULT_MAX_TRAINING_OBSERVATIONS = 0;
+    private final AtomicLong observations = new AtomicLong();
+
+    private final int retrainObservations;
+    private final int maxTrainingObservations;
+    private final Deque<Observation> trainingData = new ArrayDeque<>();
+    // value to feature of the nominal attributes, null for numeric ones, guarded by trainingData
+    private final List<Map<String, Double>> encodings = new ArrayList<>();
+    private final AtomicInteger untrainedObservations = new AtomicInteger();
+    private final AtomicBoolean trainingScheduled = new AtomicBoolean();
+    private final AtomicReference<TrainedModel> model = new AtomicReference<>();
+    private final Object trainingLock = new Object();
+    private final ScheduledFuture<?> periodicTraining;
+    private volatile boolean closed;
 
     public SmileRandomForest(RandomForestConfiguration configuration) {
         this(configuration.getInputFeatures(),
                 configuration.getOutcomeName(),
                 configuration.getOutcomeType(),
                 configuration.getConfidenceThreshold(),
-                configuration.getNumTrees());
+                configuration.getNumTrees(),
+                configuration.getRetrainObservations(),
+                configuration.getRetrainInterval(),
+                configuration.getMaxTrainingObservations());
     }
 
     public SmileRandomForest(Map<String, AttributeType> inputFeatures,
@@ -68,8 +111,26 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
                              AttributeType outputFeatureType,
                              double confidenceThreshold,
                              int numberTrees) {
+        this(inputFeatures, outputFeatureName, outputFeatureType, confidenceThreshold, numberTrees, 1, 0, DEFAULT_MAX_TRAINING_OBSERVATIONS);
+    }
+
+    /**
+     * @param retrainObservations     number of new observations which triggers a retraining, <code>0</code> to disable
+     * @param retrainInterval         interval in milliseconds between two retrainings, <code>0</code> to disable
+     * @param maxTrainingObservations max number of the most recent observations to train with, <code>0</code> for all
+     */
+    public SmileRandomForest(Map<String, AttributeType> inputFeatures,
+                             String outputFeatureName,
+                             AttributeType outputFeatureType,
+                             double confidenceThreshold,
+                             int numberTrees,
+                             int retrainObservations,
+                             long retrainInterval,
+                             int maxTrainingObservations) {
         super(inputFeatures, outputFeatureName, outputFeatureType, confidenceThreshold);
         this.numberTrees = numberTrees;
+        this.retrainObservations = retrainObservations;
+        this.maxTrainingObservations = maxTrainingObservations;
         smileAttributes = new HashMap<>();
         for (Entry<String, AttributeType> inputFeature : inputFeatures.entrySet()) {
             final String name = inputFeature.getKey();
@@ -78,10 +139,22 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
             attributeNames.add(name);
         }
         numAttributes = smileAttributes.size();
+        attributes = attributeNames.stream().map(smileAttributes::get).toArray(Attribute[]::new);
+        for (Attribute attribute : attributes) {
+            encodings.add(attribute instanceof NumericAttribute ? null : new HashMap<>());
+        }
         outcomeAttribute = createAttribute(outputFeatureName, outputFeatureType);
         outcomeAttributeType = outputFeatureType;
-        
-        dataset = new AttributeDataset("dataset", smileAttributes.values().toArray(new Attribute[numAttributes]), outcomeAttribute);
+
+        if (retrainInterval > 0) {
+            periodicTraining = Trainer.INSTANCE.scheduleWithFixedDelay(() -> {
+                if (untrainedObservations.get() > 0) {
+                    scheduleTraining();
+                }
+            }, retrainInterval, retrainInterval, TimeUnit.MILLISECONDS);
+        } else {
+            periodicTraining = null;
+        }
     }
 
 
@@ -108,28 +181,30 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
     }
 
     /**
-     * Add the data provided as a map to a Smile {@link smile.data.Dataset}.
+     * Add the data provided as a map to the observations the model is trained with.
      *
      * @param data    A map containing the input attribute names as keys and the attribute values as values.
      * @param outcome The value of the outcome (output data).
      */
     public void addData(Map<String, Object> data, Object outcome) {
-        final double[] features = new double[numAttributes];
-        int i = 0;
-        for (Entry<String, Attribute> entry : smileAttributes.entrySet()) {
+        final String outcomeStr = outcome.toString();
+        synchronized (trainingData) {
+            final double[] features = buildFeatures(data);
+            for (int i = 0; i < numAttributes; i++) {
+                Map<String, Double> encoding = encodings.get(i);
+                if (encoding != null) {
+                    encoding.put(data.get(attributeNames.get(i)).toString(), features[i]);
+                }
+            }
             try {
-                features[i] = smileAttributes.get(entry.getKey()).valueOf(data.get(entry.getKey()).toString());
+                trainingData.add(new Observation(features, (int) outcomeAttribute.valueOf(outcomeStr)));
+                outcomeSet.add(outcomeStr);
             } catch (ParseException e) {
                 logger.error(UNABLE_PARSE_TEXT, e);
             }
-            i++;
-        }
-        try {
-            final String outcomeStr = outcome.toString();
-            outcomeSet.add(outcomeStr);
-            dataset.add(features, outcomeAttribute.valueOf(outcomeStr));
-        } catch (ParseException e) {
-            logger.error(UNABLE_PARSE_TEXT, e);
+            if (maxTrainingObservations > 0 && trainingData.size() > maxTrainingObservations) {
+                trainingData.poll();
+            }
         }
     }
 
@@ -141,12 +216,15 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
      */
     protected double[] buildFeatures(Map<String, Object> data) {
         final double[] features = new double[numAttributes];
-        for (int i = 0; i < numAttributes; i++) {
-            final String attrName = attributeNames.get(i);
-            try {
-                features[i] = smileAttributes.get(attrName).valueOf(data.get(attrName).toString());
-            } catch (ParseException e) {
-                logger.error(UNABLE_PARSE_TEXT, e);
+        // nominal attributes register unknown values while parsing them
+        synchronized (trainingData) {
+            for (int i = 0; i < numAttributes; i++) {
+                final String attrName = attributeNames.get(i);
+                try {
+                    features[i] = smileAttributes.get(attrName).valueOf(data.get(attrName).toString());
+                } catch (ParseException e) {
+                    logger.error(UNABLE_PARSE_TEXT, e);
+                }
             }
         }
         return features;
@@ -172,21 +250,24 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
     @Override
     public PredictionOutcome predict(WorkItem task, Map<String, Object> inputData) {
         logger.debug("Predicting with input data: {}", inputData);
-        RandomForest model = null;
-        if (observations > MINIMUM_OBSERVATIONS) {
+        if (observations.get() > MINIMUM_OBSERVATIONS) {
             this.confidenceThreshold = 0.75;
         }
 
+        TrainedModel current = model.get();
+        if (current == null && outcomeSet.size() >= 2) {
+            current = retrain();
+        }
+
         Map<String, Object> outcomes = new HashMap<>();
-        if (outcomeSet.size() >= 2) {
-            model = new RandomForest(dataset, this.numberTrees);
-            final double[] features = buildFeatures(inputData);
-            final double[] posteriori = new double[outcomeSet.size()];
-            double prediction = model.predict(features, posteriori);
+        if (current != null) {
+            final double[] features = current.encode(inputData);
+            final double[] posteriori = new double[current.outcomes.length];
+            int prediction = current.forest.predict(features, posteriori);
 
-            String predictionStr = dataset.responseAttribute().toString(prediction);
+            String predictionStr = current.outcomes[prediction];
             outcomes.put(outcomeAttribute.getName(), convertValue(predictionStr, outcomeAttributeType));
-            final double confidence = posteriori[(int) prediction];
+            final double confidence = posteriori[prediction];
             outcomes.put("confidence", confidence);
 
             logger.debug("task id {}, total {} observations, prediction = {}, confidence = {} (threshold = {})", task.getId(), this.observations, predictionStr, confidence, this.confidenceThreshold);
@@ -209,8 +290,131 @@ public class SmileRandomForest extends AbstractPredictionEngine implements Predi
     public void train(WorkItem task, Map<String, Object> inputData, Map<String, Object> outputData) {
         logger.debug("Training with input data: {}", inputData);
         logger.debug("Training with output data: {}", outputData);
-        this.observations += 1;
+        this.observations.incrementAndGet();
 
         addData(inputData, outputData.get(outcomeAttribute.getName()));
+        if (untrainedObservations.incrementAndGet() >= retrainObservations && retrainObservations > 0) {
+            scheduleTraining();
+        }
+    }
+
+    /**
+     * Stops retraining the model in the background.
+     */
+    public void close() {
+        closed = true;
+        if (periodicTraining != null) {
+            periodicTraining.cancel(false);
+        }
+    }
+
+    private void scheduleTraining() {
+        if (!closed && trainingScheduled.compareAndSet(false, true)) {
+            try {
+                Trainer.INSTANCE.execute(() -> {
+                    trainingScheduled.set(false);
+                    retrain();
+                });
+            } catch (RejectedExecutionException e) {
+                trainingScheduled.set(false);
+                logger.debug("Model training is stopped", e);
+            }
+        }
+    }
+
+    /**
+     * Builds a new forest from the current observations and makes it the current model.
+     *
+     * @return The new model, or the previous one when there is not enough data to build it.
+     */
+    private TrainedModel retrain() {
+        synchronized (trainingLock) {
+            AttributeDataset dataset = new AttributeDataset("dataset", attributes, outcomeAttribute);
+            final String[] outcomes;
+            final List<Map<String, Double>> encoding = new ArrayList<>(numAttributes);
+            synchronized (trainingData) {
+                untrainedObservations.set(0);
+                int classes = 0;
+                for (Observation observation : trainingData) {
+                    dataset.add(observation.features, observation.outcome);
+                    classes = Math.max(classes, observation.outcome + 1);
+                }
+                outcomes = new String[classes];
+                for (int i = 0; i < classes; i++) {
+                    outcomes[i] = outcomeAttribute.toString(i);
+                }
+                for (Map<String, Double> values : encodings) {
+                    encoding.add(values == null ? null : Collections.unmodifiableMap(new HashMap<>(values)));
+                }
+            }
+            if (outcomes.length < 2) {
+                return model.get();
+            }
+            try {
+                TrainedModel trained = new TrainedModel(new RandomForest(dataset, this.numberTrees), outcomes, encoding);
+                model.set(trained);
+                logger.debug("Trained model with {} observations", dataset.size());
+                return trained;
+            } catch (IllegalArgumentException e) {
+                // e.g. an outcome is missing from the observations kept for training
+                logger.warn("Unable to train model, keeping the previous one: {}", e.getMessage());
+                return model.get();
+            }
+        }
+    }
+
+    private static class Observation {
+
+        private final double[] features;
+        private final int outcome;
+
+        private Observation(double[] features, int outcome) {
+            this.features = features;
+            this.outcome = outcome;
+        }
+    }
+
+    private class TrainedModel {
+
+        private final RandomForest forest;
+        private final String[] outcomes;
+        private final List<Map<String, Double>> encoding;
+
+        private TrainedModel(RandomForest forest, String[] outcomes, List<Map<String, Double>> encoding) {
+            this.forest = forest;
+            this.outcomes = outcomes;
+            this.encoding = encoding;
+        }
+
+        /**
+         * Builds the features of given input data with the encoding the forest was trained with,
+         * a nominal value it never saw gets a feature of its own.
+         */
+        private double[] encode(Map<String, Object> data) {
+            final double[] features = new double[numAttributes];
+            for (int i = 0; i < numAttributes; i++) {
+                final String value = data.get(attributeNames.get(i)).toString();
+                final Map<String, Double> values = encoding.get(i);
+                if (values != null) {
+                    features[i] = values.getOrDefault(value, (double) values.size());
+                } else {
+                    try {
+                        features[i] = attributes[i].valueOf(value);
+                    } catch (ParseException e) {
+                        logger.error(UNABLE_PARSE_TEXT, e);
+                    }
+                }
+            }
+            return features;
+        }
+    }
+
+    private static class Trainer {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kogito-predictions-training");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
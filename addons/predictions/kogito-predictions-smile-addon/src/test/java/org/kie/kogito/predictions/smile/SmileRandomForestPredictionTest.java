@@ -22,11 +22,13 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.drools.core.io.impl.ClassPathResource;
+import org.drools.core.process.instance.impl.KogitoWorkItemImpl;
 import org.jbpm.process.instance.impl.humantask.HumanTaskWorkItemHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.Model;
 import org.kie.kogito.prediction.api.PredictionAwareHumanTaskLifeCycle;
+import org.kie.kogito.prediction.api.PredictionOutcome;
 import org.kie.kogito.prediction.api.PredictionService;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessInstance;
@@ -89,4 +91,34 @@ public class SmileRandomForestPredictionTest {
         
 
     }
+
+    @Test
+    public void testPredictionUsesTrainedModelUntilRetrained() {
+        final Map<String, AttributeType> inputFeatures = new HashMap<>();
+        inputFeatures.put("ActorId", AttributeType.NOMINAL);
+        // retraining disabled, the model is only built by the first prediction
+        SmileRandomForest forest = new SmileRandomForest(inputFeatures, "output", AttributeType.NOMINAL, 0.7, 1, 0, 0, 0);
+        try {
+            for (int i = 0; i < 10; i++) {
+                forest.train(null, Collections.singletonMap("ActorId", "john"), Collections.singletonMap("output", "predicted value"));
+                forest.train(null, Collections.singletonMap("ActorId", "mary"), Collections.singletonMap("output", "value"));
+            }
+            KogitoWorkItemImpl task = new KogitoWorkItemImpl();
+            task.setId("task");
+            PredictionOutcome outcome = forest.predict(task, Collections.singletonMap("ActorId", "john"));
+            assertEquals("predicted value", outcome.getData().get("output"));
+
+            for (int i = 0; i < 20; i++) {
+                forest.train(null, Collections.singletonMap("ActorId", "john"), Collections.singletonMap("output", "other value"));
+            }
+            outcome = forest.predict(task, Collections.singletonMap("ActorId", "john"));
+            assertEquals("predicted value", outcome.getData().get("output"));
+
+            // a value the model was not trained with is scored without being registered
+            outcome = forest.predict(task, Collections.singletonMap("ActorId", "unknown"));
+            assertEquals(2, outcome.getData().size());
+        } finally {
+            forest.close();
+        }
+    }
 }
@@ -16,17 +16,22 @@
 
 package org.kie.kogito.tracing.decision;
 
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.Aggregation;
 import org.kie.kogito.tracing.decision.aggregator.Aggregator;
 import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
 import org.kie.kogito.tracing.decision.event.CloudEventUtils;
@@ -36,17 +41,39 @@ import org.kie.kogito.tracing.decision.terminationdetector.TerminationDetector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Hands the events of every evaluation to an {@link Aggregation} until its termination is
+ * detected, then sends the aggregated payload.
+ * <p>
+ * The buffer is bounded: evaluations that do not terminate within the execution timeout, e.g.
+ * because they failed mid-way, are evicted, and so are the oldest evaluations when more than
+ * the max number of executions are buffered. Eviction happens when events are added.
+ * Aggregation runs on the thread adding the last event, unless an aggregation executor is given.
+ */
 public class DecisionTracingCollector {
 
     private static final Logger LOG = LoggerFactory.getLogger(DecisionTracingCollector.class);
 
-    private final Map<String, List<EvaluateEvent>> cacheMap;
-    private final Map<String, TerminationDetector> terminationDetectorMap;
+    public static final int DEFAULT_MAX_EXECUTIONS = 10000;
+    public static final long DEFAULT_EXECUTION_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<String, Execution> executions = new ConcurrentHashMap<>();
+    // executions in creation order, terminated ones leave it right away wherever they are
+    private final NavigableMap<Long, Execution> executionOrder = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
     private final Aggregator aggregator;
     private final Consumer<String> payloadConsumer;
     private final BiFunction<String, String, DMNModel> modelSupplier;
     private final Supplier<TerminationDetector> terminationDetectorSupplier;
     private final ConfigBean configBean;
+    private final int maxExecutions;
+    private final long executionTimeout;
+    private final Executor aggregationExecutor;
+
+    private final AtomicLong aggregatedExecutions = new AtomicLong();
+    private final AtomicLong failedExecutions = new AtomicLong();
+    private final AtomicLong expiredExecutions = new AtomicLong();
+    private final AtomicLong overflowedExecutions = new AtomicLong();
 
     public DecisionTracingCollector(Consumer<String> payloadConsumer, BiFunction<String, String, DMNModel> modelSupplier, ConfigBean configBean) {
         this(new DefaultAggregator(), payloadConsumer, modelSupplier, CounterTerminationDetector::new, configBean);
@@ -59,47 +86,181 @@ public class DecisionTracingCollector {
             Supplier<TerminationDetector> terminationDetectorSupplier,
             ConfigBean configBean
     ) {
-        this.cacheMap = new ConcurrentHashMap<>();
-        this.terminationDetectorMap = new ConcurrentHashMap<>();
+        this(aggregator, payloadConsumer, modelSupplier, terminationDetectorSupplier, configBean,
+             DEFAULT_MAX_EXECUTIONS, DEFAULT_EXECUTION_TIMEOUT);
+    }
+
+    public DecisionTracingCollector(
+            Aggregator aggregator,
+            Consumer<String> payloadConsumer,
+            BiFunction<String, String, DMNModel> modelSupplier,
+            Supplier<TerminationDetector> terminationDetectorSupplier,
+            ConfigBean configBean,
+            int maxExecutions,
+            long executionTimeout
+    ) {
+        this(aggregator, payloadConsumer, modelSupplier, terminationDetectorSupplier, configBean,
+             maxExecutions, executionTimeout, null);
+    }
+
+    /**
+     * @param maxExecutions max number of evaluations buffered at once
+     * @param executionTimeout time in milliseconds an evaluation is buffered before being evicted
+     * @param aggregationExecutor executor aggregating terminated evaluations, <code>null</code> to
+     * aggregate on the thread adding the last event
+     */
+    public DecisionTracingCollector(
+            Aggregator aggregator,
+            Consumer<String> payloadConsumer,
+            BiFunction<String, String, DMNModel> modelSupplier,
+            Supplier<TerminationDetector> terminationDetectorSupplier,
+            ConfigBean configBean,
+            int maxExecutions,
+            long executionTimeout,
+            Executor aggregationExecutor
+    ) {
+        if (maxExecutions <= 0 || executionTimeout <= 0) {
+            throw new IllegalArgumentException("Max executions and execution timeout must be greater than zero");
+        }
         this.aggregator = aggregator;
         this.payloadConsumer = payloadConsumer;
         this.modelSupplier = modelSupplier;
         this.terminationDetectorSupplier = terminationDetectorSupplier;
         this.configBean = configBean;
+        this.maxExecutions = maxExecutions;
+        this.executionTimeout = executionTimeout;
+        this.aggregationExecutor = aggregationExecutor;
     }
 
     public void addEvent(EvaluateEvent event) {
         LOG.trace("Received {}(executionId: {}, modelName: {}, modelNamespace: {})", event.getType(), event.getExecutionId(), event.getModelName(), event.getModelNamespace());
 
         String executionId = event.getExecutionId();
-        if (!cacheMap.containsKey(executionId)) {
-            cacheMap.put(executionId, new LinkedList<>());
-            terminationDetectorMap.put(executionId, terminationDetectorSupplier.get());
-            LOG.trace("Added evaluation {} to cache (current size: {})", executionId, cacheMap.size());
-        }
+        long now = System.currentTimeMillis();
+        Execution[] terminated = new Execution[1];
+        executions.compute(executionId, (id, execution) -> {
+            if (execution == null) {
+                DMNModel dmnModel = modelSupplier.apply(event.getModelNamespace(), event.getModelName());
+                execution = new Execution(id, sequence.incrementAndGet(), now, aggregator.newAggregation(dmnModel, id, configBean),
+                                          terminationDetectorSupplier.get());
+                executionOrder.put(execution.sequence, execution);
+                LOG.trace("Added evaluation {} to cache", id);
+            }
+            execution.aggregation.add(event);
+            execution.events++;
+            execution.terminationDetector.add(event);
+            if (execution.terminationDetector.isTerminated()) {
+                executionOrder.remove(execution.sequence, execution);
+                terminated[0] = execution;
+                return null;
+            }
+            return execution;
+        });
 
-        cacheMap.get(executionId).add(event);
-        terminationDetectorMap.get(executionId).add(event);
+        evict(now);
 
-        if (terminationDetectorMap.get(executionId).isTerminated()) {
+        if (terminated[0] != null) {
+            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, executions.size());
             DMNModel dmnModel = modelSupplier.apply(event.getModelNamespace(), event.getModelName());
-            Optional<String> optPayload = aggregate(dmnModel, executionId, cacheMap.get(executionId));
-
-            if (optPayload.isPresent()) {
-                String payload = optPayload.get();
-                payloadConsumer.accept(payload);
-                LOG.debug("Generated aggregated event for evaluation {} (length {})", executionId, payload.length());
+            if (aggregationExecutor == null) {
+                aggregate(dmnModel, terminated[0]);
             } else {
-                LOG.error("Failed aggregating data for evaluation {}", executionId);
+                try {
+                    aggregationExecutor.execute(() -> aggregate(dmnModel, terminated[0]));
+                } catch (RejectedExecutionException e) {
+                    failedExecutions.incrementAndGet();
+                    LOG.error("Unable to aggregate data for evaluation {}, aggregation executor rejected it", executionId);
+                }
             }
+        }
+    }
+
+    /**
+     * Returns the number of evaluations waiting for their termination.
+     */
+    public int bufferedExecutions() {
+        return executions.size();
+    }
+
+    public long aggregatedExecutions() {
+        return aggregatedExecutions.get();
+    }
+
+    public long failedExecutions() {
+        return failedExecutions.get();
+    }
 
-            cacheMap.remove(executionId);
-            terminationDetectorMap.remove(executionId);
-            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, cacheMap.size());
+    /**
+     * Returns the number of evaluations evicted because they did not terminate within the execution timeout.
+     */
+    public long expiredExecutions() {
+        return expiredExecutions.get();
+    }
+
+    /**
+     * Returns the number of evaluations evicted because the max number of executions was buffered.
+     */
+    public long overflowedExecutions() {
+        return overflowedExecutions.get();
+    }
+
+    private void evict(long now) {
+        Map.Entry<Long, Execution> oldest;
+        while ((oldest = executionOrder.firstEntry()) != null) {
+            Execution head = oldest.getValue();
+            boolean expired = now - head.created >= executionTimeout;
+            boolean overflowed = executions.size() > maxExecutions;
+            if (!expired && !overflowed) {
+                return;
+            }
+            // the evaluation may terminate meanwhile, only the one removing it from the executions counts it
+            if (executionOrder.remove(head.sequence, head) && executions.remove(head.executionId, head)) {
+                if (expired) {
+                    expiredExecutions.incrementAndGet();
+                    LOG.warn("Evicted evaluation {} with {} events, it did not terminate within {} ms", head.executionId, head.events, executionTimeout);
+                } else {
+                    overflowedExecutions.incrementAndGet();
+                    LOG.warn("Evicted evaluation {} with {} events, more than {} evaluations are buffered", head.executionId, head.events, maxExecutions);
+                }
+            }
         }
     }
 
-    private Optional<String> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events) {
-        return aggregator.aggregate(model, executionId, events, configBean).flatMap(CloudEventUtils::encode);
+    private void aggregate(DMNModel model, Execution execution) {
+        Optional<String> optPayload;
+        try {
+            optPayload = execution.aggregation.complete(model).flatMap(CloudEventUtils::encode);
+        } catch (RuntimeException e) {
+            LOG.error("Unexpected exception thrown when aggregating data for evaluation {}", execution.executionId, e);
+            optPayload = Optional.empty();
+        }
+
+        if (optPayload.isPresent()) {
+            String payload = optPayload.get();
+            payloadConsumer.accept(payload);
+            aggregatedExecutions.incrementAndGet();
+            LOG.debug("Generated aggregated event for evaluation {} (length {})", execution.executionId, payload.length());
+        } else {
+            failedExecutions.incrementAndGet();
+            LOG.error("Failed aggregating data for evaluation {}", execution.executionId);
+        }
+    }
+
+    private static class Execution {
+
+        private final String executionId;
+        private final long sequence;
+        private final long created;
+        private final Aggregation aggregation;
+        private final TerminationDetector terminationDetector;
+        private int events;
+
+        private Execution(String executionId, long sequence, long created, Aggregation aggregation, TerminationDetector terminationDetector) {
+            this.executionId = executionId;
+            this.sequence = sequence;
+            this.created = created;
+            this.aggregation = aggregation;
+            this.terminationDetector = terminationDetector;
+        }
     }
 }
@@ -28,4 +28,14 @@ import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 public interface Aggregator {
 
     Optional<CloudEvent> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean);
+
+    /**
+     * Starts the aggregation of a single evaluation, which by default keeps all its events until
+     * it completes.
+     *
+     * @param model the model of the evaluation, possibly <code>null</code> if it is not known yet
+     */
+    default Aggregation newAggregation(DMNModel model, String executionId, ConfigBean configBean) {
+        return new BufferingAggregation(this, executionId, configBean);
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.tracing.decision.aggregator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import io.cloudevents.CloudEvent;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+
+/**
+ * {@link Aggregation} keeping all the events of the evaluation and handing them to an
+ * {@link Aggregator} at once when it completes.
+ */
+public class BufferingAggregation implements Aggregation {
+
+    private final Aggregator aggregator;
+    private final String executionId;
+    private final ConfigBean configBean;
+    private final List<EvaluateEvent> events = new ArrayList<>();
+
+    public BufferingAggregation(Aggregator aggregator, String executionId, ConfigBean configBean) {
+        this.aggregator = aggregator;
+        this.executionId = executionId;
+        this.configBean = configBean;
+    }
+
+    @Override
+    public void add(EvaluateEvent event) {
+        events.add(event);
+    }
+
+    @Override
+    public Optional<CloudEvent> complete(DMNModel model) {
+        return aggregator.aggregate(model, executionId, events, configBean);
+    }
+}
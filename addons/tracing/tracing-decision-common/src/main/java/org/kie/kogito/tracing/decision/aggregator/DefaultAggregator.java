@@ -84,7 +84,7 @@ public class DefaultAggregator implements Aggregator {
                 : buildDefaultCloudEvent(model, executionId, events, configBean);
     }
 
-    private static Optional<CloudEvent> buildNotEnoughDataCloudEvent(DMNModel model, String executionId, ConfigBean configBean) {
+    static Optional<CloudEvent> buildNotEnoughDataCloudEvent(DMNModel model, String executionId, ConfigBean configBean) {
         TraceHeader header = new TraceHeader(
                 TraceEventType.DMN,
                 executionId,
@@ -107,12 +107,17 @@ public class DefaultAggregator implements Aggregator {
         EvaluateEvent firstEvent = events.get(0);
         EvaluateEvent lastEvent = events.get(events.size() - 1);
 
+        Pair<List<TraceExecutionStep>, List<Message>> executionStepsPair = buildTraceExecutionSteps(model, executionId, events);
+
+        return buildCloudEvent(model, executionId, firstEvent, lastEvent, executionStepsPair, configBean);
+    }
+
+    static Optional<CloudEvent> buildCloudEvent(DMNModel model, String executionId, EvaluateEvent firstEvent, EvaluateEvent lastEvent,
+                                                Pair<List<TraceExecutionStep>, List<Message>> executionStepsPair, ConfigBean configBean) {
         List<TraceInputValue> inputs = buildTraceInputValues(model, firstEvent);
 
         List<TraceOutputValue> outputs = buildTraceOutputValues(model, lastEvent);
 
-        Pair<List<TraceExecutionStep>, List<Message>> executionStepsPair = buildTraceExecutionSteps(model, executionId, events);
-
         TraceHeader header = new TraceHeader(
                 TraceEventType.DMN,
                 executionId,
@@ -262,7 +267,7 @@ public class DefaultAggregator implements Aggregator {
                 .collect(Collectors.toList());
     }
 
-    private static TraceExecutionStep buildTraceExecutionStep(DMNModel model, DefaultAggregatorStackEntry stackEntry, EvaluateEvent afterEvent) {
+    static TraceExecutionStep buildTraceExecutionStep(DMNModel model, DefaultAggregatorStackEntry stackEntry, EvaluateEvent afterEvent) {
         TraceExecutionStepType type = Optional.ofNullable(afterEvent.getType()).map(EvaluateEventType::toTraceExecutionStepType).orElse(null);
         if (type == null) {
             return null;
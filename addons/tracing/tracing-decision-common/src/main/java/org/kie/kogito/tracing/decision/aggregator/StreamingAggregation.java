@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.tracing.decision.aggregator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.cloudevents.CloudEvent;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.feel.util.Pair;
+import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.event.EventUtils;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.kie.kogito.tracing.decision.event.message.InternalMessageType;
+import org.kie.kogito.tracing.decision.event.message.Message;
+import org.kie.kogito.tracing.decision.event.trace.TraceExecutionStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Aggregation} built by {@link StreamingAggregator}.
+ * <p>
+ * Events are folded with a delay of one, because the last event of the evaluation is not
+ * part of the execution steps and there is no way to tell it is the last one before the
+ * evaluation completes. As {@link DefaultAggregator} does, when after events do not match
+ * the before ones the execution steps are flattened.
+ */
+class StreamingAggregation implements Aggregation {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingAggregation.class);
+
+    private static final String RESULT_OMITTED_KEY = "resultOmitted";
+
+    private final DMNModel model;
+    private final String executionId;
+    private final ConfigBean configBean;
+    private final int maxStepResultNodes;
+
+    private final Deque<DefaultAggregatorStackEntry> stack = new ArrayDeque<>();
+    private List<TraceExecutionStep> executionSteps = new ArrayList<>();
+    private EvaluateEvent firstEvent;
+    private EvaluateEvent pendingEvent;
+    // set once the hierarchy can't be built, from then on execution steps are a flat list
+    private IllegalStateException hierarchyError;
+
+    StreamingAggregation(DMNModel model, String executionId, ConfigBean configBean, int maxStepResultNodes) {
+        this.model = model;
+        this.executionId = executionId;
+        this.configBean = configBean;
+        this.maxStepResultNodes = maxStepResultNodes;
+    }
+
+    @Override
+    public void add(EvaluateEvent event) {
+        if (firstEvent == null) {
+            firstEvent = event;
+            return;
+        }
+        if (pendingEvent != null) {
+            fold(pendingEvent);
+        }
+        pendingEvent = event;
+    }
+
+    @Override
+    public Optional<CloudEvent> complete(DMNModel completedModel) {
+        if (firstEvent == null) {
+            return DefaultAggregator.buildNotEnoughDataCloudEvent(completedModel, executionId, configBean);
+        }
+        EvaluateEvent lastEvent = pendingEvent != null ? pendingEvent : firstEvent;
+        if (hierarchyError == null && !stack.isEmpty()) {
+            flatten(new IllegalStateException("Can't match all after events with corresponding before events"));
+        }
+        List<Message> messages = Collections.emptyList();
+        if (hierarchyError != null) {
+            LOG.error(String.format("IllegalStateException during aggregation of evaluation %s", executionId), hierarchyError);
+            // as the flat list built from all the events, it includes the steps of the first and last events
+            addFlat(firstEvent, 0);
+            addFlat(lastEvent, executionSteps.size());
+            messages = Collections.singletonList(EventUtils.messageFrom(InternalMessageType.NO_EXECUTION_STEP_HIERARCHY, hierarchyError));
+        }
+        return DefaultAggregator.buildCloudEvent(completedModel, executionId, firstEvent, lastEvent,
+                                                 new Pair<>(executionSteps, messages), configBean);
+    }
+
+    private void fold(EvaluateEvent event) {
+        if (hierarchyError != null) {
+            addFlat(event, executionSteps.size());
+            return;
+        }
+        if (event.getType().isBefore()) {
+            stack.push(new DefaultAggregatorStackEntry(event));
+            return;
+        }
+        if (stack.isEmpty() || !stack.peek().isValidAfterEvent(event)) {
+            flatten(new IllegalStateException(String.format("Can't match %s after event with corresponding before event", event.getType())));
+            addFlat(event, executionSteps.size());
+            return;
+        }
+        DefaultAggregatorStackEntry stackEntry = stack.pop();
+        TraceExecutionStep step = DefaultAggregator.buildTraceExecutionStep(model, stackEntry, event);
+        if (step == null) {
+            stack.push(stackEntry);
+            flatten(new IllegalStateException(String.format("Can't build TraceExecutionStep for a %s event", event.getType())));
+            return;
+        }
+        step = capResult(step);
+        if (stack.isEmpty()) {
+            executionSteps.add(step);
+        } else {
+            stack.peek().addChild(step);
+        }
+    }
+
+    /**
+     * Turns the steps built so far into a flat list in the order their after events were
+     * received, without durations nor children.
+     */
+    private void flatten(IllegalStateException error) {
+        hierarchyError = error;
+        List<TraceExecutionStep> flatSteps = new ArrayList<>();
+        flatten(executionSteps, flatSteps);
+        for (Iterator<DefaultAggregatorStackEntry> it = stack.descendingIterator(); it.hasNext(); ) {
+            flatten(it.next().getChildren(), flatSteps);
+        }
+        stack.clear();
+        executionSteps = flatSteps;
+    }
+
+    private static void flatten(List<TraceExecutionStep> steps, List<TraceExecutionStep> flatSteps) {
+        for (TraceExecutionStep step : steps) {
+            flatten(step.getChildren(), flatSteps);
+            flatSteps.add(new TraceExecutionStep(step.getType(), 0, step.getName(), step.getResult(), step.getMessages(),
+                                                 step.getAdditionalData(), Collections.emptyList()));
+        }
+    }
+
+    private void addFlat(EvaluateEvent event, int index) {
+        if (event.getType().isAfter()) {
+            TraceExecutionStep step = DefaultAggregator.buildTraceExecutionStep(model, null, event);
+            if (step != null) {
+                executionSteps.add(index, capResult(step));
+            }
+        }
+    }
+
+    private TraceExecutionStep capResult(TraceExecutionStep step) {
+        if (maxStepResultNodes < 0 || step.getResult() == null || !exceedsNodes(step.getResult(), maxStepResultNodes)) {
+            return step;
+        }
+        Map<String, String> additionalData = new HashMap<>(step.getAdditionalData());
+        additionalData.put(RESULT_OMITTED_KEY, Boolean.TRUE.toString());
+        return new TraceExecutionStep(step.getType(), step.getDuration(), step.getName(), null, step.getMessages(),
+                                      additionalData, step.getChildren());
+    }
+
+    private static boolean exceedsNodes(JsonNode node, int maxNodes) {
+        int count = 0;
+        Deque<JsonNode> toVisit = new ArrayDeque<>();
+        toVisit.push(node);
+        while (!toVisit.isEmpty()) {
+            if (++count > maxNodes) {
+                return true;
+            }
+            toVisit.pop().forEach(toVisit::push);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.tracing.decision.aggregator;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.cloudevents.CloudEvent;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+
+/**
+ * {@link Aggregator} folding every event into the execution steps as soon as it is received,
+ * instead of keeping all the events until the evaluation completes. Only the first event, the
+ * last received one and the before events of the steps still being evaluated are kept, so
+ * memory grows with the size of the result rather than with the number of events.
+ * <p>
+ * The results of the execution steps can be dropped or capped to a max number of JSON nodes, in
+ * which case the step is flagged with the <code>resultOmitted</code> additional data.
+ */
+public class StreamingAggregator implements Aggregator {
+
+    public static final int UNLIMITED = -1;
+
+    private final int maxStepResultNodes;
+
+    public StreamingAggregator() {
+        this(UNLIMITED);
+    }
+
+    /**
+     * @param maxStepResultNodes max number of JSON nodes of the result of an execution step,
+     * <code>0</code> to drop all of them or {@link #UNLIMITED} to keep all of them
+     */
+    public StreamingAggregator(int maxStepResultNodes) {
+        this.maxStepResultNodes = maxStepResultNodes;
+    }
+
+    @Override
+    public Optional<CloudEvent> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
+        if (events == null || events.isEmpty()) {
+            return DefaultAggregator.buildNotEnoughDataCloudEvent(model, executionId, configBean);
+        }
+        Aggregation aggregation = newAggregation(model, executionId, configBean);
+        events.forEach(aggregation::add);
+        return aggregation.complete(model);
+    }
+
+    @Override
+    public Aggregation newAggregation(DMNModel model, String executionId, ConfigBean configBean) {
+        return new StreamingAggregation(model, executionId, configBean, maxStepResultNodes);
+    }
+}
@@ -17,6 +17,7 @@
 package org.kie.kogito.tracing.decision;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -46,7 +47,9 @@ import static org.kie.kogito.tracing.decision.DecisionTestUtils.EVALUATE_DECISIO
 import static org.kie.kogito.tracing.decision.DecisionTestUtils.EVALUATE_DECISION_SERVICE_JSON_RESOURCE;
 import static org.kie.kogito.tracing.decision.DecisionTestUtils.createDMNModel;
 import static org.kie.kogito.tracing.decision.DecisionTestUtils.readEvaluateEventsFromJsonResource;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -117,6 +120,76 @@ class DecisionTracingCollectorTest {
         assertEquals(expectedEvaluateDecisionService, payloads.get(evaluateDecisionServiceIndex));
     }
 
+    @Test
+    void testCollectorEvictsExpiredEvaluations() throws Exception {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        DecisionTracingCollector collector = new DecisionTracingCollector(
+                new MockDefaultAggregator(), payloadConsumer, (namespace, name) -> model, CounterTerminationDetector::new, configBean,
+                10, 1
+        );
+
+        collector.addEvent(readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE).get(0));
+        Thread.sleep(10);
+        collector.addEvent(readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE).get(0));
+
+        assertEquals(1, collector.expiredExecutions());
+        assertEquals(0, collector.overflowedExecutions());
+        assertEquals(1, collector.bufferedExecutions());
+        verify(payloadConsumer, never()).accept(any());
+    }
+
+    @Test
+    void testCollectorEvictsOldestEvaluationsWhenFull() throws IOException {
+        MockDefaultAggregator aggregator = new MockDefaultAggregator();
+        DecisionTracingCollector collector = new DecisionTracingCollector(
+                aggregator, mock(Consumer.class), (namespace, name) -> model, CounterTerminationDetector::new, configBean,
+                1, DecisionTracingCollector.DEFAULT_EXECUTION_TIMEOUT
+        );
+
+        collector.addEvent(readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE).get(0));
+        readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE).forEach(collector::addEvent);
+
+        assertEquals(1, collector.overflowedExecutions());
+        assertEquals(1, collector.aggregatedExecutions());
+        assertEquals(0, collector.bufferedExecutions());
+        assertTrue(aggregator.getCalls().containsKey(EVALUATE_DECISION_SERVICE_EXECUTION_ID));
+    }
+
+    @Test
+    void testTerminatedEvaluationsLeaveBufferBehindLiveOnes() throws IOException {
+        MockDefaultAggregator aggregator = new MockDefaultAggregator();
+        DecisionTracingCollector collector = new DecisionTracingCollector(
+                aggregator, mock(Consumer.class), (namespace, name) -> model, CounterTerminationDetector::new, configBean,
+                2, DecisionTracingCollector.DEFAULT_EXECUTION_TIMEOUT
+        );
+
+        collector.addEvent(readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE).get(0));
+        readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE).forEach(collector::addEvent);
+
+        assertEquals(1, collector.bufferedExecutions());
+        assertEquals(0, collector.overflowedExecutions());
+        assertEquals(1, collector.aggregatedExecutions());
+    }
+
+    @Test
+    void testCollectorAggregatesOnExecutor() throws IOException {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        List<Runnable> tasks = new ArrayList<>();
+        DecisionTracingCollector collector = new DecisionTracingCollector(
+                new MockDefaultAggregator(), payloadConsumer, (namespace, name) -> model, CounterTerminationDetector::new, configBean,
+                10, DecisionTracingCollector.DEFAULT_EXECUTION_TIMEOUT, tasks::add
+        );
+
+        readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE).forEach(collector::addEvent);
+        assertEquals(1, tasks.size());
+        assertEquals(0, collector.bufferedExecutions());
+        verify(payloadConsumer, never()).accept(any());
+
+        tasks.get(0).run();
+        verify(payloadConsumer, times(1)).accept(any());
+        assertEquals(1, collector.aggregatedExecutions());
+    }
+
     private static String encodeFromCall(Map<String, Pair<List<EvaluateEvent>, CloudEvent>> aggregatorCalls, String key) {
         return Optional.ofNullable(aggregatorCalls.get(key))
                 .map(Pair::getRight)
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.tracing.decision.aggregator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.cloudevents.CloudEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.kogito.conf.StaticConfigBean;
+import org.kie.kogito.tracing.decision.DecisionTestUtils;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType;
+import org.kie.kogito.tracing.decision.event.message.InternalMessageType;
+import org.kie.kogito.tracing.decision.event.message.MessageCategory;
+import org.kie.kogito.tracing.decision.event.trace.TraceEvent;
+import org.kie.kogito.tracing.decision.event.trace.TraceExecutionStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.kie.kogito.tracing.decision.DecisionTestUtils.EVALUATE_ALL_EXECUTION_ID;
+import static org.kie.kogito.tracing.decision.DecisionTestUtils.EVALUATE_ALL_JSON_RESOURCE;
+import static org.kie.kogito.tracing.decision.DecisionTestUtils.EVALUATE_DECISION_SERVICE_EXECUTION_ID;
+import static org.kie.kogito.tracing.decision.DecisionTestUtils.EVALUATE_DECISION_SERVICE_JSON_RESOURCE;
+import static org.kie.kogito.tracing.decision.DecisionTestUtils.FIRST_DECISION_NODE_ID;
+import static org.kie.kogito.tracing.decision.DecisionTestUtils.createDMNModel;
+
+class StreamingAggregatorTest {
+
+    private static DMNModel model;
+    private static StaticConfigBean configBean;
+
+    @BeforeAll
+    static void initModel() {
+        model = createDMNModel();
+        configBean = new StaticConfigBean();
+    }
+
+    @Test
+    void testAggregateOnEvaluateAllIsEqualToDefaultAggregator() throws IOException {
+        List<EvaluateEvent> events = DecisionTestUtils.readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        assertEquals(aggregate(new DefaultAggregator(), EVALUATE_ALL_EXECUTION_ID, events),
+                     aggregate(new StreamingAggregator(), EVALUATE_ALL_EXECUTION_ID, events));
+    }
+
+    @Test
+    void testAggregateOnEvaluateDecisionServiceIsEqualToDefaultAggregator() throws IOException {
+        List<EvaluateEvent> events = DecisionTestUtils.readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+        assertEquals(aggregate(new DefaultAggregator(), EVALUATE_DECISION_SERVICE_EXECUTION_ID, events),
+                     aggregate(new StreamingAggregator(), EVALUATE_DECISION_SERVICE_EXECUTION_ID, events));
+    }
+
+    @Test
+    void testAggregateWithEmptyListReturnsNotEnoughData() throws IOException {
+        CloudEvent cloudEvent = new StreamingAggregator().aggregate(model, EVALUATE_ALL_EXECUTION_ID, null, configBean)
+                .orElseThrow(IllegalStateException::new);
+        TraceEvent traceEvent = DecisionTestUtils.MAPPER.readValue(cloudEvent.getData(), TraceEvent.class);
+        assertTrue(traceEvent.getExecutionSteps().isEmpty());
+        assertInternalMessage(traceEvent, InternalMessageType.NOT_ENOUGH_DATA);
+    }
+
+    @Test
+    void testAggregateWithMissingEventReturnsNoExecutionStepHierarchy() throws IOException {
+        final List<EvaluateEvent> events = DecisionTestUtils.readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE).stream()
+                .filter(e -> !(e.getType() == EvaluateEventType.BEFORE_EVALUATE_DECISION && FIRST_DECISION_NODE_ID.equals(e.getNodeId())))
+                .collect(Collectors.toList());
+        TraceEvent expected = DecisionTestUtils.MAPPER.treeToValue(aggregate(new DefaultAggregator(), EVALUATE_ALL_EXECUTION_ID, events), TraceEvent.class);
+        TraceEvent traceEvent = DecisionTestUtils.MAPPER.treeToValue(aggregate(new StreamingAggregator(), EVALUATE_ALL_EXECUTION_ID, events), TraceEvent.class);
+
+        assertEquals(expected.getExecutionSteps().size(), traceEvent.getExecutionSteps().size());
+        assertInternalMessage(traceEvent, InternalMessageType.NO_EXECUTION_STEP_HIERARCHY);
+    }
+
+    @Test
+    void testAggregateOmitsResultsLargerThanMaxNodes() throws IOException {
+        List<EvaluateEvent> events = DecisionTestUtils.readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        TraceEvent traceEvent = DecisionTestUtils.MAPPER.treeToValue(aggregate(new StreamingAggregator(0), EVALUATE_ALL_EXECUTION_ID, events), TraceEvent.class);
+
+        assertFalse(traceEvent.getExecutionSteps().isEmpty());
+        for (TraceExecutionStep step : traceEvent.getExecutionSteps()) {
+            assertEquals("true", step.getAdditionalData().get("resultOmitted"));
+            assertNoResult(step);
+        }
+        assertFalse(traceEvent.getOutputs().isEmpty());
+    }
+
+    private static JsonNode aggregate(Aggregator aggregator, String executionId, List<EvaluateEvent> events) throws IOException {
+        CloudEvent cloudEvent = aggregator.aggregate(model, executionId, events, configBean).orElseThrow(IllegalStateException::new);
+        return DecisionTestUtils.MAPPER.readTree(cloudEvent.getData());
+    }
+
+    private static void assertNoResult(TraceExecutionStep step) {
+        assertNull(step.getResult());
+        step.getChildren().forEach(StreamingAggregatorTest::assertNoResult);
+    }
+
+    private static void assertInternalMessage(TraceEvent traceEvent, InternalMessageType type) {
+        assertTrue(traceEvent.getHeader().getMessages().stream().anyMatch(
+                m -> m.getCategory() == MessageCategory.INTERNAL && type.name().equals(m.getType())
+        ));
+    }
+}
@@ -16,16 +16,23 @@
 
 package org.kie.kogito.tracing.decision;
 
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import io.quarkus.vertx.ConsumeEvent;
+import io.vertx.core.Vertx;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.Aggregator;
+import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
+import org.kie.kogito.tracing.decision.aggregator.StreamingAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.kie.kogito.tracing.decision.modelsupplier.ApplicationModelSupplier;
+import org.kie.kogito.tracing.decision.terminationdetector.CounterTerminationDetector;
 
 @Singleton
 public class QuarkusDecisionTracingCollector {
@@ -35,16 +42,51 @@ public class QuarkusDecisionTracingCollector {
     public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
                                            final ConfigBean configBean,
                                            final BiFunction<String, String, org.kie.dmn.api.core.DMNModel> modelSupplier) {
-        this.collector = new DecisionTracingCollector(eventEmitter::emit, modelSupplier, configBean);
+        this(eventEmitter, configBean, modelSupplier, new DefaultAggregator(), DecisionTracingCollector.DEFAULT_MAX_EXECUTIONS, DecisionTracingCollector.DEFAULT_EXECUTION_TIMEOUT, null);
+    }
+
+    public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
+                                           final ConfigBean configBean,
+                                           final BiFunction<String, String, org.kie.dmn.api.core.DMNModel> modelSupplier,
+                                           final Aggregator aggregator,
+                                           final int maxExecutions,
+                                           final long executionTimeout,
+                                           final Executor aggregationExecutor) {
+        this.collector = new DecisionTracingCollector(aggregator, eventEmitter::emit, modelSupplier, CounterTerminationDetector::new,
+                                                      configBean, maxExecutions, executionTimeout, aggregationExecutor);
     }
 
-    @Inject
     public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
                                            final ConfigBean configBean,
                                            final Application application) {
         this(eventEmitter, configBean, new ApplicationModelSupplier(application));
     }
 
+    @Inject
+    public QuarkusDecisionTracingCollector(final QuarkusTraceEventEmitter eventEmitter,
+                                           final ConfigBean configBean,
+                                           final Application application,
+                                           final Vertx vertx,
+                                           @ConfigProperty(name = "kogito.addon.tracing.decision.buffer.maxExecutions", defaultValue = "10000") int maxExecutions,
+                                           @ConfigProperty(name = "kogito.addon.tracing.decision.buffer.executionTimeout", defaultValue = "60000") long executionTimeout,
+                                           @ConfigProperty(name = "kogito.addon.tracing.decision.aggregation.streaming", defaultValue = "false") boolean streaming,
+                                           @ConfigProperty(name = "kogito.addon.tracing.decision.aggregation.maxStepResultNodes", defaultValue = "-1") int maxStepResultNodes) {
+        this(eventEmitter, configBean, new ApplicationModelSupplier(application),
+             streaming ? new StreamingAggregator(maxStepResultNodes) : new DefaultAggregator(),
+             maxExecutions, executionTimeout, workerPool(vertx));
+    }
+
+    /**
+     * Events are consumed on the event loop, aggregating an evaluation and encoding its payload
+     * runs on the worker pool instead, in no particular order.
+     */
+    private static Executor workerPool(Vertx vertx) {
+        return task -> vertx.executeBlocking(promise -> {
+            task.run();
+            promise.complete();
+        }, false, null);
+    }
+
     @ConsumeEvent("kogito-tracing-decision_EvaluateEvent")
     public void onEvent(final EvaluateEvent event) {
         collector.addEvent(event);
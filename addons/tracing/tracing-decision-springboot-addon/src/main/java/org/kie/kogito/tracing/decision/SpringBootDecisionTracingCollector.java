@@ -21,8 +21,11 @@ import java.util.function.BiFunction;
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.Aggregator;
+import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.kie.kogito.tracing.decision.modelsupplier.ApplicationModelSupplier;
+import org.kie.kogito.tracing.decision.terminationdetector.CounterTerminationDetector;
 
 public class SpringBootDecisionTracingCollector {
 
@@ -31,7 +34,17 @@ public class SpringBootDecisionTracingCollector {
     public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
                                               final ConfigBean configBean,
                                               final BiFunction<String, String, DMNModel> modelSupplier) {
-        this.collector = new DecisionTracingCollector(eventEmitter::emit, modelSupplier, configBean);
+        this(eventEmitter, configBean, modelSupplier, new DefaultAggregator(), DecisionTracingCollector.DEFAULT_MAX_EXECUTIONS, DecisionTracingCollector.DEFAULT_EXECUTION_TIMEOUT);
+    }
+
+    public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
+                                              final ConfigBean configBean,
+                                              final BiFunction<String, String, DMNModel> modelSupplier,
+                                              final Aggregator aggregator,
+                                              final int maxExecutions,
+                                              final long executionTimeout) {
+        this.collector = new DecisionTracingCollector(aggregator, eventEmitter::emit, modelSupplier, CounterTerminationDetector::new,
+                                                      configBean, maxExecutions, executionTimeout);
     }
 
     public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
@@ -40,6 +53,15 @@ public class SpringBootDecisionTracingCollector {
         this(eventEmitter, configBean, new ApplicationModelSupplier(application));
     }
 
+    public SpringBootDecisionTracingCollector(final SpringBootTraceEventEmitter eventEmitter,
+                                              final ConfigBean configBean,
+                                              final Application application,
+                                              final Aggregator aggregator,
+                                              final int maxExecutions,
+                                              final long executionTimeout) {
+        this(eventEmitter, configBean, new ApplicationModelSupplier(application), aggregator, maxExecutions, executionTimeout);
+    }
+
     public void onApplicationEvent(final EvaluateEvent event) {
         collector.addEvent(event);
     }
@@ -21,6 +21,7 @@ import java.util.function.BiFunction;
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.Aggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
@@ -35,6 +36,11 @@ public class SpringBootDecisionTracingCollectorAsync extends SpringBootDecisionT
         super(eventEmitter, configBean, application);
     }
 
+    public SpringBootDecisionTracingCollectorAsync(SpringBootTraceEventEmitter eventEmitter, ConfigBean configBean, Application application,
+                                                   Aggregator aggregator, int maxExecutions, long executionTimeout) {
+        super(eventEmitter, configBean, application, aggregator, maxExecutions, executionTimeout);
+    }
+
     @Override
     @Async("kogitoTracingDecisionAddonTaskExecutor")
     @EventListener
@@ -27,6 +27,9 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.kie.kogito.Application;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.aggregator.Aggregator;
+import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
+import org.kie.kogito.tracing.decision.aggregator.StreamingAggregator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -63,12 +66,17 @@ public class SpringBootDecisionTracingConfiguration {
             final SpringBootTraceEventEmitter eventEmitter,
             final ConfigBean configBean,
             final Application application,
-            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") final boolean asyncEnabled
+            @Value(value = "${kogito.addon.tracing.decision.asyncEnabled:true}") final boolean asyncEnabled,
+            @Value(value = "${kogito.addon.tracing.decision.buffer.maxExecutions:10000}") final int maxExecutions,
+            @Value(value = "${kogito.addon.tracing.decision.buffer.executionTimeout:60000}") final long executionTimeout,
+            @Value(value = "${kogito.addon.tracing.decision.aggregation.streaming:false}") final boolean streaming,
+            @Value(value = "${kogito.addon.tracing.decision.aggregation.maxStepResultNodes:-1}") final int maxStepResultNodes
     ) {
+        Aggregator aggregator = streaming ? new StreamingAggregator(maxStepResultNodes) : new DefaultAggregator();
         if (asyncEnabled) {
-            return new SpringBootDecisionTracingCollectorAsync(eventEmitter, configBean, application);
+            return new SpringBootDecisionTracingCollectorAsync(eventEmitter, configBean, application, aggregator, maxExecutions, executionTimeout);
         } else {
-            return new SpringBootDecisionTracingCollector(eventEmitter, configBean, application);
+            return new SpringBootDecisionTracingCollector(eventEmitter, configBean, application, aggregator, maxExecutions, executionTimeout);
         }
     }
 
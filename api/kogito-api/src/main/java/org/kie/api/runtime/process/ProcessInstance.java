@@ -16,6 +16,8 @@
 
 package org.kie.api.runtime.process;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.kie.api.definition.process.Process;
@@ -113,6 +115,16 @@ public interface ProcessInstance
      * @return non empty map of process instance variables
      */
     Map<String, Object> getVariables();
+
+    /**
+     * Returns an immutable copy of the process instance variables, implementations may share it
+     * until a variable changes
+     * @return copy of process instance variables, or null when not available
+     */
+    default Map<String, Object> getVariablesSnapshot() {
+        Map<String, Object> variables = getVariables();
+        return variables == null ? null : Collections.unmodifiableMap(new HashMap<>(variables));
+    }
     
     /**
      * Returns optional reference id this process instance was triggered by
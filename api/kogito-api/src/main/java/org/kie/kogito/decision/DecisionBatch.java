@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.kogito.decision;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNResult;
+
+/**
+ * Steps of {@link DecisionModel#evaluateAll(Iterator, Executor, int, BiConsumer)}.
+ */
+final class DecisionBatch {
+
+    private DecisionBatch() {
+    }
+
+    static CompletableFuture<DMNResult> submit(DecisionModel decisionModel, Iterator<DMNContext> contexts, Executor executor) {
+        CompletableFuture<DMNResult> evaluation = new CompletableFuture<>();
+        DMNContext context;
+        try {
+            context = contexts.next();
+        } catch (RuntimeException e) {
+            evaluation.completeExceptionally(e);
+            return evaluation;
+        }
+        Runnable evaluate = () -> {
+            try {
+                evaluation.complete(decisionModel.evaluateAll(context));
+            } catch (RuntimeException e) {
+                evaluation.completeExceptionally(e);
+            }
+        };
+        try {
+            executor.execute(evaluate);
+        } catch (RejectedExecutionException e) {
+            evaluate.run();
+        }
+        return evaluation;
+    }
+
+    static void consume(CompletableFuture<DMNResult> evaluation, BiConsumer<DMNResult, Throwable> resultConsumer) {
+        DMNResult result;
+        try {
+            result = evaluation.join();
+        } catch (CompletionException e) {
+            resultConsumer.accept(null, e.getCause());
+            return;
+        }
+        resultConsumer.accept(result, null);
+    }
+}
@@ -15,7 +15,16 @@
 
 package org.kie.kogito.decision;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNModel;
@@ -34,4 +43,56 @@ public interface DecisionModel {
 
     DMNModel getDMNModel();
 
+    /**
+     * Evaluates all the decisions for every given context on the executor and returns the results
+     * in the same order as the contexts, running at most as many evaluations at the same time as
+     * there are available processors.
+     * @throws CompletionException wrapping the failure of the first evaluation that failed
+     */
+    default List<DMNResult> evaluateAll(List<DMNContext> contexts, Executor executor) {
+        List<DMNResult> results = new ArrayList<>(contexts.size());
+        evaluateAll(contexts.iterator(), executor, Runtime.getRuntime().availableProcessors(), (result, error) -> {
+            if (error != null) {
+                throw new CompletionException(error);
+            }
+            results.add(result);
+        });
+        return results;
+    }
+
+    /**
+     * Evaluates all the decisions for every context of the iterator on the executor, running at
+     * most <code>maxConcurrency</code> evaluations at the same time, and passes the result of each
+     * of them, or why it failed, to the consumer in the same order as the contexts.
+     * <p>
+     * Contexts are only taken from the iterator when there is room for a new evaluation, so they
+     * can be produced lazily while reading the request, and a context the iterator fails to produce
+     * is reported as a failed evaluation. An evaluation the executor rejects runs on the calling
+     * thread, which slows down the batch instead of failing it.
+     * <p>
+     * When the consumer or the iterator itself throws, the evaluations in flight are waited for
+     * before the exception is rethrown, so none of them keeps running unnoticed.
+     */
+    default void evaluateAll(Iterator<DMNContext> contexts, Executor executor, int maxConcurrency, BiConsumer<DMNResult, Throwable> resultConsumer) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be greater than zero");
+        }
+        Deque<CompletableFuture<DMNResult>> inFlight = new ArrayDeque<>(maxConcurrency);
+        try {
+            while (contexts.hasNext()) {
+                inFlight.add(DecisionBatch.submit(this, contexts, executor));
+                if (inFlight.size() >= maxConcurrency) {
+                    DecisionBatch.consume(inFlight.poll(), resultConsumer);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                DecisionBatch.consume(inFlight.poll(), resultConsumer);
+            }
+        } finally {
+            // only left over when the consumer or the iterator failed
+            for (CompletableFuture<DMNResult> evaluation : inFlight) {
+                evaluation.handle((result, error) -> null).join();
+            }
+        }
+    }
 }
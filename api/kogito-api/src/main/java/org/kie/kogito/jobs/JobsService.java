@@ -17,6 +17,10 @@
 package org.kie.kogito.jobs;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * JobsService provides an entry point for working with different types of jobs
@@ -54,4 +58,76 @@ public interface JobsService {
      * @return returns actual expiration time for the job
      */
     ZonedDateTime getScheduledTime(String id);
+
+    /**
+     * Schedules several process instance related jobs at once. Implementations talking to a remote
+     * service should override it to avoid a round trip per job.
+     * <p>
+     * Every job is attempted even when scheduling some of them fails, the first failure is then
+     * thrown with the other ones suppressed.
+     * @param descriptions defines the context of the process instances that should be signaled
+     * @return returns unique ids of the jobs, in the same order as the descriptions
+     */
+    default List<String> scheduleProcessInstanceJobs(List<ProcessInstanceJobDescription> descriptions) {
+        List<String> ids = new ArrayList<>(descriptions.size());
+        RuntimeException failure = null;
+        for (ProcessInstanceJobDescription description : descriptions) {
+            try {
+                ids.add(scheduleProcessInstanceJob(description));
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return ids;
+    }
+
+    /**
+     * Cancels several jobs at once.
+     * <p>
+     * Every job is attempted even when cancelling some of them fails, the first failure is then
+     * thrown with the other ones suppressed.
+     * @param ids unique ids of the jobs
+     * @return returns true if all the cancellations were successful, otherwise false
+     */
+    default boolean cancelJobs(Collection<String> ids) {
+        boolean cancelled = true;
+        RuntimeException failure = null;
+        for (String id : ids) {
+            try {
+                cancelled &= cancelJob(id);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Returns actual schedule time for the next expiration of given job without waiting for it.
+     * @param id unique id of the job
+     * @return returns a future completed with the actual expiration time for the job
+     */
+    default CompletableFuture<ZonedDateTime> getScheduledTimeAsync(String id) {
+        CompletableFuture<ZonedDateTime> future = new CompletableFuture<>();
+        try {
+            future.complete(getScheduledTime(id));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
@@ -15,6 +15,10 @@
 
 package org.kie.kogito.process;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 public interface MutableProcessInstances<T> extends ProcessInstances<T> {
     
     boolean exists(String id);
@@ -24,6 +28,27 @@ public interface MutableProcessInstances<T> extends ProcessInstances<T> {
     void update(String id, ProcessInstance<T> instance);
     
     void remove(String id);
+
+    /**
+     * Updates all given process instances, keyed by their id. Stores that offer a bulk
+     * write operation are expected to override this method to persist them in a single call.
+     * <p>
+     * A conflicting update does not prevent the others from being stored, the conflicting
+     * process instances are all reported at the end by a {@link ProcessInstanceOptimisticLockingException}.
+     */
+    default void updateAll(Map<String, ProcessInstance<T>> instances) {
+        List<String> conflicts = new ArrayList<>();
+        instances.forEach((id, instance) -> {
+            try {
+                update(id, instance);
+            } catch (ProcessInstanceOptimisticLockingException e) {
+                conflicts.addAll(e.getProcessInstanceIds());
+            }
+        });
+        if (!conflicts.isEmpty()) {
+            throw new ProcessInstanceOptimisticLockingException(conflicts);
+        }
+    }
     
     default boolean isActive(ProcessInstance<T> instance) {
         return instance.status() == ProcessInstance.STATE_ACTIVE || instance.status() == ProcessInstance.STATE_ERROR;        
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Thrown when a process instance could not be stored because it was concurrently updated
+ * or removed since it was loaded. The operation can be retried on a freshly loaded process instance.
+ * <p>
+ * When thrown by {@link MutableProcessInstances#updateAll(java.util.Map)} it lists all the process
+ * instances in conflict, all the others having been stored.
+ */
+public class ProcessInstanceOptimisticLockingException extends RuntimeException {
+
+    private static final long serialVersionUID = -7404234164716330542L;
+
+    private final Set<String> processInstanceIds;
+
+    public ProcessInstanceOptimisticLockingException(String processInstanceId) {
+        this(Collections.singleton(processInstanceId));
+    }
+
+    public ProcessInstanceOptimisticLockingException(Collection<String> processInstanceIds) {
+        super("Process instance with id '" + String.join("', '", processInstanceIds) + "' was updated concurrently, reload it and retry");
+        this.processInstanceIds = Collections.unmodifiableSet(new LinkedHashSet<>(processInstanceIds));
+    }
+
+    public String getProcessInstanceId() {
+        return processInstanceIds.iterator().next();
+    }
+
+    public Set<String> getProcessInstanceIds() {
+        return processInstanceIds;
+    }
+
+}
@@ -16,7 +16,11 @@
 package org.kie.kogito.process;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface ProcessInstances<T> {
 
@@ -31,6 +35,49 @@ public interface ProcessInstances<T> {
     }
     
     Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode);
-    
+
+    /**
+     * Returns at most <code>limit</code> process instances ordered by id, skipping the first <code>offset</code> ones,
+     * so consecutive pages neither repeat nor miss instances.
+     * Implementations are expected to only load the requested page from the underlying storage.
+     */
+    default Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode, int offset, int limit) {
+        try (Stream<ProcessInstance<T>> stream = stream(mode)) {
+            return stream.sorted(Comparator.comparing(ProcessInstance::id)).skip(offset).limit(limit).collect(Collectors.toList());
+        }
+    }
+
+    default Stream<ProcessInstance<T>> stream() {
+        return stream(ProcessInstanceReadMode.READ_ONLY);
+    }
+
+    /**
+     * Returns a lazy stream of process instances, each one loaded only when consumed.
+     * The returned stream might hold storage resources (cursors, file handles) so it
+     * should be closed once consumed, e.g. with a try-with-resources block.
+     */
+    default Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return values(mode).stream();
+    }
+
+    /**
+     * Returns a lazy stream of the process instances that may be waiting for given event type,
+     * by default all of them. Stores keeping track of event subscriptions only load the
+     * subscribed process instances. The returned stream should be closed once consumed.
+     */
+    default Stream<ProcessInstance<T>> waitingFor(String eventType, ProcessInstanceReadMode mode) {
+        return stream(mode);
+    }
+
     Integer size();
+
+    /**
+     * Returns the number of process instances per status, keyed by the <code>ProcessInstance.STATE_*</code> constants.
+     * Only statuses with at least one process instance are included.
+     */
+    default Map<Integer, Integer> countByStatus() {
+        try (Stream<ProcessInstance<T>> stream = stream()) {
+            return stream.collect(Collectors.groupingBy(ProcessInstance::status, Collectors.reducing(0, pi -> 1, Integer::sum)));
+        }
+    }
 }
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.services.event.impl;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.kie.kogito.event.AbstractDataEvent;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes events with another publisher on dedicated threads, so that the thread publishing
+ * them does not wait for the events to be delivered.
+ * <p>
+ * Events are queued in lanes, the events of a process instance always go to the same lane and
+ * are published in order. Each lane is drained by its own thread, which hands the publisher
+ * all queued events at once, up to the max batch size. When a lane is full the
+ * {@link OverflowPolicy} decides what happens to the event.
+ */
+public class AsyncEventPublisher implements EventPublisher, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncEventPublisher.class);
+
+    private static final long CLOSE_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private final EventPublisher delegate;
+    private final AsyncPublishingConfig config;
+    private final Lane[] lanes;
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+    private final AtomicLong publishedBatches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong spilledEvents = new AtomicLong();
+    private final AtomicLong lastPublishLatency = new AtomicLong();
+    private final AtomicLong maxPublishLatency = new AtomicLong();
+
+    public AsyncEventPublisher(EventPublisher delegate, AsyncPublishingConfig config) {
+        if (config.lanes() <= 0 || config.capacity() <= 0 || config.maxBatchSize() <= 0) {
+            throw new IllegalArgumentException("Lanes, capacity and max batch size must be greater than zero");
+        }
+        if (config.overflowPolicy() == OverflowPolicy.SPILL && config.codec() == null) {
+            throw new IllegalArgumentException("Spilling events requires a codec");
+        }
+        this.delegate = delegate;
+        this.config = config;
+        this.lanes = new Lane[config.lanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i);
+            lanes[i].thread.start();
+        }
+    }
+
+    @Override
+    public void publish(DataEvent<?> event) {
+        lane(event).offer(event);
+    }
+
+    @Override
+    public void publish(Collection<DataEvent<?>> events) {
+        events.forEach(this::publish);
+    }
+
+    /**
+     * Stops accepting events and waits for the queued ones to be published.
+     */
+    @Override
+    public void close() {
+        for (Lane lane : lanes) {
+            lane.close();
+        }
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT;
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    public EventPublisher delegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the number of events waiting to be published, in memory and spilled to disk.
+     */
+    public int queueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.depth();
+        }
+        return depth;
+    }
+
+    public long publishedEvents() {
+        return publishedEvents.get();
+    }
+
+    public long publishedBatches() {
+        return publishedBatches.get();
+    }
+
+    public long failedBatches() {
+        return failedBatches.get();
+    }
+
+    public long droppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long spilledEvents() {
+        return spilledEvents.get();
+    }
+
+    /**
+     * Returns how long in milliseconds the last batch took to be published.
+     */
+    public long lastPublishLatency() {
+        return lastPublishLatency.get();
+    }
+
+    public long maxPublishLatency() {
+        return maxPublishLatency.get();
+    }
+
+    private Lane lane(DataEvent<?> event) {
+        String processInstanceId = event instanceof AbstractDataEvent ? ((AbstractDataEvent<?>) event).getKogitoProcessinstanceId() : null;
+        if (processInstanceId == null) {
+            return lanes[0];
+        }
+        return lanes[Math.floorMod(processInstanceId.hashCode(), lanes.length)];
+    }
+
+    private void publishBatch(List<DataEvent<?>> batch) {
+        long start = System.nanoTime();
+        try {
+            delegate.publish(batch);
+            publishedEvents.addAndGet(batch.size());
+            publishedBatches.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            LOGGER.error("Unexpected exception thrown when publishing {} events", batch.size(), e);
+        } finally {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastPublishLatency.set(latency);
+            maxPublishLatency.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    private class Lane implements Runnable {
+
+        private final Thread thread;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final ArrayDeque<DataEvent<?>> queue = new ArrayDeque<>();
+        // events spilled to disk come after all queued ones, once spilling starts new events are spilled too
+        private SpillFile spill;
+        private int spilled;
+        private boolean closed;
+
+        Lane(int index) {
+            this.thread = new Thread(this, "kogito-event-publisher-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void offer(DataEvent<?> event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("Event publisher is closed");
+                }
+                if (spilled > 0) {
+                    spill(event);
+                    return;
+                }
+                while (queue.size() >= config.capacity()) {
+                    if (config.overflowPolicy() == OverflowPolicy.DROP_OLDEST) {
+                        queue.poll();
+                        droppedEvents.incrementAndGet();
+                    } else if (config.overflowPolicy() == OverflowPolicy.SPILL) {
+                        spill(event);
+                        return;
+                    } else {
+                        notFull.awaitUninterruptibly();
+                    }
+                }
+                queue.add(event);
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int depth() {
+            lock.lock();
+            try {
+                return queue.size() + spilled;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<DataEvent<?>> batch;
+            while ((batch = take()) != null) {
+                publishBatch(batch);
+            }
+            closeSpill();
+        }
+
+        private List<DataEvent<?>> take() {
+            lock.lock();
+            try {
+                while (queue.isEmpty() && spilled == 0) {
+                    if (closed) {
+                        return null;
+                    }
+                    notEmpty.awaitUninterruptibly();
+                }
+                List<DataEvent<?>> batch = new ArrayList<>(Math.min(config.maxBatchSize(), queue.size() + spilled));
+                while (batch.size() < config.maxBatchSize() && !queue.isEmpty()) {
+                    batch.add(queue.poll());
+                }
+                while (batch.size() < config.maxBatchSize() && queue.isEmpty() && spilled > 0) {
+                    unspill(batch);
+                }
+                notFull.signalAll();
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void spill(DataEvent<?> event) {
+            try {
+                if (spill == null) {
+                    spill = new SpillFile(config.spillDirectory(), thread.getName());
+                }
+                spill.append(config.codec().encode(event));
+                spilled++;
+                spilledEvents.incrementAndGet();
+                notEmpty.signal();
+            } catch (IOException e) {
+                droppedEvents.incrementAndGet();
+                LOGGER.error("Unable to spill event {}, dropping it", event.getId(), e);
+            }
+        }
+
+        private void unspill(List<DataEvent<?>> batch) {
+            try {
+                byte[] data = spill.read();
+                spilled--;
+                if (spilled == 0) {
+                    spill.reset();
+                }
+                batch.add(config.codec().decode(data));
+            } catch (IOException | RuntimeException e) {
+                // the rest of the spilled events can not be read either
+                droppedEvents.addAndGet(spilled);
+                spilled = 0;
+                LOGGER.error("Unable to read spilled events, dropping them", e);
+                resetSpill();
+            }
+        }
+
+        private void resetSpill() {
+            try {
+                spill.reset();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to reset spill file", e);
+            }
+        }
+
+        private void closeSpill() {
+            if (spill != null) {
+                try {
+                    spill.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Unable to delete spill file", e);
+                }
+            }
+        }
+    }
+}
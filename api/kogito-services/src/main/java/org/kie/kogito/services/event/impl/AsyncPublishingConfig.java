@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.services.event.impl;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Configuration of {@link AsyncEventPublisher}.
+ */
+public class AsyncPublishingConfig {
+
+    public static final int DEFAULT_LANES = 4;
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private int lanes = DEFAULT_LANES;
+    private int capacity = DEFAULT_CAPACITY;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private Path spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+    private DataEventCodec codec;
+
+    /**
+     * Number of threads publishing events concurrently, the events of a process instance are
+     * always published by the same thread, in order.
+     */
+    public AsyncPublishingConfig lanes(int lanes) {
+        this.lanes = lanes;
+        return this;
+    }
+
+    /**
+     * Number of events each lane can queue in memory.
+     */
+    public AsyncPublishingConfig capacity(int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * Maximum number of queued events, possibly of different units of work, handed to the publisher at once.
+     */
+    public AsyncPublishingConfig maxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    public AsyncPublishingConfig overflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * Spills events to given directory when the queue is full, using given codec to write and read them.
+     */
+    public AsyncPublishingConfig spillTo(Path spillDirectory, DataEventCodec codec) {
+        this.overflowPolicy = OverflowPolicy.SPILL;
+        this.spillDirectory = spillDirectory;
+        this.codec = codec;
+        return this;
+    }
+
+    public int lanes() {
+        return lanes;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public Path spillDirectory() {
+        return spillDirectory;
+    }
+
+    public DataEventCodec codec() {
+        return codec;
+    }
+}
@@ -25,12 +25,25 @@ import org.kie.kogito.event.EventBatch;
 import org.kie.kogito.event.EventManager;
 import org.kie.kogito.event.EventPublisher;
 
-public class BaseEventManager implements EventManager {
+public class BaseEventManager implements EventManager, AutoCloseable {
 
     private String service;
     private Addons addons;
     private Set<EventPublisher> publishers = new LinkedHashSet<>();
-    
+    private AsyncPublishingConfig asyncPublishing;
+
+    public BaseEventManager() {
+        // publishes events on the thread completing the unit of work
+    }
+
+    /**
+     * Publishes events asynchronously, each publisher gets its own bounded queues configured
+     * by given config so a slow publisher does not delay the others nor the unit of work.
+     */
+    public BaseEventManager(AsyncPublishingConfig asyncPublishing) {
+        this.asyncPublishing = asyncPublishing;
+    }
+
     @Override
     public EventBatch newBatch() {
         return new ProcessInstanceEventBatch(service, addons);
@@ -49,6 +62,9 @@ public class BaseEventManager implements EventManager {
 
     @Override
     public void addPublisher(EventPublisher publisher) {
+        if (asyncPublishing != null && !(publisher instanceof AsyncEventPublisher)) {
+            publisher = new AsyncEventPublisher(publisher, asyncPublishing);
+        }
         this.publishers.add(publisher);
     }
 
@@ -62,4 +78,14 @@ public class BaseEventManager implements EventManager {
         this.addons = addons;
     }
 
+    /**
+     * Waits for the events published asynchronously to be handed to their publishers.
+     */
+    @Override
+    public void close() {
+        publishers.stream()
+                .filter(AsyncEventPublisher.class::isInstance)
+                .forEach(p -> ((AsyncEventPublisher) p).close());
+    }
+
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.services.event.impl;
+
+/**
+ * Defines what happens to an event published asynchronously when the queue of its publisher is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Waits for the queue to have room, slowing down the publishing thread.
+     */
+    BLOCK,
+    /**
+     * Drops the oldest queued event to make room.
+     */
+    DROP_OLDEST,
+    /**
+     * Writes the event to a file, from where it is published once the queue has been drained.
+     */
+    SPILL
+}
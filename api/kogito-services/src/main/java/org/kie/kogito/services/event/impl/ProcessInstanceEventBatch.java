@@ -16,12 +16,15 @@
 package org.kie.kogito.services.event.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.kie.api.event.process.ProcessCompletedEvent;
@@ -43,13 +46,27 @@ import org.kie.kogito.services.event.ProcessInstanceDataEvent;
 import org.kie.kogito.services.event.UserTaskInstanceDataEvent;
 import org.kie.kogito.services.event.VariableInstanceDataEvent;
 
+/**
+ * Collects the events of a unit of work as they are appended, so that building the data events
+ * at the end only assembles what has been collected.
+ * <p>
+ * Node instances are indexed by id, repeated events for the same node instance replace each other
+ * instead of being searched for, and process instance bodies, including the snapshot of their
+ * variables, are built once per process instance regardless of the number of events.
+ */
 public class ProcessInstanceEventBatch implements EventBatch {
 
     public static final String TRACKED = "tracked";
 
+    // security roles are split once per distinct process metadata value, the lists are shared by all events
+    private static final Map<String, List<String>> SECURITY_ROLES = new ConcurrentHashMap<>();
+    private static final int MAX_SECURITY_ROLES = 256;
+
     private final String service;
     private Addons addons;
-    private List<ProcessEvent> rawEvents = new ArrayList<>();
+    private final Map<String, ProcessInstanceEvents> processInstances = new LinkedHashMap<>();
+    private final Map<String, UserTaskInstanceEventBody> userTaskInstances = new LinkedHashMap<>();
+    private final Set<VariableInstanceEventBody> variables = new LinkedHashSet<>();
 
     public ProcessInstanceEventBatch(String service, Addons addons) {
         this.service = service;
@@ -59,37 +76,47 @@ public class ProcessInstanceEventBatch implements EventBatch {
     @Override
     public void append(Object rawEvent) {
         if (rawEvent instanceof ProcessEvent) {
-            rawEvents.add((ProcessEvent) rawEvent);
-        }
-    }
-
-    @Override
-    public Collection<DataEvent<?>> events() {
-        Map<String, ProcessInstanceEventBody> processInstances = new LinkedHashMap<>();
-        Map<String, UserTaskInstanceEventBody> userTaskInstances = new LinkedHashMap<>();
-        Set<VariableInstanceEventBody> variables = new LinkedHashSet<>();
-
-        for (ProcessEvent event : rawEvents) {
-            ProcessInstanceEventBody body = processInstances.computeIfAbsent(event.getProcessInstance().getId(), key -> create(event));
+            ProcessEvent event = (ProcessEvent) rawEvent;
+            ProcessInstanceEvents processInstance = processInstances.computeIfAbsent(event.getProcessInstance().getId(),
+                                                                                     key -> new ProcessInstanceEvents((WorkflowProcessInstance) event.getProcessInstance()));
 
             if (event instanceof ProcessNodeTriggeredEvent) {
-                handleProcessNodeTriggeredEvent((ProcessNodeTriggeredEvent) event, body);
+                handleProcessNodeTriggeredEvent((ProcessNodeTriggeredEvent) event, processInstance.nodeInstances);
             } else if (event instanceof ProcessNodeLeftEvent) {
-                handleProcessNodeLeftEvent((ProcessNodeLeftEvent) event, body);
+                handleProcessNodeLeftEvent((ProcessNodeLeftEvent) event, processInstance.nodeInstances);
             } else if (event instanceof ProcessCompletedEvent) {
-                handleProcessCompletedEvent((ProcessCompletedEvent) event, body);
+                processInstance.completed = (ProcessCompletedEvent) event;
             } else if (event instanceof ProcessWorkItemTransitionEvent) {
                 handleProcessWorkItemTransitionEvent((ProcessWorkItemTransitionEvent) event, userTaskInstances);
             } else if (event instanceof ProcessVariableChangedEvent) {
                 handleProcessVariableChangedEvent((ProcessVariableChangedEvent) event, variables);
             }
         }
+    }
 
-        Collection<DataEvent<?>> processedEvents = new ArrayList<>();
-
-        processInstances.values().stream().map(pi -> new ProcessInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
-        userTaskInstances.values().stream().map(pi -> new UserTaskInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
-        variables.stream().map(pi -> new VariableInstanceDataEvent(extractRuntimeSource(pi.metaData()), addons.toString(), pi.metaData(), pi)).forEach(processedEvents::add);
+    @Override
+    public Collection<DataEvent<?>> events() {
+        Collection<DataEvent<?>> processedEvents = new ArrayList<>(processInstances.size() + userTaskInstances.size() + variables.size());
+        String kogitoAddons = addons.toString();
+
+        for (ProcessInstanceEvents processInstance : processInstances.values()) {
+            ProcessInstanceEventBody body = create(processInstance.instance);
+            ProcessInstanceEventBody.Builder builder = body.update();
+            processInstance.nodeInstances.values().forEach(builder::nodeInstance);
+            if (processInstance.completed != null) {
+                handleProcessCompletedEvent(processInstance.completed, body);
+            }
+            Map<String, String> metadata = body.metaData();
+            processedEvents.add(new ProcessInstanceDataEvent(extractRuntimeSource(metadata), kogitoAddons, metadata, body));
+        }
+        for (UserTaskInstanceEventBody body : userTaskInstances.values()) {
+            Map<String, String> metadata = body.metaData();
+            processedEvents.add(new UserTaskInstanceDataEvent(extractRuntimeSource(metadata), kogitoAddons, metadata, body));
+        }
+        for (VariableInstanceEventBody body : variables) {
+            Map<String, String> metadata = body.metaData();
+            processedEvents.add(new VariableInstanceDataEvent(extractRuntimeSource(metadata), kogitoAddons, metadata, body));
+        }
 
         return processedEvents;
     }
@@ -101,26 +128,22 @@ public class ProcessInstanceEventBatch implements EventBatch {
                 .state(event.getProcessInstance().getState());
     }
 
-    protected void handleProcessNodeTriggeredEvent(ProcessNodeTriggeredEvent event, ProcessInstanceEventBody body) {
-        NodeInstanceEventBody nodeInstanceBody = create((ProcessNodeEvent) event);
-        if (!body.getNodeInstances().contains(nodeInstanceBody)) {
-            // add it only if it does not exist
-            body.update().nodeInstance(nodeInstanceBody);
-        }
+    protected void handleProcessNodeTriggeredEvent(ProcessNodeTriggeredEvent event, Map<String, NodeInstanceEventBody> nodeInstances) {
+        // add it only if it does not exist
+        nodeInstances.computeIfAbsent(event.getNodeInstance().getId(), id -> create((ProcessNodeEvent) event));
     }
 
-    protected void handleProcessNodeLeftEvent(ProcessNodeLeftEvent event, ProcessInstanceEventBody body) {
-        NodeInstanceEventBody nodeInstanceBody = create((ProcessNodeEvent) event);
-        // if it's already there, remove it
-        body.getNodeInstances().remove(nodeInstanceBody);
-        // and add it back as the node left event has latest information
-        body.update().nodeInstance(nodeInstanceBody);
+    protected void handleProcessNodeLeftEvent(ProcessNodeLeftEvent event, Map<String, NodeInstanceEventBody> nodeInstances) {
+        String id = event.getNodeInstance().getId();
+        // if it's already there, remove it and add it back as the node left event has latest information
+        nodeInstances.remove(id);
+        nodeInstances.put(id, create((ProcessNodeEvent) event));
     }
 
     protected void handleProcessWorkItemTransitionEvent(ProcessWorkItemTransitionEvent workItemTransitionEvent, Map<String, UserTaskInstanceEventBody> userTaskInstances) {
         WorkItem workItem = workItemTransitionEvent.getWorkItem();
         if (workItem instanceof HumanTaskWorkItem && workItemTransitionEvent.isTransitioned()) {
-            userTaskInstances.putIfAbsent(workItem.getId(), createUserTask(workItemTransitionEvent));
+            userTaskInstances.computeIfAbsent(workItem.getId(), id -> createUserTask(workItemTransitionEvent));
         }
     }
 
@@ -157,9 +180,7 @@ public class ProcessInstanceEventBatch implements EventBatch {
                 .build();
     }
 
-    protected ProcessInstanceEventBody create(ProcessEvent event) {
-        WorkflowProcessInstance pi = (WorkflowProcessInstance) event.getProcessInstance();
-
+    protected ProcessInstanceEventBody create(WorkflowProcessInstance pi) {
         ProcessInstanceEventBody.Builder eventBuilder = ProcessInstanceEventBody.create()
                 .id(pi.getId())
                 .parentInstanceId(pi.getParentProcessInstanceId())
@@ -171,7 +192,7 @@ public class ProcessInstanceEventBatch implements EventBatch {
                 .endDate(pi.getEndDate())
                 .state(pi.getState())
                 .businessKey(pi.getCorrelationKey())
-                .variables(pi.getVariables())
+                .variables(pi.getVariablesSnapshot())
                 .milestones(createMilestones(pi));
 
         if (pi.getState() == ProcessInstance.STATE_ERROR) {
@@ -183,12 +204,24 @@ public class ProcessInstanceEventBatch implements EventBatch {
 
         String securityRoles = (String) pi.getProcess().getMetaData().get("securityRoles");
         if (securityRoles != null) {
-            eventBuilder.roles(securityRoles.split(","));
+            eventBuilder.roles(securityRoles(securityRoles));
         }
 
         return eventBuilder.build();
     }
 
+    private static List<String> securityRoles(String securityRoles) {
+        List<String> roles = SECURITY_ROLES.get(securityRoles);
+        if (roles == null) {
+            roles = Collections.unmodifiableList(Arrays.asList(securityRoles.split(",")));
+            // processes are few, only values beyond those are split every time
+            if (SECURITY_ROLES.size() < MAX_SECURITY_ROLES) {
+                SECURITY_ROLES.putIfAbsent(securityRoles, roles);
+            }
+        }
+        return roles;
+    }
+
     protected Set<MilestoneEventBody> createMilestones(WorkflowProcessInstance pi) {
         if (pi.milestones() == null) {
             return null;
@@ -234,6 +267,17 @@ public class ProcessInstanceEventBatch implements EventBatch {
         return eventBuilder.build();
     }
 
+    private static class ProcessInstanceEvents {
+
+        private final WorkflowProcessInstance instance;
+        private final Map<String, NodeInstanceEventBody> nodeInstances = new LinkedHashMap<>();
+        private ProcessCompletedEvent completed;
+
+        private ProcessInstanceEvents(WorkflowProcessInstance instance) {
+            this.instance = instance;
+        }
+    }
+
     protected String extractRuntimeSource(Map<String, String> metadata) {
         String processId = metadata.get(ProcessInstanceEventBody.PROCESS_ID_META_DATA);
         if(processId == null){
@@ -246,6 +246,11 @@ public class ProcessInstanceEventBody {
             return this;
         }
 
+        public Builder roles(List<String> roles) {
+            instance.roles = roles;
+            return this;
+        }
+
         public Builder milestones(Set<MilestoneEventBody> milestones) {
             instance.milestones = milestones;
             return this;
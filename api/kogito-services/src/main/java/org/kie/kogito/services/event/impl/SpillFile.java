@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.services.event.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File used as first in, first out queue of records, it is truncated once all of them have been read.
+ * Not thread safe.
+ */
+class SpillFile implements Closeable {
+
+    private final Path file;
+    private DataOutputStream output;
+    private DataInputStream input;
+
+    SpillFile(Path directory, String prefix) throws IOException {
+        Files.createDirectories(directory);
+        this.file = Files.createTempFile(directory, prefix, ".spill");
+        open();
+    }
+
+    void append(byte[] data) throws IOException {
+        output.writeInt(data.length);
+        output.write(data);
+        output.flush();
+    }
+
+    /**
+     * Reads the next record, callers must know there is one.
+     */
+    byte[] read() throws IOException {
+        byte[] data = new byte[input.readInt()];
+        input.readFully(data);
+        return data;
+    }
+
+    /**
+     * Discards the content of the file, callers must know all records have been read.
+     */
+    void reset() throws IOException {
+        closeStreams();
+        open();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeStreams();
+        Files.deleteIfExists(file);
+    }
+
+    private void open() throws IOException {
+        output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)));
+        input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+    }
+
+    private void closeStreams() throws IOException {
+        try {
+            output.close();
+        } finally {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.services.uow;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs blocking work, such as process execution and persistence I/O, on a fixed number of
+ * dedicated threads instead of the common fork join pool.
+ * <p>
+ * Work waits in a bounded queue when all threads are busy. Once the queue is full new work is
+ * rejected right away with a {@link RejectedExecutionException}, so callers can answer with
+ * <i>service unavailable</i> instead of piling up requests they will not serve in time.
+ * <p>
+ * The number of threads and the queue capacity can be changed while in use, so the shared executor
+ * can take the configuration of the application once it is available.
+ */
+public class BoundedExecutor implements Executor, AutoCloseable {
+
+    public static final String THREADS_PROPERTY = "kogito.executor.threads";
+    public static final String QUEUE_CAPACITY_PROPERTY = "kogito.executor.queue-capacity";
+
+    public static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private static final long CLOSE_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private final ThreadPoolExecutor executor;
+    private volatile int queueCapacity;
+    // tasks accepted by execute and not started yet, bounded by the queue capacity
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    private final AtomicLong executedTasks = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong lastQueueLatency = new AtomicLong();
+    private final AtomicLong maxQueueLatency = new AtomicLong();
+
+    public BoundedExecutor(int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Threads and queue capacity must be greater than zero");
+        }
+        AtomicInteger index = new AtomicInteger();
+        this.queueCapacity = queueCapacity;
+        // the queue is bounded by execute, so that its capacity can be changed
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                               new LinkedBlockingQueue<>(),
+                                               r -> {
+                                                   Thread thread = new Thread(r, "kogito-executor-" + index.getAndIncrement());
+                                                   thread.setDaemon(true);
+                                                   return thread;
+                                               });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the executor shared by the generated resources, configured with the
+     * {@value #THREADS_PROPERTY} and {@value #QUEUE_CAPACITY_PROPERTY} system properties.
+     */
+    public static BoundedExecutor sharedExecutor() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Applies the configuration of the application to the shared executor, the values not given
+     * are left as they are.
+     */
+    public static void configureShared(Optional<Integer> threads, Optional<Integer> queueCapacity) {
+        if (threads.isPresent() || queueCapacity.isPresent()) {
+            BoundedExecutor shared = sharedExecutor();
+            shared.resize(threads.orElse(shared.threads()), queueCapacity.orElse(shared.queueCapacity()));
+        }
+    }
+
+    /**
+     * Changes the number of threads and the queue capacity, work already queued beyond the new
+     * capacity is still executed.
+     */
+    public synchronized void resize(int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Threads and queue capacity must be greater than zero");
+        }
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Runs the command once a thread is available, the number of commands waiting for a thread
+     * never exceeds the queue capacity.
+     *
+     * @throws RejectedExecutionException when the queue is full or the executor is closed
+     */
+    @Override
+    public void execute(Runnable command) {
+        long queued = System.nanoTime();
+        reserve();
+        try {
+            executor.execute(() -> {
+                pendingTasks.decrementAndGet();
+                long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queued);
+                lastQueueLatency.set(latency);
+                maxQueueLatency.accumulateAndGet(latency, Math::max);
+                executedTasks.incrementAndGet();
+                command.run();
+            });
+        } catch (RejectedExecutionException e) {
+            pendingTasks.decrementAndGet();
+            rejectedTasks.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void reserve() {
+        while (true) {
+            int pending = pendingTasks.get();
+            int capacity = queueCapacity;
+            if (pending >= capacity) {
+                rejectedTasks.incrementAndGet();
+                throw new RejectedExecutionException("Queue of " + capacity + " tasks is full");
+            }
+            if (pendingTasks.compareAndSet(pending, pending + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops accepting work and waits for the queued work to complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     */
+    public int queueDepth() {
+        return pendingTasks.get();
+    }
+
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    public int threads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int activeThreads() {
+        return executor.getActiveCount();
+    }
+
+    public long executedTasks() {
+        return executedTasks.get();
+    }
+
+    public long rejectedTasks() {
+        return rejectedTasks.get();
+    }
+
+    /**
+     * Returns how long in milliseconds the last task waited in the queue before running.
+     */
+    public long lastQueueLatency() {
+        return lastQueueLatency.get();
+    }
+
+    public long maxQueueLatency() {
+        return maxQueueLatency.get();
+    }
+
+    private static class Shared {
+
+        private static final BoundedExecutor INSTANCE = new BoundedExecutor(
+                Integer.parseInt(System.getProperty(THREADS_PROPERTY, String.valueOf(DEFAULT_THREADS))),
+                Integer.parseInt(System.getProperty(QUEUE_CAPACITY_PROPERTY, String.valueOf(DEFAULT_QUEUE_CAPACITY))));
+    }
+}
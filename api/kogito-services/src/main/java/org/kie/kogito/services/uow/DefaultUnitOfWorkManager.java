@@ -35,17 +35,27 @@ public class DefaultUnitOfWorkManager implements UnitOfWorkManager {
     // factory used to create unit of work 
     private UnitOfWorkFactory factory;
     
-    private EventManager eventManager = new BaseEventManager();
+    private EventManager eventManager;
 
     public DefaultUnitOfWorkManager(UnitOfWorkFactory factory) {
+        this(factory, new BaseEventManager());
+    }
+
+    public DefaultUnitOfWorkManager(UnitOfWorkFactory factory, EventManager eventManager) {
         super();
         this.factory = factory;
+        this.eventManager = eventManager;
     }
 
     public DefaultUnitOfWorkManager(UnitOfWork fallbackUnitOfWork, UnitOfWorkFactory factory) {
+        this(fallbackUnitOfWork, factory, new BaseEventManager());
+    }
+
+    public DefaultUnitOfWorkManager(UnitOfWork fallbackUnitOfWork, UnitOfWorkFactory factory, EventManager eventManager) {
         super();
         this.fallbackUnitOfWork = fallbackUnitOfWork;
         this.factory = factory;
+        this.eventManager = eventManager;
     }
 
     @Override
@@ -15,6 +15,8 @@
 
 package org.kie.kogito.services.uow;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import org.kie.kogito.process.ProcessInstanceExecutionException;
@@ -48,4 +50,13 @@ public class UnitOfWorkExecutor {
         }
         
     }
+
+    /**
+     * Executes given supplier within a unit of work on given executor. The returned future is not
+     * created and the {@link java.util.concurrent.RejectedExecutionException} is thrown right away
+     * when the executor does not accept more work.
+     */
+    public static <T> CompletableFuture<T> executeInUnitOfWorkAsync(Executor executor, UnitOfWorkManager uowManager, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> executeInUnitOfWork(uowManager, supplier), executor);
+    }
 }
@@ -41,6 +41,10 @@ public class InMemoryJobService implements JobsService {
     private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryJobService.class);
     private static final String TRIGGER = "timer";
 
+    public static final String TYPE_PROPERTY = "kogito.jobs.in-memory.type";
+    public static final String DEFAULT_TYPE = "default";
+    public static final String WHEEL_TYPE = "wheel";
+
     protected final ScheduledThreadPoolExecutor scheduler;
     protected final ProcessRuntime processRuntime;
     protected final UnitOfWorkManager unitOfWorkManager;
@@ -57,6 +61,21 @@ public class InMemoryJobService implements JobsService {
         this.unitOfWorkManager = unitOfWorkManager;
     }
 
+    /**
+     * Creates the in memory jobs service of given type, {@value #WHEEL_TYPE} for a {@link TimerWheelJobService}
+     * or {@value #DEFAULT_TYPE} for this one. When the type is <code>null</code> it is read from the
+     * {@value #TYPE_PROPERTY} system property.
+     */
+    public static JobsService create(String type, ProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        String selected = type == null ? System.getProperty(TYPE_PROPERTY, DEFAULT_TYPE) : type;
+        if (WHEEL_TYPE.equals(selected)) {
+            return new TimerWheelJobService(processRuntime, unitOfWorkManager);
+        } else if (DEFAULT_TYPE.equals(selected)) {
+            return new InMemoryJobService(processRuntime, unitOfWorkManager);
+        }
+        throw new IllegalArgumentException("Unknown in memory jobs service type " + selected + ", expected " + DEFAULT_TYPE + " or " + WHEEL_TYPE);
+    }
+
     @Override
     public String scheduleProcessJob(ProcessJobDescription description) {
         LOGGER.debug("ScheduleProcessJob: {}", description);
@@ -0,0 +1,571 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.process.ProcessRuntime;
+import org.kie.kogito.jobs.JobDescription;
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In memory jobs service keeping timers in a hierarchical timing wheel.
+ * <p>
+ * Scheduling and cancelling a job is constant time whatever the number of pending jobs. Only the
+ * wheel buckets, not the jobs, are kept in a delay queue, watched by a single thread that hands
+ * all jobs expiring together to a pool of workers, which run them in their own unit of work.
+ * <p>
+ * Pending process instance jobs can be saved with {@link #snapshot(OutputStream)} and scheduled
+ * again after a restart with {@link #restore(InputStream)}, jobs that expired in the meantime
+ * fire right away. Jobs starting processes are not included, they are scheduled again when the
+ * process runtime starts.
+ */
+public class TimerWheelJobService implements JobsService, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimerWheelJobService.class);
+    private static final String TRIGGER = "timer";
+
+    public static final long DEFAULT_TICK = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final long CLOSE_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    protected final ProcessRuntime processRuntime;
+    protected final UnitOfWorkManager unitOfWorkManager;
+
+    private final Map<String, TimerJob> scheduledJobs = new ConcurrentHashMap<>();
+    private final DelayQueue<Bucket> buckets = new DelayQueue<>();
+    // jobs are added to the wheel concurrently, the clock is advanced exclusively
+    private final ReentrantReadWriteLock wheelLock = new ReentrantReadWriteLock();
+    private final TimingWheel wheel;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final Thread ticker;
+    private volatile boolean closed;
+
+    private final AtomicLong firedJobs = new AtomicLong();
+    private final AtomicLong failedJobs = new AtomicLong();
+
+    public TimerWheelJobService(ProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        this(Runtime.getRuntime().availableProcessors(), processRuntime, unitOfWorkManager);
+    }
+
+    public TimerWheelJobService(int workerCount, ProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        this(workerCount, DEFAULT_TICK, DEFAULT_WHEEL_SIZE, processRuntime, unitOfWorkManager);
+    }
+
+    /**
+     * @param workerCount number of threads running expired jobs
+     * @param tick resolution of the wheel in milliseconds, jobs fire at most one tick late
+     * @param wheelSize number of buckets of each level of the wheel
+     */
+    public TimerWheelJobService(int workerCount, long tick, int wheelSize, ProcessRuntime processRuntime, UnitOfWorkManager unitOfWorkManager) {
+        if (workerCount <= 0 || tick <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Worker count, tick and wheel size must be greater than zero");
+        }
+        this.processRuntime = processRuntime;
+        this.unitOfWorkManager = unitOfWorkManager;
+        this.workerCount = workerCount;
+        this.wheel = new TimingWheel(tick, wheelSize, System.currentTimeMillis());
+        AtomicInteger workerIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "kogito-timer-worker-" + workerIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.ticker = new Thread(this::tick, "kogito-timer-wheel");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    @Override
+    public String scheduleProcessJob(ProcessJobDescription description) {
+        LOGGER.debug("ScheduleProcessJob: {}", description);
+        TimerJob job;
+        if (description.process() != null) {
+            job = new StartProcessJob(description.id(), description.process());
+        } else {
+            job = new LegacyStartProcessJob(description.id(), description.processId());
+        }
+        return schedule(job, description);
+    }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        LOGGER.debug("ScheduleProcessInstanceJob: {}", description);
+        return schedule(new SignalProcessInstanceJob(description.id(), description.processInstanceId()), description);
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        LOGGER.debug("Cancel Job: {}", id);
+        TimerJob job = scheduledJobs.remove(id);
+        if (job == null) {
+            return false;
+        }
+        job.cancel();
+        return true;
+    }
+
+    @Override
+    public ZonedDateTime getScheduledTime(String id) {
+        TimerJob job = scheduledJobs.get(id);
+        if (job == null || job.expiration <= System.currentTimeMillis()) {
+            return null;
+        }
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(job.expiration), ZoneId.systemDefault());
+    }
+
+    /**
+     * Writes the pending process instance jobs to given stream.
+     *
+     * @return the number of jobs written
+     */
+    public int snapshot(OutputStream output) throws IOException {
+        List<SignalProcessInstanceJob> jobs = scheduledJobs.values().stream()
+                .filter(SignalProcessInstanceJob.class::isInstance)
+                .map(SignalProcessInstanceJob.class::cast)
+                .collect(Collectors.toList());
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(jobs.size());
+        for (SignalProcessInstanceJob job : jobs) {
+            out.writeUTF(job.id);
+            out.writeUTF(job.processInstanceId);
+            out.writeLong(job.expiration);
+            out.writeLong(job.repeatInterval == null ? -1 : job.repeatInterval);
+            out.writeInt(job.limit);
+        }
+        out.flush();
+        return jobs.size();
+    }
+
+    /**
+     * Schedules the process instance jobs read from given stream, written by {@link #snapshot(OutputStream)}.
+     * Jobs that are already scheduled are ignored.
+     *
+     * @return the number of jobs scheduled
+     */
+    public int restore(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported jobs snapshot version " + version);
+        }
+        int count = in.readInt();
+        int restored = 0;
+        for (int i = 0; i < count; i++) {
+            SignalProcessInstanceJob job = new SignalProcessInstanceJob(in.readUTF(), in.readUTF());
+            job.expiration = in.readLong();
+            long repeatInterval = in.readLong();
+            job.repeatInterval = repeatInterval < 0 ? null : repeatInterval;
+            job.limit = in.readInt();
+            if (scheduledJobs.putIfAbsent(job.id, job) == null) {
+                schedule(job);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    public int pendingJobs() {
+        return scheduledJobs.size();
+    }
+
+    public long firedJobs() {
+        return firedJobs.get();
+    }
+
+    public long failedJobs() {
+        return failedJobs.get();
+    }
+
+    /**
+     * Stops firing jobs and waits for the ones already handed to the workers to complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ticker.interrupt();
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT;
+        try {
+            // the ticker may still hand expired jobs to the workers until it stops
+            ticker.join(CLOSE_TIMEOUT);
+            workers.shutdown();
+            workers.awaitTermination(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdown();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected String schedule(TimerJob job, JobDescription description) {
+        job.expiration = description.expirationTime().get().toInstant().toEpochMilli();
+        Long repeatInterval = description.expirationTime().repeatInterval();
+        if (repeatInterval != null) {
+            job.repeatInterval = repeatInterval;
+            Integer limit = description.expirationTime().repeatLimit();
+            job.limit = limit == null ? -1 : limit;
+        }
+        scheduledJobs.put(job.id, job);
+        schedule(job);
+        return job.id;
+    }
+
+    private void schedule(TimerJob job) {
+        boolean added;
+        wheelLock.readLock().lock();
+        try {
+            added = wheel.add(job);
+        } finally {
+            wheelLock.readLock().unlock();
+        }
+        if (!added) {
+            workers.execute(() -> run(job));
+        }
+    }
+
+    private void tick() {
+        while (!closed) {
+            try {
+                Bucket bucket = buckets.take();
+                List<TimerJob> expired = new ArrayList<>();
+                wheelLock.writeLock().lock();
+                try {
+                    // drains every bucket that expired so that jobs expiring together are fired together
+                    while (bucket != null) {
+                        wheel.advanceClock(bucket.expiration());
+                        bucket.flush(job -> {
+                            if (!wheel.add(job)) {
+                                expired.add(job);
+                            }
+                        });
+                        bucket = buckets.poll();
+                    }
+                } finally {
+                    wheelLock.writeLock().unlock();
+                }
+                fire(expired);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected exception thrown when advancing timers", e);
+            }
+        }
+    }
+
+    private void fire(List<TimerJob> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        // one task per worker rather than one per job
+        int chunk = (expired.size() + workerCount - 1) / workerCount;
+        for (int start = 0; start < expired.size(); start += chunk) {
+            List<TimerJob> jobs = expired.subList(start, Math.min(expired.size(), start + chunk));
+            workers.execute(() -> jobs.forEach(this::run));
+        }
+    }
+
+    private void run(TimerJob job) {
+        if (job.cancelled) {
+            return;
+        }
+        try {
+            LOGGER.debug("Job {} started", job.id);
+            job.execute();
+            firedJobs.incrementAndGet();
+            LOGGER.debug("Job {} completed", job.id);
+        } catch (RuntimeException e) {
+            failedJobs.incrementAndGet();
+            LOGGER.error("Unexpected exception thrown when executing job {}", job.id, e);
+        } finally {
+            if (job.repeatInterval == null || job.cancelled) {
+                scheduledJobs.remove(job.id, job);
+            } else if (!closed) {
+                job.expiration += job.repeatInterval;
+                schedule(job);
+            }
+        }
+    }
+
+    private void cancel(TimerJob job) {
+        scheduledJobs.remove(job.id, job);
+        job.cancel();
+    }
+
+    protected abstract class TimerJob {
+
+        protected final String id;
+        protected volatile long expiration;
+        protected Long repeatInterval;
+        protected int limit = -1;
+
+        private volatile boolean cancelled;
+        private volatile Bucket bucket;
+
+        protected TimerJob(String id) {
+            this.id = id;
+        }
+
+        protected abstract void execute();
+
+        private void cancel() {
+            cancelled = true;
+            Bucket current = bucket;
+            if (current != null) {
+                current.remove(this);
+            }
+        }
+    }
+
+    private class SignalProcessInstanceJob extends TimerJob {
+
+        private final String processInstanceId;
+        private final long timerId;
+
+        private SignalProcessInstanceJob(String id, String processInstanceId) {
+            super(id);
+            this.processInstanceId = processInstanceId;
+            this.timerId = Long.parseLong(id.substring(id.lastIndexOf('_') + 1));
+        }
+
+        @Override
+        protected void execute() {
+            UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                ProcessInstance pi = processRuntime.getProcessInstance(processInstanceId);
+                if (pi != null) {
+                    limit--;
+                    pi.signalEvent("timerTriggered", TimerInstance.with(timerId, id, limit));
+                    if (limit == 0) {
+                        cancel(this);
+                    }
+                } else {
+                    // since owning process instance does not exist cancel timers
+                    cancel(this);
+                }
+                return null;
+            });
+        }
+    }
+
+    private class StartProcessJob extends TimerJob {
+
+        @SuppressWarnings("rawtypes")
+        private final org.kie.kogito.process.Process process;
+
+        private StartProcessJob(String id, org.kie.kogito.process.Process<?> process) {
+            super(id);
+            this.process = process;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void execute() {
+            UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                org.kie.kogito.process.ProcessInstance<?> pi = process.createInstance(process.createModel());
+                if (pi != null) {
+                    pi.start(TRIGGER, null);
+                }
+                // counted within the unit of work, so a start that fails does not use up an occurrence
+                limit--;
+                if (limit == 0) {
+                    cancel(this);
+                }
+                return null;
+            });
+        }
+    }
+
+    private class LegacyStartProcessJob extends TimerJob {
+
+        private final String processId;
+
+        private LegacyStartProcessJob(String id, String processId) {
+            super(id);
+            this.processId = processId;
+        }
+
+        @Override
+        protected void execute() {
+            UnitOfWorkExecutor.executeInUnitOfWork(unitOfWorkManager, () -> {
+                ProcessInstance pi = processRuntime.createProcessInstance(processId, null);
+                if (pi != null) {
+                    processRuntime.startProcessInstance(pi.getId(), TRIGGER);
+                }
+                limit--;
+                if (limit == 0) {
+                    cancel(this);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * One level of the wheel, jobs expiring beyond its interval go to the next, coarser, level.
+     */
+    private class TimingWheel {
+
+        private final long tick;
+        private final int size;
+        private final long interval;
+        private final Bucket[] slots;
+        private volatile long currentTime;
+        private volatile TimingWheel overflow;
+
+        private TimingWheel(long tick, int size, long startTime) {
+            this.tick = tick;
+            this.size = size;
+            this.interval = tick * size;
+            this.slots = new Bucket[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = new Bucket();
+            }
+            this.currentTime = startTime - (startTime % tick);
+        }
+
+        /**
+         * Returns <code>false</code> if the job already expired and must be fired by the caller.
+         */
+        private boolean add(TimerJob job) {
+            long expiration = job.expiration;
+            if (job.cancelled) {
+                return true;
+            }
+            if (expiration < currentTime + tick) {
+                return false;
+            }
+            if (expiration < currentTime + interval) {
+                long virtualId = expiration / tick;
+                Bucket bucket = slots[(int) (virtualId % size)];
+                bucket.add(job);
+                if (bucket.setExpiration(virtualId * tick)) {
+                    buckets.offer(bucket);
+                }
+                return true;
+            }
+            return overflow().add(job);
+        }
+
+        private void advanceClock(long time) {
+            if (time >= currentTime + tick) {
+                currentTime = time - (time % tick);
+                TimingWheel next = overflow;
+                if (next != null) {
+                    next.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private TimingWheel overflow() {
+            TimingWheel next = overflow;
+            if (next == null) {
+                synchronized (this) {
+                    next = overflow;
+                    if (next == null) {
+                        next = new TimingWheel(interval, size, currentTime);
+                        overflow = next;
+                    }
+                }
+            }
+            return next;
+        }
+    }
+
+    private static class Bucket implements Delayed {
+
+        private final AtomicLong expiration = new AtomicLong(-1);
+        private final Set<TimerJob> jobs = new LinkedHashSet<>();
+
+        private synchronized void add(TimerJob job) {
+            jobs.add(job);
+            job.bucket = this;
+        }
+
+        private synchronized void remove(TimerJob job) {
+            if (job.bucket == this) {
+                jobs.remove(job);
+                job.bucket = null;
+            }
+        }
+
+        private void flush(Consumer<TimerJob> consumer) {
+            List<TimerJob> flushed;
+            synchronized (this) {
+                flushed = new ArrayList<>(jobs);
+                jobs.clear();
+                expiration.set(-1);
+                flushed.forEach(job -> job.bucket = null);
+            }
+            flushed.forEach(consumer);
+        }
+
+        /**
+         * Returns <code>true</code> if the expiration changed, meaning the bucket must be queued again.
+         */
+        private boolean setExpiration(long value) {
+            return expiration.getAndSet(value) != value;
+        }
+
+        private long expiration() {
+            return expiration.get();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(0, expiration.get() - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiration.get(), ((Bucket) other).expiration.get());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.ProcessJobDescription;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the process instance jobs scheduled and cancelled during a unit of work and hands them
+ * to the actual {@link JobsService} at once when the unit of work ends, after the process instances
+ * are stored.
+ * <p>
+ * A job scheduled and cancelled within the same unit of work never reaches the actual service, and
+ * nothing does when the unit of work is aborted. Outside of a unit of work jobs are passed through
+ * right away.
+ * <p>
+ * Once the unit of work ends the process instances are already stored, so failing to schedule or
+ * cancel some of its jobs does not fail it: cancellations and schedules are both attempted for every
+ * job and the failures are logged with the ids of the jobs, while the rest of the unit of work, such
+ * as publishing its events, goes on.
+ */
+public class UnitOfWorkJobsService implements JobsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitOfWorkJobsService.class);
+
+    private final JobsService delegate;
+    private final UnitOfWorkManager unitOfWorkManager;
+
+    private final Map<UnitOfWork, JobsWorkUnit> pending = new ConcurrentHashMap<>();
+
+    public UnitOfWorkJobsService(JobsService delegate, UnitOfWorkManager unitOfWorkManager) {
+        this.delegate = delegate;
+        this.unitOfWorkManager = unitOfWorkManager;
+    }
+
+    public JobsService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String scheduleProcessJob(ProcessJobDescription description) {
+        return delegate.scheduleProcessJob(description);
+    }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        collect(work -> work.schedules.put(description.id(), description));
+        return description.id();
+    }
+
+    /**
+     * Cancels given job, or the job scheduled in the same unit of work.
+     * @return the outcome of the cancellation outside of a unit of work, true when it is deferred
+     * to the end of the unit of work, where failures are logged
+     */
+    @Override
+    public boolean cancelJob(String id) {
+        JobsWorkUnit work = collect(w -> {
+            if (w.schedules.remove(id) == null) {
+                w.cancellations.add(id);
+            }
+        });
+        return work.deferred || work.cancelled;
+    }
+
+    @Override
+    public ZonedDateTime getScheduledTime(String id) {
+        ProcessInstanceJobDescription description = pendingSchedule(id);
+        return description != null ? description.expirationTime().get() : delegate.getScheduledTime(id);
+    }
+
+    @Override
+    public CompletableFuture<ZonedDateTime> getScheduledTimeAsync(String id) {
+        ProcessInstanceJobDescription description = pendingSchedule(id);
+        return description != null ? CompletableFuture.completedFuture(description.expirationTime().get()) : delegate.getScheduledTimeAsync(id);
+    }
+
+    private ProcessInstanceJobDescription pendingSchedule(String id) {
+        JobsWorkUnit work = pending.get(unitOfWorkManager.currentUnitOfWork());
+        return work != null ? work.schedules.get(id) : null;
+    }
+
+    private JobsWorkUnit collect(Consumer<JobsWorkUnit> action) {
+        UnitOfWork unitOfWork = unitOfWorkManager.currentUnitOfWork();
+        JobsWorkUnit work = pending.get(unitOfWork);
+        if (work != null) {
+            action.accept(work);
+            return work;
+        }
+        work = new JobsWorkUnit(unitOfWork);
+        action.accept(work);
+        unitOfWork.intercept(work);
+        if (work.done) {
+            // units of work that do not collect perform the work right away, the caller gets its failure
+            if (work.failure != null) {
+                throw work.failure;
+            }
+        } else {
+            work.deferred = true;
+            pending.put(unitOfWork, work);
+        }
+        return work;
+    }
+
+    private class JobsWorkUnit implements WorkUnit<JobsWorkUnit> {
+
+        private final UnitOfWork unitOfWork;
+        private final Map<String, ProcessInstanceJobDescription> schedules = new LinkedHashMap<>();
+        private final Set<String> cancellations = new LinkedHashSet<>();
+        private boolean done;
+        private boolean deferred;
+        private boolean cancelled = true;
+        private RuntimeException failure;
+
+        private JobsWorkUnit(UnitOfWork unitOfWork) {
+            this.unitOfWork = unitOfWork;
+        }
+
+        @Override
+        public JobsWorkUnit data() {
+            return this;
+        }
+
+        @Override
+        public void perform() {
+            finish();
+            LOGGER.debug("Flushing {} scheduled and {} cancelled jobs", schedules.size(), cancellations.size());
+            if (!cancellations.isEmpty()) {
+                try {
+                    cancelled = delegate.cancelJobs(cancellations);
+                    if (!cancelled && deferred) {
+                        LOGGER.warn("Some of jobs {} could not be cancelled", cancellations);
+                    }
+                } catch (RuntimeException e) {
+                    cancelled = false;
+                    failed(e, "Error cancelling jobs {}", cancellations);
+                }
+            }
+            if (!schedules.isEmpty()) {
+                try {
+                    delegate.scheduleProcessInstanceJobs(new ArrayList<>(schedules.values()));
+                } catch (RuntimeException e) {
+                    failed(e, "Error scheduling jobs {}", schedules.keySet());
+                }
+            }
+        }
+
+        private void failed(RuntimeException e, String message, Collection<String> ids) {
+            if (deferred) {
+                LOGGER.error(message, ids, e);
+            } else if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+
+        @Override
+        public void abort() {
+            finish();
+        }
+
+        private void finish() {
+            done = true;
+            pending.remove(unitOfWork, this);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.services.event.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.event.AbstractDataEvent;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncEventPublisherTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    public void testEventsOfProcessInstancePublishedInOrder() {
+        RecordingPublisher delegate = new RecordingPublisher();
+        try (AsyncEventPublisher publisher = new AsyncEventPublisher(delegate, new AsyncPublishingConfig().lanes(3).maxBatchSize(7))) {
+            for (int i = 0; i < 100; i++) {
+                publisher.publish(new TestEvent("pi" + (i % 5), String.valueOf(i)));
+            }
+        }
+
+        assertThat(delegate.events()).hasSize(100);
+        for (int pi = 0; pi < 5; pi++) {
+            String processInstanceId = "pi" + pi;
+            List<Integer> values = delegate.events().stream()
+                    .filter(e -> processInstanceId.equals(e.getKogitoProcessinstanceId()))
+                    .map(e -> Integer.valueOf(e.getData()))
+                    .collect(Collectors.toList());
+            assertThat(values).hasSize(20).isSorted();
+        }
+        assertThat(delegate.batchSizes()).allMatch(size -> size <= 7);
+    }
+
+    @Test
+    public void testPublishDoesNotWaitForDelegate() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingPublisher delegate = new RecordingPublisher(release);
+        try (AsyncEventPublisher publisher = new AsyncEventPublisher(delegate, new AsyncPublishingConfig().lanes(1))) {
+            publisher.publish(new TestEvent("pi", "1"));
+            publisher.publish(new TestEvent("pi", "2"));
+            assertThat(delegate.events()).isEmpty();
+            assertThat(publisher.queueDepth()).isPositive();
+            release.countDown();
+        }
+        assertThat(delegate.events()).extracting(DataEvent::getData).containsExactly("1", "2");
+    }
+
+    @Test
+    public void testDropOldestWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingPublisher delegate = new RecordingPublisher(release);
+        try (AsyncEventPublisher publisher = new AsyncEventPublisher(delegate, new AsyncPublishingConfig()
+                .lanes(1)
+                .capacity(2)
+                .maxBatchSize(1)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST))) {
+            publisher.publish(new TestEvent("pi", "0"));
+            // wait for the lane to take the first event, it then waits for the release
+            delegate.awaitStarted();
+            for (int i = 1; i <= 5; i++) {
+                publisher.publish(new TestEvent("pi", String.valueOf(i)));
+            }
+            assertThat(publisher.droppedEvents()).isEqualTo(3);
+            release.countDown();
+        }
+        assertThat(delegate.events()).extracting(DataEvent::getData).containsExactly("0", "4", "5");
+    }
+
+    @Test
+    public void testSpillWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingPublisher delegate = new RecordingPublisher(release);
+        AsyncEventPublisher publisher = new AsyncEventPublisher(delegate, new AsyncPublishingConfig()
+                .lanes(1)
+                .capacity(2)
+                .maxBatchSize(3)
+                .spillTo(spillDirectory, new TestEventCodec()));
+        try {
+            publisher.publish(new TestEvent("pi", "0"));
+            delegate.awaitStarted();
+            for (int i = 1; i <= 10; i++) {
+                publisher.publish(new TestEvent("pi", String.valueOf(i)));
+            }
+            assertThat(publisher.spilledEvents()).isEqualTo(8);
+            assertThat(publisher.queueDepth()).isEqualTo(10);
+            release.countDown();
+        } finally {
+            publisher.close();
+        }
+        assertThat(delegate.events()).extracting(DataEvent::getData)
+                .containsExactly("0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+        assertThat(publisher.droppedEvents()).isZero();
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void testFailedBatchDoesNotStopPublishing() {
+        RecordingPublisher delegate = new RecordingPublisher() {
+
+            @Override
+            public void publish(Collection<DataEvent<?>> events) {
+                if (events.stream().anyMatch(e -> "fail".equals(e.getData()))) {
+                    throw new IllegalStateException("Broker unavailable");
+                }
+                super.publish(events);
+            }
+        };
+        AsyncEventPublisher publisher = new AsyncEventPublisher(delegate, new AsyncPublishingConfig().lanes(1).maxBatchSize(1));
+        publisher.publish(new TestEvent("pi", "fail"));
+        publisher.publish(new TestEvent("pi", "1"));
+        publisher.close();
+
+        assertThat(publisher.failedBatches()).isOne();
+        assertThat(publisher.publishedEvents()).isOne();
+        assertThat(delegate.events()).extracting(DataEvent::getData).containsExactly("1");
+    }
+
+    private static class TestEvent extends AbstractDataEvent<String> {
+
+        TestEvent(String processInstanceId, String body) {
+            super("test", "test", body, processInstanceId, null, "test", null, null);
+        }
+    }
+
+    private static class TestEventCodec implements DataEventCodec {
+
+        @Override
+        public byte[] encode(DataEvent<?> event) {
+            return (((TestEvent) event).getKogitoProcessinstanceId() + ":" + event.getData()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public DataEvent<?> decode(byte[] data) {
+            String[] values = new String(data, StandardCharsets.UTF_8).split(":");
+            return new TestEvent(values[0], values[1]);
+        }
+    }
+
+    private static class RecordingPublisher implements EventPublisher {
+
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final List<TestEvent> events = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        RecordingPublisher() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingPublisher(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void publish(DataEvent<?> event) {
+            publish(Collections.singletonList(event));
+        }
+
+        @Override
+        public void publish(Collection<DataEvent<?>> events) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                events.forEach(e -> this.events.add((TestEvent) e));
+                batchSizes.add(events.size());
+            }
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        synchronized List<TestEvent> events() {
+            return new ArrayList<>(events);
+        }
+
+        synchronized List<Integer> batchSizes() {
+            return new ArrayList<>(batchSizes);
+        }
+    }
+}
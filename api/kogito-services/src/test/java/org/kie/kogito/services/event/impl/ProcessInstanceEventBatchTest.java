@@ -16,8 +16,20 @@
 
 package org.kie.kogito.services.event.impl;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.Node;
+import org.kie.api.definition.process.Process;
+import org.kie.api.event.process.ProcessNodeEvent;
+import org.kie.api.event.process.ProcessNodeLeftEvent;
+import org.kie.api.event.process.ProcessNodeTriggeredEvent;
+import org.kie.api.runtime.process.NodeInstance;
 import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.kogito.Addons;
+import org.kie.kogito.event.DataEvent;
 import org.kie.kogito.process.flexible.Milestone;
 
 import static java.util.Collections.emptyList;
@@ -72,4 +84,42 @@ public class ProcessInstanceEventBatchTest {
         MilestoneEventBody milestoneEventBody = MilestoneEventBody.create().id("id").name("name").status(Status.AVAILABLE.name()).build();
         assertThat(batch.createMilestones(pi)).containsOnly(milestoneEventBody);
     }
+
+    @Test
+    public void testNodeInstancesIndexedById() {
+        WorkflowProcessInstance pi = mock(WorkflowProcessInstance.class);
+        Process process = mock(Process.class);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", "john");
+        when(pi.getId()).thenReturn("pi");
+        when(pi.getProcessId()).thenReturn("travels");
+        when(pi.getProcess()).thenReturn(process);
+        when(pi.getVariables()).thenReturn(variables);
+        when(pi.getVariablesSnapshot()).thenCallRealMethod();
+        when(process.getMetaData()).thenReturn(singletonMap("securityRoles", "admin,user"));
+
+        ProcessInstanceEventBatch batch = new ProcessInstanceEventBatch("http://localhost:8080", Addons.EMTPY);
+        batch.append(nodeEvent(ProcessNodeTriggeredEvent.class, pi, "first"));
+        batch.append(nodeEvent(ProcessNodeTriggeredEvent.class, pi, "second"));
+        batch.append(nodeEvent(ProcessNodeTriggeredEvent.class, pi, "first"));
+        batch.append(nodeEvent(ProcessNodeLeftEvent.class, pi, "first"));
+        variables.put("name", "mary");
+
+        Collection<DataEvent<?>> events = batch.events();
+        assertThat(events).hasSize(1);
+        ProcessInstanceEventBody body = (ProcessInstanceEventBody) events.iterator().next().getData();
+        assertThat(body.getNodeInstances()).extracting(NodeInstanceEventBody::getId).containsExactly("second", "first");
+        assertThat(body.getRoles()).containsExactly("admin", "user");
+        assertThat(body.getVariables()).containsEntry("name", "mary").isNotSameAs(variables);
+    }
+
+    private static <T extends ProcessNodeEvent> T nodeEvent(Class<T> type, WorkflowProcessInstance pi, String nodeInstanceId) {
+        NodeInstance nodeInstance = mock(NodeInstance.class);
+        when(nodeInstance.getId()).thenReturn(nodeInstanceId);
+        when(nodeInstance.getNode()).thenReturn(mock(Node.class));
+        T event = mock(type);
+        when(event.getProcessInstance()).thenReturn(pi);
+        when(event.getNodeInstance()).thenReturn(nodeInstance);
+        return event;
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.services.uow;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedExecutorTest {
+
+    @Test
+    public void testRejectsWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (BoundedExecutor executor = new BoundedExecutor(1, 2)) {
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(() -> {});
+            executor.execute(() -> {});
+
+            assertThat(executor.activeThreads()).isEqualTo(1);
+            assertThat(executor.queueDepth()).isEqualTo(2);
+            assertThat(executor.queueCapacity()).isEqualTo(2);
+            assertThatThrownBy(() -> executor.execute(() -> {})).isInstanceOf(RejectedExecutionException.class);
+            assertThat(executor.rejectedTasks()).isEqualTo(1);
+
+            executor.resize(2, 3);
+            executor.execute(() -> {});
+            assertThat(executor.threads()).isEqualTo(2);
+            assertThat(executor.queueCapacity()).isEqualTo(3);
+
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testConcurrentSubmissionsNeverExceedCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (BoundedExecutor executor = new BoundedExecutor(1, 5)) {
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch go = new CountDownLatch(1);
+            ExecutorService submitters = Executors.newFixedThreadPool(8);
+            for (int i = 0; i < 8; i++) {
+                submitters.execute(() -> {
+                    await(go);
+                    for (int j = 0; j < 50; j++) {
+                        try {
+                            executor.execute(() -> {});
+                            accepted.incrementAndGet();
+                        } catch (RejectedExecutionException e) {
+                            // expected once the queue is full
+                        }
+                    }
+                });
+            }
+            go.countDown();
+            submitters.shutdown();
+            assertThat(submitters.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(accepted.get()).isEqualTo(5);
+            assertThat(executor.queueDepth()).isEqualTo(5);
+            assertThat(executor.rejectedTasks()).isEqualTo(8 * 50 - 5);
+
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testExecuteInUnitOfWorkAsync() throws Exception {
+        UnitOfWorkManager uowManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        try (BoundedExecutor executor = new BoundedExecutor(2, 10)) {
+            CompletableFuture<String> result = UnitOfWorkExecutor.executeInUnitOfWorkAsync(executor, uowManager,
+                                                                                           () -> Thread.currentThread().getName());
+
+            assertThat(result.get(5, TimeUnit.SECONDS)).startsWith("kogito-executor-");
+            assertThat(executor.executedTasks()).isEqualTo(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
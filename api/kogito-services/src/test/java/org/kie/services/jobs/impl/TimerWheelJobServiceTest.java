@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.process.ProcessRuntime;
+import org.kie.kogito.jobs.DurationExpirationTime;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.timer.TimerInstance;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TimerWheelJobServiceTest {
+
+    private ProcessRuntime processRuntime;
+    private ProcessInstance processInstance;
+    private UnitOfWorkManager unitOfWorkManager;
+    private List<TimerWheelJobService> services = new ArrayList<>();
+
+    @BeforeEach
+    public void prepare() {
+        processRuntime = mock(ProcessRuntime.class);
+        processInstance = mock(ProcessInstance.class);
+        unitOfWorkManager = mock(UnitOfWorkManager.class);
+        when(unitOfWorkManager.newUnitOfWork()).thenReturn(mock(UnitOfWork.class));
+        when(processRuntime.getProcessInstance(anyString())).thenReturn(processInstance);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        services.forEach(TimerWheelJobService::close);
+    }
+
+    private TimerWheelJobService create() {
+        // small wheel so that jobs go through the overflow levels
+        TimerWheelJobService service = new TimerWheelJobService(2, 10, 8, processRuntime, unitOfWorkManager);
+        services.add(service);
+        return service;
+    }
+
+    @Test
+    public void testProcessInstanceJobFired() {
+        TimerWheelJobService service = create();
+        ProcessInstanceJobDescription description = ProcessInstanceJobDescription.of(123, DurationExpirationTime.after(500), "pi", "process");
+        String id = service.scheduleProcessInstanceJob(description);
+        assertThat(service.getScheduledTime(id)).isAfter(ZonedDateTime.now());
+
+        ArgumentCaptor<TimerInstance> timer = ArgumentCaptor.forClass(TimerInstance.class);
+        verify(processInstance, timeout(5000)).signalEvent(eq("timerTriggered"), timer.capture());
+        assertThat(timer.getValue().getTimerId()).isEqualTo(123);
+        assertThat(timer.getValue().getId()).isEqualTo(id);
+        assertThat(service.getScheduledTime(id)).isNull();
+        assertThat(service.pendingJobs()).isZero();
+    }
+
+    @Test
+    public void testJobsExpiringTogetherFiredAndCancelledOnesSkipped() {
+        TimerWheelJobService service = create();
+        ExactExpirationTime expirationTime = ExactExpirationTime.of(ZonedDateTime.now().plus(300, ChronoUnit.MILLIS));
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(service.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(i, expirationTime, "pi", "process")));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertThat(service.cancelJob(ids.get(i))).isTrue();
+        }
+        assertThat(service.cancelJob(ids.get(0))).isFalse();
+
+        verify(processInstance, timeout(5000).times(500)).signalEvent(eq("timerTriggered"), any());
+        verify(processInstance, after(200).times(500)).signalEvent(eq("timerTriggered"), any());
+        assertThat(service.firedJobs()).isEqualTo(500);
+    }
+
+    @Test
+    public void testRepeatableJobStopsAtLimit() {
+        TimerWheelJobService service = create();
+        String id = service.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.repeat(50, 50L, 3), "pi", "process"));
+
+        verify(processInstance, timeout(5000).times(3)).signalEvent(eq("timerTriggered"), any());
+        verify(processInstance, after(300).times(3)).signalEvent(eq("timerTriggered"), any());
+        assertThat(service.getScheduledTime(id)).isNull();
+    }
+
+    @Test
+    public void testSnapshotAndRestore() throws Exception {
+        TimerWheelJobService service = create();
+        String later = service.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(1, DurationExpirationTime.after(1, ChronoUnit.HOURS), "pi", "process"));
+        String soon = service.scheduleProcessInstanceJob(ProcessInstanceJobDescription.of(2, DurationExpirationTime.after(200), "pi", "process"));
+        ZonedDateTime scheduledTime = service.getScheduledTime(later);
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        assertThat(service.snapshot(snapshot)).isEqualTo(2);
+        service.close();
+        verify(processInstance, after(400).never()).signalEvent(anyString(), any());
+
+        TimerWheelJobService restored = create();
+        assertThat(restored.restore(new ByteArrayInputStream(snapshot.toByteArray()))).isEqualTo(2);
+        assertThat(restored.getScheduledTime(later)).isEqualTo(scheduledTime);
+
+        // expired while not running
+        ArgumentCaptor<TimerInstance> timer = ArgumentCaptor.forClass(TimerInstance.class);
+        verify(processInstance, timeout(5000)).signalEvent(eq("timerTriggered"), timer.capture());
+        assertThat(timer.getValue().getId()).isEqualTo(soon);
+        assertThat(restored.pendingJobs()).isOne();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.services.jobs.impl;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.JobsService;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class UnitOfWorkJobsServiceTest {
+
+    private JobsService delegate;
+    private UnitOfWorkManager unitOfWorkManager;
+    private UnitOfWorkJobsService tested;
+
+    @BeforeEach
+    public void prepare() {
+        delegate = mock(JobsService.class);
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
+        tested = new UnitOfWorkJobsService(delegate, unitOfWorkManager);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testJobsAreFlushedAtOnceWhenUnitOfWorkEnds() {
+        ProcessInstanceJobDescription first = description();
+        ProcessInstanceJobDescription second = description();
+        ProcessInstanceJobDescription cancelled = description();
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(tested.scheduleProcessInstanceJob(first)).isEqualTo(first.id());
+        tested.scheduleProcessInstanceJob(second);
+        tested.scheduleProcessInstanceJob(cancelled);
+        tested.cancelJob(cancelled.id());
+        tested.cancelJob("existing");
+        assertThat(tested.getScheduledTime(second.id())).isEqualTo(second.expirationTime().get());
+        verifyNoInteractions(delegate);
+        unitOfWork.end();
+
+        ArgumentCaptor<List<ProcessInstanceJobDescription>> scheduled = ArgumentCaptor.forClass(List.class);
+        verify(delegate).scheduleProcessInstanceJobs(scheduled.capture());
+        assertThat(scheduled.getValue()).containsExactly(first, second);
+        ArgumentCaptor<Collection<String>> cancellations = ArgumentCaptor.forClass(Collection.class);
+        verify(delegate).cancelJobs(cancellations.capture());
+        assertThat(cancellations.getValue()).containsExactly("existing");
+    }
+
+    @Test
+    public void testJobsAreDroppedWhenUnitOfWorkAborts() {
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        tested.scheduleProcessInstanceJob(description());
+        unitOfWork.abort();
+
+        verify(delegate, never()).scheduleProcessInstanceJobs(anyList());
+    }
+
+    @Test
+    public void testJobsArePassedThroughOutsideUnitOfWork() {
+        ProcessInstanceJobDescription description = description();
+        tested.scheduleProcessInstanceJob(description);
+        verify(delegate).scheduleProcessInstanceJobs(anyList());
+
+        tested.cancelJob(description.id());
+        verify(delegate).cancelJobs(any());
+    }
+
+    @Test
+    public void testFailedCancellationsDoNotSkipSchedules() {
+        doThrow(new IllegalStateException("jobs service unavailable")).when(delegate).cancelJobs(any());
+
+        UnitOfWork unitOfWork = unitOfWorkManager.newUnitOfWork();
+        unitOfWork.start();
+        assertThat(tested.cancelJob("existing")).isTrue();
+        tested.scheduleProcessInstanceJob(description());
+        unitOfWork.end();
+
+        verify(delegate).scheduleProcessInstanceJobs(anyList());
+    }
+
+    @Test
+    public void testCancellationOutcomeOutsideUnitOfWork() {
+        when(delegate.cancelJobs(any())).thenReturn(false);
+        assertThat(tested.cancelJob("missing")).isFalse();
+
+        doThrow(new IllegalStateException("jobs service unavailable")).when(delegate).scheduleProcessInstanceJobs(anyList());
+        assertThatThrownBy(() -> tested.scheduleProcessInstanceJob(description())).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ProcessInstanceJobDescription description() {
+        return ProcessInstanceJobDescription.of(1, ExactExpirationTime.now(), "processInstanceId", "processId");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.dmn;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor evaluating the batches of the generated DMN resources, kept apart from the executor
+ * running processes and single evaluations so a large batch does not hold their threads.
+ * <p>
+ * Its queue is bounded; once it is full the batch evaluates on its own thread, see
+ * {@link org.kie.kogito.decision.DecisionModel#evaluateAll(java.util.Iterator, Executor, int, java.util.function.BiConsumer)}.
+ */
+public final class DmnBatchExecutor {
+
+    public static final String THREADS_PROPERTY = "kogito.dmn.batch.threads";
+    public static final String QUEUE_CAPACITY_PROPERTY = "kogito.dmn.batch.queue-capacity";
+
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    private DmnBatchExecutor() {
+    }
+
+    /**
+     * Returns the executor, configured with the {@value #THREADS_PROPERTY} and
+     * {@value #QUEUE_CAPACITY_PROPERTY} system properties.
+     */
+    public static Executor executor() {
+        return Shared.INSTANCE;
+    }
+
+    private static class Shared {
+
+        private static final ThreadPoolExecutor INSTANCE = create(
+                Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS),
+                Integer.getInteger(QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY));
+
+        private static ThreadPoolExecutor create(int threads, int queueCapacity) {
+            AtomicInteger index = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                                 new ArrayBlockingQueue<>(queueCapacity),
+                                                                 r -> {
+                                                                     Thread thread = new Thread(r, "kogito-dmn-batch-" + index.getAndIncrement());
+                                                                     thread.setDaemon(true);
+                                                                     return thread;
+                                                                 });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -16,14 +16,27 @@
 package org.kie.kogito.dmn;
 
 import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.Test;
+import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNMessage.Severity;
 import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNResult;
 import org.kie.dmn.api.core.DMNRuntime;
 import org.kie.kogito.decision.DecisionModel;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DMNKogitoTest {
 
@@ -48,4 +61,75 @@ public class DMNKogitoTest {
         DMNModel dmnModel = dmnRuntime.getModels().get(0);
         assertEquals(0, dmnModel.getMessages(Severity.ERROR).size()); // nn any() is a Kie-extended built-in function.
     }
+
+    @Test
+    public void testEvaluateAllBatchKeepsOrder() {
+        DMNRuntime dmnRuntime = DMNKogito.createGenericDMNRuntime(new InputStreamReader(DMNKogitoTest.class.getResourceAsStream("TrafficViolation.dmn")));
+        DecisionModel kogitoAPI = new DmnDecisionModel(dmnRuntime,
+                                                       "https://github.com/kiegroup/drools/kie-dmn/_A4BCA8B8-CF08-433F-93B2-A2598F19ECFF",
+                                                       "Traffic Violation");
+        List<DMNContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Map<String, Object> driver = new HashMap<>();
+            driver.put("Points", BigDecimal.valueOf(i));
+            Map<String, Object> violation = new HashMap<>();
+            violation.put("Type", "speed");
+            violation.put("Speed Limit", BigDecimal.valueOf(100));
+            violation.put("Actual Speed", BigDecimal.valueOf(100 + i));
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("Driver", driver);
+            variables.put("Violation", violation);
+            contexts.add(kogitoAPI.newContext(variables));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<DMNResult> results = kogitoAPI.evaluateAll(contexts, executor);
+
+            assertEquals(contexts.size(), results.size());
+            for (int i = 0; i < contexts.size(); i++) {
+                DMNResult expected = kogitoAPI.evaluateAll(contexts.get(i));
+                assertEquals(expected.getDecisionResultByName("Fine").getResult(), results.get(i).getDecisionResultByName("Fine").getResult());
+                assertEquals(expected.getDecisionResultByName("Should the driver be suspended?").getResult(),
+                             results.get(i).getDecisionResultByName("Should the driver be suspended?").getResult());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEvaluateAllBatchReportsFailuresInPlace() {
+        DMNRuntime dmnRuntime = DMNKogito.createGenericDMNRuntime(new InputStreamReader(DMNKogitoTest.class.getResourceAsStream("TrafficViolation.dmn")));
+        DecisionModel kogitoAPI = new DmnDecisionModel(dmnRuntime,
+                                                       "https://github.com/kiegroup/drools/kie-dmn/_A4BCA8B8-CF08-433F-93B2-A2598F19ECFF",
+                                                       "Traffic Violation");
+        Iterator<Integer> inputs = Arrays.asList(1, 2, 3).iterator();
+        Iterator<DMNContext> contexts = new Iterator<DMNContext>() {
+
+            @Override
+            public boolean hasNext() {
+                return inputs.hasNext();
+            }
+
+            @Override
+            public DMNContext next() {
+                if (inputs.next() == 2) {
+                    throw new IllegalArgumentException("unreadable input");
+                }
+                return kogitoAPI.newContext(new HashMap<>());
+            }
+        };
+        List<Object> outcomes = new ArrayList<>();
+
+        // a saturated executor makes the batch evaluate on the calling thread
+        kogitoAPI.evaluateAll(contexts, command -> {
+            throw new RejectedExecutionException();
+        }, 2, (result, error) -> outcomes.add(error != null ? error : result));
+
+        assertEquals(3, outcomes.size());
+        assertTrue(outcomes.get(0) instanceof DMNResult);
+        assertTrue(outcomes.get(1) instanceof IllegalArgumentException);
+        assertTrue(outcomes.get(2) instanceof DMNResult);
+    }
 }
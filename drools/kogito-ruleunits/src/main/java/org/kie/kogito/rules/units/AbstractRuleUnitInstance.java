@@ -75,6 +75,11 @@ public class AbstractRuleUnitInstance<T extends RuleUnitData> implements RuleUni
         return runtime.getSessionClock();
     }
 
+    @Override
+    public void dispose() {
+        runtime.dispose();
+    }
+
     public T workingMemory() {
         return unitMemory;
     }
@@ -206,6 +206,7 @@ public class ProcessHandler extends BaseAbstractHandler implements Handler {
             process.getMetaData(LaneHandler.LANES);
         assignLanes(process, lanes);
         postProcessNodes(process, process);
+        process.buildEventDispatchTable();
 		return process;
 	}
 	
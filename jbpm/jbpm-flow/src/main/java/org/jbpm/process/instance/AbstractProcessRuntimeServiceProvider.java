@@ -28,6 +28,7 @@ import org.kie.kogito.process.WorkItemHandlerConfig;
 import org.kie.kogito.signal.SignalManager;
 import org.kie.kogito.signal.SignalManagerHub;
 import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.services.jobs.impl.UnitOfWorkJobsService;
 import org.kie.services.signal.LightSignalManager;
 
 public class AbstractProcessRuntimeServiceProvider implements ProcessRuntimeServiceProvider {
@@ -51,7 +52,8 @@ public class AbstractProcessRuntimeServiceProvider implements ProcessRuntimeServ
                         processInstanceManager.getProcessInstance(id)),
                 compositeSignalManager);
         this.eventSupport = new KogitoProcessEventSupport(this.unitOfWorkManager);
-        this.jobsService = jobsService;
+        // jobs are handed to the jobs service once the unit of work ends
+        this.jobsService = jobsService != null && unitOfWorkManager != null ? new UnitOfWorkJobsService(jobsService, unitOfWorkManager) : jobsService;
         this.workItemManager = new LightWorkItemManager(processInstanceManager, signalManager, eventSupport);
 
         for (String workItem : workItemHandlerProvider.names()) {
@@ -98,7 +98,7 @@ public class ProcessRuntimeImpl implements InternalProcessRuntime {
         initProcessInstanceManager();
         initSignalManager();
         unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
-        jobService = new InMemoryJobService(this, unitOfWorkManager);
+        jobService = InMemoryJobService.create(null, this, unitOfWorkManager);
         processEventSupport = new KogitoProcessEventSupport(unitOfWorkManager);
         if (isActive()) {
             initProcessEventListeners();
@@ -117,7 +117,7 @@ public class ProcessRuntimeImpl implements InternalProcessRuntime {
         initProcessInstanceManager();
         initSignalManager();
         unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory());
-        jobService = new InMemoryJobService(this, unitOfWorkManager);
+        jobService = InMemoryJobService.create(null, this, unitOfWorkManager);
         processEventSupport = new KogitoProcessEventSupport(unitOfWorkManager);
         if (isActive()) {
             initProcessEventListeners();
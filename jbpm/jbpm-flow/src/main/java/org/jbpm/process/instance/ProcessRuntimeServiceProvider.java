@@ -35,4 +35,12 @@ public interface ProcessRuntimeServiceProvider {
     ProcessEventSupport getEventSupport();
     
     UnitOfWorkManager getUnitOfWorkManager();
+
+    /**
+     * Returns the type of the in memory jobs service used when no jobs service is given, see
+     * {@link org.kie.services.jobs.impl.InMemoryJobService#create}, <code>null</code> for the default one.
+     */
+    default String getInMemoryJobsType() {
+        return null;
+    }
 }
@@ -39,6 +39,8 @@ public class VariableScopeInstance extends AbstractContextInstance {
     private static final long serialVersionUID = 510l;    
     
     private Map<String, Object> variables = new HashMap<String, Object>();
+    // copy of the variables handed out until one of them changes
+    private transient Map<String, Object> snapshot;
     private transient String variableIdPrefix = null;
     private transient String variableInstanceIdPrefix = null;
 
@@ -77,6 +79,18 @@ public class VariableScopeInstance extends AbstractContextInstance {
         return Collections.unmodifiableMap(variables);
     }
 
+    /**
+     * Returns an immutable copy of the variables, the same copy is returned until a variable changes.
+     */
+    public Map<String, Object> getVariablesSnapshot() {
+        Map<String, Object> copy = snapshot;
+        if (copy == null) {
+            copy = Collections.unmodifiableMap(new HashMap<>(variables));
+            snapshot = copy;
+        }
+        return copy;
+    }
+
     public void setVariable(String name, Object value) {
         setVariable(null, name, value);
     }
@@ -117,6 +131,7 @@ public class VariableScopeInstance extends AbstractContextInstance {
     public void internalSetVariable(String name, Object value) {
         // not a case, store it in normal variables
     	variables.put(name, value);
+    	snapshot = null;
     }
     
     public VariableScope getVariableScope() {
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.process.instance.impl.workitem;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.jbpm.process.instance.InternalProcessRuntime;
+import org.jbpm.process.instance.impl.ProcessInstanceImpl;
+import org.kie.api.runtime.process.WorkItem;
+import org.kie.api.runtime.process.WorkItemManager;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.services.uow.BoundedExecutor;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.kie.kogito.uow.WorkUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Completes or aborts a work item from outside the engine, once the asynchronous work a handler
+ * started is done.
+ * <p>
+ * It must be created while the handler executes the work item, so it can capture the process
+ * instance it belongs to, and registers with the unit of work the handler runs in. The completion
+ * is held until that unit of work has stored the process instance, then runs on the given executor,
+ * reloads the process instance through its {@link org.kie.kogito.process.ProcessInstances} and
+ * commits in its own unit of work, so callbacks such as HTTP responses never run the engine on an
+ * I/O thread nor find the process instance not stored yet. Work items that do not belong to a
+ * Kogito process instance are completed through the {@link WorkItemManager} instead.
+ * <p>
+ * When the executor rejects the completion it is submitted again later, it never runs on the
+ * thread that delivered the outcome. When storing the process instance conflicts with a concurrent
+ * update, the process instance is reloaded and the outcome applied again with an increasing delay.
+ */
+public class AsyncWorkItemCompletion {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncWorkItemCompletion.class);
+
+    private static final String KOGITO_PROCESS_INSTANCE = "KogitoProcessInstance";
+
+    private static final long RESUBMIT_DELAY = 50;
+    private static final long MAX_RESUBMIT_DELAY = 1000;
+    private static final int MAX_CONFLICT_RETRIES = 10;
+
+    private final Executor executor;
+    private final WorkItemManager manager;
+    private final String workItemId;
+    private final String processInstanceId;
+    private final Process<?> process;
+    private final UnitOfWorkManager uowManager;
+    // completes with true once the unit of work the handler ran in stored the process instance
+    private final CompletableFuture<Boolean> stored = new CompletableFuture<>();
+
+    private AsyncWorkItemCompletion(Executor executor, WorkItemManager manager, String workItemId, String processInstanceId,
+                                    Process<?> process, UnitOfWorkManager uowManager) {
+        this.executor = executor;
+        this.manager = manager;
+        this.workItemId = workItemId;
+        this.processInstanceId = processInstanceId;
+        this.process = process;
+        this.uowManager = uowManager;
+        if (uowManager != null) {
+            UnitOfWork unitOfWork = uowManager.currentUnitOfWork();
+            // default priority performs it after the process instance work units stored the instance
+            unitOfWork.intercept(WorkUnit.create(workItemId, id -> stored.complete(true), id -> stored.complete(false)));
+        } else {
+            stored.complete(true);
+        }
+    }
+
+    public static AsyncWorkItemCompletion of(WorkItem workItem, WorkItemManager manager) {
+        return of(workItem, manager, BoundedExecutor.sharedExecutor());
+    }
+
+    public static AsyncWorkItemCompletion of(WorkItem workItem, WorkItemManager manager, Executor executor) {
+        Process<?> process = null;
+        UnitOfWorkManager uowManager = null;
+        if (workItem.getProcessInstance() instanceof ProcessInstanceImpl) {
+            ProcessInstanceImpl processInstance = (ProcessInstanceImpl) workItem.getProcessInstance();
+            Object kogitoProcessInstance = processInstance.getMetaData().get(KOGITO_PROCESS_INSTANCE);
+            if (kogitoProcessInstance instanceof ProcessInstance && processInstance.getKnowledgeRuntime() != null) {
+                process = ((ProcessInstance<?>) kogitoProcessInstance).process();
+                uowManager = ((InternalProcessRuntime) processInstance.getKnowledgeRuntime().getProcessRuntime()).getUnitOfWorkManager();
+            }
+        }
+        return new AsyncWorkItemCompletion(executor, manager, workItem.getId(), workItem.getProcessInstanceId(), process, uowManager);
+    }
+
+    public void complete(Map<String, Object> results) {
+        complete(() -> results);
+    }
+
+    /**
+     * Completes the work item with the results computed by given supplier on the engine executor,
+     * so converting a response does not hold the thread that received it.
+     */
+    public void complete(Supplier<Map<String, Object>> results) {
+        submit(() -> {
+            if (process != null) {
+                inUnitOfWork(pi -> pi.completeWorkItem(workItemId, results.get()));
+            } else {
+                manager.completeWorkItem(workItemId, results.get());
+            }
+        });
+    }
+
+    public void abort() {
+        submit(() -> {
+            if (process != null) {
+                inUnitOfWork(pi -> pi.abortWorkItem(workItemId));
+            } else {
+                manager.abortWorkItem(workItemId);
+            }
+        });
+    }
+
+    private void inUnitOfWork(Consumer<ProcessInstance<?>> action) {
+        UnitOfWorkExecutor.executeInUnitOfWork(uowManager, () -> {
+            Optional<? extends ProcessInstance<?>> processInstance = process.instances().findById(processInstanceId);
+            if (processInstance.isPresent()) {
+                action.accept(processInstance.get());
+            } else {
+                logger.warn("Process instance {} is no longer active, ignoring outcome of work item {}", processInstanceId, workItemId);
+            }
+            return null;
+        });
+    }
+
+    private void submit(Runnable completion) {
+        stored.thenAccept(committed -> {
+            if (committed) {
+                execute(attempt(completion, 1), RESUBMIT_DELAY);
+            } else {
+                logger.warn("Unit of work that executed work item {} of process instance {} was aborted, discarding its outcome", workItemId, processInstanceId);
+            }
+        });
+    }
+
+    private Runnable attempt(Runnable completion, int attempt) {
+        return () -> {
+            try {
+                completion.run();
+            } catch (ProcessInstanceOptimisticLockingException e) {
+                if (attempt < MAX_CONFLICT_RETRIES) {
+                    // another thread updated the process instance meanwhile, reload it and apply the outcome again
+                    long delay = Math.min(RESUBMIT_DELAY << (attempt - 1), MAX_RESUBMIT_DELAY);
+                    logger.debug("Process instance {} was updated concurrently, completing work item {} again in {} ms", processInstanceId, workItemId, delay);
+                    Resubmitter.INSTANCE.schedule(() -> execute(attempt(completion, attempt + 1), RESUBMIT_DELAY), delay, TimeUnit.MILLISECONDS);
+                } else {
+                    logger.error("Giving up completing work item {} of process instance {} after {} conflicting updates", workItemId, processInstanceId, attempt, e);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error completing work item {} of process instance {}", workItemId, processInstanceId, e);
+            }
+        };
+    }
+
+    private void execute(Runnable completion, long delay) {
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // an outcome must not get lost nor run the engine on the calling thread, try again later
+            logger.warn("Engine executor is saturated, completing work item {} in {} ms", workItemId, delay);
+            Resubmitter.INSTANCE.schedule(() -> execute(completion, Math.min(delay * 2, MAX_RESUBMIT_DELAY)), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static class Resubmitter {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kogito-work-item-completion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -207,6 +207,7 @@ public class RuleFlowProcessFactory extends RuleFlowNodeContainerFactory {
         if (errors.length > 0) {
             throw new RuntimeException("Process could not be validated !");
         }
+        getRuleFlowProcess().buildEventDispatchTable();
         return this;
     }
 
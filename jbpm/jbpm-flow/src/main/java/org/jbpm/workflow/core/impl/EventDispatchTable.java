@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workflow.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jbpm.process.core.event.EventFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.process.core.event.NonAcceptingEventTypeFilter;
+import org.jbpm.util.PatternConstants;
+import org.jbpm.workflow.core.node.AsyncEventNode;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.CompositeContextNode;
+import org.jbpm.workflow.core.node.CompositeNode;
+import org.jbpm.workflow.core.node.DynamicNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventNodeInterface;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.jbpm.workflow.core.node.ForEachNode;
+import org.jbpm.workflow.core.node.StateNode;
+import org.kie.api.definition.process.Node;
+
+/**
+ * Event types to the nodes of a node container that may accept them, built once per process
+ * definition so that signaling a process instance does not have to ask every node.
+ * <p>
+ * Nodes only accepting event types known upfront are <i>static</i>, they are candidates for
+ * those types only and accept them without resolving any expression. All other nodes, e.g. the
+ * ones whose event types are expressions resolved from the process instance variables, are
+ * candidates for every event type.
+ */
+public class EventDispatchTable {
+
+    private final Map<String, List<Node>> candidates = new HashMap<>();
+    private final List<Node> dynamicCandidates = new ArrayList<>();
+    private final Set<Node> staticNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public EventDispatchTable(Node[] nodes) {
+        Map<Node, Set<String>> types = new IdentityHashMap<>();
+        Set<String> allTypes = new LinkedHashSet<>();
+        for (Node node : nodes) {
+            if (node instanceof EventNodeInterface) {
+                Set<String> nodeTypes = staticEventTypes(node);
+                if (nodeTypes != null) {
+                    staticNodes.add(node);
+                    types.put(node, nodeTypes);
+                    allTypes.addAll(nodeTypes);
+                }
+            }
+        }
+        // keeps the nodes in definition order, so they are signaled as they were when asking every node
+        for (Node node : nodes) {
+            if (!(node instanceof EventNodeInterface)) {
+                continue;
+            }
+            Set<String> nodeTypes = types.get(node);
+            if (nodeTypes == null) {
+                dynamicCandidates.add(node);
+                for (String type : allTypes) {
+                    candidates.computeIfAbsent(type, k -> new ArrayList<>()).add(node);
+                }
+            } else {
+                for (String type : nodeTypes) {
+                    candidates.computeIfAbsent(type, k -> new ArrayList<>()).add(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the nodes that may accept given event type, in definition order.
+     */
+    public List<Node> candidates(String type) {
+        return candidates.getOrDefault(type, dynamicCandidates);
+    }
+
+    /**
+     * Returns whether given node only accepts event types known upfront, so there is no need to
+     * resolve expressions to check whether it accepts an event.
+     */
+    public boolean isStatic(Node node) {
+        return staticNodes.contains(node);
+    }
+
+    /**
+     * Returns the event types given node may accept or <code>null</code> if they are not known upfront.
+     */
+    private static Set<String> staticEventTypes(Node node) {
+        Class<?> type = node.getClass();
+        if (type == EventNode.class || type == BoundaryEventNode.class || type == AsyncEventNode.class) {
+            List<EventFilter> filters = ((EventNode) node).getEventFilters();
+            // an event node without filters accepts every event
+            return filters.isEmpty() ? null : staticEventTypes(filters);
+        }
+        if (type == EventSubProcessNode.class) {
+            Set<String> types = staticEventTypes(((EventSubProcessNode) node).getEventTypeFilters());
+            Set<String> nested = staticEventTypes(((CompositeNode) node).internalGetNodes());
+            if (types == null || nested == null) {
+                return null;
+            }
+            types.addAll(nested);
+            return types;
+        }
+        if (type == CompositeNode.class || type == CompositeContextNode.class || type == StateNode.class
+                || type == DynamicNode.class || type == ForEachNode.class) {
+            return staticEventTypes(((CompositeNode) node).internalGetNodes());
+        }
+        return null;
+    }
+
+    private static Set<String> staticEventTypes(Node[] nodes) {
+        Set<String> types = new LinkedHashSet<>();
+        for (Node node : nodes) {
+            if (node instanceof EventNodeInterface) {
+                Set<String> nodeTypes = staticEventTypes(node);
+                if (nodeTypes == null) {
+                    return null;
+                }
+                types.addAll(nodeTypes);
+            }
+        }
+        return types;
+    }
+
+    private static Set<String> staticEventTypes(Collection<? extends EventFilter> filters) {
+        Set<String> types = new LinkedHashSet<>();
+        for (EventFilter filter : filters) {
+            if (filter.getClass() == NonAcceptingEventTypeFilter.class) {
+                continue;
+            }
+            if (filter.getClass() != EventTypeFilter.class) {
+                return null;
+            }
+            String type = ((EventTypeFilter) filter).getType();
+            if (type != null) {
+                if (PatternConstants.PARAMETER_MATCHER.matcher(type).find()) {
+                    return null;
+                }
+                types.add(type);
+            }
+        }
+        return types;
+    }
+}
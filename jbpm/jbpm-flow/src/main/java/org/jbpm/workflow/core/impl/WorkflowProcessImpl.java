@@ -17,9 +17,13 @@
 package org.jbpm.workflow.core.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 
@@ -27,6 +31,9 @@ import org.jbpm.process.core.impl.ProcessImpl;
 import org.jbpm.process.instance.ProcessInstance;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.WorkflowProcess;
+import org.jbpm.workflow.core.node.DynamicNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
 import org.jbpm.workflow.core.node.StartNode;
 import org.jbpm.workflow.instance.WorkflowProcessInstance;
 import org.jbpm.workflow.instance.impl.MVELProcessHelper;
@@ -48,6 +55,8 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
     private boolean autoComplete = false;
     private boolean dynamic = false;
     private org.jbpm.workflow.core.NodeContainer nodeContainer;
+    private transient volatile EventDispatchTable eventDispatchTable;
+    private transient volatile Optional<Set<String>> nodeEventTypes;
     
     
     private transient BiFunction<String, ProcessInstance, String> expressionEvaluator = (expression, p) -> {
@@ -106,11 +115,80 @@ public class WorkflowProcessImpl extends ProcessImpl implements WorkflowProcess,
     public void removeNode(final Node node) {
         nodeContainer.removeNode(node);
         ((org.jbpm.workflow.core.Node) node).setParentContainer(null);
+        clearEventDispatchTable();
     }
 
     public void addNode(final Node node) {
         nodeContainer.addNode(node);
         ((org.jbpm.workflow.core.Node) node).setParentContainer(this);
+        clearEventDispatchTable();
+    }
+
+    /**
+     * Discards the tables used to dispatch events, so they are built again when needed. Composite
+     * nodes call it when their nested nodes change.
+     */
+    public void clearEventDispatchTable() {
+        eventDispatchTable = null;
+        nodeEventTypes = null;
+    }
+
+    /**
+     * Builds the tables used to dispatch events to the nodes of this process. Process readers and
+     * factories call it once all the nodes are added, so no process instance pays for it when
+     * signaled; adding or removing nodes afterwards discards them until they are needed again.
+     */
+    public void buildEventDispatchTable() {
+        eventDispatchTable = new EventDispatchTable(getNodes());
+        nodeEventTypes = Optional.ofNullable(nodeEventTypes(this));
+    }
+
+    /**
+     * Returns the nodes of this process that may accept an event, built on demand if the nodes
+     * changed since {@link #buildEventDispatchTable()}.
+     */
+    public EventDispatchTable getEventDispatchTable() {
+        EventDispatchTable table = eventDispatchTable;
+        if (table == null) {
+            table = new EventDispatchTable(getNodes());
+            eventDispatchTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the event types the nodes of this process are signaled with regardless of the
+     * listeners of a process instance, e.g. boundary events, or <code>null</code> if they may be
+     * signaled with any event. Built along with the {@link #getEventDispatchTable() event dispatch table}.
+     */
+    public Set<String> getNodeEventTypes() {
+        Optional<Set<String>> types = nodeEventTypes;
+        if (types == null) {
+            types = Optional.ofNullable(nodeEventTypes(this));
+            nodeEventTypes = types;
+        }
+        return types.orElse(null);
+    }
+
+    public static Set<String> nodeEventTypes(WorkflowProcess process) {
+        if (process.isDynamic()) {
+            return null;
+        }
+        Set<String> types = new HashSet<>();
+        for (Node node : process.getNodesRecursively()) {
+            if (node instanceof DynamicNode) {
+                return null;
+            } else if (node instanceof EventNode && ((EventNode) node).getFrom() == null) {
+                String type = ((EventNode) node).getType();
+                if (type == null) {
+                    return null;
+                }
+                types.add(type);
+            } else if (node instanceof EventSubProcessNode) {
+                types.addAll(((EventSubProcessNode) node).getEvents());
+            }
+        }
+        return Collections.unmodifiableSet(types);
     }
 
     public boolean isAutoComplete() {
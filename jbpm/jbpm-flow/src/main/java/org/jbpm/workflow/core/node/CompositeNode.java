@@ -28,6 +28,7 @@ import org.jbpm.workflow.core.NodeContainer;
 import org.jbpm.workflow.core.impl.ConnectionImpl;
 import org.jbpm.workflow.core.impl.NodeContainerImpl;
 import org.jbpm.workflow.core.impl.NodeImpl;
+import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
 
 public class CompositeNode extends StateBasedNode implements NodeContainer, EventNodeInterface {
 
@@ -85,6 +86,7 @@ public class CompositeNode extends StateBasedNode implements NodeContainer, Even
     	}
     	nodeContainer.addNode(node);
         ((org.jbpm.workflow.core.Node) node).setParentContainer(this);
+        clearEventDispatchTable();
     }
     
     protected void internalAddNode(Node node) {
@@ -94,6 +96,21 @@ public class CompositeNode extends StateBasedNode implements NodeContainer, Even
     public void removeNode(Node node) {
         nodeContainer.removeNode(node);
         ((org.jbpm.workflow.core.Node) node).setParentContainer(null);
+        clearEventDispatchTable();
+    }
+
+    /**
+     * Discards the event dispatch table of the process containing this node, since it covers the
+     * event types of the nested nodes too.
+     */
+    private void clearEventDispatchTable() {
+        org.kie.api.definition.process.NodeContainer container = getParentContainer();
+        while (container instanceof CompositeNode) {
+            container = ((CompositeNode) container).getParentContainer();
+        }
+        if (container instanceof WorkflowProcessImpl) {
+            ((WorkflowProcessImpl) container).clearEventDispatchTable();
+        }
     }
     
     protected void internalRemoveNode(Node node) {
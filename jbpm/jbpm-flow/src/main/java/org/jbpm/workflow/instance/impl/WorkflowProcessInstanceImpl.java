@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -48,7 +49,9 @@ import org.jbpm.process.instance.impl.ProcessInstanceImpl;
 import org.jbpm.ruleflow.core.Metadata;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.DroolsAction;
+import org.jbpm.workflow.core.impl.EventDispatchTable;
 import org.jbpm.workflow.core.impl.NodeImpl;
+import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
 import org.jbpm.workflow.core.node.ActionNode;
 import org.jbpm.workflow.core.node.BoundaryEventNode;
 import org.jbpm.workflow.core.node.CompositeNode;
@@ -119,6 +122,8 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
 
     private Map<String, List<EventListener>> eventListeners = new HashMap<>();
     private Map<String, List<EventListener>> externalEventListeners = new HashMap<>();
+    // event types of the registered listeners, with the number of listener maps holding each of them
+    private Map<String, Integer> listenerEventTypes = new HashMap<>();
 
     private List<String> completedNodeIds = new ArrayList<>();
     private List<String> activatingNodeIds;
@@ -340,6 +345,23 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         return variableScopeInstance.getVariables();
     }
 
+    @Override
+    public Map<String, Object> getVariablesSnapshot() {
+        if (getKnowledgeRuntime() == null) {
+            // events are built once the process instance is disconnected, share the snapshot of its
+            // variable scope instance when it has a single one, as the default one can no longer be resolved
+            List<ContextInstance> variableScopeInstances = getContextInstances(VariableScope.VARIABLE_SCOPE);
+            if (variableScopeInstances != null && variableScopeInstances.size() == 1) {
+                return ((VariableScopeInstance) variableScopeInstances.get(0)).getVariablesSnapshot();
+            }
+            // already a copy of the variables of every scope
+            Map<String, Object> variables = getVariables();
+            return variables == null ? null : Collections.unmodifiableMap(variables);
+        }
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) getContextInstance(VariableScope.VARIABLE_SCOPE);
+        return variableScopeInstance == null ? null : variableScopeInstance.getVariablesSnapshot();
+    }
+
     @Override
     public void setVariable(String name, Object value) {
         VariableScope variableScope = (VariableScope) ((ContextContainer) getProcess()).getDefaultContext(VariableScope.VARIABLE_SCOPE);
@@ -537,8 +559,9 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
 
     private void unregisterExternalEventNodeListeners() {
         for (Node node : getWorkflowProcess().getNodes()) {
-            if (node instanceof EventNode && "external".equals(((EventNode) node).getScope())) {
-                externalEventListeners.remove(((EventNode) node).getType());
+            if (node instanceof EventNode && "external".equals(((EventNode) node).getScope())
+                    && externalEventListeners.remove(((EventNode) node).getType()) != null) {
+                unsubscribe(((EventNode) node).getType());
             }
         }
     }
@@ -579,7 +602,9 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                 return;
             }
 
-            List<NodeInstance> currentView = new ArrayList<>(this.nodeInstances);
+            EventDispatchTable dispatchTable = getEventDispatchTable();
+            List<Node> candidates = dispatchTable.candidates(type);
+            List<NodeInstance> currentView = candidateNodeInstances(dispatchTable, candidates);
 
             try {
                 this.activatingNodeIds = new ArrayList<>();
@@ -595,14 +620,15 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
                         listener.signalEvent(type, event);
                     }
                 }
-                for (Node node : getWorkflowProcess().getNodes()) {
-                    if (node instanceof EventNodeInterface
-                            && ((EventNodeInterface) node).acceptsEvent(type, event, getResolver(node, currentView))) {
+                for (Node node : candidates) {
+                    // static nodes accept event types known upfront, no need to resolve expressions
+                    boolean isStatic = dispatchTable.isStatic(node);
+                    if (((EventNodeInterface) node).acceptsEvent(type, event, isStatic ? Function.identity() : getResolver(node, currentView))) {
                         if (node instanceof EventNode && ((EventNode) node).getFrom() == null) {
                             EventNodeInstance eventNodeInstance = (EventNodeInstance) getNodeInstance(node);
                             eventNodeInstance.signalEvent(type, event);
                         } else {
-                            if (node instanceof EventSubProcessNode && (resolveVariables(((EventSubProcessNode) node).getEvents()).contains(type))) {
+                            if (node instanceof EventSubProcessNode && (isStatic ? ((EventSubProcessNode) node).getEvents() : resolveVariables(((EventSubProcessNode) node).getEvents())).contains(type)) {
                                 EventSubProcessNodeInstance eventNodeInstance = (EventSubProcessNodeInstance) getNodeInstance(node);
                                 eventNodeInstance.signalEvent(type, event);
                             } else {
@@ -645,6 +671,41 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         }
     }
 
+    /**
+     * Returns the node instances of given candidates as they are before signaling, the only ones
+     * signaling looks up. Nothing is copied when every candidate is a static event node without
+     * incoming connections, since a new node instance is created for those.
+     */
+    private List<NodeInstance> candidateNodeInstances(EventDispatchTable dispatchTable, List<Node> candidates) {
+        Set<Long> nodeIds = null;
+        for (Node node : candidates) {
+            if (!dispatchTable.isStatic(node) || !(node instanceof EventNode) || ((EventNode) node).getFrom() != null) {
+                if (nodeIds == null) {
+                    nodeIds = new HashSet<>();
+                }
+                nodeIds.add(node.getId());
+            }
+        }
+        if (nodeIds == null) {
+            return Collections.emptyList();
+        }
+        List<NodeInstance> view = new ArrayList<>();
+        for (NodeInstance nodeInstance : this.nodeInstances) {
+            if (nodeIds.contains(nodeInstance.getNodeId())) {
+                view.add(nodeInstance);
+            }
+        }
+        return view;
+    }
+
+    private EventDispatchTable getEventDispatchTable() {
+        WorkflowProcess process = getWorkflowProcess();
+        if (process instanceof WorkflowProcessImpl) {
+            return ((WorkflowProcessImpl) process).getEventDispatchTable();
+        }
+        return new EventDispatchTable(process.getNodes());
+    }
+
     private Function<String, String> getResolver(Node node, List<NodeInstance> currentView) {
         if (node instanceof DynamicNode) {
             // special handling for dynamic node to allow to resolve variables from individual node instances of the dynamic node
@@ -708,6 +769,7 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         Map<String, List<EventListener>> eventListeners = external ? this.externalEventListeners : this.eventListeners;
         List<EventListener> listeners = eventListeners.computeIfAbsent(type, listenerType -> {
             final List<EventListener> newListenersList = new CopyOnWriteArrayList<>();
+            listenerEventTypes.merge(listenerType, 1, Integer::sum);
             if (external) {
                 ((InternalProcessRuntime) getKnowledgeRuntime().getProcessRuntime())
                         .getSignalManager().addEventListener(listenerType, this);
@@ -725,16 +787,19 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
             listeners.remove(listener);
             if (listeners.isEmpty()) {
                 eventListeners.remove(type);
+                unsubscribe(type);
                 if (external) {
                     ((InternalProcessRuntime) getKnowledgeRuntime().getProcessRuntime())
                             .getSignalManager().removeEventListener(type, this);
                 }
             }
-        } else {
-            eventListeners.remove(type);
         }
     }
 
+    private void unsubscribe(String type) {
+        listenerEventTypes.computeIfPresent(type, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
     private void removeEventListeners() {
         for (String type : externalEventListeners.keySet()) {
             ((InternalProcessRuntime) getKnowledgeRuntime().getProcessRuntime())
@@ -747,6 +812,37 @@ public abstract class WorkflowProcessInstanceImpl extends ProcessInstanceImpl im
         return externalEventListeners.keySet().stream().map(this::resolveVariable).collect(Collectors.toList()).toArray(new String[externalEventListeners.size()]);
     }
     
+    /**
+     * Returns the types of the events this process instance may react to, including the ones
+     * resolved from its variables, or <code>null</code> if it may react to any event.
+     * Stores use them to only signal process instances that wait for an event.
+     * <p>
+     * The types of the registered listeners are kept as listeners are added and removed, the ones
+     * of the nodes signaled regardless of having listeners are known once per process definition.
+     */
+    public Set<String> getEventSubscriptions() {
+        WorkflowProcess process = getWorkflowProcess();
+        Set<String> nodeEventTypes = process instanceof WorkflowProcessImpl ?
+                ((WorkflowProcessImpl) process).getNodeEventTypes() :
+                WorkflowProcessImpl.nodeEventTypes((org.jbpm.workflow.core.WorkflowProcess) process);
+        if (nodeEventTypes == null) {
+            return null;
+        }
+        Set<String> subscriptions = new HashSet<>();
+        addEventSubscriptions(subscriptions, listenerEventTypes.keySet());
+        addEventSubscriptions(subscriptions, nodeEventTypes);
+        return subscriptions;
+    }
+
+    private void addEventSubscriptions(Set<String> subscriptions, Collection<String> types) {
+        for (String type : types) {
+            subscriptions.add(type);
+            if (isVariableExpression(type)) {
+                subscriptions.add(resolveVariable(type));
+            }
+        }
+    }
+
     @Override
     public Set<EventDescription<?>> getEventDescriptions() {
         if (getState() == ProcessInstance.STATE_COMPLETED || getState() == ProcessInstance.STATE_ABORTED) {
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.jbpm.process.core.timer.DateTimeUtils;
 import org.jbpm.process.core.timer.Timer;
@@ -123,7 +124,9 @@ public abstract class AbstractProcess<T extends Model> implements Process<T> {
 
     @Override
     public <S> void send(Signal<S> signal) {
-        instances().values(ProcessInstanceReadMode.MUTABLE).forEach(pi -> pi.send(signal));
+        try (Stream<ProcessInstance<T>> stream = instances().waitingFor(signal.channel(), ProcessInstanceReadMode.MUTABLE)) {
+            stream.forEach(pi -> pi.send(signal));
+        }
     }
 
     public Process<T> configure() {
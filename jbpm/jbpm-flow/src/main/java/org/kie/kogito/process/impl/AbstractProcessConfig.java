@@ -29,6 +29,8 @@ import org.kie.kogito.jobs.JobsService;
 import org.kie.kogito.process.ProcessConfig;
 import org.kie.kogito.process.ProcessEventListenerConfig;
 import org.kie.kogito.process.WorkItemHandlerConfig;
+import org.kie.kogito.services.event.impl.AsyncPublishingConfig;
+import org.kie.kogito.services.event.impl.BaseEventManager;
 import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
 import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
 import org.kie.kogito.signal.SignalManagerHub;
@@ -51,12 +53,30 @@ public abstract class AbstractProcessConfig implements ProcessConfig {
             Iterable<JobsService> jobsService,
             Iterable<EventPublisher> eventPublishers,
             String kogitoService) {
+        this(workItemHandlerConfig, processEventListenerConfigs, processEventListeners, unitOfWorkManager, jobsService,
+             eventPublishers, kogitoService, null);
+    }
+
+    /**
+     * @param asyncPublishing publishes events asynchronously with the default unit of work manager
+     *        when not <code>null</code>, a given unit of work manager keeps its own event manager
+     */
+    protected AbstractProcessConfig(
+            Iterable<WorkItemHandlerConfig> workItemHandlerConfig,
+            Iterable<ProcessEventListenerConfig> processEventListenerConfigs,
+            Iterable<ProcessEventListener> processEventListeners,
+            Iterable<UnitOfWorkManager> unitOfWorkManager,
+            Iterable<JobsService> jobsService,
+            Iterable<EventPublisher> eventPublishers,
+            String kogitoService,
+            AsyncPublishingConfig asyncPublishing) {
 
         this.workItemHandlerConfig = orDefault(workItemHandlerConfig, DefaultWorkItemHandlerConfig::new);
         this.processEventListenerConfig = merge(processEventListenerConfigs, processEventListeners);
         this.unitOfWorkManager = orDefault(unitOfWorkManager,
                                            () -> new DefaultUnitOfWorkManager(
-                                                   new CollectingUnitOfWorkFactory()));
+                                                   new CollectingUnitOfWorkFactory(),
+                                                   asyncPublishing == null ? new BaseEventManager() : new BaseEventManager(asyncPublishing)));
         this.jobsService = orDefault(jobsService, () -> null);
 
         eventPublishers.forEach(publisher -> unitOfWorkManager().eventManager().addPublisher(publisher));
@@ -88,6 +108,14 @@ public abstract class AbstractProcessConfig implements ProcessConfig {
         return jobsService;
     }
 
+    /**
+     * Returns the type of the in memory jobs service processes use when no jobs service is given,
+     * <code>null</code> to read it from the system properties, see {@link org.kie.services.jobs.impl.InMemoryJobService#create}.
+     */
+    public String inMemoryJobsType() {
+        return null;
+    }
+
     public org.kie.kogito.Addons addons() {
         return new org.kie.kogito.Addons(Arrays.asList());
     }
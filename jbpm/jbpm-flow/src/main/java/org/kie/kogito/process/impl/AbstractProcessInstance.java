@@ -79,6 +79,8 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
 
     protected Supplier<WorkflowProcessInstance> reloadSupplier;
 
+    protected long version;
+
     protected CompletionEventListener completionEventListener;
 
     public AbstractProcessInstance(AbstractProcess<T> process, T variables, ProcessRuntime rt) {
@@ -268,6 +270,18 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
         return this.id;
     }
 
+    /**
+     * Version of the stored process instance this instance was loaded from or last stored as,
+     * used by stores to detect concurrent updates.
+     */
+    public long version() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String businessKey() {
         return this.correlationKey == null ? null : this.correlationKey.getName();
@@ -319,7 +333,9 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
         if (referenceId != null) {
             processInstance.setReferenceId(referenceId);
         }
-        triggerNode(nodeId);
+        trigger(nodeId);
+        // stored for the first time, as when started
+        addToUnitOfWork(pi -> ((MutableProcessInstances<T>) process.instances()).create(pi.id(), pi));
         unbind(variables, processInstance.getVariables());
         if (processInstance != null) {
             this.status = processInstance.getState();
@@ -328,6 +344,11 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
 
     @Override
     public void triggerNode(String nodeId) {
+        trigger(nodeId);
+        addToUnitOfWork(pi -> ((MutableProcessInstances<T>) process.instances()).update(pi.id(), pi));
+    }
+
+    private void trigger(String nodeId) {
         WorkflowProcessInstance wfpi = processInstance();
         RuleFlowProcess rfp = ((RuleFlowProcess) wfpi.getProcess());
 
@@ -340,8 +361,6 @@ public abstract class AbstractProcessInstance<T extends Model> implements Proces
         NodeInstanceContainer nodeInstanceContainerNode = parentNode == null ? wfpi : ((NodeInstanceContainer) wfpi.getNodeInstance(parentNode));
 
         nodeInstanceContainerNode.getNodeInstance(node).trigger(null, org.jbpm.workflow.core.Node.CONNECTION_DEFAULT_TYPE);
-
-        addToUnitOfWork(pi -> ((MutableProcessInstances<T>) process.instances()).update(pi.id(), pi));
     }
 
     @Override
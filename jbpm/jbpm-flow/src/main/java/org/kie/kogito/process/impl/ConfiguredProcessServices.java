@@ -20,12 +20,19 @@ import org.kie.kogito.process.ProcessConfig;
 
 public class ConfiguredProcessServices extends AbstractProcessRuntimeServiceProvider {
 
+    private final String inMemoryJobsType;
+
     public ConfiguredProcessServices(ProcessConfig config) {
         super(config.jobsService(),
               config.workItemHandlers(),
               config.processEventListeners(),
               config.signalManagerHub(),
               config.unitOfWorkManager());
+        this.inMemoryJobsType = config instanceof AbstractProcessConfig ? ((AbstractProcessConfig) config).inMemoryJobsType() : null;
+    }
 
+    @Override
+    public String getInMemoryJobsType() {
+        return inMemoryJobsType;
     }
 }
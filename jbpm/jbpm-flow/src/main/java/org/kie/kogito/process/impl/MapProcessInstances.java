@@ -16,8 +16,11 @@
 package org.kie.kogito.process.impl;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
@@ -27,12 +30,19 @@ import org.kie.kogito.process.ProcessInstanceReadMode;
 class MapProcessInstances<T> implements MutableProcessInstances<T> {
 
     private final ConcurrentHashMap<String, ProcessInstance<T>> instances = new ConcurrentHashMap<>();
+    private final ProcessInstanceStatusIndex statusIndex = new ProcessInstanceStatusIndex();
+    private final ProcessInstanceSubscriptionIndex subscriptionIndex = new ProcessInstanceSubscriptionIndex();
 
     @Override
     public Integer size() {
         return instances.size();
     }
 
+    @Override
+    public Map<Integer, Integer> countByStatus() {
+        return statusIndex.countByStatus();
+    }
+
     @Override
     public Optional<ProcessInstance<T>> findById(String id, ProcessInstanceReadMode mode) {
         return Optional.ofNullable(instances.get(id));
@@ -43,6 +53,18 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
         return instances.values();
     }
 
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return instances.values().stream();
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> waitingFor(String eventType, ProcessInstanceReadMode mode) {
+        return subscriptionIndex.subscribers(eventType).stream()
+                .map(instances::get)
+                .filter(Objects::nonNull);
+    }
+
     @Override
     public void create(String id, ProcessInstance<T> instance) {
         if (isActive(instance)) {
@@ -50,6 +72,8 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
             if (existing != null) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
+            statusIndex.update(id, instance.status());
+            subscriptionIndex.update(id, ProcessInstanceSubscriptionIndex.subscriptions(instance));
         }
     }
 
@@ -57,12 +81,16 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
     public void update(String id, ProcessInstance<T> instance) {
         if (isActive(instance)) {
             instances.put(id, instance);
+            statusIndex.update(id, instance.status());
+            subscriptionIndex.update(id, ProcessInstanceSubscriptionIndex.subscriptions(instance));
         }
     }
 
     @Override
     public void remove(String id) {
         instances.remove(id);
+        statusIndex.remove(id);
+        subscriptionIndex.remove(id);
     }
 
     @Override
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Incrementally maintained index of the status of stored process instances, so that
+ * stores can count them without scanning the storage.
+ * Stores are expected to keep it up to date on every create, update and remove.
+ */
+public class ProcessInstanceStatusIndex {
+
+    private final ConcurrentHashMap<String, Integer> statuses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    public void update(String id, int status) {
+        statuses.compute(id, (key, previous) -> {
+            if (previous != null) {
+                counter(previous).decrementAndGet();
+            }
+            counter(status).incrementAndGet();
+            return status;
+        });
+    }
+
+    public void remove(String id) {
+        statuses.computeIfPresent(id, (key, previous) -> {
+            counter(previous).decrementAndGet();
+            return null;
+        });
+    }
+
+    public boolean contains(String id) {
+        return statuses.containsKey(id);
+    }
+
+    public int size() {
+        return statuses.size();
+    }
+
+    public Map<Integer, Integer> countByStatus() {
+        Map<Integer, Integer> result = new HashMap<>();
+        counts.forEach((status, count) -> {
+            int value = count.get();
+            if (value > 0) {
+                result.put(status, value);
+            }
+        });
+        return result;
+    }
+
+    public void clear() {
+        statuses.clear();
+        counts.clear();
+    }
+
+    private AtomicInteger counter(int status) {
+        return counts.computeIfAbsent(status, key -> new AtomicInteger());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jbpm.workflow.instance.impl.WorkflowProcessInstanceImpl;
+import org.kie.kogito.process.ProcessInstance;
+
+/**
+ * Incrementally maintained index of the event types stored process instances wait for, so
+ * that stores can look up the process instances to signal without loading all of them.
+ * Stores are expected to keep it up to date on every create, update and remove.
+ * <p>
+ * Process instances whose subscriptions are unknown, <code>null</code>, are subscribed to all
+ * event types.
+ */
+public class ProcessInstanceSubscriptionIndex {
+
+    private final ConcurrentHashMap<String, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> subscribers = new ConcurrentHashMap<>();
+    private final Set<String> subscribedToAll = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the event types given process instance waits for, or <code>null</code> if unknown.
+     */
+    public static Set<String> subscriptions(ProcessInstance<?> instance) {
+        if (instance instanceof AbstractProcessInstance) {
+            Object processInstance = ((AbstractProcessInstance<?>) instance).internalGetProcessInstance();
+            if (processInstance instanceof WorkflowProcessInstanceImpl) {
+                return ((WorkflowProcessInstanceImpl) processInstance).getEventSubscriptions();
+            }
+        }
+        return null;
+    }
+
+    public void update(String id, Set<String> eventTypes) {
+        subscriptions.compute(id, (key, previous) -> {
+            Set<String> current = eventTypes == null ? null : Collections.unmodifiableSet(new HashSet<>(eventTypes));
+            if (previous == null) {
+                subscribedToAll.remove(id);
+            } else {
+                previous.stream().filter(type -> current == null || !current.contains(type)).forEach(type -> unsubscribe(type, id));
+            }
+            if (current == null) {
+                subscribedToAll.add(id);
+                return null;
+            }
+            current.stream().filter(type -> previous == null || !previous.contains(type)).forEach(type -> subscribe(type, id));
+            return current;
+        });
+    }
+
+    public void remove(String id) {
+        subscriptions.compute(id, (key, previous) -> {
+            if (previous != null) {
+                previous.forEach(type -> unsubscribe(type, id));
+            }
+            subscribedToAll.remove(id);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the ids of the process instances that may wait for given event type.
+     */
+    public Set<String> subscribers(String eventType) {
+        Set<String> result = new HashSet<>(subscribedToAll);
+        Set<String> ids = subscribers.get(eventType);
+        if (ids != null) {
+            result.addAll(ids);
+        }
+        return result;
+    }
+
+    public void clear() {
+        subscriptions.clear();
+        subscribers.clear();
+        subscribedToAll.clear();
+    }
+
+    private void subscribe(String type, String id) {
+        subscribers.compute(type, (key, ids) -> {
+            Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(id);
+            return result;
+        });
+    }
+
+    private void unsubscribe(String type, String id) {
+        subscribers.computeIfPresent(type, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
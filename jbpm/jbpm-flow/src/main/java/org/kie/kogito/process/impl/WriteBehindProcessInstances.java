@@ -0,0 +1,422 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind stage in front of another {@link MutableProcessInstances}.
+ * <p>
+ * Updates and removals are queued and coalesced by process instance id, then flushed to the
+ * underlying store in bulk (see {@link MutableProcessInstances#updateAll(Map)}) by a background
+ * thread, every <code>flushInterval</code> or as soon as the queue reaches <code>maxQueueDepth</code>.
+ * Creations are always written through so that duplicates are detected by the store.
+ * <p>
+ * Reads never flush. An instance with queued writes is read from the queue, so that readers see
+ * their own writes, while sizes and counts reflect the underlying store as of the last flush.
+ * <p>
+ * A write that conflicts with a newer version in the store is dropped and reported to the
+ * {@link FailedWriteListener}. Any other failing write is quarantined: it is kept aside, still
+ * visible to reads, and not written again until {@link #retryQuarantined()} is called or the
+ * instance is updated again.
+ * <p>
+ * Process instances handed to {@link #update(String, ProcessInstance)} are marshalled when
+ * the queue is flushed, hence they must not be further modified by the caller outside of
+ * a new unit of work.
+ */
+public class WriteBehindProcessInstances<T> implements MutableProcessInstances<T>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindProcessInstances.class);
+
+    /**
+     * Told about the queued writes that could not be stored, on the flushing thread.
+     */
+    public interface FailedWriteListener<T> {
+
+        /**
+         * The write of given process instance conflicted with a newer version in the store and was dropped.
+         */
+        void onConflict(String id, ProcessInstance<T> instance);
+
+        /**
+         * The write of given process instance failed and was quarantined, a null instance being a removal.
+         */
+        void onQuarantine(String id, ProcessInstance<T> instance, RuntimeException cause);
+    }
+
+    private final MutableProcessInstances<T> delegate;
+    private final int maxQueueDepth;
+    private final FailedWriteListener<T> listener;
+    private final ScheduledExecutorService scheduler;
+
+    // a null value is a queued removal
+    private Map<String, ProcessInstance<T>> pending = new LinkedHashMap<>();
+    private Map<String, ProcessInstance<T>> inFlight = new LinkedHashMap<>();
+    private final Map<String, ProcessInstance<T>> quarantined = new LinkedHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong failedFlushCount = new AtomicLong();
+    private final AtomicLong flushedWrites = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong quarantinedWrites = new AtomicLong();
+    private final AtomicLong lastFlushLatency = new AtomicLong();
+
+    public WriteBehindProcessInstances(MutableProcessInstances<T> delegate, Duration flushInterval, int maxQueueDepth) {
+        this(delegate, flushInterval, maxQueueDepth, new LoggingFailedWriteListener<>());
+    }
+
+    public WriteBehindProcessInstances(MutableProcessInstances<T> delegate, Duration flushInterval, int maxQueueDepth, FailedWriteListener<T> listener) {
+        if (maxQueueDepth <= 0) {
+            throw new IllegalArgumentException("Max queue depth must be greater than zero");
+        }
+        this.delegate = delegate;
+        this.maxQueueDepth = maxQueueDepth;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kogito-write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<ProcessInstance<T>> findById(String id, ProcessInstanceReadMode mode) {
+        synchronized (this) {
+            if (isQueued(id)) {
+                return Optional.ofNullable(queued(id));
+            }
+        }
+        return delegate.findById(id, mode);
+    }
+
+    @Override
+    public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode) {
+        return withQueued(delegate.values(mode).stream()).collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode, int offset, int limit) {
+        return withQueued(delegate.values(mode, offset, limit).stream()).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return withQueued(delegate.stream(mode));
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> waitingFor(String eventType, ProcessInstanceReadMode mode) {
+        return withQueued(delegate.waitingFor(eventType, mode));
+    }
+
+    @Override
+    public Integer size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Map<Integer, Integer> countByStatus() {
+        return delegate.countByStatus();
+    }
+
+    @Override
+    public boolean exists(String id) {
+        synchronized (this) {
+            if (isQueued(id)) {
+                return queued(id) != null;
+            }
+        }
+        return delegate.exists(id);
+    }
+
+    @Override
+    public void create(String id, ProcessInstance<T> instance) {
+        boolean queued;
+        synchronized (this) {
+            if (isQueued(id) && queued(id) != null) {
+                throw new ProcessInstanceDuplicatedException(id);
+            }
+            queued = isQueued(id);
+        }
+        if (queued) {
+            // a removal of the same id is still queued
+            flush();
+        }
+        delegate.create(id, instance);
+        synchronized (this) {
+            quarantined.remove(id);
+        }
+    }
+
+    @Override
+    public void update(String id, ProcessInstance<T> instance) {
+        enqueue(id, instance);
+    }
+
+    @Override
+    public void remove(String id) {
+        enqueue(id, null);
+    }
+
+    /**
+     * Writes all queued updates and removals to the underlying store, waiting for any
+     * flush already in progress to complete first. Writes that fail are reported to the
+     * {@link FailedWriteListener}, never to the caller.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                inFlight = pending;
+                pending = new LinkedHashMap<>();
+            }
+            long start = System.nanoTime();
+            long failures = conflicts.get() + quarantinedWrites.get();
+            try {
+                write(inFlight);
+            } finally {
+                synchronized (this) {
+                    inFlight = new LinkedHashMap<>();
+                }
+                if (conflicts.get() + quarantinedWrites.get() != failures) {
+                    failedFlushCount.incrementAndGet();
+                }
+                flushCount.incrementAndGet();
+                lastFlushLatency.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Queues the quarantined writes again, for instance once the underlying store is back.
+     */
+    public synchronized void retryQuarantined() {
+        // newer writes queued in the meantime take precedence over the quarantined ones
+        quarantined.forEach(pending::putIfAbsent);
+        quarantined.clear();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        flush();
+    }
+
+    public synchronized int queueDepth() {
+        return pending.size();
+    }
+
+    public int maxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public synchronized Set<String> quarantined() {
+        return new HashSet<>(quarantined.keySet());
+    }
+
+    public long flushCount() {
+        return flushCount.get();
+    }
+
+    public long failedFlushCount() {
+        return failedFlushCount.get();
+    }
+
+    public long flushedWrites() {
+        return flushedWrites.get();
+    }
+
+    public long coalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    public long conflicts() {
+        return conflicts.get();
+    }
+
+    public long quarantinedWrites() {
+        return quarantinedWrites.get();
+    }
+
+    public long lastFlushLatency() {
+        return lastFlushLatency.get();
+    }
+
+    protected void enqueue(String id, ProcessInstance<T> instance) {
+        boolean full;
+        synchronized (this) {
+            if (pending.containsKey(id)) {
+                coalescedWrites.incrementAndGet();
+            }
+            pending.put(id, instance);
+            quarantined.remove(id);
+            full = pending.size() >= maxQueueDepth;
+        }
+        if (full && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // closed, the writes are flushed by close
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    protected void write(Map<String, ProcessInstance<T>> writes) {
+        Map<String, ProcessInstance<T>> updates = new LinkedHashMap<>();
+        List<String> removals = new ArrayList<>();
+        writes.forEach((id, instance) -> {
+            if (instance == null) {
+                removals.add(id);
+            } else {
+                updates.put(id, instance);
+            }
+        });
+        if (!updates.isEmpty()) {
+            try {
+                delegate.updateAll(updates);
+                flushedWrites.addAndGet(updates.size());
+            } catch (ProcessInstanceOptimisticLockingException e) {
+                // all the other writes were applied, the conflicting ones would never succeed
+                flushedWrites.addAndGet(updates.size() - e.getProcessInstanceIds().size());
+                e.getProcessInstanceIds().forEach(id -> conflict(id, updates.get(id)));
+            } catch (RuntimeException e) {
+                // the batch failed as a whole, writing each on its own sets aside only the failing ones
+                LOGGER.warn("Unable to write {} process instances at once, writing them one by one", updates.size(), e);
+                updates.forEach(this::write);
+            }
+        }
+        removals.forEach(id -> write(id, null));
+    }
+
+    private void write(String id, ProcessInstance<T> instance) {
+        try {
+            if (instance == null) {
+                delegate.remove(id);
+            } else {
+                delegate.update(id, instance);
+            }
+            flushedWrites.incrementAndGet();
+        } catch (ProcessInstanceOptimisticLockingException e) {
+            conflict(id, instance);
+        } catch (RuntimeException e) {
+            quarantine(id, instance, e);
+        }
+    }
+
+    private void conflict(String id, ProcessInstance<T> instance) {
+        conflicts.incrementAndGet();
+        try {
+            listener.onConflict(id, instance);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error reporting the conflicting write of process instance {}", id, e);
+        }
+    }
+
+    private void quarantine(String id, ProcessInstance<T> instance, RuntimeException cause) {
+        quarantinedWrites.incrementAndGet();
+        synchronized (this) {
+            // a newer write queued in the meantime supersedes the failed one
+            if (!pending.containsKey(id)) {
+                quarantined.put(id, instance);
+            }
+        }
+        try {
+            listener.onQuarantine(id, instance, cause);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error reporting the quarantined write of process instance {}", id, e);
+        }
+    }
+
+    private boolean isQueued(String id) {
+        return pending.containsKey(id) || inFlight.containsKey(id) || quarantined.containsKey(id);
+    }
+
+    private ProcessInstance<T> queued(String id) {
+        if (pending.containsKey(id)) {
+            return pending.get(id);
+        }
+        if (inFlight.containsKey(id)) {
+            return inFlight.get(id);
+        }
+        return quarantined.get(id);
+    }
+
+    private Stream<ProcessInstance<T>> withQueued(Stream<ProcessInstance<T>> stored) {
+        return stored.map(instance -> {
+            synchronized (this) {
+                return isQueued(instance.id()) ? queued(instance.id()) : instance;
+            }
+        }).filter(instance -> instance != null);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.error("Unable to flush {} queued process instance writes", queueDepth(), e);
+        }
+    }
+
+    private static class LoggingFailedWriteListener<T> implements FailedWriteListener<T> {
+
+        @Override
+        public void onConflict(String id, ProcessInstance<T> instance) {
+            LOGGER.warn("Process instance {} was changed in the store meanwhile, its queued write is dropped", id);
+        }
+
+        @Override
+        public void onQuarantine(String id, ProcessInstance<T> instance, RuntimeException cause) {
+            LOGGER.error("Unable to write process instance {}, its write is quarantined until retried", id, cause);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import java.time.Duration;
+
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstancesFactory;
+
+/**
+ * Decorates the process instances created by another factory with a {@link WriteBehindProcessInstances} stage.
+ * <p>
+ * Generated processes use it when the application is built with <code>kogito.persistence.write-behind=true</code>,
+ * the flush interval and the queue depth are then read from system properties.
+ */
+public class WriteBehindProcessInstancesFactory implements ProcessInstancesFactory {
+
+    public static final String FLUSH_INTERVAL_PROPERTY = "kogito.persistence.write-behind.flush-interval";
+    public static final String MAX_QUEUE_DEPTH_PROPERTY = "kogito.persistence.write-behind.max-queue-depth";
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(50);
+    public static final int DEFAULT_MAX_QUEUE_DEPTH = 500;
+
+    private final ProcessInstancesFactory delegate;
+    private final Duration flushInterval;
+    private final int maxQueueDepth;
+
+    public WriteBehindProcessInstancesFactory(ProcessInstancesFactory delegate) {
+        this(delegate,
+             Duration.ofMillis(Long.getLong(FLUSH_INTERVAL_PROPERTY, DEFAULT_FLUSH_INTERVAL.toMillis())),
+             Integer.getInteger(MAX_QUEUE_DEPTH_PROPERTY, DEFAULT_MAX_QUEUE_DEPTH));
+    }
+
+    public WriteBehindProcessInstancesFactory(ProcessInstancesFactory delegate, Duration flushInterval, int maxQueueDepth) {
+        this.delegate = delegate;
+        this.flushInterval = flushInterval;
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Override
+    public MutableProcessInstances<?> createProcessInstances(Process<?> process) {
+        return new WriteBehindProcessInstances(delegate.createProcessInstances(process), flushInterval, maxQueueDepth);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl.marshalling;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, least recently used, cache of the last marshalled snapshot of process instances.
+ * <p>
+ * Stores put the snapshot they just wrote, together with its stored version, or get back a local
+ * version that identifies that write when the store does not version process instances itself.
+ * Process instances disconnected after being stored can then be reloaded from the snapshot
+ * instead of reading it back from the store, as long as no other write of the same process
+ * instance happened in between.
+ *
+ * @param <S> type of the marshalled snapshot, e.g. <code>byte[]</code>
+ */
+public class ProcessInstanceSnapshotCache<S> {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<String, Snapshot<S>> snapshots;
+
+    public ProcessInstanceSnapshotCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public ProcessInstanceSnapshotCache(int maxSize) {
+        this.snapshots = new LinkedHashMap<String, Snapshot<S>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot<S>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Caches the given snapshot, replacing any previous one of the same process instance.
+     * @return the version of the cached snapshot
+     */
+    public long put(String id, S snapshot) {
+        long version = versions.incrementAndGet();
+        synchronized (snapshots) {
+            snapshots.put(id, new Snapshot<>(version, snapshot));
+        }
+        return version;
+    }
+
+    /**
+     * Caches the given snapshot stored with the given version, replacing any previous one of the same process instance.
+     */
+    public void put(String id, long version, S snapshot) {
+        synchronized (snapshots) {
+            snapshots.put(id, new Snapshot<>(version, snapshot));
+        }
+    }
+
+    /**
+     * Invalidates the cached snapshot of the given process instance if the store reports a newer version of it.
+     */
+    public void invalidateIfOlder(String id, long storedVersion) {
+        synchronized (snapshots) {
+            Snapshot<S> snapshot = snapshots.get(id);
+            if (snapshot != null && snapshot.version < storedVersion) {
+                snapshots.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached snapshot of the given process instance only if it still is
+     * the one of the given version.
+     */
+    public Optional<S> get(String id, long version) {
+        synchronized (snapshots) {
+            Snapshot<S> snapshot = snapshots.get(id);
+            if (snapshot == null || snapshot.version != version) {
+                return Optional.empty();
+            }
+            return Optional.of(snapshot.data);
+        }
+    }
+
+    public void invalidate(String id) {
+        synchronized (snapshots) {
+            snapshots.remove(id);
+        }
+    }
+
+    public int size() {
+        synchronized (snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    private static class Snapshot<S> {
+
+        private final long version;
+        private final S data;
+
+        private Snapshot(long version, S data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jbpm.workflow.core.impl;
+
+import org.jbpm.process.core.event.BroadcastEventTypeFilter;
+import org.jbpm.process.core.event.EventTypeFilter;
+import org.jbpm.workflow.core.node.ActionNode;
+import org.jbpm.workflow.core.node.BoundaryEventNode;
+import org.jbpm.workflow.core.node.CompositeNode;
+import org.jbpm.workflow.core.node.EventNode;
+import org.jbpm.workflow.core.node.EventSubProcessNode;
+import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.Node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventDispatchTableTest {
+
+    private static EventNode eventNode(EventNode node, long id, EventTypeFilter filter) {
+        node.setId(id);
+        node.addEventFilter(filter);
+        return node;
+    }
+
+    private static EventTypeFilter filter(EventTypeFilter filter, String type) {
+        filter.setType(type);
+        return filter;
+    }
+
+    @Test
+    public void testStaticEventTypes() {
+        EventNode signal = eventNode(new EventNode(), 1, filter(new EventTypeFilter(), "signal"));
+        EventNode boundary = eventNode(new BoundaryEventNode(), 2, filter(new EventTypeFilter(), "Timer-1"));
+        ActionNode action = new ActionNode();
+        action.setId(3);
+        EventSubProcessNode subProcess = new EventSubProcessNode();
+        subProcess.setId(4);
+        subProcess.addEvent(filter(new EventTypeFilter(), "Error-1"));
+        subProcess.addNode(eventNode(new EventNode(), 5, filter(new EventTypeFilter(), "nested")));
+
+        EventDispatchTable table = new EventDispatchTable(new Node[]{signal, boundary, action, subProcess});
+        assertThat(table.candidates("signal")).containsExactly(signal);
+        assertThat(table.candidates("Timer-1")).containsExactly(boundary);
+        assertThat(table.candidates("Error-1")).containsExactly(subProcess);
+        assertThat(table.candidates("nested")).containsExactly(subProcess);
+        assertThat(table.candidates("unknown")).isEmpty();
+        assertThat(table.isStatic(signal)).isTrue();
+        assertThat(table.isStatic(subProcess)).isTrue();
+    }
+
+    @Test
+    public void testDynamicEventTypes() {
+        EventNode signal = eventNode(new EventNode(), 1, filter(new EventTypeFilter(), "signal"));
+        EventNode expression = eventNode(new EventNode(), 2, filter(new EventTypeFilter(), "Message-#{name}"));
+        EventNode broadcast = eventNode(new EventNode(), 3, filter(new BroadcastEventTypeFilter(), "prefix"));
+        CompositeNode composite = new CompositeNode();
+        composite.setId(4);
+        composite.addNode(eventNode(new EventNode(), 5, filter(new EventTypeFilter(), "#{name}")));
+
+        EventDispatchTable table = new EventDispatchTable(new Node[]{expression, signal, broadcast, composite});
+        assertThat(table.candidates("signal")).containsExactly(expression, signal, broadcast, composite);
+        assertThat(table.candidates("unknown")).containsExactly(expression, broadcast, composite);
+        assertThat(table.isStatic(signal)).isTrue();
+        assertThat(table.isStatic(expression)).isFalse();
+        assertThat(table.isStatic(broadcast)).isFalse();
+        assertThat(table.isStatic(composite)).isFalse();
+    }
+
+    @Test
+    public void testNestedNodeChangesClearProcessTable() {
+        CompositeNode outer = new CompositeNode();
+        outer.setId(1);
+        CompositeNode inner = new CompositeNode();
+        inner.setId(2);
+        outer.addNode(inner);
+        WorkflowProcessImpl process = new WorkflowProcessImpl();
+        process.addNode(outer);
+        process.buildEventDispatchTable();
+        assertThat(process.getEventDispatchTable().candidates("late")).isEmpty();
+
+        EventNode late = eventNode(new EventNode(), 3, filter(new EventTypeFilter(), "late"));
+        inner.addNode(late);
+        assertThat(process.getEventDispatchTable().candidates("late")).containsExactly(outer);
+
+        inner.removeNode(late);
+        assertThat(process.getEventDispatchTable().candidates("late")).isEmpty();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.kie.kogito.process.ProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.process.ProcessInstance.STATE_ERROR;
+
+public class ProcessInstanceStatusIndexTest {
+
+    @Test
+    public void testUpdateMovesBetweenStatuses() {
+        ProcessInstanceStatusIndex index = new ProcessInstanceStatusIndex();
+        index.update("1", STATE_ACTIVE);
+        index.update("2", STATE_ACTIVE);
+        index.update("2", STATE_ACTIVE);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.countByStatus()).containsExactly(entry(STATE_ACTIVE, 2));
+
+        index.update("2", STATE_ERROR);
+        assertThat(index.countByStatus()).containsOnly(entry(STATE_ACTIVE, 1), entry(STATE_ERROR, 1));
+    }
+
+    @Test
+    public void testRemove() {
+        ProcessInstanceStatusIndex index = new ProcessInstanceStatusIndex();
+        index.update("1", STATE_ERROR);
+        index.remove("1");
+        index.remove("unknown");
+        assertThat(index.size()).isZero();
+        assertThat(index.contains("1")).isFalse();
+        assertThat(index.countByStatus()).isEmpty();
+    }
+}
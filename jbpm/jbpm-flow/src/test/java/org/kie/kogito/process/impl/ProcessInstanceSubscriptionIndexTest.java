@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessInstanceSubscriptionIndexTest {
+
+    @Test
+    public void testUpdateMovesBetweenEventTypes() {
+        ProcessInstanceSubscriptionIndex index = new ProcessInstanceSubscriptionIndex();
+        index.update("1", new HashSet<>(Arrays.asList("a", "b")));
+        index.update("2", Collections.singleton("b"));
+        assertThat(index.subscribers("a")).containsOnly("1");
+        assertThat(index.subscribers("b")).containsOnly("1", "2");
+        assertThat(index.subscribers("c")).isEmpty();
+
+        index.update("1", Collections.singleton("c"));
+        assertThat(index.subscribers("a")).isEmpty();
+        assertThat(index.subscribers("b")).containsOnly("2");
+        assertThat(index.subscribers("c")).containsOnly("1");
+    }
+
+    @Test
+    public void testUnknownSubscriptionsMatchAllEventTypes() {
+        ProcessInstanceSubscriptionIndex index = new ProcessInstanceSubscriptionIndex();
+        index.update("1", null);
+        index.update("2", Collections.singleton("a"));
+        assertThat(index.subscribers("a")).containsOnly("1", "2");
+        assertThat(index.subscribers("b")).containsOnly("1");
+
+        index.update("1", Collections.emptySet());
+        assertThat(index.subscribers("b")).isEmpty();
+    }
+
+    @Test
+    public void testRemove() {
+        ProcessInstanceSubscriptionIndex index = new ProcessInstanceSubscriptionIndex();
+        index.update("1", Collections.singleton("a"));
+        index.update("2", null);
+        index.remove("1");
+        index.remove("2");
+        index.remove("unknown");
+        assertThat(index.subscribers("a")).isEmpty();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.impl.WriteBehindProcessInstances.FailedWriteListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+public class WriteBehindProcessInstancesTest {
+
+    private MapProcessInstances<Object> delegate;
+    private WriteBehindProcessInstances<Object> instances;
+
+    @BeforeEach
+    public void setup() {
+        delegate = spy(new MapProcessInstances<>());
+        instances = new WriteBehindProcessInstances<>(delegate, Duration.ofHours(1), 3);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        instances.close();
+    }
+
+    @Test
+    public void testUpdatesAreCoalesced() {
+        ProcessInstance<Object> pi = activeInstance();
+        instances.update("1", pi);
+        instances.update("1", pi);
+
+        assertThat(instances.queueDepth()).isOne();
+        assertThat(instances.coalescedWrites()).isOne();
+        verify(delegate, never()).updateAll(anyMap());
+
+        instances.flush();
+
+        verify(delegate, times(1)).updateAll(anyMap());
+        verify(delegate, times(1)).update("1", pi);
+        assertThat(instances.queueDepth()).isZero();
+        assertThat(instances.flushCount()).isOne();
+        assertThat(instances.flushedWrites()).isOne();
+    }
+
+    @Test
+    public void testReadYourWritesWithoutFlushing() {
+        ProcessInstance<Object> pi = activeInstance();
+        instances.update("1", pi);
+
+        assertThat(instances.exists("1")).isTrue();
+        assertThat(instances.findById("1")).containsSame(pi);
+        assertThat(instances.queueDepth()).isOne();
+
+        instances.remove("1");
+        assertThat(instances.exists("1")).isFalse();
+        assertThat(instances.findById("1")).isEmpty();
+        assertThat(instances.size()).isZero();
+        verify(delegate, never()).updateAll(anyMap());
+    }
+
+    @Test
+    public void testQueuedWritesReplaceStoredInstances() {
+        ProcessInstance<Object> stored = activeInstance("1");
+        ProcessInstance<Object> queued = activeInstance("1");
+        delegate.create("1", stored);
+        delegate.create("2", activeInstance("2"));
+
+        instances.update("1", queued);
+        instances.remove("2");
+
+        assertThat(instances.values()).containsExactly(queued);
+        verify(delegate, never()).updateAll(anyMap());
+    }
+
+    @Test
+    public void testFlushWhenQueueIsFull() {
+        instances.update("1", activeInstance());
+        instances.update("2", activeInstance());
+        verify(delegate, never()).updateAll(anyMap());
+
+        instances.update("3", activeInstance());
+        verify(delegate, timeout(5000)).updateAll(anyMap());
+        // waits for the flush in progress
+        instances.flush();
+        assertThat(delegate.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testCreateIsWrittenThrough() {
+        ProcessInstance<Object> pi = activeInstance();
+        instances.create("1", pi);
+        assertThat(delegate.exists("1")).isTrue();
+
+        instances.update("2", pi);
+        assertThatExceptionOfType(ProcessInstanceDuplicatedException.class).isThrownBy(() -> instances.create("2", pi));
+    }
+
+    @Test
+    public void testConflictingWritesAreReported() {
+        FailedWriteListener<Object> listener = mock(FailedWriteListener.class);
+        instances.close();
+        instances = new WriteBehindProcessInstances<>(delegate, Duration.ofHours(1), 10, listener);
+        ProcessInstance<Object> first = activeInstance();
+        ProcessInstance<Object> second = activeInstance();
+        doThrow(new ProcessInstanceOptimisticLockingException("2")).when(delegate).update(eq("2"), any());
+        delegate.create("3", activeInstance());
+
+        instances.update("1", first);
+        instances.remove("3");
+        instances.update("2", second);
+        instances.flush();
+
+        verify(listener).onConflict("2", second);
+        assertThat(instances.queueDepth()).isZero();
+        assertThat(instances.conflicts()).isOne();
+        assertThat(instances.failedFlushCount()).isOne();
+        assertThat(instances.flushedWrites()).isEqualTo(2);
+        assertThat(delegate.exists("1")).isTrue();
+        assertThat(delegate.exists("3")).isFalse();
+
+        instances.flush();
+        verify(delegate, times(1)).updateAll(anyMap());
+        verify(delegate, times(1)).update("1", first);
+    }
+
+    @Test
+    public void testFailingWritesAreQuarantined() {
+        FailedWriteListener<Object> listener = mock(FailedWriteListener.class);
+        instances.close();
+        instances = new WriteBehindProcessInstances<>(delegate, Duration.ofHours(1), 10, listener);
+        ProcessInstance<Object> failing = activeInstance();
+        IllegalStateException failure = new IllegalStateException("store unavailable");
+        doThrow(failure).when(delegate).update(eq("2"), any());
+
+        instances.update("1", activeInstance());
+        instances.update("2", failing);
+        instances.flush();
+
+        verify(listener).onQuarantine("2", failing, failure);
+        assertThat(delegate.exists("1")).isTrue();
+        assertThat(instances.quarantined()).containsExactly("2");
+        assertThat(instances.quarantinedWrites()).isOne();
+        assertThat(instances.findById("2")).containsSame(failing);
+
+        // not written again until retried
+        instances.flush();
+        verify(delegate, times(2)).update(eq("2"), any());
+
+        doCallRealMethod().when(delegate).update(eq("2"), any());
+        instances.retryQuarantined();
+        instances.flush();
+        assertThat(instances.quarantined()).isEmpty();
+        assertThat(delegate.exists("2")).isTrue();
+    }
+
+    private ProcessInstance<Object> activeInstance(String id) {
+        ProcessInstance<Object> pi = activeInstance();
+        when(pi.id()).thenReturn(id);
+        return pi;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProcessInstance<Object> activeInstance() {
+        ProcessInstance<Object> pi = mock(ProcessInstance.class);
+        when(pi.status()).thenReturn(ProcessInstance.STATE_ACTIVE);
+        return pi;
+    }
+}
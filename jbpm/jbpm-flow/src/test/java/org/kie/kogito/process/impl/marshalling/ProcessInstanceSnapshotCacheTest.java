@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.process.impl.marshalling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessInstanceSnapshotCacheTest {
+
+    @Test
+    public void testSnapshotIsOnlyReturnedForItsVersion() {
+        ProcessInstanceSnapshotCache<String> cache = new ProcessInstanceSnapshotCache<>();
+        long first = cache.put("1", "first");
+        assertThat(cache.get("1", first)).contains("first");
+
+        long second = cache.put("1", "second");
+        assertThat(cache.get("1", first)).isEmpty();
+        assertThat(cache.get("1", second)).contains("second");
+
+        cache.invalidate("1");
+        assertThat(cache.get("1", second)).isEmpty();
+    }
+
+    @Test
+    public void testInvalidateWhenStoreHasNewerVersion() {
+        ProcessInstanceSnapshotCache<String> cache = new ProcessInstanceSnapshotCache<>();
+        cache.put("1", 2L, "stored");
+
+        cache.invalidateIfOlder("1", 2L);
+        assertThat(cache.get("1", 2L)).contains("stored");
+
+        cache.invalidateIfOlder("1", 3L);
+        assertThat(cache.get("1", 2L)).isEmpty();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        ProcessInstanceSnapshotCache<String> cache = new ProcessInstanceSnapshotCache<>(2);
+        long one = cache.put("1", "one");
+        long two = cache.put("2", "two");
+        cache.get("1", one);
+        cache.put("3", "three");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("1", one)).contains("one");
+        assertThat(cache.get("2", two)).isEmpty();
+    }
+}
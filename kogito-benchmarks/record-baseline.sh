@@ -0,0 +1,11 @@
+#!/bin/bash
+
+# Builds the benchmarks and records their results as the baseline to compare to.
+# JMH options given to the script are passed along, e.g. ProcessInstanceBenchmark to record a single benchmark.
+
+set -e
+
+cd `dirname $0`/..
+mvn clean package -Dbenchmarks -pl kogito-benchmarks -am -DskipTests
+mkdir -p kogito-benchmarks/baseline
+java -jar kogito-benchmarks/target/benchmarks.jar -rf json -rff kogito-benchmarks/baseline/results.json "$@"
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the JMH results written with <code>-rf json</code> to a baseline recorded the same way
+ * and exits with status 1 when any benchmark regressed by more than the threshold.
+ * <p>
+ * Usage: <code>BaselineComparator &lt;results.json&gt; [baseline.json] [threshold percentage]</code>
+ */
+public class BaselineComparator {
+
+    static final String DEFAULT_BASELINE = "baseline/results.json";
+    static final double DEFAULT_THRESHOLD = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: BaselineComparator <results.json> [baseline.json] [threshold percentage]");
+            System.exit(2);
+        }
+        Map<String, Score> results = read(new File(args[0]));
+        File baselineFile = new File(args.length > 1 ? args[1] : DEFAULT_BASELINE);
+        Map<String, Score> baseline = baselineFile.exists() ? read(baselineFile) : new TreeMap<>();
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        if (baseline.isEmpty()) {
+            System.out.println("No baseline recorded in " + baselineFile + ", record one with kogito-benchmarks/record-baseline.sh");
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("%-80s %12.3f %s (no baseline)%n", entry.getKey(), entry.getValue().value, entry.getValue().unit);
+                continue;
+            }
+            double change = entry.getValue().regression(expected);
+            boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %12.3f %s %+7.1f%%%s%n", entry.getKey(), entry.getValue().value, entry.getValue().unit,
+                              change, regressed ? " REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmarks regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            params.forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key.toString(), new Score(result.path("mode").asText(), metric.path("score").asDouble(), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    static class Score {
+
+        final String mode;
+        final double value;
+        final String unit;
+
+        Score(String mode, double value, String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.unit = unit;
+        }
+
+        /**
+         * Returns by how much this score is worse than given one, in percentage. Time based modes
+         * get worse when the score grows, throughput gets worse when it shrinks.
+         */
+        double regression(Score baseline) {
+            double change = (value - baseline.value) / baseline.value * 100;
+            return "thrpt".equals(mode) ? -change : change;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.benchmarks;
+
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.dmn.api.core.DMNResult;
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.dmn.DMNKogito;
+import org.kie.kogito.dmn.DmnDecisionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Evaluates all the decisions of a DMN model, once or several times in a row as a batch of
+ * requests would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DecisionBenchmark {
+
+    static final String NAMESPACE = "https://github.com/kiegroup/drools/kie-dmn/_A4BCA8B8-CF08-433F-93B2-A2598F19ECFF";
+    static final String NAME = "Traffic Violation";
+
+    @Param({"1", "100"})
+    public int evaluations;
+
+    private DecisionModel decisionModel;
+    private Map<String, Object> variables;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DMNRuntime runtime = DMNKogito.createGenericDMNRuntime(
+                new InputStreamReader(DecisionBenchmark.class.getResourceAsStream("/benchmarks/TrafficViolation.dmn")));
+        decisionModel = new DmnDecisionModel(runtime, NAMESPACE, NAME);
+
+        Map<String, Object> driver = new HashMap<>();
+        driver.put("Name", "John");
+        driver.put("Age", BigDecimal.valueOf(25));
+        driver.put("State", "Italy");
+        driver.put("City", "Milan");
+        driver.put("Points", BigDecimal.valueOf(13));
+        Map<String, Object> violation = new HashMap<>();
+        violation.put("Type", "speed");
+        violation.put("Speed Limit", BigDecimal.valueOf(100));
+        violation.put("Actual Speed", BigDecimal.valueOf(120));
+        variables = new HashMap<>();
+        variables.put("Driver", driver);
+        variables.put("Violation", violation);
+    }
+
+    @Benchmark
+    public void evaluateAll(Blackhole blackhole) {
+        for (int i = 0; i < evaluations; i++) {
+            DMNResult result = decisionModel.evaluateAll(decisionModel.newContext(variables));
+            blackhole.consume(result);
+        }
+    }
+}
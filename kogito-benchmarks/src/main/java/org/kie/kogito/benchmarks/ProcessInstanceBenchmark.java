@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.Sig;
+import org.kie.kogito.services.identity.StaticIdentityProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starts, signals and completes the work items of in memory process instances, while a number
+ * of other instances are waiting for signals of their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProcessInstanceBenchmark {
+
+    static final String SIGNAL = "benchmark";
+    static final SecurityPolicy POLICY = SecurityPolicy.of(new StaticIdentityProvider("john"));
+
+    @Param({"0", "100", "1000"})
+    public int activeInstances;
+
+    BpmnProcess userTaskProcess;
+    BpmnProcess signalProcess;
+
+    private final List<ProcessInstance<BpmnVariables>> background = new ArrayList<>();
+    private final List<ProcessInstance<BpmnVariables>> started = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        userTaskProcess = BpmnProcess.from(new ClassPathResource("benchmarks/BenchmarkUserTask.bpmn2")).get(0);
+        userTaskProcess.configure();
+        signalProcess = BpmnProcess.from(new ClassPathResource("benchmarks/BenchmarkSignal.bpmn2")).get(0);
+        signalProcess.configure();
+
+        for (int i = 0; i < activeInstances; i++) {
+            background.add(startSignalInstance("background-" + i));
+        }
+    }
+
+    /**
+     * Every iteration starts with only the background instances active, the instances started by
+     * the previous one are aborted.
+     */
+    @Setup(Level.Iteration)
+    public void clearStarted() {
+        abortStarted();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        abortStarted();
+        background.forEach(ProcessInstance::abort);
+        background.clear();
+    }
+
+    private void abortStarted() {
+        started.forEach(ProcessInstance::abort);
+        started.clear();
+    }
+
+    ProcessInstance<BpmnVariables> startSignalInstance(String signalName) {
+        ProcessInstance<BpmnVariables> instance = signalProcess.createInstance(
+                BpmnVariables.create(Collections.singletonMap("signalName", signalName)));
+        instance.start();
+        return instance;
+    }
+
+    @Benchmark
+    public ProcessInstance<BpmnVariables> start() {
+        ProcessInstance<BpmnVariables> instance = userTaskProcess.createInstance(BpmnVariables.create());
+        instance.start();
+        started.add(instance);
+        return instance;
+    }
+
+    @Benchmark
+    public void send(WaitingInstance waiting) {
+        signalProcess.send(Sig.of(SIGNAL, "value"));
+    }
+
+    @Benchmark
+    public void completeWorkItem(UserTaskInstance userTask) {
+        userTask.instance.completeWorkItem(userTask.workItemId, null, POLICY);
+    }
+
+    /**
+     * An instance waiting for the signal sent by the benchmark, started before each invocation.
+     */
+    @State(Scope.Thread)
+    public static class WaitingInstance {
+
+        ProcessInstance<BpmnVariables> instance;
+
+        @Setup(Level.Invocation)
+        public void setup(ProcessInstanceBenchmark benchmark) {
+            instance = benchmark.startSignalInstance(SIGNAL);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            if (instance.status() == ProcessInstance.STATE_ACTIVE) {
+                instance.abort();
+            }
+        }
+    }
+
+    /**
+     * An instance with an active user task, started before each invocation.
+     */
+    @State(Scope.Thread)
+    public static class UserTaskInstance {
+
+        ProcessInstance<BpmnVariables> instance;
+        String workItemId;
+
+        @Setup(Level.Invocation)
+        public void setup(ProcessInstanceBenchmark benchmark) {
+            instance = benchmark.userTaskProcess.createInstance(BpmnVariables.create());
+            instance.start();
+            workItemId = instance.workItems(POLICY).get(0).getId();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            if (instance.status() == ProcessInstance.STATE_ACTIVE) {
+                instance.abort();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.marshalling.ProcessInstanceMarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Marshalls and unmarshalls a process instance waiting on a user task, with a growing number of
+ * variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProcessInstanceMarshallerBenchmark {
+
+    @Param({"10", "1000"})
+    public int variables;
+
+    private final ProcessInstanceMarshaller marshaller = new ProcessInstanceMarshaller();
+
+    private BpmnProcess process;
+    private ProcessInstance<BpmnVariables> instance;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        process = BpmnProcess.from(new ClassPathResource("benchmarks/BenchmarkUserTask.bpmn2")).get(0);
+        process.configure();
+
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < variables; i++) {
+            values.put("variable-" + i, "value-" + i);
+        }
+        instance = process.createInstance(BpmnVariables.create(Collections.singletonMap("data", values)));
+        instance.start();
+        data = marshaller.marshallProcessInstance(instance);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        instance.abort();
+    }
+
+    @Benchmark
+    public byte[] marshal() {
+        return marshaller.marshallProcessInstance(instance);
+    }
+
+    @Benchmark
+    public ProcessInstance<?> unmarshal() {
+        return marshaller.unmarshallProcessInstance(data, process);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.kogito.app.Application;
+import org.kie.kogito.benchmarks.rules.AdultUnit;
+import org.kie.kogito.benchmarks.rules.Person;
+import org.kie.kogito.rules.RuleUnit;
+import org.kie.kogito.rules.RuleUnitInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates, fires and disposes instances of a rule unit generated at build time, as a rule unit
+ * endpoint does for every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RuleUnitBenchmark {
+
+    @Param({"10", "1000"})
+    public int persons;
+
+    private RuleUnit<AdultUnit> ruleUnit;
+    private final List<Person> data = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ruleUnit = new Application().ruleUnits().create(AdultUnit.class);
+        for (int i = 0; i < persons; i++) {
+            data.add(new Person("person-" + i, i % 40));
+        }
+    }
+
+    @Benchmark
+    public List<String> fire() {
+        AdultUnit unit = new AdultUnit();
+        data.forEach(unit.getPersons()::add);
+        RuleUnitInstance<AdultUnit> instance = ruleUnit.createInstance(unit);
+        instance.fire();
+        instance.dispose();
+        return unit.getAdults();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.io.impl.ClassPathResource;
+import org.kie.kogito.Addons;
+import org.kie.kogito.event.DataEvent;
+import org.kie.kogito.event.EventPublisher;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.process.impl.DefaultProcessEventListenerConfig;
+import org.kie.kogito.process.impl.DefaultWorkItemHandlerConfig;
+import org.kie.kogito.process.impl.StaticProcessConfig;
+import org.kie.kogito.services.event.impl.BaseEventManager;
+import org.kie.kogito.services.uow.CollectingUnitOfWorkFactory;
+import org.kie.kogito.services.uow.DefaultUnitOfWorkManager;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starts process instances within a unit of work and ends it, which builds and publishes the
+ * process instance events to a publisher discarding them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UnitOfWorkBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int instancesPerUnitOfWork;
+
+    private UnitOfWorkManager unitOfWorkManager;
+    private BpmnProcess process;
+
+    private final List<ProcessInstance<BpmnVariables>> started = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BaseEventManager eventManager = new BaseEventManager();
+        eventManager.setService("http://localhost:8080");
+        eventManager.setAddons(Addons.EMTPY);
+        eventManager.addPublisher(new EventPublisher() {
+
+            @Override
+            public void publish(DataEvent<?> event) {
+                // events are discarded, only building them is measured
+            }
+
+            @Override
+            public void publish(Collection<DataEvent<?>> events) {
+                // events are discarded, only building them is measured
+            }
+        });
+        unitOfWorkManager = new DefaultUnitOfWorkManager(new CollectingUnitOfWorkFactory(), eventManager);
+        StaticProcessConfig config = new StaticProcessConfig(new DefaultWorkItemHandlerConfig(),
+                                                             new DefaultProcessEventListenerConfig(),
+                                                             unitOfWorkManager,
+                                                             null);
+        process = BpmnProcess.from(config, new ClassPathResource("benchmarks/BenchmarkUserTask.bpmn2")).get(0);
+        process.configure();
+    }
+
+    @TearDown(Level.Iteration)
+    public void abortStarted() {
+        UnitOfWork uow = unitOfWorkManager.newUnitOfWork();
+        uow.start();
+        started.forEach(ProcessInstance::abort);
+        uow.end();
+        started.clear();
+    }
+
+    @Benchmark
+    public void startAndEnd() {
+        UnitOfWork uow = unitOfWorkManager.newUnitOfWork();
+        uow.start();
+        for (int i = 0; i < instancesPerUnitOfWork; i++) {
+            ProcessInstance<BpmnVariables> instance = process.createInstance(BpmnVariables.create());
+            instance.start();
+            started.add(instance);
+        }
+        uow.end();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.kogito.benchmarks.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kie.kogito.rules.DataSource;
+import org.kie.kogito.rules.DataStore;
+import org.kie.kogito.rules.RuleUnitData;
+
+public class AdultUnit implements RuleUnitData {
+
+    private final DataStore<Person> persons = DataSource.createStore();
+    private final List<String> adults = new ArrayList<>();
+    private int adultAge = 18;
+
+    public DataStore<Person> getPersons() {
+        return persons;
+    }
+
+    public List<String> getAdults() {
+        return adults;
+    }
+
+    public int getAdultAge() {
+        return adultAge;
+    }
+
+    public void setAdultAge(int adultAge) {
+        this.adultAge = adultAge;
+    }
+}
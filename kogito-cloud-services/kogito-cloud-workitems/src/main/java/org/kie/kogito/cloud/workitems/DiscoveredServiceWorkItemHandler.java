@@ -22,24 +22,30 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Request.Builder;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import org.jbpm.process.instance.impl.workitem.AsyncWorkItemCompletion;
 import org.kie.api.runtime.process.WorkItem;
 import org.kie.api.runtime.process.WorkItemHandler;
+import org.kie.api.runtime.process.WorkItemManager;
 import org.kie.kogito.cloud.kubernetes.client.DefaultKogitoKubeClient;
 import org.kie.kogito.cloud.kubernetes.client.KogitoKubeClient;
 import org.kie.kogito.cloud.workitems.service.discovery.ServiceDiscovery;
 import org.kie.kogito.cloud.workitems.service.discovery.ServiceDiscoveryFactory;
+import org.kie.kogito.cloud.workitems.service.discovery.ServiceEndpointCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +57,7 @@ public abstract class DiscoveredServiceWorkItemHandler implements WorkItemHandle
     protected static final List<String> INTERNAL_FIELDS = Arrays.asList("TaskName", "ActorId", "GroupId", "Priority", "Comment", "Skippable", "Content", "Model", "Namespace");
 
     private Map<String, ServiceInfo> serviceEndpoints;
+    private Map<String, ServiceEndpointCache> discoveredEndpoints;
 
     private OkHttpClient http;
     private ObjectMapper mapper;
@@ -74,6 +81,7 @@ public abstract class DiscoveredServiceWorkItemHandler implements WorkItemHandle
          */ 
         this.kubeClient = kubeClient;
         this.serviceEndpoints = new ConcurrentHashMap<>();
+        this.discoveredEndpoints = new ConcurrentHashMap<>();
     }
     
     /**
@@ -158,6 +166,40 @@ public abstract class DiscoveredServiceWorkItemHandler implements WorkItemHandle
         return this.buildServiceDiscovery().findEndpoint(namespace, service).orElseThrow(() -> new RuntimeException("No endpoint found for service " + service));
     }
 
+    /**
+     * Returns the endpoint to call for given service: the one added to the registry if any, otherwise
+     * one of the endpoints discovered in the namespace. Discovered endpoints are cached for a while
+     * and looked up again in the background, see {@link ServiceEndpointCache}. A service not discovered
+     * yet is looked up on the calling thread.
+     * @param namespace namespace to look up services in
+     * @param service name of the service to look up by - label
+     * @return valid endpoint if found or runtime exception in case of no services found
+     */
+    protected ServiceInfo resolveEndpoint(String namespace, String service) {
+        ServiceInfo registered = serviceEndpoints.get(service);
+        if (registered != null) {
+            return registered;
+        }
+        return endpointCache(namespace).nextNow(service);
+    }
+
+    /**
+     * Asynchronous variant of {@link #resolveEndpoint(String, String)}: a service not discovered yet is
+     * looked up in the background, see {@link ServiceEndpointCache#next(String)}.
+     * @return the endpoint, or a future completed exceptionally when none is found
+     */
+    protected CompletableFuture<ServiceInfo> resolveEndpointAsync(String namespace, String service) {
+        ServiceInfo registered = serviceEndpoints.get(service);
+        if (registered != null) {
+            return CompletableFuture.completedFuture(registered);
+        }
+        return endpointCache(namespace).next(service);
+    }
+
+    private ServiceEndpointCache endpointCache(String namespace) {
+        return discoveredEndpoints.computeIfAbsent(namespace, ns -> new ServiceEndpointCache(s -> this.buildServiceDiscovery().findEndpoints(ns, s)));
+    }
+
     /**
      * Discover valid service to be invoked in given namespace and serviceName. Where serviceName is 
      * considered to be a label on the service .It uses service discovery
@@ -167,6 +209,8 @@ public abstract class DiscoveredServiceWorkItemHandler implements WorkItemHandle
      * @param serviceName name of the service to look up by - label
      * @param method http method to be used when calling a service (supports GET, POST, PUT, DELETE)
      * @return returns map of data that was returned from the service call
+     * @see #discoverAndCall(WorkItem, WorkItemManager, String, String, HttpMethods) to call the service without
+     *      holding the engine thread
      */
     protected Map<String, Object> discoverAndCall(WorkItem workItem, String namespace, String serviceName, HttpMethods method) {
         Map<String, Object> data = new HashMap<>(workItem.getParameters());
@@ -176,10 +220,96 @@ public abstract class DiscoveredServiceWorkItemHandler implements WorkItemHandle
         INTERNAL_FIELDS.forEach(field -> data.remove(field));
 
         // discover service endpoint
-        ServiceInfo endpoint = serviceEndpoints.computeIfAbsent(service, (s) -> findEndpoint(namespace, s));
+        ServiceInfo endpoint = resolveEndpoint(namespace, service);
         LOGGER.debug("Found endpoint for service {} with location {}", service, endpoint);
 
         RequestBody body = produceRequestPayload(data);
+        Request request = produceRequest(endpoint, method, body);
+
+        try (Response response = this.buildHttpClient().newCall(request).execute()) {
+
+            Map<String, Object> results = produceResultsFromResponse(response);
+
+            return results;
+
+        } catch (IOException e) {
+            // the endpoint may have moved, look it up again on next call
+            invalidateEndpoint(namespace, service);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Calls the discovered service and completes the work item with the data returned, or aborts it
+     * when the call fails. Neither the endpoint discovery nor the service call hold the calling thread,
+     * the work item is completed on the engine executor, in its own unit of work. This is the call
+     * handlers are expected to make from {@link #executeWorkItem(WorkItem, WorkItemManager)}.
+     * @param workItem work item that this handler is working on
+     * @param manager work item manager the work item is completed with
+     * @param namespace namespace to look up services in
+     * @param serviceName name of the service to look up by - label
+     * @param method http method to be used when calling a service (supports GET, POST, PUT, DELETE)
+     */
+    protected void discoverAndCall(WorkItem workItem, WorkItemManager manager, String namespace, String serviceName, HttpMethods method) {
+        AsyncWorkItemCompletion completion = AsyncWorkItemCompletion.of(workItem, manager);
+        discoverAndCallAsync(workItem, namespace, serviceName, method).whenComplete((results, error) -> {
+            if (error != null) {
+                LOGGER.error("Error calling service {} for work item {}", workItem.getParameters().get(serviceName), workItem.getId(), error);
+                completion.abort();
+            } else {
+                completion.complete(results);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #discoverAndCall(WorkItem, String, String, HttpMethods)}.
+     * @return the map of data returned from the service call
+     */
+    protected CompletableFuture<Map<String, Object>> discoverAndCallAsync(WorkItem workItem, String namespace, String serviceName, HttpMethods method) {
+        Map<String, Object> data = new HashMap<>(workItem.getParameters());
+        String service = (String) data.remove(serviceName);
+
+        // remove all internal fields before sending
+        INTERNAL_FIELDS.forEach(field -> data.remove(field));
+        RequestBody body = produceRequestPayload(data);
+
+        return resolveEndpointAsync(namespace, service).thenCompose(endpoint -> {
+            LOGGER.debug("Found endpoint for service {} with location {}", service, endpoint);
+            CompletableFuture<Map<String, Object>> results = new CompletableFuture<>();
+            this.buildHttpClient().newCall(produceRequest(endpoint, method, body)).enqueue(new Callback() {
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    // the endpoint may have moved, look it up again on next call
+                    invalidateEndpoint(namespace, service);
+                    results.completeExceptionally(e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (Response r = response) {
+                        results.complete(produceResultsFromResponse(r));
+                    } catch (IOException | RuntimeException e) {
+                        results.completeExceptionally(e);
+                    }
+                }
+            });
+            return results;
+        });
+    }
+
+    /**
+     * Forgets the discovered endpoints of a service so they are looked up again on next call.
+     */
+    protected void invalidateEndpoint(String namespace, String service) {
+        ServiceEndpointCache cache = discoveredEndpoints.get(namespace);
+        if (cache != null) {
+            cache.invalidate(service);
+        }
+    }
+
+    protected Request produceRequest(ServiceInfo endpoint, HttpMethods method, RequestBody body) {
         Request request = null;
 
         switch (method) {
@@ -198,16 +328,7 @@ public abstract class DiscoveredServiceWorkItemHandler implements WorkItemHandle
             default:
                 break;
         }
-
-        try (Response response = this.buildHttpClient().newCall(request).execute()) {
-
-            Map<String, Object> results = produceResultsFromResponse(response);
-
-            return results;
-
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return request;
     }
 
     protected RequestBody produceRequestPayload(Map<String, Object> data) {
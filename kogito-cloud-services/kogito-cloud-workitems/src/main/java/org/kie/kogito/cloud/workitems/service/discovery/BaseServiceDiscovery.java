@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.kie.kogito.cloud.kubernetes.client.KogitoKubeClient;
 import org.kie.kogito.cloud.workitems.ServiceInfo;
@@ -87,4 +88,14 @@ public abstract class BaseServiceDiscovery implements ServiceDiscovery {
         return this.findEndpoint(namespace, service, null);
     }
 
+    @Override
+    public List<ServiceInfo> findEndpoints(String namespace, String service) {
+        LOGGER.debug("About to query for all endpoints in namespace {} with label {}", namespace, service);
+        final List<Map<String, Object>> services = query(namespace, this.buildLabelMap(service, null));
+        if (services.isEmpty()) {
+            LOGGER.warn("Haven't found any endpoint in the namespace {} with label {}", namespace, service);
+        }
+        return services.stream().map(s -> this.buildService(Collections.singletonList(s), service)).collect(Collectors.toList());
+    }
+
 }
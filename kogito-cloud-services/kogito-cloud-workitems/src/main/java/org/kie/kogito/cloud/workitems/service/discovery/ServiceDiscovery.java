@@ -14,6 +14,8 @@
  */
 package org.kie.kogito.cloud.workitems.service.discovery;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.kie.kogito.cloud.workitems.ServiceInfo;
@@ -46,4 +48,16 @@ public interface ServiceDiscovery {
      */
     public Optional<ServiceInfo> findEndpoint(final String namespace, final String service);
 
+    /**
+     * Finds all the endpoints of the services in the namespace with a label key equals to the name of the service,
+     * so calls can be spread among them.
+     * 
+     * @param namespace the namespace where to look for the namespace. Can't be null.
+     * @param service the service name that should match with any label in the Kubernetes Service.
+     * @return the endpoints found, empty if none
+     */
+    default List<ServiceInfo> findEndpoints(final String namespace, final String service) {
+        return findEndpoint(namespace, service).map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.cloud.workitems.service.discovery;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.kie.kogito.cloud.workitems.ServiceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the endpoints discovered for a service so the cluster API is not queried for every call.
+ * <ul>
+ * <li>Endpoints are kept for a time to live, and refreshed in the background when they are about to
+ * expire so callers do not wait for the cluster API while the service is in use.</li>
+ * <li>Services without endpoints, or whose lookup failed, are remembered for a shorter time so a
+ * missing service does not turn every call into a cluster API query.</li>
+ * <li>When several endpoints are found they are handed out in turn.</li>
+ * </ul>
+ * Lookups are shared by the callers asking for the same service at the same time. Background
+ * refreshes run on the given executor, which defaults to a small pool of its own so a lookup never
+ * waits behind the work of the engine executor that is waiting for it.
+ */
+public class ServiceEndpointCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceEndpointCache.class);
+
+    public static final String TTL_PROPERTY = "kogito.service-discovery.ttl";
+    public static final String NEGATIVE_TTL_PROPERTY = "kogito.service-discovery.negative-ttl";
+    public static final String REFRESH_AHEAD_PROPERTY = "kogito.service-discovery.refresh-ahead";
+
+    public static final long DEFAULT_TTL = 60000;
+    public static final long DEFAULT_NEGATIVE_TTL = 5000;
+    public static final long DEFAULT_REFRESH_AHEAD = 10000;
+
+    private final Function<String, List<ServiceInfo>> lookup;
+    private final Executor executor;
+    private final long ttl;
+    private final long negativeTtl;
+    private final long refreshAhead;
+    private final LongSupplier clock;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+
+    public ServiceEndpointCache(Function<String, List<ServiceInfo>> lookup) {
+        this(lookup, RefreshExecutor.INSTANCE);
+    }
+
+    public ServiceEndpointCache(Function<String, List<ServiceInfo>> lookup, Executor executor) {
+        this(lookup, executor,
+             Long.getLong(TTL_PROPERTY, DEFAULT_TTL),
+             Long.getLong(NEGATIVE_TTL_PROPERTY, DEFAULT_NEGATIVE_TTL),
+             Long.getLong(REFRESH_AHEAD_PROPERTY, DEFAULT_REFRESH_AHEAD),
+             System::currentTimeMillis);
+    }
+
+    /**
+     * @param lookup queries the cluster for the endpoints of a service, an empty list meaning none was found
+     * @param executor runs the lookups of {@link #next(String)} and the background refreshes
+     * @param ttl how long in milliseconds the endpoints found are kept
+     * @param negativeTtl how long in milliseconds a service without endpoints is remembered
+     * @param refreshAhead how long in milliseconds before expiring the endpoints are refreshed in the background
+     * @param clock current time in milliseconds
+     */
+    public ServiceEndpointCache(Function<String, List<ServiceInfo>> lookup, Executor executor, long ttl, long negativeTtl, long refreshAhead,
+                                LongSupplier clock) {
+        this.lookup = lookup;
+        this.executor = executor;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.refreshAhead = refreshAhead;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the endpoint to use for the next call to given service. The future completes
+     * exceptionally when no endpoint is known for the service.
+     */
+    public CompletableFuture<ServiceInfo> next(String service) {
+        return next(service, executor);
+    }
+
+    /**
+     * Returns the endpoint to use for the next call to given service, for callers that wait for it
+     * anyway. A service not known yet is looked up on the calling thread rather than on the executor,
+     * only refreshes ahead of expiration run in the background.
+     * @throws RuntimeException when no endpoint is known for the service
+     */
+    public ServiceInfo nextNow(String service) {
+        try {
+            return next(service, Runnable::run).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private CompletableFuture<ServiceInfo> next(String service, Executor loader) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(service);
+        if (entry == null || now >= entry.expiresAt) {
+            return load(service, loader).thenApply(e -> e.next(service));
+        }
+        if (!entry.isEmpty() && now >= entry.expiresAt - refreshAhead) {
+            load(service, executor);
+        }
+        try {
+            return CompletableFuture.completedFuture(entry.next(service));
+        } catch (RuntimeException e) {
+            CompletableFuture<ServiceInfo> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * Forgets the endpoints of given service, for instance after a call to it could not connect.
+     */
+    public void invalidate(String service) {
+        entries.remove(service);
+    }
+
+    private CompletableFuture<Entry> load(String service, Executor loader) {
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = loading.putIfAbsent(service, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            loader.execute(() -> {
+                Entry entry;
+                try {
+                    entry = toEntry(lookup.apply(service));
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error looking for endpoints of service {}", service, e);
+                    entry = toEntry(Collections.emptyList());
+                }
+                Entry current = entries.get(service);
+                if (entry.isEmpty() && current != null && !current.isEmpty() && clock.getAsLong() < current.expiresAt) {
+                    // a failed refresh keeps the endpoints still valid
+                    entry = current;
+                } else {
+                    entries.put(service, entry);
+                }
+                loading.remove(service);
+                future.complete(entry);
+            });
+        } catch (RuntimeException e) {
+            loading.remove(service);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private Entry toEntry(List<ServiceInfo> endpoints) {
+        return new Entry(endpoints, clock.getAsLong() + (endpoints.isEmpty() ? negativeTtl : ttl));
+    }
+
+    private static class RefreshExecutor {
+
+        private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "kogito-service-discovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static class Entry {
+
+        private final List<ServiceInfo> endpoints;
+        private final long expiresAt;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private Entry(List<ServiceInfo> endpoints, long expiresAt) {
+            this.endpoints = endpoints;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isEmpty() {
+            return endpoints.isEmpty();
+        }
+
+        private ServiceInfo next(String service) {
+            if (endpoints.isEmpty()) {
+                throw new RuntimeException("No endpoint found for service " + service);
+            }
+            return endpoints.get(Math.floorMod(cursor.getAndIncrement(), endpoints.size()));
+        }
+    }
+}
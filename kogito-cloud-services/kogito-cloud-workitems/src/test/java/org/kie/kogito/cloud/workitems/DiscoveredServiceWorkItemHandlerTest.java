@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Map;
 
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
@@ -38,7 +39,12 @@ import org.mockito.Mockito;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DiscoveredServiceWorkItemHandlerTest {
@@ -59,6 +65,39 @@ public class DiscoveredServiceWorkItemHandlerTest {
         when(workItem.getParameters()).thenReturn(Collections.singletonMap("service", "test"));
         
         Call call = mock(Call.class);
+        Response response = buildResponse();
+                
+     
+        when(call.execute()).thenReturn(response);
+        when(httpClient.newCall(any())).thenReturn(call);
+        
+        Map<String, Object> results = handler.discoverAndCall(workItem, "", "service", HttpMethods.POST);
+        
+        assertThat(results).isNotNull().containsKey("test").containsValue("fake");
+    }
+
+    @Test
+    public void testGivenEndpointAsync() {
+        DiscoveredServiceWorkItemHandler handler = new TestDiscoveredServiceWorkItemHandler("test", "http://testhost:9000");
+
+        WorkItem workItem = Mockito.mock(WorkItem.class);
+        when(workItem.getId()).thenReturn("1");
+        when(workItem.getParameters()).thenReturn(Collections.singletonMap("service", "test"));
+        WorkItemManager manager = mock(WorkItemManager.class);
+
+        Call call = mock(Call.class);
+        doAnswer(invocation -> {
+            ((Callback) invocation.getArguments()[0]).onResponse(call, buildResponse());
+            return null;
+        }).when(call).enqueue(any(Callback.class));
+        when(httpClient.newCall(any())).thenReturn(call);
+
+        handler.discoverAndCall(workItem, manager, "", "service", HttpMethods.POST);
+
+        verify(manager, timeout(5000)).completeWorkItem(eq("1"), anyMap());
+    }
+
+    private Response buildResponse() {
         ResponseBody body = new ResponseBody() {
             private String content = "{\"test\" : \"fake\"}";
             @Override
@@ -78,15 +117,7 @@ public class DiscoveredServiceWorkItemHandlerTest {
                 return content.length();
             }
         };
-        Response response = new Response.Builder().body(body).protocol(Protocol.HTTP_1_1).message("test").request(new Request.Builder().url("http://localhost:9000").build()).code(200).build();
-                
-     
-        when(call.execute()).thenReturn(response);
-        when(httpClient.newCall(any())).thenReturn(call);
-        
-        Map<String, Object> results = handler.discoverAndCall(workItem, "", "service", HttpMethods.POST);
-        
-        assertThat(results).isNotNull().containsKey("test").containsValue("fake");
+        return new Response.Builder().body(body).protocol(Protocol.HTTP_1_1).message("test").request(new Request.Builder().url("http://localhost:9000").build()).code(200).build();
     }
     
     private class TestDiscoveredServiceWorkItemHandler extends DiscoveredServiceWorkItemHandler {
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.cloud.workitems.service.discovery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.cloud.workitems.ServiceInfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ServiceEndpointCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private ServiceEndpointCache cache(Function<String, List<ServiceInfo>> lookup) {
+        return new ServiceEndpointCache(s -> {
+            lookups.incrementAndGet();
+            return lookup.apply(s);
+        }, Runnable::run, 1000, 100, 200, clock::get);
+    }
+
+    @Test
+    public void testEndpointsAreCachedAndBalanced() {
+        List<ServiceInfo> endpoints = Arrays.asList(new ServiceInfo("http://first", null), new ServiceInfo("http://second", null));
+        ServiceEndpointCache cache = cache(s -> endpoints);
+
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            urls.add(cache.next("test").join().getUrl());
+        }
+
+        assertThat(urls).containsExactly("http://first", "http://second", "http://first", "http://second");
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEndpointsAreRefreshedAheadAndExpire() {
+        ServiceEndpointCache cache = cache(s -> Collections.singletonList(new ServiceInfo("http://" + lookups.get(), null)));
+        assertThat(cache.next("test").join().getUrl()).isEqualTo("http://1");
+
+        // within the refresh ahead window the current endpoint is used while refreshing
+        clock.set(850);
+        assertThat(cache.next("test").join().getUrl()).isEqualTo("http://1");
+        assertThat(cache.next("test").join().getUrl()).isEqualTo("http://2");
+        assertThat(lookups.get()).isEqualTo(2);
+
+        clock.set(850 + 1000);
+        assertThat(cache.next("test").join().getUrl()).isEqualTo("http://3");
+    }
+
+    @Test
+    public void testMissingServiceIsCachedForNegativeTtl() {
+        ServiceEndpointCache cache = cache(s -> Collections.emptyList());
+
+        assertThatThrownBy(() -> cache.next("test").join()).isInstanceOf(CompletionException.class).hasMessageContaining("No endpoint found");
+        assertThatThrownBy(() -> cache.next("test").join()).isInstanceOf(CompletionException.class);
+        assertThat(lookups.get()).isEqualTo(1);
+
+        clock.set(100);
+        assertThatThrownBy(() -> cache.next("test").join()).isInstanceOf(CompletionException.class);
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMissingEndpointsAreLookedUpOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        List<Thread> lookupThreads = new ArrayList<>();
+        ServiceEndpointCache cache = new ServiceEndpointCache(s -> {
+            lookupThreads.add(Thread.currentThread());
+            return Collections.singletonList(new ServiceInfo("http://first", null));
+        }, command -> {
+            throw new RejectedExecutionException();
+        }, 1000, 100, 200, clock::get);
+
+        assertThat(cache.nextNow("test").getUrl()).isEqualTo("http://first");
+        assertThat(lookupThreads).containsExactly(caller);
+
+        cache.invalidate("test");
+        assertThatThrownBy(() -> cache.next("test").join()).isInstanceOf(CompletionException.class).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void testFailedRefreshKeepsValidEndpoints() {
+        ServiceEndpointCache cache = cache(s -> {
+            if (lookups.get() > 1) {
+                throw new IllegalStateException("cluster API unavailable");
+            }
+            return Collections.singletonList(new ServiceInfo("http://first", null));
+        });
+        cache.next("test").join();
+
+        clock.set(900);
+        assertThat(cache.next("test").join().getUrl()).isEqualTo("http://first");
+        assertThat(cache.next("test").join().getUrl()).isEqualTo("http://first");
+
+        cache.invalidate("test");
+        assertThatThrownBy(() -> cache.next("test").join()).isInstanceOf(CompletionException.class);
+    }
+}
@@ -101,6 +101,7 @@ public class ApplicationGenerator {
         if (addonsConfig.useMonitoring()) {
             this.labelers.put(PrometheusLabeler.class, new PrometheusLabeler());
         }
+        this.configGenerator.withMonitoring(addonsConfig.useMonitoring());
         return this;
     }
 
@@ -48,6 +48,7 @@ public class ConfigGenerator {
     private final String targetTypeName;
     private final String targetCanonicalName;
     private Collection<String> addons;
+    private boolean useMonitoring;
 
     public ConfigGenerator(String packageName) {
         this.packageName = packageName;
@@ -89,6 +90,11 @@ public class ConfigGenerator {
         return this;
     }
 
+    public ConfigGenerator withMonitoring(boolean useMonitoring) {
+        this.useMonitoring = useMonitoring;
+        return this;
+    }
+
     public ConfigGenerator withDependencyInjection(DependencyInjectionAnnotator annotator) {
         this.annotator = annotator;
         this.applicationConfigGenerator.withDependencyInjection(annotator);
@@ -109,6 +115,7 @@ public class ConfigGenerator {
         generatePredictionConfigDescriptor().ifPresent(generatedFiles::add);
         generateDecisionConfigDescriptor().ifPresent(generatedFiles::add);
         generateBeanConfig().ifPresent(generatedFiles::add);
+        generateMonitoringConfig().ifPresent(generatedFiles::add);
 
         return generatedFiles;
     }
@@ -174,6 +181,19 @@ public class ConfigGenerator {
                                                           log(c.toString()).getBytes(StandardCharsets.UTF_8)));
     }
 
+    private Optional<GeneratedFile> generateMonitoringConfig() {
+        if (!useMonitoring) {
+            return Optional.empty();
+        }
+        MonitoringConfigGenerator monitoringConfigGenerator = new MonitoringConfigGenerator(packageName);
+        monitoringConfigGenerator.withDependencyInjection(annotator);
+
+        Optional<CompilationUnit> compilationUnit = monitoringConfigGenerator.compilationUnit();
+        return compilationUnit.map(c -> new GeneratedFile(GeneratedFile.Type.APPLICATION_CONFIG,
+                                                          monitoringConfigGenerator.generatedFilePath(),
+                                                          log(c.toString()).getBytes(StandardCharsets.UTF_8)));
+    }
+
     public void withAddons(Collection<String> addons) {
         this.applicationConfigGenerator.withAddons(addons);
     }
@@ -21,6 +21,13 @@ package org.kie.kogito.codegen;
 public class GeneratorConfig {
 
     public static final String KOGITO_REST_RESOURCE_TYPE_PROP = "kogito.rest.resource.type";
+    public static final String KOGITO_PERSISTENCE_WRITE_BEHIND_PROP = "kogito.persistence.write-behind";
+    public static final String KOGITO_EVENTS_ASYNC_PROP = "kogito.events.async";
+    public static final String KOGITO_EVENTS_ASYNC_LANES_PROP = "kogito.events.async.lanes";
+    public static final String KOGITO_EVENTS_ASYNC_CAPACITY_PROP = "kogito.events.async.capacity";
+    public static final String KOGITO_EVENTS_ASYNC_MAX_BATCH_SIZE_PROP = "kogito.events.async.max-batch-size";
+    public static final String KOGITO_EVENTS_ASYNC_OVERFLOW_POLICY_PROP = "kogito.events.async.overflow-policy";
+    public static final String KOGITO_JOBS_IN_MEMORY_TYPE_PROP = "kogito.jobs.in-memory.type";
     
     private GeneratorConfig() {
     }
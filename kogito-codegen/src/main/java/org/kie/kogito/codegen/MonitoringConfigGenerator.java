@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.codegen;
+
+/**
+ * Generates the bean passing the monitoring settings of the application configuration to the
+ * Prometheus addon when the application starts.
+ */
+public class MonitoringConfigGenerator extends TemplatedGenerator {
+
+    private static final String RESOURCE_CDI = "/class-templates/config/CdiMonitoringConfigTemplate.java";
+    private static final String RESOURCE_SPRING = "/class-templates/config/SpringMonitoringConfigTemplate.java";
+
+    public MonitoringConfigGenerator(String packageName) {
+        super(packageName,
+              "MonitoringConfig",
+              RESOURCE_CDI,
+              RESOURCE_SPRING);
+    }
+
+}
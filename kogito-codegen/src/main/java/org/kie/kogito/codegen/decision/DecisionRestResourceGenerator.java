@@ -36,7 +36,6 @@ import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
 import com.github.javaparser.ast.stmt.BlockStmt;
-import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
@@ -102,7 +101,6 @@ public class DecisionRestResourceGenerator {
         interpolateInputType(template);
         interpolateInputData(template);
         interpolateExtractContextMethod(template);
-        modifyDmnMethodForStronglyTyped(template);
         chooseMethodForStronglyTyped(template);
 
         if (useInjection()) {
@@ -232,14 +230,6 @@ public class DecisionRestResourceGenerator {
         }
     }
 
-    private void modifyDmnMethodForStronglyTyped(ClassOrInterfaceDeclaration template) {
-        MethodDeclaration dmnMethod = template.findAll(MethodDeclaration.class, x -> x.getName().toString().equals("dmn")).get(0);
-        if (!isStronglyTyped) {
-            List<ExpressionStmt> convertStatement = dmnMethod.findAll(ExpressionStmt.class, stmt -> stmt.findFirst(MethodCallExpr.class, mce -> mce.getNameAsString().equals("convertToOutputSet")).isPresent());
-            convertStatement.get(0).remove();
-        }
-    }
-
     private MethodDeclaration cloneForDMNResult(MethodDeclaration dmnMethod, String name, String pathName) {
         MethodDeclaration clonedDmnMethod = dmnMethod.clone();
         // a DMNResult-returning method doesn't need the OAS annotations for the $ref of return type.
@@ -294,7 +284,7 @@ public class DecisionRestResourceGenerator {
     }
 
     private void interpolateInputData(ClassOrInterfaceDeclaration template) {
-        String inputData = "variables"; // use "outputSet" if stronglyTyped when drools 7.44 is available
+        String inputData = "variables"; // the strongly typed InputSet is evaluated as is, without converting it to a map
         template.findAll(NameExpr.class, expr -> expr.getNameAsString().equals("$inputData$"))
                 .forEach(expr -> expr.setName(inputData));
     }
@@ -335,7 +325,7 @@ public class DecisionRestResourceGenerator {
         ReturnStmt returnStmt = body.findFirst(ReturnStmt.class).orElseThrow(() -> new NoSuchElementException("Check for null dmn result not found, can't add monitoring to endpoint."));
         NodeList<Statement> statements = body.getStatements();
         String methodArgumentName = method.getParameters().get(0).getNameAsString();
-        statements.addBefore(parseStatement(String.format("SystemMetricsCollector.registerException(\"%s\", %s.getStackTrace()[0].toString());", nameURL, methodArgumentName)), returnStmt);
+        statements.addBefore(parseStatement(String.format("SystemMetricsCollector.registerException(\"%s\", %s);", nameURL, methodArgumentName)), returnStmt);
     }
 
     private void addMonitoringImports(CompilationUnit cu) {
@@ -251,6 +251,7 @@ public abstract class AbstractResourceGenerator {
         }
 
         if (useInjection()) {
+            withConfigInjection(template, annotator);
             annotator.withApplicationComponent(template);
         }
 
@@ -260,6 +261,12 @@ public abstract class AbstractResourceGenerator {
         return clazz.toString();
     }
 
+    /**
+     * Injects the application configuration into the fields of the resource that take it.
+     */
+    protected void withConfigInjection(ClassOrInterfaceDeclaration template, DependencyInjectionAnnotator annotator) {
+    }
+
     protected abstract String getSignalResourceTemplate();
 
     public abstract String getUserTaskResourceTemplate();
@@ -54,7 +54,9 @@ import org.kie.kogito.codegen.ConfigGenerator;
 import org.kie.kogito.codegen.DefaultResourceGeneratorFactory;
 import org.kie.kogito.codegen.GeneratedFile;
 import org.kie.kogito.codegen.GeneratedFile.Type;
+import org.kie.kogito.codegen.GeneratorConfig;
 import org.kie.kogito.codegen.ResourceGeneratorFactory;
+import org.kie.kogito.codegen.TemplatedGenerator;
 import org.kie.kogito.codegen.di.DependencyInjectionAnnotator;
 import org.kie.kogito.codegen.io.CollectedResource;
 import org.kie.kogito.codegen.process.config.ProcessConfigGenerator;
@@ -62,6 +64,8 @@ import org.kie.kogito.codegen.process.events.CloudEventsMessageProducerGenerator
 import org.kie.kogito.codegen.process.events.CloudEventsResourceGenerator;
 import org.kie.kogito.codegen.process.events.TopicsInformationResourceGenerator;
 import org.kie.kogito.rules.units.UndefinedGeneratedRuleUnitVariable;
+import org.kie.kogito.services.event.impl.AsyncPublishingConfig;
+import org.kie.kogito.services.event.impl.OverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
@@ -81,6 +85,7 @@ public class ProcessCodegen extends AbstractGenerator {
     public static final Set<String> SUPPORTED_BPMN_EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(".bpmn", ".bpmn2")));
     private static final String YAML_PARSER = "yml";
     private static final String JSON_PARSER = "json";
+    private static final String REJECTED_EXECUTION_MAPPER_TEMPLATE = "/class-templates/RejectedExecutionExceptionMapperTemplate.java";
     public static final Map<String, String> SUPPORTED_SW_EXTENSIONS;
 
     static {
@@ -311,7 +316,8 @@ public class ProcessCodegen extends AbstractGenerator {
                     applicationCanonicalName
             )
                     .withDependencyInjection(annotator)
-                    .withAddons(addonsConfig);
+                    .withAddons(addonsConfig)
+                    .withWriteBehind(useWriteBehind());
 
             ProcessInstanceGenerator pi = new ProcessInstanceGenerator(
                     workFlowProcess.getPackageName(),
@@ -422,6 +428,17 @@ public class ProcessCodegen extends AbstractGenerator {
                       resourceGenerator.generate());
         }
 
+        // reactive resources share one executor, a single mapper answers for all of them when it is saturated
+        if (rgs.stream().anyMatch(ReactiveResourceGenerator.class::isInstance)) {
+            TemplatedGenerator mapperGenerator = new TemplatedGenerator(packageName,
+                                                                        "RejectedExecutionExceptionMapper",
+                                                                        REJECTED_EXECUTION_MAPPER_TEMPLATE,
+                                                                        REJECTED_EXECUTION_MAPPER_TEMPLATE,
+                                                                        REJECTED_EXECUTION_MAPPER_TEMPLATE);
+            mapperGenerator.compilationUnit()
+                    .ifPresent(cu -> storeFile(Type.REST, mapperGenerator.generatedFilePath(), cu.toString()));
+        }
+
         for (MessageDataEventGenerator messageDataEventGenerator : mdegs) {
             storeFile(Type.CLASS, messageDataEventGenerator.generatedFilePath(),
                       messageDataEventGenerator.generate());
@@ -476,8 +493,37 @@ public class ProcessCodegen extends AbstractGenerator {
     @Override
     public void updateConfig(ConfigGenerator cfg) {
         if (!processes.isEmpty()) {
-            cfg.withProcessConfig(new ProcessConfigGenerator(packageName));
+            cfg.withProcessConfig(new ProcessConfigGenerator(packageName)
+                                          .withAsyncPublishing(asyncPublishing())
+                                          .withInMemoryJobsType(inMemoryJobsType()));
+        }
+    }
+
+    /**
+     * Returns the config of asynchronous event publishing, <code>null</code> unless enabled by
+     * the {@value GeneratorConfig#KOGITO_EVENTS_ASYNC_PROP} application property.
+     */
+    private AsyncPublishingConfig asyncPublishing() {
+        if (context() == null || !context().getApplicationProperty(GeneratorConfig.KOGITO_EVENTS_ASYNC_PROP).map(Boolean::parseBoolean).orElse(false)) {
+            return null;
         }
+        AsyncPublishingConfig config = new AsyncPublishingConfig();
+        context().getApplicationProperty(GeneratorConfig.KOGITO_EVENTS_ASYNC_LANES_PROP).map(Integer::parseInt).ifPresent(config::lanes);
+        context().getApplicationProperty(GeneratorConfig.KOGITO_EVENTS_ASYNC_CAPACITY_PROP).map(Integer::parseInt).ifPresent(config::capacity);
+        context().getApplicationProperty(GeneratorConfig.KOGITO_EVENTS_ASYNC_MAX_BATCH_SIZE_PROP).map(Integer::parseInt).ifPresent(config::maxBatchSize);
+        context().getApplicationProperty(GeneratorConfig.KOGITO_EVENTS_ASYNC_OVERFLOW_POLICY_PROP)
+                .map(policy -> OverflowPolicy.valueOf(policy.trim().toUpperCase().replace('-', '_')))
+                .ifPresent(config::overflowPolicy);
+        return config;
+    }
+
+    private String inMemoryJobsType() {
+        return context() == null ? null : context().getApplicationProperty(GeneratorConfig.KOGITO_JOBS_IN_MEMORY_TYPE_PROP).orElse(null);
+    }
+
+    private boolean useWriteBehind() {
+        return addonsConfig.usePersistence() && context() != null
+                && context().getApplicationProperty(GeneratorConfig.KOGITO_PERSISTENCE_WRITE_BEHIND_PROP).map(Boolean::parseBoolean).orElse(false);
     }
 
     private void storeFile(Type type, String path, String source) {
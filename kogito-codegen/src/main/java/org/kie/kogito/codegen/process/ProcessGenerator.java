@@ -65,6 +65,7 @@ import org.kie.kogito.codegen.BodyDeclarationComparator;
 import org.kie.kogito.codegen.di.DependencyInjectionAnnotator;
 import org.kie.kogito.process.ProcessInstancesFactory;
 import org.kie.kogito.process.impl.AbstractProcess;
+import org.kie.kogito.process.impl.WriteBehindProcessInstancesFactory;
 
 import static com.github.javaparser.StaticJavaParser.parseClassOrInterfaceType;
 
@@ -94,6 +95,7 @@ public class ProcessGenerator {
     private String targetTypeName;
     private DependencyInjectionAnnotator annotator;
     private AddonsConfig addonsConfig = AddonsConfig.DEFAULT;
+    private boolean writeBehind;
 
     private List<CompilationUnit> additionalClasses = new ArrayList<>();
 
@@ -348,7 +350,12 @@ public class ProcessGenerator {
 
         if (addonsConfig.usePersistence()) {
             constructor.addParameter(ProcessInstancesFactory.class.getCanonicalName(), FACTORY);
-            superMethod.addArgument(new NameExpr(FACTORY));
+            if (writeBehind) {
+                superMethod.addArgument(new ObjectCreationExpr(null, parseClassOrInterfaceType(WriteBehindProcessInstancesFactory.class.getCanonicalName()),
+                                                               NodeList.nodeList(new NameExpr(FACTORY))));
+            } else {
+                superMethod.addArgument(new NameExpr(FACTORY));
+            }
         }
         
         constructor.setBody(new BlockStmt()
@@ -533,6 +540,14 @@ public class ProcessGenerator {
         this.addonsConfig = addonsConfig;
         return this;
     }
+
+    /**
+     * Puts a {@link WriteBehindProcessInstancesFactory} in front of the persistence of the process.
+     */
+    public ProcessGenerator withWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+        return this;
+    }
     
     protected boolean useInjection() {
         return this.annotator != null;
@@ -15,8 +15,12 @@
 
 package org.kie.kogito.codegen.process;
 
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
 import org.kie.api.definition.process.WorkflowProcess;
 import org.kie.kogito.codegen.GeneratorContext;
+import org.kie.kogito.codegen.di.DependencyInjectionAnnotator;
+import org.kie.kogito.services.uow.BoundedExecutor;
 
 public class ReactiveResourceGenerator extends ResourceGenerator {
 
@@ -35,4 +39,12 @@ public class ReactiveResourceGenerator extends ResourceGenerator {
     protected String getResourceTemplate() {
         return REACTIVE_RESOURCE_TEMPLATE;
     }
+
+    @Override
+    protected void withConfigInjection(ClassOrInterfaceDeclaration template, DependencyInjectionAnnotator annotator) {
+        template.findAll(FieldDeclaration.class, fd -> fd.getVariable(0).getNameAsString().equals("executorThreads"))
+                .forEach(fd -> annotator.withConfigInjection(fd, BoundedExecutor.THREADS_PROPERTY));
+        template.findAll(FieldDeclaration.class, fd -> fd.getVariable(0).getNameAsString().equals("executorQueueCapacity"))
+                .forEach(fd -> annotator.withConfigInjection(fd, BoundedExecutor.QUEUE_CAPACITY_PROPERTY));
+    }
 }
\ No newline at end of file
@@ -15,17 +15,112 @@
 
 package org.kie.kogito.codegen.process.config;
 
+import java.util.Optional;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NullLiteralExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import org.kie.kogito.codegen.InvalidTemplateException;
 import org.kie.kogito.codegen.TemplatedGenerator;
+import org.kie.kogito.services.event.impl.AsyncPublishingConfig;
+import org.kie.kogito.services.event.impl.OverflowPolicy;
+import org.kie.services.jobs.impl.InMemoryJobService;
+
+import static com.github.javaparser.ast.PUBLIC;
+import static org.kie.kogito.codegen.CodegenUtils.newObject;
 
 public class ProcessConfigGenerator extends TemplatedGenerator {
 
     private static final String RESOURCE_CDI = "/class-templates/config/CdiProcessConfigTemplate.java";
     private static final String RESOURCE_SPRING = "/class-templates/config/SpringProcessConfigTemplate.java";
 
+    private AsyncPublishingConfig asyncPublishing;
+    private String inMemoryJobsType;
+
     public ProcessConfigGenerator(String packageName) {
         super(packageName,
               "ProcessConfig",
               RESOURCE_CDI,
               RESOURCE_SPRING);
     }
+
+    /**
+     * Publishes process events asynchronously with given config, <code>null</code> to publish them
+     * on the thread completing the unit of work.
+     */
+    public ProcessConfigGenerator withAsyncPublishing(AsyncPublishingConfig asyncPublishing) {
+        if (asyncPublishing != null && asyncPublishing.overflowPolicy() == OverflowPolicy.SPILL) {
+            throw new IllegalArgumentException("Spilling events requires a codec, it cannot be configured by properties");
+        }
+        this.asyncPublishing = asyncPublishing;
+        return this;
+    }
+
+    /**
+     * Selects the in memory jobs service processes use when no jobs service is available,
+     * <code>null</code> to leave it to the {@value InMemoryJobService#TYPE_PROPERTY} system property.
+     */
+    public ProcessConfigGenerator withInMemoryJobsType(String inMemoryJobsType) {
+        if (inMemoryJobsType != null && !InMemoryJobService.DEFAULT_TYPE.equals(inMemoryJobsType) && !InMemoryJobService.WHEEL_TYPE.equals(inMemoryJobsType)) {
+            throw new IllegalArgumentException("Unknown in memory jobs service type " + inMemoryJobsType
+                    + ", expected " + InMemoryJobService.DEFAULT_TYPE + " or " + InMemoryJobService.WHEEL_TYPE);
+        }
+        this.inMemoryJobsType = inMemoryJobsType;
+        return this;
+    }
+
+    @Override
+    public Optional<CompilationUnit> compilationUnit() {
+        Optional<CompilationUnit> compilationUnit = super.compilationUnit();
+        compilationUnit
+                .flatMap(u -> u.findFirst(ClassOrInterfaceDeclaration.class))
+                .ifPresent(cls -> {
+                    replaceAsyncPublishingPlaceHolder(cls);
+                    addInMemoryJobsType(cls);
+                });
+        return compilationUnit;
+    }
+
+    private void addInMemoryJobsType(ClassOrInterfaceDeclaration cls) {
+        if (inMemoryJobsType == null) {
+            return;
+        }
+        cls.addMethod("inMemoryJobsType", Modifier.Keyword.PUBLIC)
+                .addAnnotation(Override.class)
+                .setType(String.class)
+                .setBody(new BlockStmt().addStatement(new ReturnStmt(new StringLiteralExpr(inMemoryJobsType))));
+    }
+
+    private void replaceAsyncPublishingPlaceHolder(ClassOrInterfaceDeclaration cls) {
+        NameExpr placeHolder =
+                cls.findFirst(NameExpr.class, e -> e.getNameAsString().equals("$AsyncPublishing$"))
+                        .orElseThrow(() -> new InvalidTemplateException(
+                                typeName(),
+                                templatePath(),
+                                "Missing $AsyncPublishing$ placeholder"));
+
+        placeHolder.getParentNode()
+                .orElseThrow(() -> new InvalidTemplateException(
+                        typeName(),
+                        templatePath(),
+                        "Cannot replace $AsyncPublishing$ placeholder"))
+                .replace(placeHolder, asyncPublishing == null ? new NullLiteralExpr() : newAsyncPublishingConfig());
+    }
+
+    private Expression newAsyncPublishingConfig() {
+        Expression config = newObject(AsyncPublishingConfig.class);
+        config = new MethodCallExpr(config, "lanes").addArgument(new IntegerLiteralExpr(asyncPublishing.lanes()));
+        config = new MethodCallExpr(config, "capacity").addArgument(new IntegerLiteralExpr(asyncPublishing.capacity()));
+        config = new MethodCallExpr(config, "maxBatchSize").addArgument(new IntegerLiteralExpr(asyncPublishing.maxBatchSize()));
+        return new MethodCallExpr(config, "overflowPolicy")
+                .addArgument(new FieldAccessExpr(new NameExpr(OverflowPolicy.class.getCanonicalName()), asyncPublishing.overflowPolicy().name()));
+    }
 }
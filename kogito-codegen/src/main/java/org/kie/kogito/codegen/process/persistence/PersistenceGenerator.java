@@ -69,12 +69,18 @@ public class PersistenceGenerator extends AbstractGenerator {
     public static final String INFINISPAN_PERSISTENCE_TYPE = "infinispan";
     public static final String DEFAULT_PERSISTENCE_TYPE = INFINISPAN_PERSISTENCE_TYPE;
     public static final String MONGODB_PERSISTENCE_TYPE = "mongodb";
+    public static final String JOURNAL_PERSISTENCE_TYPE = "journal";
     
     private static final String TEMPLATE_NAME = "templateName";
     private static final String PATH_NAME = "path";
+    private static final String SYNC_POLICY_NAME = "syncPolicy";
+    private static final String SYNC_NAME = "sync";
     
     private static final String KOGITO_APPLICATION_PROTO = "kogito-application.proto";
     private static final String KOGITO_PERSISTENCE_FS_PATH_PROP = "kogito.persistence.filesystem.path";
+    private static final String KOGITO_PERSISTENCE_FS_SYNC_PROP = "kogito.persistence.filesystem.sync";
+    private static final String KOGITO_PERSISTENCE_JOURNAL_PATH_PROP = "kogito.persistence.journal.path";
+    private static final String KOGITO_PERSISTENCE_JOURNAL_SYNC_PROP = "kogito.persistence.journal.sync";
     
     private static final String KOGITO_PROCESS_INSTANCE_FACTORY_PACKAGE= "org.kie.kogito.persistence.KogitoProcessInstancesFactory";
     private static final String KOGITO_PROCESS_INSTANCE_FACTORY_IMPL= "KogitoProcessInstancesFactoryImpl";
@@ -134,6 +140,8 @@ public class PersistenceGenerator extends AbstractGenerator {
                 fileSystemBasedPersistence(generatedFiles);
             } else if (persistenceType.equals(MONGODB_PERSISTENCE_TYPE)) {
                 mongodbBasedPersistence(generatedFiles);
+            } else if (persistenceType.equals(JOURNAL_PERSISTENCE_TYPE)) {
+                journalBasedPersistence(generatedFiles);
             }
 
         }
@@ -289,7 +297,7 @@ public class PersistenceGenerator extends AbstractGenerator {
         }
     }
 
-    protected void fileSystemBasedPersistence(List<GeneratedFile> generatedFiles) {
+    protected void journalBasedPersistence(List<GeneratedFile> generatedFiles) {
         ClassOrInterfaceDeclaration persistenceProviderClazz = new ClassOrInterfaceDeclaration()
                 .setName(KOGITO_PROCESS_INSTANCE_FACTORY_IMPL)
                 .setModifiers(Modifier.Keyword.PUBLIC)
@@ -300,23 +308,47 @@ public class PersistenceGenerator extends AbstractGenerator {
 
         if (useInjection()) {
             annotator.withApplicationComponent(persistenceProviderClazz);
+            addConfigMethod(persistenceProviderClazz, PATH_NAME, KOGITO_PERSISTENCE_JOURNAL_PATH_PROP, "/tmp");
+            addConfigMethod(persistenceProviderClazz, SYNC_NAME, KOGITO_PERSISTENCE_JOURNAL_SYNC_PROP, "false");
+        }
 
-            FieldDeclaration pathField = new FieldDeclaration().addVariable(new VariableDeclarator()
-                    .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, String.class.getCanonicalName()))))
-                    .setName(PATH_NAME));
-            annotator.withConfigInjection(pathField, KOGITO_PERSISTENCE_FS_PATH_PROP);
-            // allow to inject path for the file system storage
-            BlockStmt pathMethodBody = new BlockStmt();
-            pathMethodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(PATH_NAME), OR_ELSE).addArgument(new StringLiteralExpr("/tmp"))));
+        generatePersistenceProviderClazz(generatedFiles, persistenceProviderClazz, compilationUnit);
+    }
 
-            MethodDeclaration pathMethod = new MethodDeclaration()
-                    .addModifier(Keyword.PUBLIC)
-                    .setName(PATH_NAME)
-                    .setType(String.class)
-                    .setBody(pathMethodBody);
+    private void addConfigMethod(ClassOrInterfaceDeclaration persistenceProviderClazz, String name, String property, String defaultValue) {
+        FieldDeclaration field = new FieldDeclaration().addVariable(new VariableDeclarator()
+                .setType(new ClassOrInterfaceType(null, new SimpleName(Optional.class.getCanonicalName()), NodeList.nodeList(new ClassOrInterfaceType(null, String.class.getCanonicalName()))))
+                .setName(name));
+        annotator.withConfigInjection(field, property);
+
+        BlockStmt methodBody = new BlockStmt();
+        methodBody.addStatement(new ReturnStmt(new MethodCallExpr(new NameExpr(name), OR_ELSE).addArgument(new StringLiteralExpr(defaultValue))));
+
+        MethodDeclaration method = new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(name)
+                .setType(String.class)
+                .setBody(methodBody);
+
+        persistenceProviderClazz.addMember(field);
+        persistenceProviderClazz.addMember(method);
+    }
 
-            persistenceProviderClazz.addMember(pathField);
-            persistenceProviderClazz.addMember(pathMethod);
+    protected void fileSystemBasedPersistence(List<GeneratedFile> generatedFiles) {
+        ClassOrInterfaceDeclaration persistenceProviderClazz = new ClassOrInterfaceDeclaration()
+                .setName(KOGITO_PROCESS_INSTANCE_FACTORY_IMPL)
+                .setModifiers(Modifier.Keyword.PUBLIC)
+                .addExtendedType(KOGITO_PROCESS_INSTANCE_FACTORY_PACKAGE);
+
+        CompilationUnit compilationUnit = new CompilationUnit(KOGITO_PROCESS_INSTANCE_PACKAGE);
+        compilationUnit.getTypes().add(persistenceProviderClazz);
+
+        if (useInjection()) {
+            annotator.withApplicationComponent(persistenceProviderClazz);
+            // allow to inject path for the file system storage
+            addConfigMethod(persistenceProviderClazz, PATH_NAME, KOGITO_PERSISTENCE_FS_PATH_PROP, "/tmp");
+            // allow to inject when the file system storage forces changes to disk
+            addConfigMethod(persistenceProviderClazz, SYNC_POLICY_NAME, KOGITO_PERSISTENCE_FS_SYNC_PROP, "none");
         }
 
         generatePersistenceProviderClazz(generatedFiles, persistenceProviderClazz, compilationUnit);
@@ -177,11 +177,12 @@ public class QueryEndpointGenerator implements FileGenerator {
         statement.findAll(VariableDeclarator.class).forEach(decl -> setUnitGeneric(decl.getType()));
         statement.findAll( MethodCallExpr.class ).forEach( m -> m.addArgument( hasDI ? "unitDTO" : "unitDTO.get()" ) );
 
-        Statement returnStatement = queryMethod
+        BlockStmt queryBody = queryMethod
                 .getBody()
-                .orElseThrow(() -> new NoSuchElementException("A method declaration doesn't contain a body!"))
-                .getStatement(1);
-        returnStatement.findAll(ClassExpr.class).forEach( expr -> expr.setType( queryClassName ) );
+                .orElseThrow(() -> new NoSuchElementException("A method declaration doesn't contain a body!"));
+        queryBody.getStatement(1).findAll(VariableDeclarator.class).forEach(decl -> setGeneric(decl.getType(), returnType));
+        // the query runs within a try block, so that the instance is disposed of when it fails
+        queryBody.findAll(ClassExpr.class).forEach( expr -> expr.setType( queryClassName ) );
 
         MethodDeclaration queryMethodSingle = clazz.getMethodsByName("executeQueryFirst").get(0);
         queryMethodSingle.getParameter(0).setType(ruleUnit.getCanonicalName() + (hasDI ? "" : "DTO"));
@@ -227,7 +228,7 @@ public class QueryEndpointGenerator implements FileGenerator {
         BlockStmt cb = new BlockStmt();
         cb.addStatement(parseStatement(
                 String.format(
-                        "SystemMetricsCollector.registerException(\"%s\", %s.getStackTrace()[0].toString());",
+                        "SystemMetricsCollector.registerException(\"%s\", %s);",
                         nameURL,
                         exceptionName)
         ));
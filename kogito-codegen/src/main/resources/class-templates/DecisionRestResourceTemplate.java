@@ -18,8 +18,11 @@ public class DMNRestResourceTemplate {
 
     Application application;
 
+    private volatile org.kie.kogito.decision.DecisionModel decisionModel;
+
     private static final String KOGITO_DECISION_INFOWARN_HEADER = "X-Kogito-decision-messages";
     private static final String KOGITO_EXECUTION_ID_HEADER = "X-Kogito-execution-id";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
 
     @javax.ws.rs.core.Context
     private org.jboss.resteasy.spi.HttpResponse httpResponse;
@@ -32,14 +35,44 @@ public class DMNRestResourceTemplate {
     @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @io.swagger.v3.oas.annotations.media.Content(mediaType = "application/json",schema = @io.swagger.v3.oas.annotations.media.Schema(ref = "/dmnDefinitions.json#/definitions/InputSet1")), description = "DMN input")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(content = @io.swagger.v3.oas.annotations.media.Content(mediaType = "application/json",schema = @io.swagger.v3.oas.annotations.media.Schema(ref = "/dmnDefinitions.json#/definitions/OutputSet1")), description = "DMN output")
     public $outputType$ dmn($inputType$ variables) {
-        org.kie.kogito.decision.DecisionModel decision = application.decisionModels().getDecisionModel("$modelNamespace$", "$modelName$");
-        OutputSet outputSet = (OutputSet) StronglyTypedUtils.convertToOutputSet(variables, OutputSet.class);
+        org.kie.kogito.decision.DecisionModel decision = decisionModel();
         org.kie.dmn.api.core.DMNResult decisionResult = decision.evaluateAll(DMNJSONUtils.ctx(decision, $inputData$));
         enrichResponseHeaders(decisionResult);
         org.kie.kogito.dmn.rest.DMNResult result = new org.kie.kogito.dmn.rest.DMNResult("$modelNamespace$", "$modelName$", decisionResult);
         return $extractContextMethod$(result);
     }
 
+    @POST
+    @Path("batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public javax.ws.rs.core.StreamingOutput dmn_batch(java.util.List<java.util.Map<String, Object>> inputs) {
+        org.kie.kogito.decision.DecisionModel decision = decisionModel();
+        java.util.Iterator<org.kie.dmn.api.core.DMNContext> contexts = batchContexts(decision, inputs.iterator(), variables -> variables);
+        return output -> {
+            com.fasterxml.jackson.core.JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+            generator.writeStartArray();
+            evaluateBatch(decision, contexts, result -> objectMapper.writeValue(generator, result));
+            generator.writeEndArray();
+            generator.flush();
+        };
+    }
+
+    @POST
+    @Path("batch")
+    @Consumes(APPLICATION_NDJSON)
+    @Produces(APPLICATION_NDJSON)
+    public javax.ws.rs.core.StreamingOutput dmn_batch_ndjson(java.io.InputStream input) {
+        org.kie.kogito.decision.DecisionModel decision = decisionModel();
+        java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(input, java.nio.charset.StandardCharsets.UTF_8));
+        java.util.Iterator<String> lines = reader.lines().filter(line -> !line.trim().isEmpty()).iterator();
+        java.util.Iterator<org.kie.dmn.api.core.DMNContext> contexts = batchContexts(decision, lines, line -> readVariables(line));
+        return output -> evaluateBatch(decision, contexts, result -> {
+            objectMapper.writeValue(output, result);
+            output.write('\n');
+        });
+    }
+
     @GET
     @Produces(MediaType.APPLICATION_XML)
     public String dmn() throws java.io.IOException {
@@ -56,13 +89,74 @@ public class DMNRestResourceTemplate {
         }
     }
 
+    private org.kie.kogito.decision.DecisionModel decisionModel() {
+        org.kie.kogito.decision.DecisionModel model = decisionModel;
+        if (model == null) {
+            model = application.decisionModels().getDecisionModel("$modelNamespace$", "$modelName$");
+            decisionModel = model;
+        }
+        return model;
+    }
+
+    /**
+     * Evaluates the batch once the response is committed, so an input that cannot be read or
+     * evaluated is answered with an error object in its place instead of truncating the response.
+     */
+    private void evaluateBatch(org.kie.kogito.decision.DecisionModel decision,
+                               java.util.Iterator<org.kie.dmn.api.core.DMNContext> contexts,
+                               BatchResultWriter writer) {
+        decision.evaluateAll(contexts,
+                             org.kie.kogito.dmn.DmnBatchExecutor.executor(),
+                             Runtime.getRuntime().availableProcessors(),
+                             (decisionResult, error) -> {
+                                 try {
+                                     if (error != null) {
+                                         writer.write(java.util.Collections.singletonMap("error", String.valueOf(error.getMessage())));
+                                     } else {
+                                         writer.write(new DMNResult("$modelNamespace$", "$modelName$", decisionResult));
+                                     }
+                                 } catch (java.io.IOException e) {
+                                     throw new java.io.UncheckedIOException(e);
+                                 }
+                             });
+    }
+
+    // converts the inputs in next() so a failed conversion is reported for that input only
+    private static <T> java.util.Iterator<org.kie.dmn.api.core.DMNContext> batchContexts(org.kie.kogito.decision.DecisionModel decision,
+                                                                                        java.util.Iterator<T> inputs,
+                                                                                        java.util.function.Function<T, java.util.Map<String, Object>> variables) {
+        return new java.util.Iterator<org.kie.dmn.api.core.DMNContext>() {
+
+            @Override
+            public boolean hasNext() {
+                return inputs.hasNext();
+            }
+
+            @Override
+            public org.kie.dmn.api.core.DMNContext next() {
+                return DMNJSONUtils.ctx(decision, variables.apply(inputs.next()));
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static java.util.Map<String, Object> readVariables(String line) {
+        try {
+            return objectMapper.readValue(line, java.util.Map.class);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchResultWriter {
+
+        void write(Object result) throws java.io.IOException;
+    }
+
     private Object extractContextIfSucceded(DMNResult result){
         if (!result.hasErrors()) {
-            try {
-                return objectMapper.writeValueAsString(result.getDmnContext());
-            } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
+            return streamJson(result.getDmnContext());
         } else {
             throw new DMNEvaluationErrorException(result);
         }
@@ -82,15 +176,16 @@ public class DMNRestResourceTemplate {
                             .addSerializer(org.kie.dmn.feel.lang.types.impl.ComparablePeriod.class,
                                            new org.kie.kogito.dmn.rest.DMNFEELComparablePeriodSerializer()))
             .disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+            .disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .configure(com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private static javax.ws.rs.core.StreamingOutput streamJson(Object value) {
+        return output -> objectMapper.writeValue(output, value);
+    }
 
     private Object extractSingletonDSIfSucceded(DMNResult result) {
         if (!result.hasErrors()) {
-            try {
-                return objectMapper.writeValueAsString(result.getDecisionResults().get(0).getResult());
-            } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
+            return streamJson(result.getDecisionResults().get(0).getResult());
         } else {
             throw new DMNEvaluationErrorException(result);
         }
@@ -2,10 +2,14 @@ package com.myspace.demo;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
+import javax.annotation.PostConstruct;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -28,6 +32,7 @@ import org.kie.kogito.process.ProcessInstanceExecutionException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.workitem.Policies;
+import org.kie.kogito.services.uow.BoundedExecutor;
 import org.kie.kogito.services.uow.UnitOfWorkExecutor;
 import org.kie.kogito.services.identity.StaticIdentityProvider;
 import org.kie.kogito.auth.IdentityProvider;
@@ -39,28 +44,38 @@ public class $Type$ReactiveResource {
 
     Application application;
 
+    Executor executor = BoundedExecutor.sharedExecutor();
+
+    Optional<Integer> executorThreads = Optional.empty();
+
+    Optional<Integer> executorQueueCapacity = Optional.empty();
+
+    @PostConstruct
+    void configureExecutor() {
+        BoundedExecutor.configureShared(executorThreads, executorQueueCapacity);
+    }
+
     @POST()
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
     public CompletionStage<$Type$Output> createResource_$name$(@Context HttpHeaders httpHeaders,
                                                                @QueryParam("businessKey") String businessKey,
                                                                $Type$Input resource) {
-        return CompletableFuture
-            .supplyAsync(
-                () -> UnitOfWorkExecutor
-                    .executeInUnitOfWork(
-                        application.unitOfWorkManager(),
-                        () -> {
-                            $Type$Input inputModel = resource != null ? resource : new $Type$Input();
-                            ProcessInstance<$Type$> pi = process.createInstance(businessKey, inputModel.toModel());
-                            String startFromNode = httpHeaders.getHeaderString("X-KOGITO-StartFromNode");
-                            if (startFromNode != null) {
-                                pi.startFrom(startFromNode);
-                            } else {
-                                pi.start();
-                            }
-                            return pi.checkError().variables().toOutput();
-                        }));
+        return UnitOfWorkExecutor
+            .executeInUnitOfWorkAsync(
+                executor,
+                application.unitOfWorkManager(),
+                () -> {
+                    $Type$Input inputModel = resource != null ? resource : new $Type$Input();
+                    ProcessInstance<$Type$> pi = process.createInstance(businessKey, inputModel.toModel());
+                    String startFromNode = httpHeaders.getHeaderString("X-KOGITO-StartFromNode");
+                    if (startFromNode != null) {
+                        pi.startFrom(startFromNode);
+                    } else {
+                        pi.start();
+                    }
+                    return pi.checkError().variables().toOutput();
+                });
     }
 
     @GET()
@@ -68,12 +83,13 @@ public class $Type$ReactiveResource {
     public CompletionStage<List<$Type$Output>> getResources_$name$() {
         return CompletableFuture
             .supplyAsync(
-                () -> process
-                    .instances()
-                    .values()
-                    .stream()
-                    .map(pi -> pi.variables().toOutput())
-                    .collect(Collectors.toList()));
+                () -> {
+                    try (Stream<ProcessInstance<$Type$>> instances = process.instances().stream()) {
+                        return instances.map(pi -> pi.variables().toOutput())
+                                        .collect(Collectors.toList());
+                    }
+                },
+                executor);
     }
 
     @GET()
@@ -86,26 +102,26 @@ public class $Type$ReactiveResource {
                     .instances()
                     .findById(id, ProcessInstanceReadMode.READ_ONLY)
                     .map(pi -> pi.variables().toOutput())
-                    .orElse(null));
+                    .orElse(null),
+                executor);
     }
 
     @DELETE()
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
     public CompletionStage<$Type$Output> deleteResource_$name$(@PathParam("id") final String id) {
-        return CompletableFuture
-            .supplyAsync(
-                () -> UnitOfWorkExecutor
-                    .executeInUnitOfWork(
-                        application.unitOfWorkManager(),
-                        () -> process
-                            .instances()
-                            .findById(id)
-                            .map(pi -> {
-                                pi.abort();
-                                return pi.checkError().variables().toOutput();
-                            })
-                            .orElse(null)));
+        return UnitOfWorkExecutor
+            .executeInUnitOfWorkAsync(
+                executor,
+                application.unitOfWorkManager(),
+                () -> process
+                    .instances()
+                    .findById(id)
+                    .map(pi -> {
+                        pi.abort();
+                        return pi.checkError().variables().toOutput();
+                    })
+                    .orElse(null));
     }
 
     @PUT()
@@ -113,16 +129,15 @@ public class $Type$ReactiveResource {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public CompletionStage<$Type$Output> updateModel_$name$(@PathParam("id") String id, $Type$ resource) {
-        return CompletableFuture
-            .supplyAsync(
-                () -> UnitOfWorkExecutor
-                    .executeInUnitOfWork(
-                        application.unitOfWorkManager(),
-                        () -> process
-                            .instances()
-                            .findById(id)
-                            .map(pi -> pi.updateVariables(resource).toOutput())
-                            .orElse(null)));
+        return UnitOfWorkExecutor
+            .executeInUnitOfWorkAsync(
+                executor,
+                application.unitOfWorkManager(),
+                () -> process
+                    .instances()
+                    .findById(id)
+                    .map(pi -> pi.updateVariables(resource).toOutput())
+                    .orElse(null));
     }
 
     @GET()
@@ -137,6 +152,7 @@ public class $Type$ReactiveResource {
                     .instances()
                     .findById(id, ProcessInstanceReadMode.READ_ONLY)
                     .map(pi -> pi.workItems(Policies.of(user, groups)))
-                    .orElse(null));
+                    .orElse(null),
+                executor);
     }
 }
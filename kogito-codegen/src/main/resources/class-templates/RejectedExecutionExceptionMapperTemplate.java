@@ -0,0 +1,16 @@
+package com.myspace.demo;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+// the executor of the reactive resources rejects requests right away when its queue is full, let the client retry later
+@Provider
+public class RejectedExecutionExceptionMapper implements ExceptionMapper<RejectedExecutionException> {
+
+    public Response toResponse(RejectedExecutionException e) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", 1).build();
+    }
+}
@@ -3,6 +3,7 @@ package com.myspace.demo;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Consumes;
@@ -72,9 +73,10 @@ public class $Type$Resource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public List<$Type$Output> getResources_$name$() {
-        return process.instances().values().stream()
-                      .map(pi -> pi.variables().toOutput())
-                      .collect(Collectors.toList());
+        try (Stream<ProcessInstance<$Type$>> instances = process.instances().stream()) {
+            return instances.map(pi -> pi.variables().toOutput())
+                            .collect(Collectors.toList());
+        }
     }
 
     @GET
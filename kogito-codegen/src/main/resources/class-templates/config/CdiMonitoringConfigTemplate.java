@@ -0,0 +1,18 @@
+@io.quarkus.runtime.Startup
+@javax.inject.Singleton
+public class MonitoringConfig {
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.monitoring.prometheus.histograms")
+    java.util.Optional<Boolean> histograms;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.monitoring.prometheus.buckets")
+    java.util.Optional<java.lang.String> buckets;
+
+    @org.eclipse.microprofile.config.inject.ConfigProperty(name = "kogito.monitoring.prometheus.process-buckets")
+    java.util.Optional<java.lang.String> processBuckets;
+
+    @javax.annotation.PostConstruct
+    protected void init() {
+        org.kie.kogito.monitoring.system.metrics.DurationMetric.configure(histograms, buckets, processBuckets);
+    }
+}
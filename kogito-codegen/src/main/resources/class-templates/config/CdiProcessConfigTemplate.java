@@ -30,7 +30,8 @@ public class ProcessConfig extends org.kie.kogito.process.impl.AbstractProcessCo
               unitOfWorkManager,
               jobsService,
               eventPublishers,
-              configBean.getServiceUrl());
+              configBean.getServiceUrl(),
+              $AsyncPublishing$);
     }
 
 }
@@ -0,0 +1,17 @@
+@org.springframework.stereotype.Component
+public class MonitoringConfig {
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.monitoring.prometheus.histograms:#{null}}")
+    java.util.Optional<Boolean> histograms;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.monitoring.prometheus.buckets:#{null}}")
+    java.util.Optional<java.lang.String> buckets;
+
+    @org.springframework.beans.factory.annotation.Value("${kogito.monitoring.prometheus.process-buckets:#{null}}")
+    java.util.Optional<java.lang.String> processBuckets;
+
+    @javax.annotation.PostConstruct
+    protected void init() {
+        org.kie.kogito.monitoring.system.metrics.DurationMetric.configure(histograms, buckets, processBuckets);
+    }
+}
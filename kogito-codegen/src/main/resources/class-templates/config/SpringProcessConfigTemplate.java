@@ -28,6 +28,7 @@ public class ProcessConfig extends org.kie.kogito.process.impl.AbstractProcessCo
               unitOfWorkManager,
               jobsService,
               eventPublishers,
-              configBean.getServiceUrl());
+              configBean.getServiceUrl(),
+              $AsyncPublishing$);
     }
 }
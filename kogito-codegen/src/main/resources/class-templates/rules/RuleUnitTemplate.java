@@ -5,6 +5,8 @@ import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.SessionConfigurationImpl;
 import org.drools.core.impl.EnvironmentImpl;
 import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
 import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionsPool;
 import org.kie.kogito.rules.RuleEventListenerConfig;
@@ -12,34 +14,54 @@ import org.kie.kogito.rules.units.impl.AbstractRuleUnit;
 
 public class $Name$ extends AbstractRuleUnit<$ModelName$> {
 
+    private static final int SESSION_POOL_SIZE = $SessionPoolSize$;
+
+    // the rule base is built once, sessions are reset and pushed back into the pool when disposed
+    private final org.drools.core.impl.InternalKnowledgeBase kieBase;
+    private final KieSessionsPool sessionsPool;
+    // shared by all the sessions, the pool keeps one set of sessions per configuration
+    private final SessionConfigurationImpl sessionConfig;
+
     public $Name$(org.kie.kogito.Application app) {
         super($ModelName$.class.getCanonicalName(), app);
+        this.kieBase = createKieBase();
+        this.sessionsPool = SESSION_POOL_SIZE > 0 ? kieBase.newKieSessionsPool(SESSION_POOL_SIZE) : null;
+        this.sessionConfig = new SessionConfigurationImpl();
+        this.sessionConfig.setClockType($ClockType$);
     }
 
     public $InstanceName$ internalCreateInstance($ModelName$ value) {
         return new $InstanceName$( this, value, createLegacySession());
     }
 
-    private KieSession createLegacySession() {
+    private static org.drools.core.impl.InternalKnowledgeBase createKieBase() {
         RuleBaseConfiguration ruleBaseConfig = new RuleBaseConfiguration();
         ruleBaseConfig.setEventProcessingMode($EventProcessingMode$);
-        ruleBaseConfig.setSessionPoolSize($SessionPoolSize$);
-        org.drools.core.impl.InternalKnowledgeBase kb =
-                org.drools.modelcompiler.builder.KieBaseBuilder.createKieBaseFromModel(
-                        new $RuleModelName$(), ruleBaseConfig);
-
-        SessionConfigurationImpl sessionConfig = new SessionConfigurationImpl();
-        sessionConfig.setClockType($ClockType$);
+        return org.drools.modelcompiler.builder.KieBaseBuilder.createKieBaseFromModel(
+                new $RuleModelName$(), ruleBaseConfig);
+    }
 
-        KieSession ks = kb.newKieSession(sessionConfig, new EnvironmentImpl());
+    private KieSession createLegacySession() {
+        KieSession ks = sessionsPool != null ?
+                sessionsPool.newKieSession(sessionConfig) :
+                kieBase.newKieSession(sessionConfig, new EnvironmentImpl());
         ((org.drools.core.impl.KogitoStatefulKnowledgeSessionImpl)ks).setStateless( /*$IsStateful$*/ true );
         ((org.drools.core.impl.KogitoStatefulKnowledgeSessionImpl)ks).setApplication( app );
 
         org.kie.kogito.Config cfg = app.config();
         if (cfg != null) {
+            // pooled sessions keep their listeners
             RuleEventListenerConfig ruleEventListenerConfig = cfg.rule().ruleEventListeners();
-            ruleEventListenerConfig.agendaListeners().forEach(ks::addEventListener);
-            ruleEventListenerConfig.ruleRuntimeListeners().forEach(ks::addEventListener);
+            for (AgendaEventListener listener : ruleEventListenerConfig.agendaListeners()) {
+                if (!ks.getAgendaEventListeners().contains(listener)) {
+                    ks.addEventListener(listener);
+                }
+            }
+            for (RuleRuntimeEventListener listener : ruleEventListenerConfig.ruleRuntimeListeners()) {
+                if (!ks.getRuleRuntimeEventListeners().contains(listener)) {
+                    ks.addEventListener(listener);
+                }
+            }
         }
         return ks;
     }
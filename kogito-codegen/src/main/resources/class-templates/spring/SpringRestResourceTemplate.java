@@ -21,6 +21,7 @@ import java.util.List;
 
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.jsonschema.JsonSchema;
 import org.kie.api.runtime.process.WorkItemNotFoundException;
@@ -87,11 +88,10 @@ public class $Type$Resource {
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public List<$Type$Output> getResources_$name$() {
-        return process.instances()
-                      .values()
-                      .stream()
-                      .map(pi -> pi.variables().toOutput())
-                      .collect(Collectors.toList());
+        try (Stream<ProcessInstance<$Type$>> instances = process.instances().stream()) {
+            return instances.map(pi -> pi.variables().toOutput())
+                            .collect(Collectors.toList());
+        }
     }
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -149,6 +150,15 @@ public class AbstractCodegenTest {
         this.withSpringContext = withSpringContext;
     }
 
+    private Properties applicationProperties;
+
+    /**
+     * Generates the code with given application properties instead of the ones of the test resources.
+     */
+    public void withApplicationProperties(Properties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
     protected Application generateCodeProcessesOnly(String... processes) throws Exception {
         Map<TYPE, List<String>> resourcesTypeMap = new HashMap<>();
         resourcesTypeMap.put(TYPE.PROCESS, Arrays.asList(processes));
@@ -169,7 +179,9 @@ public class AbstractCodegenTest {
 
     protected Application generateCode(Map<TYPE, List<String>> resourcesTypeMap,
             boolean hasRuleUnit) throws Exception {
-        GeneratorContext context = GeneratorContext.ofResourcePath(new File(TEST_RESOURCES));
+        GeneratorContext context = applicationProperties == null ?
+                GeneratorContext.ofResourcePath(new File(TEST_RESOURCES)) :
+                GeneratorContext.ofProperties(applicationProperties);
 
         //Testing based on Quarkus as Default
         context.withBuildContext(Optional.ofNullable(withSpringContext)
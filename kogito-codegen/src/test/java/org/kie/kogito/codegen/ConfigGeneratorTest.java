@@ -16,9 +16,15 @@
 package org.kie.kogito.codegen;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
 
 import org.junit.jupiter.api.Test;
+import org.kie.kogito.codegen.di.CDIDependencyInjectionAnnotator;
 import org.kie.kogito.codegen.process.config.ProcessConfigGenerator;
+import org.kie.kogito.services.event.impl.AsyncPublishingConfig;
+import org.kie.kogito.services.event.impl.OverflowPolicy;
 import org.mockito.Mockito;
 
 import com.github.javaparser.ast.expr.NullLiteralExpr;
@@ -43,4 +49,49 @@ public class ConfigGeneratorTest {
         assertThat(returnedConfigGenerator).isSameAs(generator);
     }
 
+    @Test
+    public void withMonitoring() {
+        final ConfigGenerator generator = new ConfigGenerator("org.kie.kogito.test").withDependencyInjection(new CDIDependencyInjectionAnnotator());
+        assertThat(generator.generate()).extracting(GeneratedFile::relativePath).doesNotContain("org/kie/kogito/test/MonitoringConfig.java");
+
+        generator.withMonitoring(true);
+        assertThat(generator.generate()).extracting(GeneratedFile::relativePath).contains("org/kie/kogito/test/MonitoringConfig.java");
+    }
+
+    @Test
+    public void withAsyncPublishing() {
+        final ProcessConfigGenerator processConfigGenerator = new ProcessConfigGenerator("org.kie.kogito.test");
+        processConfigGenerator.withDependencyInjection(new CDIDependencyInjectionAnnotator());
+        assertThat(processConfigGenerator.compilationUnit().get().toString())
+                .contains("configBean.getServiceUrl(), null)")
+                .doesNotContain("$AsyncPublishing$");
+
+        processConfigGenerator.withAsyncPublishing(new AsyncPublishingConfig().lanes(2).overflowPolicy(OverflowPolicy.DROP_OLDEST));
+        final ConfigGenerator generator = new ConfigGenerator("org.kie.kogito.test")
+                .withDependencyInjection(new CDIDependencyInjectionAnnotator())
+                .withProcessConfig(processConfigGenerator);
+        final GeneratedFile processConfig = generator.generate().stream()
+                .filter(file -> file.relativePath().equals("org/kie/kogito/test/ProcessConfig.java"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertThat(new String(processConfig.contents(), StandardCharsets.UTF_8))
+                .contains("new org.kie.kogito.services.event.impl.AsyncPublishingConfig().lanes(2)")
+                .contains("overflowPolicy(org.kie.kogito.services.event.impl.OverflowPolicy.DROP_OLDEST)");
+    }
+
+    @Test
+    public void withInMemoryJobsType() {
+        final ProcessConfigGenerator processConfigGenerator = new ProcessConfigGenerator("org.kie.kogito.test");
+        processConfigGenerator.withDependencyInjection(new CDIDependencyInjectionAnnotator());
+        assertThat(processConfigGenerator.compilationUnit().get().toString()).doesNotContain("inMemoryJobsType");
+
+        processConfigGenerator.withInMemoryJobsType("wheel");
+        assertThat(processConfigGenerator.compilationUnit().get().toString())
+                .contains("public String inMemoryJobsType()")
+                .contains("return \"wheel\";");
+
+        assertThatThrownBy(() -> processConfigGenerator.withInMemoryJobsType("quartz"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
@@ -16,11 +16,18 @@
 
 package org.kie.kogito.codegen;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
+import org.kie.api.time.SessionClock;
 import org.kie.api.time.SessionPseudoClock;
 import org.kie.kogito.Application;
 import org.kie.kogito.codegen.data.Address;
@@ -38,11 +45,14 @@ import org.kie.kogito.rules.DataStore;
 import org.kie.kogito.rules.RuleUnit;
 import org.kie.kogito.rules.RuleUnitInstance;
 import org.kie.kogito.rules.RuleUnitQuery;
+import org.kie.kogito.rules.units.AbstractRuleUnitInstance;
 
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -156,6 +166,58 @@ public class RuleUnitCompilerTest extends AbstractCodegenTest {
         assertTrue( results.containsAll( asList(45, 47) ) );
     }
 
+    @Test
+    public void testPooledRuleUnitQueryEndpointReleasesSession() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("kogito.rules.\"" + AdultUnit.class.getCanonicalName() + "\".sessions-pool", "1");
+        withApplicationProperties(properties);
+        Application application = generateCodeRulesOnly("org/kie/kogito/codegen/unit/RuleUnitQuery.drl");
+
+        RuleUnit<AdultUnit> unit = application.ruleUnits().create(AdultUnit.class);
+        List<RuleUnitInstance<AdultUnit>> instances = new ArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean();
+        RuleUnit<AdultUnit> recordingUnit = new RuleUnit<AdultUnit>() {
+
+            @Override
+            public String id() {
+                return unit.id();
+            }
+
+            @Override
+            public RuleUnitInstance<AdultUnit> createInstance(AdultUnit data, String name) {
+                RuleUnitInstance<AdultUnit> instance = unit.createInstance(data, name);
+                instances.add(instance);
+                return failing.get() ? new FailingQueryInstance(instance) : instance;
+            }
+        };
+
+        Class<?> endpointClass = testClassLoader().loadClass("org.kie.kogito.codegen.unit.AdultUnitQueryFindAdultsEndpoint");
+        Class<?> dtoClass = testClassLoader().loadClass("org.kie.kogito.codegen.unit.AdultUnitDTO");
+        Object endpoint = endpointClass.getConstructor(RuleUnit.class).newInstance(recordingUnit);
+        Method executeQuery = endpointClass.getMethod("executeQuery", dtoClass);
+        Object dto = dtoClass.getDeclaredConstructor().newInstance();
+        dtoClass.getMethod("setPersons", List.class).invoke(dto, asList(new Person("Mario", 45), new Person("Sofia", 7)));
+
+        assertEquals(asList("Mario"), executeQuery.invoke(endpoint, dto));
+        Object session = session(instances.get(0));
+
+        // the session went back to the pool and was reset, so the same facts are not seen twice
+        assertEquals(asList("Mario"), executeQuery.invoke(endpoint, dto));
+        assertSame(session, session(instances.get(1)));
+
+        failing.set(true);
+        InvocationTargetException failure = assertThrows(InvocationTargetException.class, () -> executeQuery.invoke(endpoint, dto));
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        assertSame(session, session(instances.get(2)));
+        assertSame(session, session(unit.createInstance(new AdultUnit())));
+    }
+
+    private static Object session(RuleUnitInstance<?> instance) throws ReflectiveOperationException {
+        Field runtime = AbstractRuleUnitInstance.class.getDeclaredField("runtime");
+        runtime.setAccessible(true);
+        return runtime.get(instance);
+    }
+
     @Test
     public void testRuleUnitExecutor() throws Exception {
         Application application = generateCodeRulesOnly(
@@ -270,4 +332,43 @@ public class RuleUnitCompilerTest extends AbstractCodegenTest {
             // ignore
         }
     }
+
+    private static class FailingQueryInstance implements RuleUnitInstance<AdultUnit> {
+
+        private final RuleUnitInstance<AdultUnit> delegate;
+
+        FailingQueryInstance(RuleUnitInstance<AdultUnit> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RuleUnit<AdultUnit> unit() {
+            return delegate.unit();
+        }
+
+        @Override
+        public int fire() {
+            return delegate.fire();
+        }
+
+        @Override
+        public List<Map<String, Object>> executeQuery(String query) {
+            throw new IllegalStateException("Query " + query + " failed");
+        }
+
+        @Override
+        public <Q> Q executeQuery(Class<? extends RuleUnitQuery<Q>> query) {
+            throw new IllegalStateException("Query " + query.getSimpleName() + " failed");
+        }
+
+        @Override
+        public <T extends SessionClock> T getClock() {
+            return delegate.getClock();
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+    }
 }
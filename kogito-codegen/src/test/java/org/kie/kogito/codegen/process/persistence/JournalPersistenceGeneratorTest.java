@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.kogito.codegen.process.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.codegen.GeneratedFile;
+import org.kie.kogito.codegen.GeneratorContext;
+import org.kie.kogito.codegen.context.QuarkusKogitoBuildContext;
+import org.kie.kogito.codegen.data.Person;
+import org.kie.kogito.codegen.di.CDIDependencyInjectionAnnotator;
+
+import static com.github.javaparser.StaticJavaParser.parse;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalPersistenceGeneratorTest {
+
+    private static final String TEST_RESOURCES = "src/test/resources";
+    GeneratorContext context = GeneratorContext.ofResourcePath(new File(TEST_RESOURCES));
+    final Path targetDirectory = Paths.get("target");
+
+    @Test
+    void test() {
+        context.withBuildContext(new QuarkusKogitoBuildContext((className -> true)));
+        PersistenceGenerator persistenceGenerator = new PersistenceGenerator(targetDirectory.toFile(), Collections.singleton(Person.class), true, null, null, Collections.emptyList(), PersistenceGenerator.JOURNAL_PERSISTENCE_TYPE);
+        persistenceGenerator.setPackageName(this.getClass().getPackage().getName());
+        persistenceGenerator.setContext(context);
+        persistenceGenerator.setDependencyInjection(new CDIDependencyInjectionAnnotator());
+        Collection<GeneratedFile> generatedFiles = persistenceGenerator.generate();
+
+        Optional<GeneratedFile> generatedClassFile = generatedFiles.stream().filter(gf -> gf.getType() == GeneratedFile.Type.CLASS).findFirst();
+        assertThat(generatedClassFile).isPresent();
+        assertThat(generatedClassFile.get().relativePath()).isEqualTo("org/kie/kogito/persistence/KogitoProcessInstancesFactoryImpl.java");
+
+        CompilationUnit compilationUnit = parse(new ByteArrayInputStream(generatedClassFile.get().contents()));
+        ClassOrInterfaceDeclaration classDeclaration = compilationUnit.findFirst(ClassOrInterfaceDeclaration.class).orElseThrow(() -> new NoSuchElementException("Compilation unit doesn't contain a class or interface declaration!"));
+
+        MethodDeclaration path = classDeclaration.findFirst(MethodDeclaration.class, d -> d.getName().getIdentifier().equals("path")).orElseThrow(() -> new NoSuchElementException("Class declaration doesn't contain a method named \"path\"!"));
+        assertThat(path.getBody().get().toString()).contains("/tmp");
+        MethodDeclaration sync = classDeclaration.findFirst(MethodDeclaration.class, d -> d.getName().getIdentifier().equals("sync")).orElseThrow(() -> new NoSuchElementException("Class declaration doesn't contain a method named \"sync\"!"));
+        assertThat(sync.getBody().get().toString()).contains("false");
+        assertThat(classDeclaration.toString()).contains("kogito.persistence.journal.path", "kogito.persistence.journal.sync");
+    }
+}
@@ -15,25 +15,36 @@
 package org.kogito.workitem.rest;
 
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
+import org.jbpm.process.instance.impl.workitem.AsyncWorkItemCompletion;
 import org.kie.api.runtime.process.WorkItem;
 import org.kie.api.runtime.process.WorkItemHandler;
 import org.kie.api.runtime.process.WorkItemManager;
+import org.kie.kogito.services.uow.BoundedExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +60,14 @@ public class RestWorkItemHandler implements WorkItemHandler {
     public static final String PASSWORD = "password";
     public static final String HOST = "host";
     public static final String PORT = "port";
+    public static final String TIMEOUT = "timeout";
+    public static final String RETRIES = "retries";
+    public static final String RETRY_DELAY = "retryDelay";
+
+    public static final String MAX_CONCURRENT_REQUESTS_PROPERTY = "kogito.rest.max-concurrent-requests";
+    public static final long DEFAULT_RETRY_DELAY = 100;
+
+    private static final int MAX_BACKOFF_SHIFT = 10;
 
     private static final Logger logger = LoggerFactory.getLogger(RestWorkItemHandler.class);
 
@@ -69,9 +88,23 @@ public class RestWorkItemHandler implements WorkItemHandler {
     }
 
     private WebClient client;
+    private final Executor executor;
+    private final int maxConcurrentRequests;
+    private final Map<String, EndpointLimiter> limiters = new ConcurrentHashMap<>();
 
     public RestWorkItemHandler(WebClient client) {
+        this(client, BoundedExecutor.sharedExecutor(), Integer.getInteger(MAX_CONCURRENT_REQUESTS_PROPERTY, 0));
+    }
+
+    /**
+     * @param executor executor the engine is re-entered on once a response arrives
+     * @param maxConcurrentRequests maximum number of requests in flight per host and port, further
+     *        requests wait for one of them to finish. Zero or less means no limit
+     */
+    public RestWorkItemHandler(WebClient client, Executor executor, int maxConcurrentRequests) {
         this.client = client;
+        this.executor = executor;
+        this.maxConcurrentRequests = maxConcurrentRequests;
     }
 
     @Override
@@ -85,6 +118,9 @@ public class RestWorkItemHandler implements WorkItemHandler {
         String password = (String) parameters.remove(PASSWORD);
         String hostProp = (String) parameters.remove(HOST);
         String portProp = (String) parameters.remove(PORT);
+        long timeout = getLongParam(parameters, TIMEOUT, 0);
+        int retries = (int) getLongParam(parameters, RETRIES, 0);
+        long retryDelay = getLongParam(parameters, RETRY_DELAY, DEFAULT_RETRY_DELAY);
         RestWorkItemHandlerResult resultHandler = getParam(parameters, RESULT_HANDLER, RestWorkItemHandlerResult.class);
         // create request
         UnaryOperator<Object> resolver = new RestUnaryOperator(inputModel);
@@ -96,28 +132,74 @@ public class RestWorkItemHandler implements WorkItemHandler {
         if (user != null && !user.trim().isEmpty() && password != null && !password.trim().isEmpty()) {
             request.basicAuthentication(user, password);
         }
-        // execute request
+        if (timeout > 0) {
+            request.timeout(timeout);
+        }
+        // the response is handled on the engine executor, in its own unit of work
+        AsyncWorkItemCompletion completion = AsyncWorkItemCompletion.of(workItem, manager, executor);
         Handler<AsyncResult<HttpResponse<Buffer>>> handler = event -> {
             if (event.failed()) {
                 logger.error("Rest invocation failed", event.cause());
-                manager.abortWorkItem(workItem.getId());
+                completion.abort();
             } else if (event.result().statusCode() >= 300) {
                 logger.error("Rest invocation returns invalid code {}", event.result().statusCode());
-                manager.abortWorkItem(workItem.getId());
+                completion.abort();
             } else {
-                manager.completeWorkItem(workItem.getId(), Collections.singletonMap(RESULT, resultHandler.apply(
-                        inputModel, event.result().bodyAsJsonObject())));
+                HttpResponse<Buffer> response = event.result();
+                completion.complete(() -> Collections.singletonMap(RESULT, resultHandler.apply(
+                        inputModel, response.bodyAsJsonObject())));
             }
         };
+        Consumer<Handler<AsyncResult<HttpResponse<Buffer>>>> sender;
         if (method == HttpMethod.POST || method == HttpMethod.PUT) {
             // if parameters is empty at this stage, assume post content is the whole input model
             // if not, build a map from parameters remaining
             Object body = parameters.isEmpty() ? inputModel : parameters.entrySet().stream().collect(Collectors.toMap(
                     Entry::getKey, e -> resolver.apply(e.getValue())));
-            request.sendJson(body, handler);
+            sender = h -> request.sendJson(body, h);
         } else {
-            request.send(handler);
+            sender = request::send;
         }
+        send(host + ":" + port, sender, 0, retries, retryDelay, handler);
+    }
+
+    private void send(String endpoint, Consumer<Handler<AsyncResult<HttpResponse<Buffer>>>> sender, int attempt, int retries, long retryDelay,
+                      Handler<AsyncResult<HttpResponse<Buffer>>> handler) {
+        EndpointLimiter limiter = maxConcurrentRequests > 0 ? limiters.computeIfAbsent(endpoint, k -> new EndpointLimiter(maxConcurrentRequests)) : null;
+        Handler<AsyncResult<HttpResponse<Buffer>>> callback = event -> {
+            if (limiter != null) {
+                limiter.release();
+            }
+            if (attempt < retries && isRetriable(event)) {
+                long delay = retryDelay << Math.min(attempt, MAX_BACKOFF_SHIFT);
+                logger.warn("Rest invocation to {} failed, retrying in {} ms ({}/{})", endpoint, delay, attempt + 1, retries);
+                RetryScheduler.INSTANCE.schedule(() -> send(endpoint, sender, attempt + 1, retries, retryDelay, handler), delay, TimeUnit.MILLISECONDS);
+            } else {
+                handler.handle(event);
+            }
+        };
+        Runnable request = () -> {
+            try {
+                sender.accept(callback);
+            } catch (RuntimeException e) {
+                // queued and retried requests run on whatever thread released them, report the failure
+                // to this request's handler instead of throwing it there
+                callback.handle(Future.failedFuture(e));
+            }
+        };
+        if (limiter != null) {
+            limiter.submit(request);
+        } else {
+            request.run();
+        }
+    }
+
+    private static boolean isRetriable(AsyncResult<HttpResponse<Buffer>> event) {
+        if (event.failed()) {
+            return true;
+        }
+        int statusCode = event.result().statusCode();
+        return statusCode >= 500 || statusCode == 429;
     }
 
     @Override
@@ -163,4 +245,68 @@ public class RestWorkItemHandler implements WorkItemHandler {
         return type.cast(value);
     }
 
+    private long getLongParam(Map<String, Object> parameters, String paramName, long defaultValue) {
+        Object value = parameters.remove(paramName);
+        if (value == null) {
+            return defaultValue;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+
+    /**
+     * Keeps the number of requests in flight to one endpoint under a limit. Requests over the limit
+     * are queued instead of blocking the caller and sent when a previous one gets its response.
+     */
+    // package scoped to allow unit test
+    static class EndpointLimiter {
+
+        private final int maxConcurrentRequests;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int active;
+
+        EndpointLimiter(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        void submit(Runnable request) {
+            synchronized (this) {
+                if (active >= maxConcurrentRequests) {
+                    waiting.add(request);
+                    return;
+                }
+                active++;
+            }
+            request.run();
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            next.run();
+        }
+
+        synchronized int active() {
+            return active;
+        }
+
+        synchronized int waiting() {
+            return waiting.size();
+        }
+    }
+
+    private static class RetryScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kogito-rest-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
 }
@@ -14,8 +14,10 @@
  */
 package org.kogito.workitem.rest;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -43,6 +45,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -145,7 +149,7 @@ public class RestTaskHandlerTest {
         RestWorkItemHandler handler = new RestWorkItemHandler(
             webClient);
         handler.executeWorkItem(workItem, manager);
-        verify(manager).completeWorkItem(anyString(), argCaptor.capture());
+        verify(manager, timeout(5000)).completeWorkItem(anyString(), argCaptor.capture());
         Map<String, Object> results = argCaptor.getValue();
 
         assertEquals(1, results.size());
@@ -187,6 +191,119 @@ public class RestTaskHandlerTest {
         RestWorkItemHandler handler = new RestWorkItemHandler(
                 webClient);
         handler.executeWorkItem(workItem, manager);
-        verify(manager).abortWorkItem(anyString());
+        verify(manager, timeout(5000)).abortWorkItem(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRetriesFailedInvocation() {
+        WebClient webClient = mock(WebClient.class);
+        ObjectMapper mapper = new ObjectMapper();
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        HttpResponse<Buffer> response = mock(HttpResponse.class);
+        AsyncResult<HttpResponse<Buffer>> failed = mock(AsyncResult.class);
+        when(failed.failed()).thenReturn(true);
+        when(failed.cause()).thenReturn(new IllegalStateException("example"));
+        AsyncResult<HttpResponse<Buffer>> succeeded = mock(AsyncResult.class);
+        when(succeeded.result()).thenReturn(response);
+        when(response.statusCode()).thenReturn(200);
+        when(response.bodyAsJsonObject()).thenReturn(JsonObject.mapFrom(Collections.singletonMap("num", 1)));
+
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results/26/names/pepe"))
+                .thenReturn(request);
+        List<AsyncResult<HttpResponse<Buffer>>> events = new ArrayList<>();
+        events.add(failed);
+        events.add(succeeded);
+        doAnswer((Answer<Void>) invocation -> {
+            Handler<AsyncResult<HttpResponse<Buffer>>> handler =
+                    (Handler<AsyncResult<HttpResponse<Buffer>>>) invocation.getArgument(0);
+            handler.handle(events.remove(0));
+            return null;
+        }).when(request).send(any(Handler.class));
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", new JsonPathResolver("$.id"));
+        parameters.put("name", new JsonPathResolver("$.name"));
+        parameters.put(RestWorkItemHandler.ENDPOINT, "http://localhost:8080/results/{id}/names/{name}");
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+        parameters.put(RestWorkItemHandler.RESULT_HANDLER, new JSonPathResultHandler());
+        parameters.put(RestWorkItemHandler.PARAMETER, mapper.createObjectNode().put("id", 26).put("name", "pepe"));
+        parameters.put(RestWorkItemHandler.RETRIES, 2);
+        parameters.put(RestWorkItemHandler.RETRY_DELAY, "1");
+        parameters.put(RestWorkItemHandler.TIMEOUT, 1000);
+        WorkItem workItem = mock(WorkItem.class);
+        when(workItem.getId()).thenReturn("2");
+        when(workItem.getParameters()).thenReturn(parameters);
+        WorkItemManager manager = mock(WorkItemManager.class);
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, Runnable::run, 1);
+        handler.executeWorkItem(workItem, manager);
+
+        verify(manager, timeout(5000)).completeWorkItem(anyString(), any(Map.class));
+        verify(request, times(2)).send(any(Handler.class));
+        verify(request).timeout(1000);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendFailureAbortsQueuedRequest() {
+        WebClient webClient = mock(WebClient.class);
+        ObjectMapper mapper = new ObjectMapper();
+        HttpRequest<Buffer> request = mock(HttpRequest.class);
+        when(webClient.request(HttpMethod.GET, 8080, "localhost", "/results/26/names/pepe"))
+                .thenReturn(request);
+        List<Handler<AsyncResult<HttpResponse<Buffer>>>> inFlight = new ArrayList<>();
+        doAnswer((Answer<Void>) invocation -> {
+            if (!inFlight.isEmpty()) {
+                throw new IllegalStateException("example");
+            }
+            inFlight.add((Handler<AsyncResult<HttpResponse<Buffer>>>) invocation.getArgument(0));
+            return null;
+        }).when(request).send(any(Handler.class));
+        AsyncResult<HttpResponse<Buffer>> failed = mock(AsyncResult.class);
+        when(failed.failed()).thenReturn(true);
+        when(failed.cause()).thenReturn(new IllegalStateException("example"));
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(RestWorkItemHandler.ENDPOINT, "http://localhost:8080/results/26/names/pepe");
+        parameters.put(RestWorkItemHandler.METHOD, "GET");
+        parameters.put(RestWorkItemHandler.RESULT_HANDLER, new JSonPathResultHandler());
+        parameters.put(RestWorkItemHandler.PARAMETER, mapper.createObjectNode());
+        WorkItem first = mock(WorkItem.class);
+        when(first.getId()).thenReturn("1");
+        when(first.getParameters()).thenReturn(new HashMap<>(parameters));
+        WorkItem second = mock(WorkItem.class);
+        when(second.getId()).thenReturn("2");
+        when(second.getParameters()).thenReturn(new HashMap<>(parameters));
+        WorkItemManager manager = mock(WorkItemManager.class);
+
+        RestWorkItemHandler handler = new RestWorkItemHandler(webClient, Runnable::run, 1);
+        handler.executeWorkItem(first, manager);
+        // queued behind the first request, sent when its response arrives
+        handler.executeWorkItem(second, manager);
+        inFlight.get(0).handle(failed);
+
+        verify(manager, timeout(5000)).abortWorkItem("1");
+        verify(manager, timeout(5000)).abortWorkItem("2");
+    }
+
+    @Test
+    public void testEndpointLimiterQueuesRequests() {
+        RestWorkItemHandler.EndpointLimiter limiter = new RestWorkItemHandler.EndpointLimiter(1);
+        List<String> sent = new ArrayList<>();
+        limiter.submit(() -> sent.add("first"));
+        limiter.submit(() -> sent.add("second"));
+
+        assertEquals(Collections.singletonList("first"), sent);
+        assertEquals(1, limiter.active());
+        assertEquals(1, limiter.waiting());
+
+        limiter.release();
+        assertEquals(2, sent.size());
+        assertEquals(1, limiter.active());
+        assertEquals(0, limiter.waiting());
+
+        limiter.release();
+        assertEquals(0, limiter.active());
     }
 }